@@ -25,6 +25,7 @@
  */
 package filius.gui;
 
+import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
@@ -47,8 +48,10 @@ import filius.gui.netzwerksicht.GUIKabelItem;
 import filius.gui.netzwerksicht.GUIKnotenItem;
 import filius.gui.netzwerksicht.GUINetworkPanel;
 import filius.gui.netzwerksicht.JCablePanel;
+import filius.gui.netzwerksicht.JKabelEinstellungen;
 import filius.gui.netzwerksicht.JKonfiguration;
 import filius.gui.netzwerksicht.JSidebarButton;
+import filius.gui.netzwerksicht.JVerbindungsAuslastungDialog;
 import filius.hardware.Kabel;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.Port;
@@ -698,22 +701,29 @@ public class GUIEvents implements I18n {
     }
 
     /**
-     * context menu in case of clicking on single cable item --> used for deleting a single cable
+     * context menu in case of clicking on single cable item --> used for deleting a single cable and for the cable
+     * settings (data rate, buffer size)
      */
     private void contextMenuCable(final GUIKabelItem cable, int posX, int posY) {
         final JMenuItem pmRemoveCable = new JMenuItem(messages.getString("guievents_msg5"));
         pmRemoveCable.setActionCommand("removecable");
+        final JMenuItem pmCableSettings = new JMenuItem(messages.getString("guievents_msg27"));
+        pmCableSettings.setActionCommand("cablesettings");
 
         JPopupMenu popmen = new JPopupMenu();
         ActionListener al = new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 if (e.getActionCommand() == pmRemoveCable.getActionCommand()) {
                     removeSingleCable(cable);
+                } else if (e.getActionCommand() == pmCableSettings.getActionCommand()) {
+                    JKabelEinstellungen.bearbeiten(JMainFrame.getJMainFrame(), cable.getDasKabel());
                 }
             }
         };
 
         pmRemoveCable.addActionListener(al);
+        pmCableSettings.addActionListener(al);
+        popmen.add(pmCableSettings);
         popmen.add(pmRemoveCable);
 
         GUIContainer.getGUIContainer().getDesignpanel().add(popmen);
@@ -833,9 +843,26 @@ public class GUIEvents implements I18n {
     public void mausPressedActionMode(MouseEvent e) {
         if (e.getButton() == 1) {
             hideAuxPanel(false);
+        } else if (e.getButton() == 3) {
+            kontextMenueNetzwerk(e.getComponent(), e.getX(), e.getY());
         }
     }
 
+    /**
+     * Kontextmenue fuer eine freie Stelle im Netzwerk waehrend des Aktionsmodus
+     */
+    private void kontextMenueNetzwerk(Component komponente, int posX, int posY) {
+        JPopupMenu popmen = new JPopupMenu();
+        JMenuItem pmAuslastung = new JMenuItem(messages.getString("jverbindungsauslastung_msg1"));
+        pmAuslastung.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                JVerbindungsAuslastungDialog.getInstance(JMainFrame.getJMainFrame()).setVisible(true);
+            }
+        });
+        popmen.add(pmAuslastung);
+        popmen.show(komponente, posX, posY);
+    }
+
     public void mausPressedDocuMode(MouseEvent e) {
         if (e.getButton() == 1) {
             hideAuxPanel(true);
@@ -32,13 +32,18 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
 import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.filechooser.FileFilter;
@@ -55,8 +60,11 @@ import filius.gui.quelltextsicht.FrameSoftwareWizard;
 import filius.hardware.Verbindung;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.rahmenprogramm.SzenarioVerwaltung;
+import filius.software.rip.RIPConvergenceTracker;
 import filius.software.system.SystemSoftware;
+import filius.software.system.SystemStart;
 
 public class GUIMainMenu implements Serializable, I18n {
     private static Logger LOG = LoggerFactory.getLogger(GUIMainMenu.class);
@@ -75,6 +83,13 @@ public class GUIMainMenu implements Serializable, I18n {
 
     private JLabel geschwindigkeit;
 
+    private JComboBox<String> zeitraffer;
+
+    /** Fortschritt beim Starten der Knoten im Aktionsmodus */
+    private JProgressBar startFortschritt;
+
+    private SystemStart systemStart;
+
     private int aktuellerModus;
 
     private JButton btAktionsmodus, btEntwurfsmodus, btDokumodus, btOeffnen, btSpeichern, btNeu, btWizard, btHilfe,
@@ -297,7 +312,7 @@ public class GUIMainMenu implements Serializable, I18n {
         geschwindigkeit.setVisible(true);
         geschwindigkeit.setToolTipText(messages.getString("guimainmemu_msg15"));
         geschwindigkeit.setAlignmentX(JLabel.RIGHT_ALIGNMENT);
-        geschwindigkeit.setBounds(612, 10, 120, 44);
+        geschwindigkeit.setBounds(612, 10, 40, 44);
 
         simulationSpeedInPercent = new JSlider(0, 100);
         simulationSpeedInPercent.setToolTipText(messages.getString("guimainmemu_msg16"));
@@ -313,6 +328,38 @@ public class GUIMainMenu implements Serializable, I18n {
         });
         updateLatency();
 
+        zeitraffer = new JComboBox<String>();
+        for (int stufe : SimulationsUhr.ZEITRAFFER_STUFEN) {
+            zeitraffer.addItem(stufe + "x");
+            if (stufe == SimulationsUhr.holeZeitraffer()) {
+                zeitraffer.setSelectedIndex(zeitraffer.getItemCount() - 1);
+            }
+        }
+        // letzter Eintrag: hoechster Zeitraffer und Leerlauf ueberspringen
+        zeitraffer.addItem(messages.getString("guimainmemu_msg20"));
+        if (SimulationsUhr.holeLeerlaufUeberspringen()) {
+            zeitraffer.setSelectedIndex(zeitraffer.getItemCount() - 1);
+        }
+        zeitraffer.setToolTipText(messages.getString("guimainmemu_msg19"));
+        zeitraffer.setBounds(655, 20, 60, 24);
+        zeitraffer.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                int index = zeitraffer.getSelectedIndex();
+                if (index < SimulationsUhr.ZEITRAFFER_STUFEN.length) {
+                    SimulationsUhr.setzeLeerlaufUeberspringen(false);
+                    SimulationsUhr.setzeZeitraffer(SimulationsUhr.ZEITRAFFER_STUFEN[index]);
+                } else {
+                    SimulationsUhr.setzeZeitraffer(SimulationsUhr.MAX_ZEITRAFFER);
+                    SimulationsUhr.setzeLeerlaufUeberspringen(true);
+                }
+            }
+        });
+
+        startFortschritt = new JProgressBar();
+        startFortschritt.setStringPainted(true);
+        startFortschritt.setBounds(510, 50, 222, 12);
+        startFortschritt.setVisible(false);
+
         menupanel.setLayout(null);
 
         menupanel.add(btEntwurfsmodus);
@@ -323,6 +370,8 @@ public class GUIMainMenu implements Serializable, I18n {
         menupanel.add(btSpeichern);
         menupanel.add(simulationSpeedInPercent);
         menupanel.add(geschwindigkeit);
+        menupanel.add(zeitraffer);
+        menupanel.add(startFortschritt);
         if (isSoftwareWizardEnabled()) {
             menupanel.add(btWizard);
         }
@@ -470,11 +519,7 @@ public class GUIMainMenu implements Serializable, I18n {
             btDokumodus.setIcon(new ImageIcon(getClass().getResource("/gfx/allgemein/dokumodus.png")));
             GUIContainer.getGUIContainer().setActiveSite(MODUS_AKTION);
 
-            for (GUIKnotenItem knotenItem : GUIContainer.getGUIContainer().getKnotenItems()) {
-                SystemSoftware system;
-                system = knotenItem.getKnoten().getSystemSoftware();
-                system.starten();
-            }
+            starteSimulation();
 
             btOeffnen.setEnabled(false);
             btNeu.setEnabled(false);
@@ -489,7 +534,52 @@ public class GUIMainMenu implements Serializable, I18n {
         aktuellerModus = mode;
     }
 
+    /**
+     * Die Systemsoftware der Knoten wird ausserhalb des Event-Dispatch-Threads gestartet, damit die Oberflaeche
+     * waehrenddessen bedienbar bleibt. Der Fortschritt wird im Menue angezeigt. Die Kabel werden vorher aktiviert,
+     * damit die Uebertragung bereitsteht, sobald die ersten Knoten senden.
+     */
+    private void starteSimulation() {
+        RIPConvergenceTracker.getTracker().reset();
+        for (GUIKabelItem kabelItem : GUIContainer.getGUIContainer().getCableItems()) {
+            kabelItem.getDasKabel().aktivieren();
+        }
+        List<SystemSoftware> systeme = new LinkedList<SystemSoftware>();
+        for (GUIKnotenItem knotenItem : GUIContainer.getGUIContainer().getKnotenItems()) {
+            systeme.add(knotenItem.getKnoten().getSystemSoftware());
+        }
+
+        startFortschritt.setMaximum(systeme.size());
+        startFortschritt.setValue(0);
+        startFortschritt.setString(messages.getString("guimainmemu_msg18") + " 0/" + systeme.size());
+        startFortschritt.setVisible(true);
+        systemStart = new SystemStart(systeme, new SystemStart.Fortschritt() {
+            public void gestartet(SystemSoftware system, final int anzahlGestartet, final int anzahlGesamt) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        startFortschritt.setValue(anzahlGestartet);
+                        startFortschritt.setString(messages.getString("guimainmemu_msg18") + " " + anzahlGestartet
+                                + "/" + anzahlGesamt);
+                    }
+                });
+            }
+
+            public void beendet() {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        startFortschritt.setVisible(false);
+                    }
+                });
+            }
+        });
+        systemStart.start();
+    }
+
     private void stopSimulation() {
+        if (systemStart != null) {
+            systemStart.abbrechen();
+            systemStart = null;
+        }
         for (GUIKnotenItem knotenItem : GUIContainer.getGUIContainer().getKnotenItems()) {
             SystemSoftware system;
             system = knotenItem.getKnoten().getSystemSoftware();
@@ -497,6 +587,9 @@ public class GUIMainMenu implements Serializable, I18n {
                 system.beenden();
             } catch (Exception e) {}
         }
+        for (GUIKabelItem kabelItem : GUIContainer.getGUIContainer().getCableItems()) {
+            kabelItem.getDasKabel().deaktivieren();
+        }
     }
 
     public JBackgroundPanel getMenupanel() {
@@ -69,6 +69,7 @@ public class GUIApplicationDNSServerWindow extends GUIApplicationWindow {
     private JTextField nsDomainServerField;
 
     private JCheckBox recResolution;
+    private JLabel cacheStatistik;
     private JButton buttonStart;
 
     private DNSConfigTable aRecordsTable;
@@ -132,6 +133,10 @@ public class GUIApplicationDNSServerWindow extends GUIApplicationWindow {
         });
         hBox.add(Box.createHorizontalStrut(20));
         hBox.add(recResolution);
+
+        cacheStatistik = new JLabel();
+        hBox.add(Box.createHorizontalStrut(20));
+        hBox.add(cacheStatistik);
         return hBox;
     }
 
@@ -521,11 +526,14 @@ public class GUIApplicationDNSServerWindow extends GUIApplicationWindow {
     }
 
     private void aktualisieren() {
-        if (((DNSServer) holeAnwendung()).isAktiv()) {
+        DNSServer dnsServer = (DNSServer) holeAnwendung();
+        if (dnsServer.isAktiv()) {
             buttonStart.setText(messages.getString("dnsserver_msg14"));
         } else {
             buttonStart.setText(messages.getString("dnsserver_msg1"));
         }
+        cacheStatistik.setText(String.format(messages.getString("dnsserver_msg24"), dnsServer.holeCacheTreffer(),
+                dnsServer.holeCacheFehlschlaege()));
         updateARecordsTable();
         updateMXRecordsTable();
         updateNSRecordsTable();
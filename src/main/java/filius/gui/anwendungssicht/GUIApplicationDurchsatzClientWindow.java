@@ -0,0 +1,205 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.gui.anwendungssicht;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Observable;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+
+import filius.software.clientserver.DurchsatzClient;
+
+/**
+ * <p>
+ * Diese Klasse stellt die Benutzungsoberflaeche fuer das Client-Programm der Durchsatzmessung zur Verfuegung. Hier
+ * werden Server, Protokoll, Nachrichtengroesse, Anzahl der Datenstroeme, Dauer und fuer UDP die Datenrate eingestellt.
+ * </p>
+ * <p>
+ * Die Ergebnisse je Intervall werden nach dem Beobachtermuster von der Anwendung gemeldet und im Ausgabebereich
+ * angezeigt.
+ * </p>
+ */
+public class GUIApplicationDurchsatzClientWindow extends GUIApplicationWindow {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] PROTOKOLLE = { "TCP", "UDP" };
+
+    /** Textfeld fuer die Ausgabe der Messergebnisse sowie fuer Fehlermeldungen */
+    private JTextArea taAusgabe;
+
+    private JTextField tfServerAdresse;
+    private JTextField tfServerPort;
+    private JComboBox cbProtokoll;
+    private JTextField tfNachrichtenGroesse;
+    private JTextField tfStroeme;
+    private JTextField tfDauer;
+    private JTextField tfDatenrate;
+
+    /** Schaltflaeche zum Starten bzw. Abbrechen einer Messung */
+    private JButton btStartStop;
+
+    /**
+     * Standard-Konstruktor, der automatisch zur Erzeugung der graphischen Benutzungsoberflaeche fuer diese Anwendung
+     * aufgerufen wird.
+     */
+    public GUIApplicationDurchsatzClientWindow(GUIDesktopPanel desktop, String appName) {
+        super(desktop, appName);
+        initialisiereKomponenten();
+    }
+
+    /** Methode zur Initialisierung der graphischen Komponenten */
+    private void initialisiereKomponenten() {
+        JScrollPane scrollPane;
+        Box hauptBox;
+
+        hauptBox = Box.createVerticalBox();
+        hauptBox.setBorder(BorderFactory.createEmptyBorder(2, 2, 2, 2));
+        hauptBox.add(Box.createVerticalStrut(5));
+
+        tfServerAdresse = new JTextField();
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg1"), tfServerAdresse);
+        tfServerPort = new JTextField();
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg2"), tfServerPort);
+        cbProtokoll = new JComboBox(PROTOKOLLE);
+        cbProtokoll.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                tfDatenrate.setEnabled(cbProtokoll.getSelectedIndex() == 1);
+            }
+        });
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg3"), cbProtokoll);
+        tfNachrichtenGroesse = new JTextField();
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg4"), tfNachrichtenGroesse);
+        tfStroeme = new JTextField();
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg5"), tfStroeme);
+        tfDauer = new JTextField();
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg6"), tfDauer);
+        tfDatenrate = new JTextField();
+        fuegeZeileHinzu(hauptBox, messages.getString("durchsatzclient_msg7"), tfDatenrate);
+
+        btStartStop = new JButton(messages.getString("durchsatzclient_msg8"));
+        btStartStop.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                DurchsatzClient client = (DurchsatzClient) holeAnwendung();
+                if (e.getActionCommand().equals("start")) {
+                    try {
+                        client.setZielIPAdresse(tfServerAdresse.getText());
+                        client.setZielPort(Integer.parseInt(tfServerPort.getText().trim()));
+                        client.setUdp(cbProtokoll.getSelectedIndex() == 1);
+                        client.setNachrichtenGroesse(Integer.parseInt(tfNachrichtenGroesse.getText().trim()));
+                        client.setStroeme(Integer.parseInt(tfStroeme.getText().trim()));
+                        client.setDauer(Integer.parseInt(tfDauer.getText().trim()));
+                        client.setDatenrate(Integer.parseInt(tfDatenrate.getText().trim()));
+                        client.starteMessung();
+                    } catch (NumberFormatException ex) {
+                        taAusgabe.append(messages.getString("durchsatzclient_msg10") + "\n");
+                    }
+                } else {
+                    client.stoppeMessung();
+                }
+                aktualisieren();
+            }
+        });
+        hauptBox.add(btStartStop);
+        hauptBox.add(Box.createVerticalStrut(5));
+
+        taAusgabe = new JTextArea();
+        taAusgabe.setEditable(false);
+        scrollPane = new JScrollPane(taAusgabe);
+        scrollPane.setPreferredSize(new Dimension(500, 250));
+        hauptBox.add(scrollPane);
+        hauptBox.add(Box.createVerticalStrut(5));
+
+        add(hauptBox, BorderLayout.CENTER);
+
+        DurchsatzClient client = (DurchsatzClient) holeAnwendung();
+        tfServerAdresse.setText(client.getZielIPAdresse());
+        tfServerPort.setText("" + client.getZielPort());
+        cbProtokoll.setSelectedIndex(client.isUdp() ? 1 : 0);
+        tfNachrichtenGroesse.setText("" + client.getNachrichtenGroesse());
+        tfStroeme.setText("" + client.getStroeme());
+        tfDauer.setText("" + client.getDauer());
+        tfDatenrate.setText("" + client.getDatenrate());
+        aktualisieren();
+    }
+
+    private void fuegeZeileHinzu(Box hauptBox, String beschriftung, JComponent eingabe) {
+        Box hBox = Box.createHorizontalBox();
+        JLabel label = new JLabel(beschriftung);
+        label.setPreferredSize(new Dimension(180, label.getHeight()));
+        hBox.add(label);
+        eingabe.setPreferredSize(new Dimension(100, 20));
+        hBox.add(eingabe);
+        hauptBox.add(hBox);
+        hauptBox.add(Box.createVerticalStrut(5));
+    }
+
+    /**
+     * Methode zum aktualisieren der Komponenten der graphischen Benutzungsoberflaeche in Abhaengigkeit vom Zustand der
+     * Anwendung
+     */
+    private void aktualisieren() {
+        boolean aktiv = ((DurchsatzClient) holeAnwendung()).istMessungAktiv();
+
+        if (aktiv) {
+            btStartStop.setText(messages.getString("durchsatzclient_msg9"));
+            btStartStop.setActionCommand("stop");
+        } else {
+            btStartStop.setText(messages.getString("durchsatzclient_msg8"));
+            btStartStop.setActionCommand("start");
+        }
+        tfServerAdresse.setEditable(!aktiv);
+        tfServerPort.setEditable(!aktiv);
+        cbProtokoll.setEnabled(!aktiv);
+        tfNachrichtenGroesse.setEditable(!aktiv);
+        tfStroeme.setEditable(!aktiv);
+        tfDauer.setEditable(!aktiv);
+        tfDatenrate.setEditable(!aktiv);
+        tfDatenrate.setEnabled(cbProtokoll.getSelectedIndex() == 1);
+    }
+
+    /**
+     * Diese Methode wird automatisch ausgefuehrt, wenn eine Nachricht an den Beobachter der Anwendung gesendet wird.
+     * Der Parameter arg enthaelt die Nachricht, die von der Anwendung verschickt wurde.
+     */
+    public void update(Observable o, Object arg) {
+        if (arg != null) {
+            taAusgabe.append(arg.toString() + "\n");
+        }
+        aktualisieren();
+    }
+}
@@ -202,7 +202,8 @@ public class GUIApplicationFileExplorerWindow extends GUIApplicationWindow {
                                             messages.getString("fileexplorer_msg18"), JOptionPane.YES_NO_OPTION);
 
                                     if (loeschAbfrage == JOptionPane.YES_OPTION) {
-                                        aktuellerOrdner.remove(selektierteNode);
+                                        holeAnwendung().getSystemSoftware().getDateisystem()
+                                                .loescheKnoten(selektierteNode);
                                         aktualisieren();
                                     }
                                 }
@@ -226,10 +227,12 @@ public class GUIApplicationFileExplorerWindow extends GUIApplicationWindow {
                                                 JOptionPane.ERROR_MESSAGE);
                                     } else {
                                         try {
-                                            aktuellerOrdner.add(tiefesKopieren(zwischenAblageNode));
+                                            Dateisystem dateisystem = holeAnwendung().getSystemSoftware()
+                                                    .getDateisystem();
+                                            dateisystem.fuegeKnotenEin(aktuellerOrdner,
+                                                    tiefesKopieren(zwischenAblageNode));
                                             if (lastSelectedPasteOperation == OpType.CUT_AND_PASTE) {
-                                                ((DefaultMutableTreeNode) zwischenAblageNode.getParent())
-                                                        .remove(zwischenAblageNode);
+                                                dateisystem.loescheKnoten(zwischenAblageNode);
                                                 zwischenAblageNode = null;
                                             }
                                         } catch (ClassNotFoundException | IOException e1) {
@@ -246,14 +249,8 @@ public class GUIApplicationFileExplorerWindow extends GUIApplicationWindow {
                                     if (neuerName != null && !neuerName.trim().isEmpty()) {
                                         if (!holeAnwendung().getSystemSoftware().getDateisystem()
                                                 .dateiVorhanden(aktuellerOrdner, neuerName)) {
-                                            if (selektierteNode.getUserObject().getClass().equals(Datei.class)) {
-                                                /* Datei umbenennen */
-                                                Datei dat = (Datei) selektierteNode.getUserObject();
-                                                dat.setName(neuerName);
-                                            } else {
-                                                /* Ordner umbenennen */
-                                                selektierteNode.setUserObject(neuerName);
-                                            }
+                                            holeAnwendung().getSystemSoftware().getDateisystem()
+                                                    .benenneUm(selektierteNode, neuerName);
                                             aktualisieren();
                                         }
                                     }
@@ -38,8 +38,6 @@ import javax.swing.JPanel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import filius.rahmenprogramm.Base64;
-import filius.rahmenprogramm.Information;
 import filius.software.system.Betriebssystem;
 import filius.software.system.Datei;
 
@@ -70,7 +68,6 @@ public class GUIApplicationImageViewerWindow extends GUIApplicationWindow {
         DMTNFileChooser fc;
         int rueckgabe;
         Datei aktuelleDatei;
-        String path;
         ImageIcon image;
 
         fc = new DMTNFileChooser((Betriebssystem) holeAnwendung().getSystemSoftware());
@@ -81,11 +78,7 @@ public class GUIApplicationImageViewerWindow extends GUIApplicationWindow {
                     fc.getAktuellerDateiname());
             if (aktuelleDatei != null) {
                 this.setTitle(aktuelleDatei.getName());
-                Base64.decodeToFile(aktuelleDatei.getDateiInhalt(),
-                        Information.getInformation().getTempPfad() + aktuelleDatei.getName());
-
-                path = Information.getInformation().getTempPfad() + aktuelleDatei.getName();
-                image = new ImageIcon(path);
+                image = new ImageIcon(aktuelleDatei.holeBinaerDaten());
                 JLabel titelgrafik = new JLabel(image);
                 backPanel.add(titelgrafik, BorderLayout.CENTER);
                 backPanel.updateUI();
@@ -41,7 +41,6 @@ import javax.swing.JTextArea;
 import javax.swing.JTextField;
 
 import filius.software.clientserver.ServerAnwendung;
-import filius.software.clientserver.ServerBaustein;
 
 /**
  * <p>
@@ -140,9 +139,9 @@ public class GUIApplicationServerBausteinWindow extends GUIApplicationWindow {
      * Anwendung
      */
     public void aktualisieren() {
-        ServerBaustein server;
+        ServerAnwendung server;
 
-        server = (ServerBaustein) holeAnwendung();
+        server = (ServerAnwendung) holeAnwendung();
         if (server.isAktiv()) {
             tfPort.setEditable(false);
             bStartStop.setText(messages.getString("serverbaustein_msg2"));
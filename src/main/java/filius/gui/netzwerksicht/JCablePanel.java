@@ -31,6 +31,7 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Stroke;
 import java.awt.geom.QuadCurve2D;
 import java.awt.geom.Rectangle2D;
 import java.util.Observable;
@@ -62,6 +63,9 @@ public class JCablePanel extends JPanel implements Observer {
     private final Color farbeBlinken = new Color(0, 255, 64);
     private final Color farbeFailure = Color.RED;
 
+    /** Ob die Auslastung der Kabel farbig unterlegt wird */
+    private static volatile boolean auslastungAnzeigen = false;
+
     public JCablePanel() {
         super();
         this.setOpaque(false);
@@ -134,12 +138,37 @@ public class JCablePanel extends JPanel implements Observer {
         QuadCurve2D myCurve = new QuadCurve2D.Double(x1 - this.getX(), y1 - this.getY(), kp1, kp2, x2 - this.getX(),
                 y2 - this.getY());
 
+        if (auslastungAnzeigen && getKabelItem() != null && getKabelItem().getDasKabel() != null) {
+            double auslastung = getKabelItem().getDasKabel().holeAuslastung();
+            if (auslastung > 0) {
+                Stroke stroke = g2.getStroke();
+                g2.setStroke(new BasicStroke(8, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                g2.setColor(auslastungsFarbe(auslastung));
+                g2.draw(myCurve);
+                g2.setStroke(stroke);
+                g2.setColor(kabelFarbe);
+            }
+        }
+
         // Kurve malen
         g2.draw(myCurve);
         this.currCurve = myCurve;
         this.setOpaque(false);
     }
 
+    public static void setzeAuslastungAnzeigen(boolean anzeigen) {
+        auslastungAnzeigen = anzeigen;
+    }
+
+    /**
+     * Halbtransparente Farbe fuer eine Auslastung zwischen 0 (gruen) und 1 (rot)
+     */
+    public static Color auslastungsFarbe(double auslastung) {
+        float anteil = (float) Math.max(0, Math.min(1, auslastung));
+        Color farbe = Color.getHSBColor((1 - anteil) / 3, 0.9f, 0.95f);
+        return new Color(farbe.getRed(), farbe.getGreen(), farbe.getBlue(), 140);
+    }
+
     private boolean isWireless() {
         return getKabelItem() != null && getKabelItem().getDasKabel() != null
                 && getKabelItem().getDasKabel().getWireless();
@@ -0,0 +1,78 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.gui.netzwerksicht;
+
+import java.awt.Component;
+import java.awt.GridLayout;
+
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import filius.hardware.Verbindung;
+import filius.rahmenprogramm.I18n;
+
+/**
+ * Dialog zum Einstellen der Datenrate und der Puffergroesse einer Verbindung. Der Wert 0 steht jeweils fuer
+ * "unbegrenzt"; damit verhaelt sich die Verbindung wie bisher.
+ */
+public class JKabelEinstellungen implements I18n {
+
+    private static final int MAX_DATENRATE = 10000000;
+    private static final int MAX_PUFFER = 100000;
+
+    private JKabelEinstellungen() {}
+
+    /**
+     * Zeigt den Dialog modal an und uebernimmt die Werte, wenn er mit OK bestaetigt wird.
+     * 
+     * @return ob die Einstellungen uebernommen wurden
+     */
+    public static boolean bearbeiten(Component owner, Verbindung verbindung) {
+        JSpinner datenrate = new JSpinner(
+                new SpinnerNumberModel(Math.min(verbindung.getDatenrate(), MAX_DATENRATE), 0, MAX_DATENRATE, 64));
+        JSpinner pufferGroesse = new JSpinner(
+                new SpinnerNumberModel(Math.min(verbindung.getPufferGroesse(), MAX_PUFFER), 0, MAX_PUFFER, 1));
+
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel(messages.getString("jkabeleinstellungen_msg2")));
+        panel.add(datenrate);
+        panel.add(new JLabel(messages.getString("jkabeleinstellungen_msg3")));
+        panel.add(pufferGroesse);
+        panel.add(new JLabel(messages.getString("jkabeleinstellungen_msg4")));
+
+        int auswahl = JOptionPane.showConfirmDialog(owner, panel, messages.getString("jkabeleinstellungen_msg1"),
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (auswahl != JOptionPane.OK_OPTION) {
+            return false;
+        }
+        verbindung.setDatenrate(((Number) datenrate.getValue()).intValue());
+        verbindung.setPufferGroesse(((Number) pufferGroesse.getValue()).intValue());
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.gui.netzwerksicht;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.BorderFactory;
+import javax.swing.JCheckBox;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableCellRenderer;
+
+import filius.gui.GUIContainer;
+import filius.rahmenprogramm.I18n;
+
+/**
+ * Nicht-modaler Dialog, der im Aktionsmodus die am staerksten belasteten Verbindungen auflistet. Die Tabelle wird
+ * jede Sekunde aktualisiert und ist zu Beginn absteigend nach der Auslastung sortiert. Solange der Dialog sichtbar
+ * ist, kann die Auslastung zusaetzlich farbig an den Kabeln angezeigt werden.
+ */
+@SuppressWarnings("serial")
+public class JVerbindungsAuslastungDialog extends JDialog implements I18n {
+
+    private static final int AKTUALISIERUNG_MILLIS = 1000;
+
+    private static JVerbindungsAuslastungDialog instance = null;
+
+    private VerbindungsAuslastungModell modell = new VerbindungsAuslastungModell();
+    private JCheckBox kabelFaerben;
+    private Timer aktualisierung;
+
+    public static JVerbindungsAuslastungDialog getInstance(JFrame owner) {
+        if (instance == null) {
+            instance = new JVerbindungsAuslastungDialog(owner);
+        }
+        return instance;
+    }
+
+    private JVerbindungsAuslastungDialog(JFrame owner) {
+        super(owner, messages.getString("jverbindungsauslastung_msg1"), false);
+        setDefaultCloseOperation(HIDE_ON_CLOSE);
+
+        JTable tabelle = new JTable(modell);
+        tabelle.setAutoCreateRowSorter(true);
+        List<RowSorter.SortKey> sortierung = new ArrayList<RowSorter.SortKey>();
+        sortierung.add(new RowSorter.SortKey(VerbindungsAuslastungModell.SPALTE_AUSLASTUNG, SortOrder.DESCENDING));
+        tabelle.getRowSorter().setSortKeys(sortierung);
+        tabelle.getColumnModel().getColumn(VerbindungsAuslastungModell.SPALTE_VERBINDUNG).setPreferredWidth(200);
+        tabelle.getColumnModel().getColumn(VerbindungsAuslastungModell.SPALTE_AUSLASTUNG)
+                .setCellRenderer(new DefaultTableCellRenderer() {
+                    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                            boolean hasFocus, int row, int column) {
+                        Component zelle = super.getTableCellRendererComponent(table, value, isSelected, hasFocus,
+                                row, column);
+                        if (!isSelected && value instanceof Double) {
+                            Color farbe = JCablePanel.auslastungsFarbe((Double) value / 100);
+                            zelle.setBackground(new Color(farbe.getRed(), farbe.getGreen(), farbe.getBlue()));
+                        } else if (!isSelected) {
+                            zelle.setBackground(table.getBackground());
+                        }
+                        return zelle;
+                    }
+                });
+
+        kabelFaerben = new JCheckBox(messages.getString("jverbindungsauslastung_msg10"));
+        kabelFaerben.setSelected(true);
+        kabelFaerben.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        kabelFaerben.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                JCablePanel.setzeAuslastungAnzeigen(kabelFaerben.isSelected());
+                aktualisieren();
+            }
+        });
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(new JScrollPane(tabelle), BorderLayout.CENTER);
+        getContentPane().add(kabelFaerben, BorderLayout.SOUTH);
+        setSize(760, 320);
+        setLocationRelativeTo(owner);
+
+        aktualisierung = new Timer(AKTUALISIERUNG_MILLIS, new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                aktualisieren();
+            }
+        });
+    }
+
+    public void setVisible(boolean sichtbar) {
+        if (sichtbar) {
+            JCablePanel.setzeAuslastungAnzeigen(kabelFaerben.isSelected());
+            aktualisieren();
+            aktualisierung.start();
+        } else {
+            aktualisierung.stop();
+            JCablePanel.setzeAuslastungAnzeigen(false);
+            aktualisieren();
+        }
+        super.setVisible(sichtbar);
+    }
+
+    private void aktualisieren() {
+        List<GUIKabelItem> kabelItems = GUIContainer.getGUIContainer().getCableItems();
+        modell.aktualisieren(kabelItems);
+        for (GUIKabelItem kabelItem : kabelItems) {
+            kabelItem.getKabelpanel().repaint();
+        }
+    }
+}
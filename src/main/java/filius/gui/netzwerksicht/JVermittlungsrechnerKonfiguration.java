@@ -43,6 +43,7 @@ import javax.swing.Box;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
@@ -85,6 +86,7 @@ public class JVermittlungsrechnerKonfiguration extends JKonfiguration implements
 
     private JTextField gateway;
     private JCheckBox rip;
+    private JComboBox<String> ripSplitHorizon;
     private JCheckBox ipForwarding;
 
     private JLabel[] verbundeneKomponente;
@@ -111,6 +113,7 @@ public class JVermittlungsrechnerKonfiguration extends JKonfiguration implements
         vRechner.setName(name.getText());
         bs.setStandardGateway(gateway.getText());
         bs.setRipEnabled(rip.isSelected());
+        bs.setRipSplitHorizon(ripSplitHorizon.getSelectedIndex());
 
         ListIterator<NetzwerkInterface> it = vRechner.getNetzwerkInterfaces().listIterator();
         for (int i = 0; it.hasNext(); i++) {
@@ -279,6 +282,34 @@ public class JVermittlungsrechnerKonfiguration extends JKonfiguration implements
         vBox.add(tempBox);
         vBox.add(Box.createVerticalStrut(5));
 
+        // Ankuendigung gelernter Routen (Split Horizon / Poison Reverse)
+        tempBox = Box.createHorizontalBox();
+        tempBox.setMaximumSize(new Dimension(400, 40));
+
+        tempLabel = new JLabel(messages.getString("jvermittlungsrechnerkonfiguration_msg27"));
+        tempLabel.setPreferredSize(new Dimension(140, 20));
+        tempLabel.setVisible(true);
+        tempLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
+        tempBox.add(tempLabel);
+
+        // Reihenfolge entspricht RIPTable.SPLIT_HORIZON_OFF, SPLIT_HORIZON und POISON_REVERSE
+        ripSplitHorizon = new JComboBox<String>();
+        ripSplitHorizon.addItem(messages.getString("jvermittlungsrechnerkonfiguration_msg28"));
+        ripSplitHorizon.addItem(messages.getString("jvermittlungsrechnerkonfiguration_msg29"));
+        ripSplitHorizon.addItem(messages.getString("jvermittlungsrechnerkonfiguration_msg30"));
+        ripSplitHorizon.setPreferredSize(new Dimension(160, 20));
+        ripSplitHorizon.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                Vermittlungsrechner vRechner = (Vermittlungsrechner) holeHardware();
+                ((VermittlungsrechnerBetriebssystem) vRechner.getSystemSoftware())
+                        .setRipSplitHorizon(ripSplitHorizon.getSelectedIndex());
+            }
+        });
+        tempBox.add(ripSplitHorizon);
+
+        vBox.add(tempBox);
+        vBox.add(Box.createVerticalStrut(5));
+
         // IP forwarding status
         tempBox = Box.createHorizontalBox();
         tempBox.setMaximumSize(new Dimension(400, 40));
@@ -567,6 +598,7 @@ public class JVermittlungsrechnerKonfiguration extends JKonfiguration implements
         gateway.setText(bs.getStandardGateway());
         ipForwarding.setSelected(bs.isIpForwardingEnabled());
         rip.setSelected(bs.isRipEnabled());
+        ripSplitHorizon.setSelectedIndex(bs.getRipSplitHorizon());
 
         tpNetzwerkKarten.setEnabledAt(tpNetzwerkKarten.getTabCount() - 1, !bs.isRipEnabled());
 
@@ -0,0 +1,129 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.gui.netzwerksicht;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import filius.hardware.Kabel;
+import filius.hardware.Port;
+import filius.hardware.VerbindungsStatistik;
+import filius.rahmenprogramm.I18n;
+import filius.rahmenprogramm.SzenarioFormat;
+
+/**
+ * Tabellenmodell mit den Zaehlern aller Kabel, je Uebertragungsrichtung eine Zeile. Die Werte werden bei
+ * {@link #aktualisieren(List)} uebernommen, damit sich die Reihenfolge einer sortierten Tabelle nicht zwischen zwei
+ * Aktualisierungen veraendert. Die Auslastung bezieht sich auf die Zeit seit der vorigen Aktualisierung.
+ */
+@SuppressWarnings("serial")
+public class VerbindungsAuslastungModell extends AbstractTableModel implements I18n {
+
+    public static final int SPALTE_VERBINDUNG = 0;
+    public static final int SPALTE_AUSLASTUNG = 1;
+    public static final int SPALTE_RAHMEN = 2;
+    public static final int SPALTE_BYTES = 3;
+    public static final int SPALTE_VERWORFEN = 4;
+    public static final int SPALTE_MAX_WARTESCHLANGE = 5;
+    public static final int SPALTE_MITTLERE_WARTESCHLANGE = 6;
+    public static final int SPALTE_BELEGT = 7;
+
+    private static final String[] SPALTEN = { "jverbindungsauslastung_msg2", "jverbindungsauslastung_msg3",
+            "jverbindungsauslastung_msg4", "jverbindungsauslastung_msg5", "jverbindungsauslastung_msg6",
+            "jverbindungsauslastung_msg7", "jverbindungsauslastung_msg8", "jverbindungsauslastung_msg9" };
+
+    private static final Class<?>[] TYPEN = { String.class, Double.class, Long.class, Long.class, Long.class,
+            Long.class, Double.class, Long.class };
+
+    private List<Object[]> zeilen = new ArrayList<Object[]>();
+
+    /**
+     * Uebernimmt die aktuellen Zaehlerstaende der uebergebenen Kabel und beendet das Messintervall ihrer Auslastung.
+     */
+    public void aktualisieren(List<GUIKabelItem> kabelItems) {
+        List<Object[]> neueZeilen = new ArrayList<Object[]>();
+        for (GUIKabelItem kabelItem : kabelItems) {
+            Kabel kabel = kabelItem.getDasKabel();
+            if (kabel == null || kabel.getAnschluesse() == null) {
+                continue;
+            }
+            kabel.aktualisiereAuslastung();
+            String[] namen = holeNamen(kabelItem);
+            neueZeilen.add(erzeugeZeile(namen[0] + " \u2192 " + namen[1], kabel.holeStatistik(0)));
+            neueZeilen.add(erzeugeZeile(namen[1] + " \u2192 " + namen[0], kabel.holeStatistik(1)));
+        }
+        zeilen = neueZeilen;
+        fireTableDataChanged();
+    }
+
+    private Object[] erzeugeZeile(String bezeichnung, VerbindungsStatistik statistik) {
+        return new Object[] { bezeichnung, Math.round(statistik.holeAuslastung() * 1000) / 10.0,
+                statistik.holeRahmen(), statistik.holeBytes(), statistik.holeVerworfen(),
+                statistik.holeMaxWarteschlange(), Math.round(statistik.holeMittlereWarteschlange() * 100) / 100.0,
+                statistik.holeBelegtMillis() };
+    }
+
+    /**
+     * Namen der Knoten am ersten und zweiten Anschluss des Kabels. Die Reihenfolge der Endpunkte in der Oberflaeche
+     * muss nicht mit der Reihenfolge der Anschluesse uebereinstimmen.
+     */
+    private String[] holeNamen(GUIKabelItem kabelItem) {
+        GUIKnotenItem erster = kabelItem.getKabelpanel().getZiel1();
+        GUIKnotenItem zweiter = kabelItem.getKabelpanel().getZiel2();
+        if (erster == null || zweiter == null) {
+            return new String[] { "?", "?" };
+        }
+        Port ersterAnschluss = kabelItem.getDasKabel().getAnschluesse()[0];
+        if (SzenarioFormat.holeAnschluesse(zweiter.getKnoten()).contains(ersterAnschluss)) {
+            GUIKnotenItem tausch = erster;
+            erster = zweiter;
+            zweiter = tausch;
+        }
+        return new String[] { erster.getKnoten().getName(), zweiter.getKnoten().getName() };
+    }
+
+    public int getRowCount() {
+        return zeilen.size();
+    }
+
+    public int getColumnCount() {
+        return SPALTEN.length;
+    }
+
+    public String getColumnName(int spalte) {
+        return messages.getString(SPALTEN[spalte]);
+    }
+
+    public Class<?> getColumnClass(int spalte) {
+        return TYPEN[spalte];
+    }
+
+    public Object getValueAt(int zeile, int spalte) {
+        return zeilen.get(zeile)[spalte];
+    }
+}
@@ -153,6 +153,7 @@ public class PanelCompiler extends JPanel implements I18n, Runnable {
                             fw.close();
                         } catch (IOException e) {}
                 }
+                Information.getInformation().aktualisiereProgrammListe();
             }
         } else {
 
@@ -517,6 +517,7 @@ public class PanelVerwaltung extends JPanel implements I18n {
                     fw.close();
                 } catch (IOException e) {}
         }
+        Information.getInformation().aktualisiereProgrammListe();
     }
 
     private void initTabelle() {
@@ -125,8 +125,15 @@ public class NetzwerkInterface implements Serializable {
         return mac.toUpperCase();
     }
 
+    /**
+     * Beim Laden eines Projekts wird die im Konstruktor vergebene Adresse durch die gespeicherte ersetzt. Die vorherige
+     * Adresse wird dabei wieder freigegeben.
+     */
     public void setMac(String mac) {
         if (mac != null) {
+            if (this.mac != null && !this.mac.equalsIgnoreCase(mac)) {
+                Information.getInformation().macEntfernen(this.mac);
+            }
             Information.getInformation().macHinzufuegen(mac);
             this.mac = mac;
         }
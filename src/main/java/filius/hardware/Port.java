@@ -31,6 +31,7 @@ import java.util.LinkedList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.netzzugangsschicht.EthernetFrame;
 
 public class Port implements Serializable {
@@ -78,6 +79,26 @@ public class Port implements Serializable {
         return ausgangsPuffer;
     }
 
+    /**
+     * Stellt einen Rahmen in den Ausgangspuffer, aus dem ihn die Verbindung zur Uebertragung entnimmt. Ist die
+     * Puffergroesse der Verbindung begrenzt und der Puffer voll, wird der Rahmen verworfen (Tail Drop).
+     * 
+     * @return ob der Rahmen in den Ausgangspuffer aufgenommen wurde
+     */
+    public boolean einreihen(EthernetFrame frame) {
+        Verbindung aktuelleVerbindung = verbindung;
+        synchronized (ausgangsPuffer) {
+            if (aktuelleVerbindung != null && aktuelleVerbindung.istPufferVoll(ausgangsPuffer.size())) {
+                aktuelleVerbindung.rahmenAbgewiesen(this, frame);
+                return false;
+            }
+            ausgangsPuffer.add(frame);
+            ausgangsPuffer.notify();
+            SimulationsUhr.meldeAktivitaet();
+            return true;
+        }
+    }
+
     public LinkedList<EthernetFrame> holeEingangsPuffer() {
         return eingangsPuffer;
     }
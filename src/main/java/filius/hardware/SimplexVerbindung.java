@@ -25,20 +25,53 @@
  */
 package filius.hardware;
 
+import java.util.LinkedList;
+
 import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.rahmenprogramm.nachrichten.Lauscher;
 import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.transportschicht.Segment;
+import filius.software.transportschicht.TcpSegment;
+import filius.software.vermittlungsschicht.ArpPaket;
+import filius.software.vermittlungsschicht.IcmpPaket;
+import filius.software.vermittlungsschicht.IpPaket;
 
 public class SimplexVerbindung implements Runnable {
     private static Logger LOG = LoggerFactory.getLogger(SimplexVerbindung.class);
 
+    /** Kopf und Pruefsumme eines Ethernet-Rahmens in Byte */
+    private static final int ETHERNET_KOPF = 18;
+    private static final int MIN_RAHMEN = 64;
+    private static final int ARP_PAKET = 28;
+    private static final int IP_KOPF = 20;
+    private static final int ICMP_KOPF = 8;
+    private static final int TCP_KOPF = 20;
+    private static final int UDP_KOPF = 8;
+
     private boolean threadRunning = true;
     private Verbindung verbindung = null;
+    private VerbindungsStatistik statistik;
     private Port anschluss1 = null;
     private Port anschluss2 = null;
+    private double uebertragungsRest = 0;
+
+    /** Rahmen, die gesendet, aber noch nicht beim Empfaenger angekommen sind, in der Reihenfolge ihres Sendens */
+    private final LinkedList<Unterwegs> leitung = new LinkedList<Unterwegs>();
+
+    /** Ein Rahmen auf der Leitung mit seiner Ankunftszeit in simulierter Zeit */
+    private static class Unterwegs {
+        private final EthernetFrame frame;
+        private final long ankunft;
+
+        private Unterwegs(EthernetFrame frame, long ankunft) {
+            this.frame = frame;
+            this.ankunft = ankunft;
+        }
+    }
 
     /**
      * @author carsten
@@ -53,22 +86,45 @@ public class SimplexVerbindung implements Runnable {
      *            es zwei Verbindungen, die die bidirektionale Verbindung zwischen den beiden Hardwares herstellt.
      */
     public SimplexVerbindung(Port anschluss1, Port anschluss2, Verbindung verbindung) {
+        this(anschluss1, anschluss2, verbindung, new VerbindungsStatistik());
+    }
+
+    /**
+     * @param statistik
+     *            - Zaehler, in denen die Uebertragungen in dieser Richtung erfasst werden
+     */
+    public SimplexVerbindung(Port anschluss1, Port anschluss2, Verbindung verbindung, VerbindungsStatistik statistik) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (SimplexVerbindung), constr: SimplexVerbindung("
                 + anschluss1 + "," + anschluss2 + "," + verbindung + ")");
         this.anschluss1 = anschluss1;
         this.anschluss2 = anschluss2;
         this.verbindung = verbindung;
+        this.statistik = statistik;
     }
 
     /**
      * @author carsten Diese run-Methode des Threads (nur Runnable!) sorgt fuer die einzelnen Kommunikationen auf einer
      *         Verbindung in beide Richtungen
+     * 
+     *         Ist eine Datenrate eingestellt, belegt ein Rahmen die Verbindung nur fuer die Uebertragungsdauer seiner
+     *         Bits. Danach laeuft er ueber die Leitung und wird nach der Verzoegerung von einem eigenen Thread
+     *         zugestellt, waehrend bereits der naechste Rahmen gesendet wird. Ohne Datenrate belegt jeder Rahmen die
+     *         Verbindung wie bisher fuer die Verzoegerung. Waehrend der Belegung ist der Ausgangspuffer nicht gesperrt,
+     *         so dass sich dort weitere Rahmen anstellen koennen.
      */
     public void run() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (SimplexVerbindung), run()");
         EthernetFrame frame;
 
+        Thread zustellung = new Thread(new Runnable() {
+            public void run() {
+                zustellen();
+            }
+        });
+        zustellung.start();
+
         while (threadRunning) {
+            frame = null;
             synchronized (anschluss1.holeAusgangsPuffer()) {
                 if (anschluss1.holeAusgangsPuffer().size() < 1) {
                     try {
@@ -77,31 +133,131 @@ public class SimplexVerbindung implements Runnable {
                     } catch (InterruptedException e) {}
                 }
                 if (anschluss1.holeAusgangsPuffer().size() > 0) {
+                    statistik.rahmenEntnommen(anschluss1.holeAusgangsPuffer().size());
                     frame = (EthernetFrame) anschluss1.holeAusgangsPuffer().removeFirst();
-                    boolean dropFrame = Verbindung.isDrop();
-                    if (dropFrame) {
-                        verbindung.setFailure();
-                    } else {
-                        verbindung.setAktiv(true);
-                    }
+                }
+            }
+            if (frame != null) {
+                uebertragen(frame);
+            }
+        }
+        zustellung.interrupt();
+    }
 
-                    synchronized (this) {
-                        try {
-                            Thread.sleep(Verbindung.holeVerzoegerung());
-                        } catch (InterruptedException e) {}
-                    }
-                    if (!dropFrame) {
-                        synchronized (anschluss2.holeEingangsPuffer()) {
-                            anschluss2.holeEingangsPuffer().add(SerializationUtils.clone(frame));
-                            anschluss2.holeEingangsPuffer().notify();
-                        }
+    private void uebertragen(EthernetFrame frame) {
+        boolean dropFrame = Verbindung.isDrop();
+        if (dropFrame) {
+            verbindung.setFailure();
+        } else {
+            verbindung.setAktiv(true);
+        }
+
+        int groesse = holeRahmenGroesse(frame);
+        int datenrate = verbindung.getDatenrate();
+        long belegung;
+        long laufzeit;
+        if (datenrate > 0) {
+            belegung = holeUebertragungsdauer(groesse, datenrate);
+            laufzeit = Verbindung.holeVerzoegerung();
+        } else {
+            belegung = Verbindung.holeVerzoegerung();
+            laufzeit = 0;
+        }
+        synchronized (this) {
+            try {
+                SimulationsUhr.schlafen(belegung);
+            } catch (InterruptedException e) {}
+        }
+        if (!dropFrame) {
+            statistik.rahmenUebertragen(groesse, belegung);
+            EthernetFrame kopie = (EthernetFrame) SerializationUtils.deserialize(SerializationUtils.serialize(frame));
+            if (laufzeit > 0) {
+                synchronized (leitung) {
+                    leitung.add(new Unterwegs(kopie, SimulationsUhr.jetzt() + laufzeit));
+                    leitung.notify();
+                }
+            } else {
+                ausliefern(kopie);
+            }
+        } else {
+            statistik.rahmenVerworfen(belegung);
+            Lauscher.getLauscher().addDroppedDataUnit(frame);
+            LOG.debug("Frame dropped.");
+        }
+    }
+
+    /**
+     * Wird im Thread fuer die Zustellung ausgefuehrt: Die Rahmen auf der Leitung werden in der Reihenfolge ihres
+     * Sendens an den Empfaenger uebergeben, sobald ihre Ankunftszeit (in simulierter Zeit) erreicht ist.
+     */
+    private void zustellen() {
+        while (threadRunning) {
+            EthernetFrame frame = null;
+            synchronized (leitung) {
+                try {
+                    if (leitung.isEmpty()) {
+                        leitung.wait();
                     } else {
-                        Lauscher.getLauscher().addDroppedDataUnit(frame);
-                        LOG.debug("Frame dropped.");
+                        long rest = leitung.getFirst().ankunft - SimulationsUhr.jetzt();
+                        if (rest > 0) {
+                            SimulationsUhr.warten(leitung, rest);
+                        } else {
+                            frame = leitung.removeFirst().frame;
+                        }
                     }
+                } catch (InterruptedException e) {}
+            }
+            if (frame != null) {
+                ausliefern(frame);
+            }
+        }
+    }
+
+    private void ausliefern(EthernetFrame frame) {
+        synchronized (anschluss2.holeEingangsPuffer()) {
+            anschluss2.holeEingangsPuffer().add(frame);
+            anschluss2.holeEingangsPuffer().notify();
+        }
+        SimulationsUhr.meldeAktivitaet();
+    }
+
+    /**
+     * Dauer in Millisekunden, die die Uebertragung der Bits eines Rahmens bei der Datenrate (in kbit/s) benoetigt.
+     * Bruchteile von Millisekunden werden fuer die folgenden Rahmen aufsummiert, damit auch bei hohen Datenraten kleine
+     * Rahmen zur Auslastung beitragen.
+     */
+    long holeUebertragungsdauer(int groesse, int datenrate) {
+        // kbit/s entspricht Bit pro Millisekunde
+        uebertragungsRest += groesse * 8.0 / datenrate;
+        long dauer = (long) uebertragungsRest;
+        uebertragungsRest -= dauer;
+        return dauer;
+    }
+
+    /**
+     * Groesse eines Rahmens in Byte, wie er auf einer Ethernet-Leitung uebertragen wuerde: Kopf und Pruefsumme des
+     * Rahmens, die Koepfe von IP und Transportprotokoll sowie die Nutzdaten. Rahmen sind mindestens 64 Byte gross.
+     */
+    static int holeRahmenGroesse(EthernetFrame frame) {
+        Object daten = frame.getDaten();
+        int groesse = ETHERNET_KOPF;
+        if (daten instanceof ArpPaket) {
+            groesse += ARP_PAKET;
+        } else if (daten instanceof IcmpPaket) {
+            groesse += IP_KOPF + ICMP_KOPF;
+        } else if (daten instanceof IpPaket) {
+            groesse += IP_KOPF;
+            Segment segment = ((IpPaket) daten).getSegment();
+            if (segment != null) {
+                groesse += segment instanceof TcpSegment ? TCP_KOPF : UDP_KOPF;
+                if (segment.getDaten() != null) {
+                    groesse += segment.getDaten().length();
                 }
             }
+        } else if (daten instanceof String) {
+            groesse += ((String) daten).length();
         }
+        return Math.max(MIN_RAHMEN, groesse);
     }
 
     public Port getPort1() {
@@ -127,6 +283,10 @@ public class SimplexVerbindung implements Runnable {
         this.setThreadRunning(false);
     }
 
+    public VerbindungsStatistik holeStatistik() {
+        return statistik;
+    }
+
     public Verbindung getVerbindung() {
         return verbindung;
     }
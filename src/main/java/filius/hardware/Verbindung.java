@@ -32,6 +32,8 @@ import org.slf4j.LoggerFactory;
 
 import filius.exception.VerbindungsException;
 import filius.rahmenprogramm.I18n;
+import filius.rahmenprogramm.nachrichten.Lauscher;
+import filius.software.netzzugangsschicht.EthernetFrame;
 
 /**
  * @author carsten
@@ -81,13 +83,31 @@ public abstract class Verbindung extends Hardware implements Serializable, I18n
 
     private Thread threadSimplexZwei;
 
-    public void setAnschluesse(Port[] anschluesse) {
+    /** Datenrate in kbit/s; 0 steht fuer eine unbegrenzte Datenrate ohne Uebertragungsdauer fuer die Rahmen */
+    private volatile int datenrate = 0;
+
+    /** Anzahl der Rahmen, die ein Ausgangspuffer aufnehmen kann; 0 steht fuer einen unbegrenzten Puffer */
+    private volatile int pufferGroesse = 0;
+
+    /** Zaehler fuer die Richtung vom ersten zum zweiten Anschluss und umgekehrt */
+    private final VerbindungsStatistik[] statistik = { new VerbindungsStatistik(), new VerbindungsStatistik() };
+
+    /**
+     * Verbindet die beiden Anschluesse. Die Uebertragung zwischen den Anschluessen wird erst mit {@link #aktivieren()}
+     * gestartet; war die Verbindung bereits aktiv, wird sie mit den neuen Anschluessen fortgesetzt.
+     */
+    public synchronized void setAnschluesse(Port[] anschluesse) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), setAnschluesse(" + anschluesse
                 + ")");
+        boolean aktiviert = istAktiviert();
+        deaktivieren();
         this.anschluesse = anschluesse;
 
         try {
             verbinde();
+            if (aktiviert) {
+                aktivieren();
+            }
         } catch (VerbindungsException e) {
             LOG.debug("Unexpected error when connectiong two ports", e);
         }
@@ -97,26 +117,134 @@ public abstract class Verbindung extends Hardware implements Serializable, I18n
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), verbinde()" + "\t"
                 + anschluesse[0].hashCode() + " <-> " + anschluesse[1].hashCode());
         try {
-            simplexEins = new SimplexVerbindung(anschluesse[0], anschluesse[1], this);
-            simplexZwei = new SimplexVerbindung(anschluesse[1], anschluesse[0], this);
-
             anschluesse[0].setVerbindung(this);
             anschluesse[1].setVerbindung(this);
-
-            threadSimplexEins = new Thread(simplexEins);
-            threadSimplexZwei = new Thread(simplexZwei);
-
-            threadSimplexEins.start();
-            threadSimplexZwei.start();
         } catch (NullPointerException e) {
-            simplexEins = null;
-            simplexZwei = null;
-            anschluesse[0].setVerbindung(null);
-            anschluesse[1].setVerbindung(null);
+            if (anschluesse[0] != null)
+                anschluesse[0].entferneVerbindung();
+            if (anschluesse[1] != null)
+                anschluesse[1].entferneVerbindung();
             throw new VerbindungsException("EXCEPTION: " + messages.getString("verbindung_msg1"));
         }
     }
 
+    /**
+     * Startet die Uebertragung in beide Richtungen. Dazu werden fuer jede Richtung eine {@link SimplexVerbindung} und
+     * ein Thread erzeugt. Dies geschieht erst beim Wechsel in den Aktionsmodus, damit im Entwurfsmodus keine Threads
+     * fuer Kabel laufen.
+     */
+    public synchronized void aktivieren() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), aktivieren()");
+        if (istAktiviert() || anschluesse == null || anschluesse[0] == null || anschluesse[1] == null) {
+            return;
+        }
+        statistik[0].zuruecksetzen();
+        statistik[1].zuruecksetzen();
+        simplexEins = new SimplexVerbindung(anschluesse[0], anschluesse[1], this, statistik[0]);
+        simplexZwei = new SimplexVerbindung(anschluesse[1], anschluesse[0], this, statistik[1]);
+
+        threadSimplexEins = new Thread(simplexEins);
+        threadSimplexZwei = new Thread(simplexZwei);
+
+        threadSimplexEins.start();
+        threadSimplexZwei.start();
+    }
+
+    /**
+     * Beendet die Uebertragung. Die Anschluesse bleiben miteinander verbunden.
+     */
+    public synchronized void deaktivieren() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), deaktivieren()");
+        if (!istAktiviert()) {
+            return;
+        }
+        simplexEins.setThreadRunning(false);
+        simplexZwei.setThreadRunning(false);
+        threadSimplexEins.interrupt();
+        threadSimplexZwei.interrupt();
+        simplexEins = null;
+        simplexZwei = null;
+        threadSimplexEins = null;
+        threadSimplexZwei = null;
+    }
+
+    /** Ob die Uebertragung zwischen den Anschluessen gestartet ist */
+    public synchronized boolean istAktiviert() {
+        return simplexEins != null;
+    }
+
+    /**
+     * Zaehler einer Uebertragungsrichtung. Sie werden bei jeder Aktivierung zurueckgesetzt und bleiben nach dem
+     * Deaktivieren erhalten.
+     * 
+     * @param richtung
+     *            0 fuer die Richtung vom ersten zum zweiten Anschluss, 1 fuer die Gegenrichtung
+     */
+    public VerbindungsStatistik holeStatistik(int richtung) {
+        return statistik[richtung];
+    }
+
+    /**
+     * Hoechste Auslastung der beiden Uebertragungsrichtungen im letzten Messintervall (zwischen 0 und 1)
+     * 
+     * @see VerbindungsStatistik#holeAuslastung()
+     */
+    public double holeAuslastung() {
+        return Math.max(statistik[0].holeAuslastung(), statistik[1].holeAuslastung());
+    }
+
+    /** Beendet das laufende Messintervall der Auslastung in beiden Uebertragungsrichtungen. */
+    public void aktualisiereAuslastung() {
+        statistik[0].aktualisiereAuslastung();
+        statistik[1].aktualisiereAuslastung();
+    }
+
+    /** Datenrate in kbit/s (0: unbegrenzt) */
+    public int getDatenrate() {
+        return datenrate;
+    }
+
+    /**
+     * Setzt die Datenrate in kbit/s. Jeder Rahmen belegt die Verbindung dann nur so lange, wie die Uebertragung seiner
+     * Bits dauert; die Verzoegerung kommt bis zur Ankunft hinzu, ohne die Verbindung zu belegen. Negative Werte werden
+     * als 0 (unbegrenzt) behandelt.
+     */
+    public void setDatenrate(int datenrate) {
+        this.datenrate = Math.max(0, datenrate);
+    }
+
+    /** Anzahl der Rahmen, die jeder der beiden Ausgangspuffer aufnehmen kann (0: unbegrenzt) */
+    public int getPufferGroesse() {
+        return pufferGroesse;
+    }
+
+    /**
+     * Setzt die Groesse der Ausgangspuffer an beiden Anschluessen in Rahmen. Rahmen, die bei vollem Puffer eintreffen,
+     * werden verworfen. Negative Werte werden als 0 (unbegrenzt) behandelt.
+     */
+    public void setPufferGroesse(int pufferGroesse) {
+        this.pufferGroesse = Math.max(0, pufferGroesse);
+    }
+
+    /**
+     * Ob ein Ausgangspuffer mit der angegebenen Anzahl an Rahmen keinen weiteren Rahmen aufnehmen kann.
+     */
+    boolean istPufferVoll(int anzahlRahmen) {
+        int groesse = pufferGroesse;
+        return groesse > 0 && anzahlRahmen >= groesse;
+    }
+
+    /**
+     * Zaehlt einen Rahmen, der wegen eines vollen Ausgangspuffers am angegebenen Anschluss verworfen wurde.
+     */
+    void rahmenAbgewiesen(Port anschluss, EthernetFrame frame) {
+        Port[] aktuelleAnschluesse = anschluesse;
+        int richtung = aktuelleAnschluesse != null && anschluss == aktuelleAnschluesse[1] ? 1 : 0;
+        statistik[richtung].rahmenAbgewiesen();
+        Lauscher.getLauscher().addDroppedDataUnit(frame);
+        LOG.debug("Frame dropped, output buffer full.");
+    }
+
     public Port[] getAnschluesse() {
         return anschluesse;
     }
@@ -139,12 +267,16 @@ public abstract class Verbindung extends Hardware implements Serializable, I18n
         return connectedPort;
     }
 
-    public void anschluesseTrennen() {
+    public synchronized void anschluesseTrennen() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), anschluesseTrennen()");
-        simplexEins.anschluesseTrennen();
-        simplexZwei.anschluesseTrennen();
-        threadSimplexEins.interrupt();
-        threadSimplexZwei.interrupt();
+        deaktivieren();
+        if (anschluesse != null) {
+            for (Port anschluss : anschluesse) {
+                if (anschluss != null) {
+                    anschluss.entferneVerbindung();
+                }
+            }
+        }
     }
 
     /** Value between 1 (low latency) and 100 (highest latency) */
@@ -0,0 +1,156 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.hardware;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+import filius.rahmenprogramm.SimulationsUhr;
+
+/**
+ * Zaehler fuer eine Uebertragungsrichtung einer {@link Verbindung}. Die Zaehler werden vom Thread der
+ * {@link SimplexVerbindung} ohne Sperren fortgeschrieben und koennen jederzeit von der Oberflaeche gelesen werden.
+ * Zeiten werden in simulierter Zeit gemessen.
+ */
+public class VerbindungsStatistik {
+
+    private static final LongBinaryOperator MAXIMUM = new LongBinaryOperator() {
+        public long applyAsLong(long links, long rechts) {
+            return Math.max(links, rechts);
+        }
+    };
+
+    private final LongAdder rahmen = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder verworfen = new LongAdder();
+    private final LongAdder summeWarteschlange = new LongAdder();
+    private final LongAdder messungenWarteschlange = new LongAdder();
+    private final LongAccumulator maxWarteschlange = new LongAccumulator(MAXIMUM, 0);
+    private final LongAdder belegtMillis = new LongAdder();
+
+    /** Beginn des laufenden Messintervalls der Auslastung und die bis dahin belegte Zeit */
+    private long intervallBeginn = SimulationsUhr.jetzt();
+    private long intervallBelegt = 0;
+    private volatile double auslastung = 0;
+
+    /** Setzt alle Zaehler zurueck, z. B. beim Start der Simulation. */
+    public void zuruecksetzen() {
+        rahmen.reset();
+        bytes.reset();
+        verworfen.reset();
+        summeWarteschlange.reset();
+        messungenWarteschlange.reset();
+        maxWarteschlange.reset();
+        belegtMillis.reset();
+        synchronized (this) {
+            intervallBeginn = SimulationsUhr.jetzt();
+            intervallBelegt = 0;
+            auslastung = 0;
+        }
+    }
+
+    /**
+     * Wird aufgerufen, wenn ein Rahmen aus dem Ausgangspuffer entnommen wird.
+     * 
+     * @param laenge
+     *            Anzahl der Rahmen im Ausgangspuffer einschliesslich des entnommenen
+     */
+    void rahmenEntnommen(int laenge) {
+        summeWarteschlange.add(laenge);
+        messungenWarteschlange.increment();
+        maxWarteschlange.accumulate(laenge);
+    }
+
+    void rahmenUebertragen(long anzahlBytes, long dauerMillis) {
+        rahmen.increment();
+        bytes.add(anzahlBytes);
+        belegtMillis.add(dauerMillis);
+    }
+
+    void rahmenVerworfen(long dauerMillis) {
+        verworfen.increment();
+        belegtMillis.add(dauerMillis);
+    }
+
+    /** Wird aufgerufen, wenn ein Rahmen wegen eines vollen Ausgangspuffers verworfen wird. */
+    void rahmenAbgewiesen() {
+        verworfen.increment();
+    }
+
+    public long holeRahmen() {
+        return rahmen.sum();
+    }
+
+    public long holeBytes() {
+        return bytes.sum();
+    }
+
+    public long holeVerworfen() {
+        return verworfen.sum();
+    }
+
+    public long holeMaxWarteschlange() {
+        return maxWarteschlange.get();
+    }
+
+    public double holeMittlereWarteschlange() {
+        long messungen = messungenWarteschlange.sum();
+        return messungen == 0 ? 0 : (double) summeWarteschlange.sum() / messungen;
+    }
+
+    public long holeBelegtMillis() {
+        return belegtMillis.sum();
+    }
+
+    /**
+     * Anteil der Zeit im letzten Messintervall, in der die Verbindung belegt war (zwischen 0 und 1). Ein Messintervall
+     * endet mit jedem Aufruf von {@link #aktualisiereAuslastung()}.
+     */
+    public double holeAuslastung() {
+        return auslastung;
+    }
+
+    /**
+     * Beendet das laufende Messintervall der Auslastung und beginnt ein neues. Wird von der Oberflaeche bei jeder
+     * Aktualisierung der Anzeige aufgerufen, so dass die aktuelle und nicht die seit dem Start gemittelte Auslastung
+     * angezeigt wird.
+     */
+    public void aktualisiereAuslastung() {
+        aktualisiereAuslastung(SimulationsUhr.jetzt());
+    }
+
+    synchronized void aktualisiereAuslastung(long jetzt) {
+        long dauer = jetzt - intervallBeginn;
+        if (dauer <= 0) {
+            return;
+        }
+        long belegt = belegtMillis.sum();
+        auslastung = Math.min(1.0, (double) (belegt - intervallBelegt) / dauer);
+        intervallBeginn = jetzt;
+        intervallBelegt = belegt;
+    }
+}
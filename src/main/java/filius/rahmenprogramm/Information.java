@@ -35,16 +35,17 @@ import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Random;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.StringTokenizer;
-import java.util.Vector;
 
 import javax.swing.JFileChooser;
 
@@ -55,6 +56,7 @@ import filius.Main;
 import filius.gui.GUIContainer;
 import filius.gui.anwendungssicht.GUIDesktopWindow;
 import filius.hardware.Verbindung;
+import filius.software.rip.RIPConvergenceTracker;
 
 /**
  * In dieser Klasse werden die Verwaltungs-Informationen des Rahmenprogramms verwaltet, die unabhaengig von einem
@@ -99,15 +101,37 @@ public class Information implements Serializable {
     public boolean initOk = false;
 
     /**
-     * Die MAC-Adressen werden zentral verwaltet, um zu gewaehrleisten, dass keine Adresse mehrfach vergeben wird.
+     * Die MAC-Adressen werden zentral verwaltet, um zu gewaehrleisten, dass keine Adresse mehrfach vergeben wird. Sie
+     * werden in Kleinbuchstaben abgelegt.
      */
-    private Vector<String> macAdressen = new Vector<String>();
+    private Set<String> macAdressen = new HashSet<String>();
+
+    /**
+     * Lokal administrierter Adressbereich (erstes Oktett 0x02), aus dem neue MAC-Adressen fortlaufend vergeben werden.
+     */
+    private static final long MAC_PRAEFIX = 0x020000000000L;
+
+    /** Groesse des Adressbereichs unterhalb des Praefixes (40 Bit) */
+    private static final long MAC_BEREICH = 0x010000000000L;
+
+    /**
+     * Laufende Nummer der naechsten zu vergebenden MAC-Adresse. Sie beginnt an einer zufaelligen Stelle des Bereichs,
+     * damit nicht jede Sitzung dieselben Adressen vergibt.
+     */
+    private long naechsteMac = zufaelligeMacNummer();
 
     /**
      * Die maximale Anzahl von Vermittlungsstellen wird zur Berechnung des Time-Outs fuer eine TCP-Verbindung genutzt.
      */
     private int maxVermittlungsStellen;
 
+    /**
+     * Zwischenspeicher der verfuegbaren Programme aus den Konfigurationsdateien und der Programme nach Klassennamen.
+     * Die Dateien werden erst nach {@link #aktualisiereProgrammListe()} erneut gelesen.
+     */
+    private List<Map<String, String>> programmListe;
+    private Map<String, Map<String, String>> programmeNachKlasse;
+
     /**
      * Pfad zum Verzeichnis, in dem das Programm ausgefuehrt wird (in dem sich die ausfuehrbare Jar-Datei befindet);
      * <br />
@@ -282,6 +306,7 @@ public class Information implements Serializable {
 
     public void setLocale(Locale locale) {
         this.locale = locale;
+        aktualisiereProgrammListe();
     }
 
     /**
@@ -289,7 +314,13 @@ public class Information implements Serializable {
      * Daten.
      */
     public void reset() {
-        macAdressen.clear();
+        synchronized (this) {
+            macAdressen.clear();
+            naechsteMac = zufaelligeMacNummer();
+        }
+        aktualisiereProgrammListe();
+        RIPConvergenceTracker.getTracker().reset();
+        SimulationsUhr.zuruecksetzen();
 
         GUIContainer.getGUIContainer().getExchangeDialog().reset();
         init();
@@ -359,12 +390,46 @@ public class Information implements Serializable {
     }
 
     /**
-     * Methode zum lesen der Verfuegbaren Programme aus den Konfigurationsdateien.
+     * Methode fuer den Zugriff auf die verfuegbaren Programme aus den Konfigurationsdateien. Die Dateien werden nur
+     * beim ersten Zugriff bzw. nach {@link #aktualisiereProgrammListe()} gelesen.
      * 
-     * @return
-     * @throws IOException
+     * @return unveraenderliche Liste der Programme
+     */
+    public synchronized List<Map<String, String>> ladeProgrammListe() {
+        if (programmListe == null) {
+            List<Map<String, String>> programme = leseProgrammListe();
+            Map<String, Map<String, String>> nachKlasse = new HashMap<String, Map<String, String>>();
+            for (Map<String, String> programm : programme) {
+                if (!nachKlasse.containsKey(programm.get("Klasse"))) {
+                    nachKlasse.put(programm.get("Klasse"), programm);
+                }
+            }
+            programmListe = Collections.unmodifiableList(programme);
+            programmeNachKlasse = nachKlasse;
+        }
+        return programmListe;
+    }
+
+    /**
+     * Methode zum Nachschlagen eines Programms ueber den Klassennamen.
+     * 
+     * @return die Eintraege aus der Konfigurationsdatei oder null, wenn das Programm nicht verfuegbar ist
      */
-    public List<Map<String, String>> ladeProgrammListe() {
+    public synchronized Map<String, String> holeProgramm(String klasse) {
+        ladeProgrammListe();
+        return programmeNachKlasse.get(klasse);
+    }
+
+    /**
+     * Verwirft die zwischengespeicherte Programmliste, z. B. nachdem eigene Anwendungen hinzugefuegt oder entfernt
+     * wurden. Beim naechsten Zugriff werden die Konfigurationsdateien neu gelesen.
+     */
+    public synchronized void aktualisiereProgrammListe() {
+        programmListe = null;
+        programmeNachKlasse = null;
+    }
+
+    private List<Map<String, String>> leseProgrammListe() {
         List<Map<String, String>> tmpList = new LinkedList<Map<String, String>>();
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(new FileInputStream(holeAnwendungenDateipfad()), Charset.forName("UTF-8")))) {
@@ -552,48 +617,53 @@ public class Information implements Serializable {
         return getArbeitsbereichPfad() + "anwendungen" + System.getProperty("file.separator");
     }
 
+    /** Zufaellige laufende Nummer im Bereich 1 bis MAC_BEREICH - 1 */
+    static long zufaelligeMacNummer() {
+        return 1 + (long) (Math.random() * (MAC_BEREICH - 1));
+    }
+
     /**
-     * Automatische Erzeugung einer MAC-Adresse, funktioniert mit Hexadezimal-Zahlen
+     * Automatische Erzeugung einer MAC-Adresse. Die Adressen werden ab einem zufaelligen Startwert fortlaufend aus einem
+     * lokal administrierten Bereich vergeben; bereits verwendete Adressen (z. B. aus einem geladenen Projekt) werden
+     * uebersprungen.
      */
-    public String holeFreieMACAdresse() {
-        Random r = new Random();
-        String[] mac;
+    public synchronized String holeFreieMACAdresse() {
         String neueMac;
-
-        mac = new String[6];
-        for (int i = 0; i < mac.length; i++) {
-            mac[i] = Integer.toHexString(r.nextInt(255));
-            if (mac[i].length() == 1)
-                mac[i] = "0" + mac[i];
-        }
-        neueMac = mac[0] + ":" + mac[1] + ":" + mac[2] + ":" + mac[3] + ":" + mac[4] + ":" + mac[5];
-
-        if (macPruefen(neueMac)) {
-            return neueMac;
-        } else {
-            return holeFreieMACAdresse();
-        }
+        do {
+            neueMac = formatiereMac(MAC_PRAEFIX | naechsteMac);
+            naechsteMac = naechsteMac % (MAC_BEREICH - 1) + 1;
+        } while (macAdressen.contains(neueMac));
+        return neueMac;
     }
 
     /** Eintragen einer verwendeten MAC-Adresse */
-    public void macHinzufuegen(String mac) {
-        macAdressen.addElement(mac);
+    public synchronized void macHinzufuegen(String mac) {
+        macAdressen.add(mac.toLowerCase());
     }
 
-    /** Pruefen, ob es sich um eine verfuegbare, gueltige MAC-Adresse handelt. */
-    private boolean macPruefen(String mac) {
-        boolean macOK = true;
+    /** Freigeben einer nicht mehr verwendeten MAC-Adresse */
+    public synchronized void macEntfernen(String mac) {
+        macAdressen.remove(mac.toLowerCase());
+    }
 
-        for (int i = 0; i < macAdressen.size(); i++) {
-            if (mac.equals((String) macAdressen.elementAt(i)))
-                macOK = false;
-        }
+    /** Ob die MAC-Adresse bereits vergeben ist */
+    public synchronized boolean macVergeben(String mac) {
+        return macAdressen.contains(mac.toLowerCase());
+    }
 
-        if (mac.equalsIgnoreCase("ff:ff:ff:ff:ff:ff")) {
-            macOK = false;
+    private static String formatiereMac(long wert) {
+        StringBuilder mac = new StringBuilder(17);
+        for (int i = 5; i >= 0; i--) {
+            int oktett = (int) ((wert >> (8 * i)) & 0xff);
+            if (oktett < 0x10) {
+                mac.append('0');
+            }
+            mac.append(Integer.toHexString(oktett));
+            if (i > 0) {
+                mac.append(':');
+            }
         }
-
-        return macOK;
+        return mac.toString();
     }
 
     public int getMaxVermittlungsStellen() {
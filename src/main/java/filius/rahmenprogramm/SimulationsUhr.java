@@ -0,0 +1,329 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Uhr der Simulation. Alle Verzoegerungen und Zeitueberschreitungen der simulierten Protokolle werden in simulierten
+ * Millisekunden angegeben und ueber diese Klasse in Echtzeit umgerechnet. Im Zeitraffer vergeht die simulierte Zeit um
+ * einen festen Faktor schneller als die Echtzeit, so dass Wartezeiten (z. B. zwischen RIP-Aktualisierungen oder bis zum
+ * Ablauf einer Lease) entsprechend verkuerzt werden, ohne dass sich das Verhalten der Protokolle aendert.
+ * <p>
+ * Zusaetzlich kann Leerlauf uebersprungen werden: Alle Wartezeiten, die ueber {@link #schlafen(long)} und
+ * {@link #warten(Object, long)} laufen, werden mit ihrem Ende in simulierter Zeit vermerkt. Wurde seit
+ * {@link #LEERLAUF_MILLIS} Millisekunden Echtzeit kein Rahmen mehr uebertragen (siehe {@link #meldeAktivitaet()}) und
+ * verarbeitet gerade kein Protokoll-Thread eine Dateneinheit (siehe {@link #beginneArbeit()}), springt die simulierte
+ * Zeit bis zum Ende der naechsten Wartezeit und die betroffenen Threads werden geweckt.
+ * <p>
+ * Solange weder Zeitraffer noch Leerlaufsprung genutzt wurden, entspricht die simulierte Zeit der Systemzeit.
+ * {@link #zuruecksetzen()} stellt diesen Zustand wieder her, z. B. beim Anlegen eines neuen Szenarios.
+ */
+public class SimulationsUhr {
+    private static Logger LOG = LoggerFactory.getLogger(SimulationsUhr.class);
+
+    /** Die in der Oberflaeche angebotenen Zeitraffer-Faktoren */
+    public static final int[] ZEITRAFFER_STUFEN = { 1, 2, 5 };
+
+    /**
+     * Hoechster Zeitraffer-Faktor. Die kleinste Verzoegerung eines Kabels (5 ms) entspricht damit noch einer ganzen
+     * Millisekunde Echtzeit, so dass Kabel und Zeitueberschreitungen um denselben Faktor schneller werden.
+     */
+    public static final int MAX_ZEITRAFFER = 5;
+
+    /** Echtzeit in Millisekunden ohne Aktivitaet, nach der beim Ueberspringen von Leerlauf gesprungen wird */
+    static final long LEERLAUF_MILLIS = 20;
+
+    /**
+     * Zustand der Uhr seit dem letzten Wechsel des Zeitraffers, Zuruecksetzen oder Sprung. Der Zustand wird nie
+     * veraendert, sondern als Ganzes ersetzt, so dass {@link #jetzt()} ohne Sperre gelesen werden kann.
+     */
+    private static class Zustand {
+        /** Simulierte Zeit beim Wechsel */
+        private final long basisSimulation;
+        /** Systemzeit beim Wechsel */
+        private final long basisEcht;
+        private final int zeitraffer;
+
+        private Zustand(long basisSimulation, long basisEcht, int zeitraffer) {
+            this.basisSimulation = basisSimulation;
+            this.basisEcht = basisEcht;
+            this.zeitraffer = zeitraffer;
+        }
+
+        private long jetzt(long echtzeit) {
+            return basisSimulation + (echtzeit - basisEcht) * zeitraffer;
+        }
+    }
+
+    private static volatile Zustand zustand;
+    static {
+        long echtzeit = System.currentTimeMillis();
+        zustand = new Zustand(echtzeit, echtzeit, 1);
+    }
+
+    private static volatile boolean leerlaufUeberspringen = false;
+
+    /** Systemzeit der letzten gemeldeten Aktivitaet */
+    private static volatile long letzteAktivitaet = System.currentTimeMillis();
+
+    /** Anzahl der Threads, die gerade eine Dateneinheit verarbeiten */
+    private static final AtomicInteger laufendeArbeiten = new AtomicInteger();
+
+    /** Die laufenden Wartezeiten mit ihrem Ende in simulierter Zeit */
+    private static final List<Frist> fristen = new LinkedList<Frist>();
+
+    private static Thread leerlaufThread;
+
+    /** Ende einer Wartezeit und das Objekt, ueber das der wartende Thread geweckt wird */
+    private static class Frist {
+        private final long zeitpunkt;
+        private final Object monitor;
+
+        private Frist(long zeitpunkt, Object monitor) {
+            this.zeitpunkt = zeitpunkt;
+            this.monitor = monitor;
+        }
+    }
+
+    /** Aktuelle simulierte Zeit in Millisekunden */
+    public static long jetzt() {
+        return zustand.jetzt(System.currentTimeMillis());
+    }
+
+    public static int holeZeitraffer() {
+        return zustand.zeitraffer;
+    }
+
+    /**
+     * Setzt den Faktor, um den die simulierte Zeit schneller als die Echtzeit vergeht. Werte ausserhalb von 1 bis
+     * {@value #MAX_ZEITRAFFER} werden auf den Minimal- bzw. Maximalwert gesetzt. Die simulierte Zeit laeuft dabei
+     * stetig weiter.
+     */
+    public static synchronized void setzeZeitraffer(int faktor) {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SimulationsUhr, setzeZeitraffer(" + faktor + ")");
+        long echtzeit = System.currentTimeMillis();
+        zustand = new Zustand(zustand.jetzt(echtzeit), echtzeit, Math.max(1, Math.min(MAX_ZEITRAFFER, faktor)));
+    }
+
+    /** Setzt die simulierte Zeit wieder auf die Systemzeit. Der Zeitraffer-Faktor bleibt erhalten. */
+    public static synchronized void zuruecksetzen() {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SimulationsUhr, zuruecksetzen()");
+        long echtzeit = System.currentTimeMillis();
+        zustand = new Zustand(echtzeit, echtzeit, zustand.zeitraffer);
+    }
+
+    public static boolean holeLeerlaufUeberspringen() {
+        return leerlaufUeberspringen;
+    }
+
+    /**
+     * Schaltet das Ueberspringen von Leerlauf ein oder aus. Solange es eingeschaltet ist, prueft ein Hintergrund-Thread
+     * regelmaessig, ob gesprungen werden kann.
+     */
+    public static synchronized void setzeLeerlaufUeberspringen(boolean ueberspringen) {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SimulationsUhr, setzeLeerlaufUeberspringen(" + ueberspringen
+                + ")");
+        leerlaufUeberspringen = ueberspringen;
+        if (ueberspringen && leerlaufThread == null) {
+            leerlaufThread = new Thread("SimulationsUhr") {
+                public void run() {
+                    while (true) {
+                        synchronized (SimulationsUhr.class) {
+                            if (!leerlaufUeberspringen) {
+                                leerlaufThread = null;
+                                return;
+                            }
+                        }
+                        try {
+                            Thread.sleep(LEERLAUF_MILLIS / 2);
+                        } catch (InterruptedException e) {}
+                        if (leerlaufUeberspringen && istLeerlauf()) {
+                            ueberspringeLeerlauf();
+                        }
+                    }
+                }
+            };
+            leerlaufThread.setDaemon(true);
+            leerlaufThread.start();
+        }
+    }
+
+    /**
+     * Meldet, dass in der Simulation etwas geschieht (z. B. ein Rahmen uebertragen wird). Solange Aktivitaet gemeldet
+     * wird, wird kein Leerlauf uebersprungen.
+     */
+    public static void meldeAktivitaet() {
+        letzteAktivitaet = System.currentTimeMillis();
+    }
+
+    /**
+     * Meldet, dass ein Thread mit der Verarbeitung einer Dateneinheit beginnt. Bis zum zugehoerigen Aufruf von
+     * {@link #beendeArbeit()} wird kein Leerlauf uebersprungen, auch wenn die Verarbeitung laenger dauert.
+     */
+    public static void beginneArbeit() {
+        laufendeArbeiten.incrementAndGet();
+    }
+
+    /** Meldet das Ende der mit {@link #beginneArbeit()} gemeldeten Verarbeitung. */
+    public static void beendeArbeit() {
+        laufendeArbeiten.decrementAndGet();
+        meldeAktivitaet();
+    }
+
+    /** ob seit {@link #LEERLAUF_MILLIS} Millisekunden nichts mehr geschieht */
+    static boolean istLeerlauf() {
+        return laufendeArbeiten.get() == 0 && System.currentTimeMillis() - letzteAktivitaet >= LEERLAUF_MILLIS;
+    }
+
+    /**
+     * Springt bis zum Ende der naechsten laufenden Wartezeit und weckt alle Threads, deren Wartezeit damit abgelaufen
+     * ist.
+     * 
+     * @return ob die simulierte Zeit vorgestellt wurde
+     */
+    static boolean ueberspringeLeerlauf() {
+        List<Frist> abgelaufen = new LinkedList<Frist>();
+        long sprung;
+        synchronized (fristen) {
+            long naechsteFrist = Long.MAX_VALUE;
+            for (Frist frist : fristen) {
+                naechsteFrist = Math.min(naechsteFrist, frist.zeitpunkt);
+            }
+            if (naechsteFrist == Long.MAX_VALUE) {
+                return false;
+            }
+            synchronized (SimulationsUhr.class) {
+                long echtzeit = System.currentTimeMillis();
+                Zustand alt = zustand;
+                sprung = naechsteFrist - alt.jetzt(echtzeit);
+                if (sprung > 0) {
+                    zustand = new Zustand(alt.basisSimulation + sprung, alt.basisEcht, alt.zeitraffer);
+                }
+            }
+            long jetzt = jetzt();
+            for (Frist frist : fristen) {
+                if (frist.zeitpunkt <= jetzt) {
+                    abgelaufen.add(frist);
+                }
+            }
+        }
+        if (sprung > 0) {
+            LOG.debug("skipped " + sprung + " ms of simulated idle time");
+        }
+        meldeAktivitaet();
+        for (Frist frist : abgelaufen) {
+            synchronized (frist.monitor) {
+                frist.monitor.notifyAll();
+            }
+        }
+        return sprung > 0;
+    }
+
+    /**
+     * Vermerkt das Ende einer Wartezeit. Bei sehr langen Wartezeiten (z. B. {@link Long#MAX_VALUE}) wird das Ende auf
+     * {@link Long#MAX_VALUE} begrenzt; solche Wartezeiten werden beim Ueberspringen von Leerlauf nicht beruecksichtigt.
+     */
+    private static Frist anmelden(Object monitor, long simulierteMillis) {
+        long jetzt = jetzt();
+        long ende = jetzt + simulierteMillis;
+        Frist frist = new Frist(ende < jetzt ? Long.MAX_VALUE : ende, monitor);
+        synchronized (fristen) {
+            fristen.add(frist);
+        }
+        return frist;
+    }
+
+    private static void abmelden(Frist frist) {
+        synchronized (fristen) {
+            fristen.remove(frist);
+        }
+    }
+
+    /**
+     * Rechnet eine Dauer in simulierter Zeit in Echtzeit um. Positive Werte ergeben mindestens eine Millisekunde, damit
+     * eine Wartezeit nicht als unbegrenztes Warten missverstanden wird.
+     */
+    public static long inEchtzeit(long simulierteMillis) {
+        if (simulierteMillis <= 0) {
+            return simulierteMillis;
+        }
+        int faktor = holeZeitraffer();
+        return Math.max(1, simulierteMillis / faktor + (simulierteMillis % faktor == 0 ? 0 : 1));
+    }
+
+    /**
+     * Ersatz fuer {@link Thread#sleep(long)} mit einer Dauer in simulierter Zeit. Die Methode kehrt zurueck, sobald die
+     * simulierte Zeit um die Dauer fortgeschritten ist, beim Ueberspringen von Leerlauf also auch frueher. Bei einer
+     * Dauer von 0 oder weniger kehrt sie sofort zurueck.
+     */
+    public static void schlafen(long simulierteMillis) throws InterruptedException {
+        if (simulierteMillis <= 0) {
+            return;
+        }
+        Object monitor = new Object();
+        Frist frist = anmelden(monitor, simulierteMillis);
+        try {
+            synchronized (monitor) {
+                for (long rest = simulierteMillis; rest > 0; rest = frist.zeitpunkt - jetzt()) {
+                    monitor.wait(inEchtzeit(rest));
+                }
+            }
+        } finally {
+            abmelden(frist);
+        }
+    }
+
+    /**
+     * Ersatz fuer {@link Object#wait(long)} mit einer Dauer in simulierter Zeit. Der Aufrufer muss den Monitor des
+     * Objekts halten. Anders als bei {@link Object#wait(long)} kehrt die Methode bei einer Dauer von 0 oder weniger
+     * sofort zurueck; fuer unbegrenztes Warten gibt es {@link #wartenUnbegrenzt(Object)}.
+     */
+    public static void warten(Object monitor, long simulierteMillis) throws InterruptedException {
+        if (simulierteMillis <= 0) {
+            return;
+        }
+        Frist frist = anmelden(monitor, simulierteMillis);
+        try {
+            monitor.wait(inEchtzeit(simulierteMillis));
+        } finally {
+            abmelden(frist);
+        }
+    }
+
+    /**
+     * Wartet ohne Zeitbegrenzung, bis der Monitor benachrichtigt wird. Der Aufrufer muss den Monitor des Objekts
+     * halten.
+     */
+    public static void wartenUnbegrenzt(Object monitor) throws InterruptedException {
+        monitor.wait();
+    }
+}
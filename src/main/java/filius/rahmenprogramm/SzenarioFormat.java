@@ -0,0 +1,365 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.beans.ExceptionListener;
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.gui.netzwerksicht.GUIDocuItem;
+import filius.gui.netzwerksicht.GUIKabelItem;
+import filius.gui.netzwerksicht.GUIKnotenItem;
+import filius.gui.netzwerksicht.JSidebarButton;
+import filius.hardware.Kabel;
+import filius.hardware.NetzwerkInterface;
+import filius.hardware.Port;
+import filius.hardware.knoten.InternetKnoten;
+import filius.hardware.knoten.Knoten;
+import filius.hardware.knoten.LokalerKnoten;
+
+/**
+ * Kompaktes Dateiformat fuer die Netzwerkkonfiguration eines Projekts. Im Gegensatz zur XML-Datei, die mit einem
+ * einzigen XMLEncoder fuer alle Knoten, Kabel und Dokumentationselemente geschrieben wird, wird das Netzwerk hier als
+ * komprimierte Folge von Datensaetzen geschrieben und gelesen, jeweils ein Datensatz fuer einen Knoten, ein Kabel oder
+ * ein Dokumentationselement. <br />
+ * Der Aufbau ist: Kennung, Formatversion, Filius-Version, Datensaetze, Endekennung. Die Konfiguration eines Knotens
+ * (Hardware, Betriebssystem, Anwendungen und Dateisystem) wird mit den Regeln der Bean-Persistenz als eigenes
+ * XML-Dokument im Datensatz abgelegt. Kabel verweisen ueber die Nummer des Knotens und die Nummer des Anschlusses auf
+ * die zuvor geschriebenen Knoten.
+ */
+public class SzenarioFormat {
+    private static Logger LOG = LoggerFactory.getLogger(SzenarioFormat.class);
+
+    /** Name der Datei mit der Netzwerkkonfiguration im Projektarchiv */
+    public static final String DATEINAME = "netzwerk.fsn";
+
+    static final int KENNUNG = 0x46534E00;
+    /** Version 2: Kabel mit Datenrate und Puffergroesse */
+    static final int FORMAT_VERSION = 2;
+
+    private static final int KNOTEN = 'K';
+    private static final int KABEL = 'C';
+    private static final int DOKU = 'D';
+    private static final int ENDE = 'E';
+
+    private static final ExceptionListener PROTOKOLL = new ExceptionListener() {
+        public void exceptionThrown(Exception e) {
+            LOG.debug("", e);
+        }
+    };
+
+    private SzenarioFormat() {}
+
+    /**
+     * Schreibt das Netzwerk in den Datenstrom. Der Datenstrom wird nicht geschlossen.
+     */
+    public static void schreiben(OutputStream out, List<GUIKnotenItem> hardwareItems, List<GUIKabelItem> kabelItems,
+            List<GUIDocuItem> docuItems) throws IOException {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioFormat, schreiben(" + out + "," + hardwareItems + ","
+                + kabelItems + "," + docuItems + ")");
+        Deflater deflater = new Deflater();
+        try {
+            DeflaterOutputStream komprimiert = new DeflaterOutputStream(out, deflater);
+            DataOutputStream daten = new DataOutputStream(new BufferedOutputStream(komprimiert));
+
+            daten.writeInt(KENNUNG);
+            daten.writeInt(FORMAT_VERSION);
+            daten.writeUTF("Filius version: " + Information.getVersion());
+
+            Map<GUIKnotenItem, Integer> knotenNummern = new IdentityHashMap<GUIKnotenItem, Integer>();
+            Map<Port, int[]> anschlussNummern = new IdentityHashMap<Port, int[]>();
+            for (GUIKnotenItem knotenItem : hardwareItems) {
+                List<Port> anschluesse = holeAnschluesse(knotenItem.getKnoten());
+                for (int i = 0; i < anschluesse.size(); i++) {
+                    anschlussNummern.put(anschluesse.get(i), new int[] { knotenNummern.size(), i });
+                }
+                knotenNummern.put(knotenItem, knotenNummern.size());
+                schreibeKnoten(daten, knotenItem);
+            }
+            for (GUIKabelItem kabelItem : kabelItems) {
+                schreibeKabel(daten, kabelItem, knotenNummern, anschlussNummern);
+            }
+            for (GUIDocuItem docuItem : docuItems) {
+                schreibeDoku(daten, docuItem);
+            }
+            daten.writeByte(ENDE);
+
+            daten.flush();
+            komprimiert.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void schreibeKnoten(DataOutputStream daten, GUIKnotenItem knotenItem) throws IOException {
+        JSidebarButton label = knotenItem.getImageLabel();
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        XMLEncoder encoder = new XMLEncoder(xml);
+        encoder.setExceptionListener(PROTOKOLL);
+        encoder.writeObject(knotenItem.getKnoten());
+        encoder.close();
+
+        daten.writeByte(KNOTEN);
+        daten.writeInt(label != null ? label.getX() : 0);
+        daten.writeInt(label != null ? label.getY() : 0);
+        schreibeText(daten, label != null ? label.getText() : null);
+        daten.writeInt(xml.size());
+        xml.writeTo(daten);
+    }
+
+    private static void schreibeKabel(DataOutputStream daten, GUIKabelItem kabelItem,
+            Map<GUIKnotenItem, Integer> knotenNummern, Map<Port, int[]> anschlussNummern) throws IOException {
+        Integer ziel1 = knotenNummern.get(kabelItem.getKabelpanel().getZiel1());
+        Integer ziel2 = knotenNummern.get(kabelItem.getKabelpanel().getZiel2());
+        Port[] ports = kabelItem.getDasKabel().getAnschluesse();
+        int[] anschluss1 = ports != null ? anschlussNummern.get(ports[0]) : null;
+        int[] anschluss2 = ports != null ? anschlussNummern.get(ports[1]) : null;
+        if (ziel1 == null || ziel2 == null || anschluss1 == null || anschluss2 == null) {
+            LOG.debug("cable " + kabelItem + " is not connected to saved nodes and will not be saved");
+            return;
+        }
+
+        daten.writeByte(KABEL);
+        daten.writeInt(ziel1);
+        daten.writeInt(ziel2);
+        daten.writeInt(anschluss1[0]);
+        daten.writeInt(anschluss1[1]);
+        daten.writeInt(anschluss2[0]);
+        daten.writeInt(anschluss2[1]);
+        daten.writeBoolean(kabelItem.getDasKabel().getWireless());
+        daten.writeInt(kabelItem.getDasKabel().getDatenrate());
+        daten.writeInt(kabelItem.getDasKabel().getPufferGroesse());
+    }
+
+    private static void schreibeDoku(DataOutputStream daten, GUIDocuItem docuItem) throws IOException {
+        daten.writeByte(DOKU);
+        daten.writeInt(docuItem.getType());
+        schreibeText(daten, docuItem.getText());
+        daten.writeInt(docuItem.getX());
+        daten.writeInt(docuItem.getY());
+        daten.writeInt(docuItem.getWidth());
+        daten.writeInt(docuItem.getHeight());
+        Color farbe = docuItem.getColor();
+        daten.writeBoolean(farbe != null);
+        if (farbe != null) {
+            daten.writeInt(farbe.getRGB());
+        }
+        Font schrift = docuItem.getFont();
+        daten.writeBoolean(schrift != null);
+        if (schrift != null) {
+            daten.writeUTF(schrift.getName());
+            daten.writeInt(schrift.getStyle());
+            daten.writeInt(schrift.getSize());
+        }
+    }
+
+    /**
+     * Liest das Netzwerk aus dem Datenstrom. Jeder Knoten, jedes Kabel und jedes Dokumentationselement wird direkt nach
+     * dem Lesen seines Datensatzes in die jeweilige Liste eingefuegt.
+     * 
+     * @throws IOException
+     *             wenn der Datenstrom nicht im kompakten Format vorliegt oder unvollstaendig ist
+     */
+    public static void lesen(InputStream in, List<GUIKnotenItem> hardwareItems, List<GUIKabelItem> kabelItems,
+            List<GUIDocuItem> docuItems) throws IOException {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioFormat, lesen(" + in + "," + hardwareItems + ","
+                + kabelItems + "," + docuItems + ")");
+        Inflater inflater = new Inflater();
+        try {
+            DataInputStream daten = new DataInputStream(
+                    new BufferedInputStream(new InflaterInputStream(in, inflater)));
+
+            if (daten.readInt() != KENNUNG) {
+                throw new IOException("no compact Filius network configuration");
+            }
+            int formatVersion = daten.readInt();
+            if (formatVersion > FORMAT_VERSION) {
+                throw new IOException("unsupported format version " + formatVersion);
+            }
+            SzenarioVerwaltung.pruefeVersion(daten.readUTF());
+
+            hardwareItems.clear();
+            kabelItems.clear();
+            docuItems.clear();
+
+            for (int satz; (satz = daten.readUnsignedByte()) != ENDE;) {
+                if (satz == KNOTEN) {
+                    hardwareItems.add(leseKnoten(daten));
+                } else if (satz == KABEL) {
+                    GUIKabelItem kabelItem = leseKabel(daten, hardwareItems, formatVersion);
+                    if (kabelItem != null) {
+                        kabelItems.add(kabelItem);
+                    }
+                } else if (satz == DOKU) {
+                    docuItems.add(leseDoku(daten));
+                } else {
+                    throw new IOException("unknown record type " + satz);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static GUIKnotenItem leseKnoten(DataInputStream daten) throws IOException {
+        int x = daten.readInt();
+        int y = daten.readInt();
+        String text = leseText(daten);
+        byte[] xml = new byte[daten.readInt()];
+        daten.readFully(xml);
+
+        Knoten knoten;
+        try (XMLDecoder decoder = new XMLDecoder(new ByteArrayInputStream(xml))) {
+            decoder.setExceptionListener(PROTOKOLL);
+            knoten = (Knoten) decoder.readObject();
+        } catch (RuntimeException e) {
+            throw new IOException("node configuration could not be read", e);
+        }
+
+        JSidebarButton label = new JSidebarButton();
+        label.setText(text);
+        label.setLocation(x, y);
+        label.setTyp(knoten.holeHardwareTyp());
+        GUIKnotenItem knotenItem = new GUIKnotenItem();
+        knotenItem.setImageLabel(label);
+        knotenItem.setKnoten(knoten);
+        return knotenItem;
+    }
+
+    static GUIKabelItem leseKabel(DataInputStream daten, List<GUIKnotenItem> hardwareItems,
+            int formatVersion) throws IOException {
+        int ziel1 = daten.readInt();
+        int ziel2 = daten.readInt();
+        Port anschluss1 = holeAnschluss(hardwareItems, daten.readInt(), daten.readInt());
+        Port anschluss2 = holeAnschluss(hardwareItems, daten.readInt(), daten.readInt());
+        boolean wireless = daten.readBoolean();
+        int datenrate = 0;
+        int pufferGroesse = 0;
+        if (formatVersion >= 2) {
+            datenrate = daten.readInt();
+            pufferGroesse = daten.readInt();
+        }
+        if (ziel1 < 0 || ziel1 >= hardwareItems.size() || ziel2 < 0 || ziel2 >= hardwareItems.size()
+                || anschluss1 == null || anschluss2 == null) {
+            LOG.debug("cable refers to unknown node or port and is ignored");
+            return null;
+        }
+
+        Kabel kabel = new Kabel();
+        kabel.setAnschluesse(new Port[] { anschluss1, anschluss2 });
+        kabel.setWireless(wireless);
+        kabel.setDatenrate(datenrate);
+        kabel.setPufferGroesse(pufferGroesse);
+        GUIKabelItem kabelItem = new GUIKabelItem();
+        kabelItem.getKabelpanel().setZiel1(hardwareItems.get(ziel1));
+        kabelItem.getKabelpanel().setZiel2(hardwareItems.get(ziel2));
+        kabelItem.setDasKabel(kabel);
+        return kabelItem;
+    }
+
+    private static GUIDocuItem leseDoku(DataInputStream daten) throws IOException {
+        GUIDocuItem docuItem = new GUIDocuItem();
+        docuItem.setType(daten.readInt());
+        docuItem.setText(leseText(daten));
+        docuItem.setX(daten.readInt());
+        docuItem.setY(daten.readInt());
+        docuItem.setWidth(daten.readInt());
+        docuItem.setHeight(daten.readInt());
+        if (daten.readBoolean()) {
+            docuItem.setColor(new Color(daten.readInt(), true));
+        }
+        if (daten.readBoolean()) {
+            docuItem.setFont(new Font(daten.readUTF(), daten.readInt(), daten.readInt()));
+        }
+        return docuItem;
+    }
+
+    /**
+     * Die Anschluesse eines Knotens in der Reihenfolge, in der sie bei Kabeln nummeriert werden.
+     */
+    public static List<Port> holeAnschluesse(Knoten knoten) {
+        List<Port> anschluesse = new LinkedList<Port>();
+        if (knoten instanceof LokalerKnoten) {
+            anschluesse.addAll(((LokalerKnoten) knoten).getAnschluesse());
+        } else if (knoten instanceof InternetKnoten) {
+            for (NetzwerkInterface nic : ((InternetKnoten) knoten).getNetzwerkInterfaces()) {
+                anschluesse.add(nic.getPort());
+            }
+        }
+        return anschluesse;
+    }
+
+    private static Port holeAnschluss(List<GUIKnotenItem> hardwareItems, int knotenNummer, int anschlussNummer) {
+        if (knotenNummer < 0 || knotenNummer >= hardwareItems.size()) {
+            return null;
+        }
+        List<Port> anschluesse = holeAnschluesse(hardwareItems.get(knotenNummer).getKnoten());
+        return anschlussNummer >= 0 && anschlussNummer < anschluesse.size() ? anschluesse.get(anschlussNummer) : null;
+    }
+
+    private static void schreibeText(DataOutputStream daten, String text) throws IOException {
+        if (text == null) {
+            daten.writeInt(-1);
+        } else {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            daten.writeInt(bytes.length);
+            daten.write(bytes);
+        }
+    }
+
+    private static String leseText(DataInputStream daten) throws IOException {
+        int laenge = daten.readInt();
+        if (laenge < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[laenge];
+        daten.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -27,7 +27,6 @@ package filius.rahmenprogramm;
 
 import java.beans.ExceptionListener;
 import java.beans.XMLDecoder;
-import java.beans.XMLEncoder;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -36,11 +35,14 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Observable;
+import java.util.Set;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
@@ -62,6 +64,10 @@ public class SzenarioVerwaltung extends Observable implements I18n {
     private String pfad = null;
     private static SzenarioVerwaltung verwaltung = null;
 
+    /** Ordner im Projektarchiv, in dem das Netzwerk und die eigenen Anwendungen abgelegt werden */
+    private static final String PROJEKT_ORDNER = "projekt/";
+    private static final String ANWENDUNGEN_ORDNER = "anwendungen/";
+
     private SzenarioVerwaltung() {}
 
     public static SzenarioVerwaltung getInstance() {
@@ -101,33 +107,37 @@ public class SzenarioVerwaltung extends Observable implements I18n {
      * Speichern: - der Netzwerkknoten (inkl. Betriebssystem, Anwendungen - auch eigene/erweiterte - und
      * Konfigurationen) - der Verbindungen - der Quelldateien und des Bytecodes von selbst erstellten Anwendungen
      * 
-     * Loesungsstrategie: - generell einen eigenen ClassLoader verwenden - XML-Datei fuer Objekte und Dateien aus dem
-     * Ordner Anwendungen in einem leeren temporaeren Ordner speichern und daraus ein neues ZIP-Archiv erstellen, dass
-     * an beliebigem Ort gespeichert werden kann
+     * Loesungsstrategie: - generell einen eigenen ClassLoader verwenden - Dateien aus dem Ordner Anwendungen und das
+     * Netzwerk im kompakten Format (siehe {@link SzenarioFormat}) direkt in ein ZIP-Archiv schreiben, dass an
+     * beliebigem Ort gespeichert werden kann
      */
     public boolean speichern(String datei, List<GUIKnotenItem> hardwareItems, List<GUIKabelItem> kabelItems,
             List<GUIDocuItem> docuItems) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", speichern(" + datei + "," + hardwareItems + ","
                 + kabelItems + ")");
 
-        String tmpDir;
         boolean erfolg = true;
-
-        tmpDir = Information.getInformation().getTempPfad() + "projekt" + System.getProperty("file.separator");
-        (new File(tmpDir)).mkdirs();
-
-        if (!kopiereVerzeichnis(Information.getInformation().getAnwendungenPfad(), tmpDir + "anwendungen")) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der eigenen Anwendungen fehlgeschlagen!");
-            erfolg = false;
+        File zipDatei = new File(datei);
+        if (zipDatei.getAbsoluteFile().getParentFile() != null) {
+            zipDatei.getAbsoluteFile().getParentFile().mkdirs();
         }
 
-        if (!netzwerkSpeichern(tmpDir + "konfiguration.xml", hardwareItems, kabelItems, docuItems)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung des Netzwerks fehlgeschlagen!");
-            erfolg = false;
-        }
+        try (ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipDatei)))) {
+            File anwendungen = new File(Information.getInformation().getAnwendungenPfad());
+            if (!anwendungen.exists()
+                    || !schreibeZipDatei(zipOut, PROJEKT_ORDNER + ANWENDUNGEN_ORDNER, anwendungen.getAbsolutePath())) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der eigenen Anwendungen fehlgeschlagen!");
+                erfolg = false;
+            }
 
-        if (!erzeugeZipArchiv(tmpDir, datei)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der Projektdatei fehlgeschlagen!");
+            zipOut.putNextEntry(new ZipEntry(PROJEKT_ORDNER + SzenarioFormat.DATEINAME));
+            if (!netzwerkSpeichern(zipOut, hardwareItems, kabelItems, docuItems)) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Speicherung des Netzwerks fehlgeschlagen!");
+                erfolg = false;
+            }
+            zipOut.closeEntry();
+        } catch (IOException e) {
+            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der Projektdatei fehlgeschlagen!", e);
             erfolg = false;
         }
 
@@ -139,56 +149,31 @@ public class SzenarioVerwaltung extends Observable implements I18n {
             this.notifyObservers();
         }
 
-        loescheDateien(tmpDir);
-
         return erfolg;
     }
 
-    private static boolean netzwerkSpeichern(String datei, List<GUIKnotenItem> hardwareItems,
-            List<GUIKabelItem> kabelItems, List<GUIDocuItem> docuItems) {
-        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkSpeichern(" + datei + ","
-                + hardwareItems + "," + kabelItems + ")");
-        XMLEncoder mx = null;
-        FileOutputStream fos = null;
-
+    private static void setzeKlassenLader() {
         if (Thread.currentThread().getContextClassLoader() != FiliusClassLoader
                 .getInstance(Thread.currentThread().getContextClassLoader()))
             Thread.currentThread().setContextClassLoader(
                     FiliusClassLoader.getInstance(Thread.currentThread().getContextClassLoader()));
+    }
 
-        try {
-            fos = new FileOutputStream(datei);
-            mx = new XMLEncoder(new BufferedOutputStream(fos));
-            mx.setExceptionListener(new ExceptionListener() {
-                public void exceptionThrown(Exception e) {
-                    LOG.debug("", e);
-                }
-            });
-
-            mx.writeObject(new String("Filius version: " + filius.rahmenprogramm.Information.getVersion()));
-            mx.writeObject(hardwareItems);
-            mx.writeObject(kabelItems);
-            mx.writeObject(docuItems);
+    private static boolean netzwerkSpeichern(OutputStream out, List<GUIKnotenItem> hardwareItems,
+            List<GUIKabelItem> kabelItems, List<GUIDocuItem> docuItems) {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkSpeichern(" + out + ","
+                + hardwareItems + "," + kabelItems + ")");
+        setzeKlassenLader();
 
+        try {
+            SzenarioFormat.schreiben(out, hardwareItems, kabelItems, docuItems);
             return true;
         } catch (java.lang.RuntimeException e) {
-            LOG.debug("EXCEPTION: java.lang.RuntimeException raised; Java internal problem, not Filius related!");
+            LOG.debug("EXCEPTION: java.lang.RuntimeException raised; Java internal problem, not Filius related!", e);
             return false;
-        } catch (FileNotFoundException e2) {
-            LOG.debug("", e2);
-
-            return false;
-        } catch (Exception e) {
+        } catch (IOException e) {
+            LOG.debug("", e);
             return false;
-        } finally {
-
-            if (mx != null)
-                mx.close();
-            if (fos != null) {
-                try {
-                    fos.close();
-                } catch (IOException e) {}
-            }
         }
     }
 
@@ -198,29 +183,40 @@ public class SzenarioVerwaltung extends Observable implements I18n {
                 + kabelItems + ")");
 
         boolean erfolg = true;
-        String tmpDir;
-
-        // LOG.debug("SzenarioVerwaltung: Laden des Projekts aus Datei "+datei);
-        tmpDir = Information.getInformation().getTempPfad();
-
-        loescheDateien(tmpDir + "projekt");
-
-        if (erfolg && !loescheVerzeichnisInhalt(Information.getInformation().getAnwendungenPfad())) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Loeschen vorhandener Anwendungen fehlgeschlagen");
-        }
 
-        if (!entpackeZipArchiv(datei, tmpDir)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Entpacken des Zip-Archivs fehlgeschlagen");
-            erfolg = false;
+        if (!new File(datei).exists()) {
+            LOG.debug("ERROR (" + this.hashCode() + "): " + datei + " existiert nicht. Laden ist fehlgeschlagen!");
+            return false;
         }
 
-        if (erfolg && !kopiereVerzeichnis(tmpDir + "projekt/anwendungen",
-                Information.getInformation().getAnwendungenPfad())) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Kopieren der Anwendungen fehlgeschlagen");
-        }
+        try (ZipFile zf = new ZipFile(datei)) {
+            if (!entpackeAnwendungen(zf, Information.getInformation().getAnwendungenPfad())) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Kopieren der Anwendungen fehlgeschlagen");
+            }
+            Information.getInformation().aktualisiereProgrammListe();
 
-        if (erfolg && !netzwerkLaden(tmpDir + "projekt/konfiguration.xml", hardwareItems, kabelItems, docuItems)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Laden der Netzwerkkonfiguration fehlgeschlagen");
+            ZipEntry netzwerk = zf.getEntry(PROJEKT_ORDNER + SzenarioFormat.DATEINAME);
+            boolean kompakt = netzwerk != null;
+            if (!kompakt) {
+                netzwerk = zf.getEntry(PROJEKT_ORDNER + "konfiguration.xml");
+            }
+            if (netzwerk == null) {
+                GUIErrorHandler.getGUIErrorHandler().DisplayError(messages.getString("rp_szenarioverwaltung_msg5"));
+                erfolg = false;
+            } else {
+                try (InputStream in = zf.getInputStream(netzwerk)) {
+                    if (kompakt) {
+                        erfolg = netzwerkKompaktLaden(in, hardwareItems, kabelItems, docuItems);
+                    } else {
+                        erfolg = netzwerkLaden(in, hardwareItems, kabelItems, docuItems);
+                    }
+                }
+            }
+            if (!erfolg) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Laden der Netzwerkkonfiguration fehlgeschlagen");
+            }
+        } catch (IOException e) {
+            LOG.debug("ERROR (" + this.hashCode() + "): Lesen des Zip-Archivs fehlgeschlagen", e);
             erfolg = false;
         }
 
@@ -235,19 +231,86 @@ public class SzenarioVerwaltung extends Observable implements I18n {
         return erfolg;
     }
 
-    private static boolean netzwerkLaden(String datei, List<GUIKnotenItem> hardwareItems, List<GUIKabelItem> kabelItems,
-            List<GUIDocuItem> docuItems) {
-        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkLaden(" + datei + ","
+    /**
+     * Entpackt die eigenen Anwendungen aus dem Projektarchiv in den Ordner fuer Anwendungen. Dateien, die dort bereits
+     * mit gleichem Inhalt vorliegen, werden nicht neu geschrieben. Dateien, die nicht im Archiv enthalten sind, werden
+     * geloescht.
+     */
+    static boolean entpackeAnwendungen(ZipFile zf, String zielOrdner) throws IOException {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, entpackeAnwendungen(" + zf + ","
+                + zielOrdner + ")");
+        String praefix = PROJEKT_ORDNER + ANWENDUNGEN_ORDNER;
+        File ordner = new File(zielOrdner).getCanonicalFile();
+        Set<File> archivDateien = new HashSet<File>();
+        boolean erfolg = true;
+
+        for (Enumeration<? extends ZipEntry> e = zf.entries(); e.hasMoreElements();) {
+            ZipEntry eintrag = e.nextElement();
+            if (eintrag.isDirectory() || !eintrag.getName().startsWith(praefix)) {
+                continue;
+            }
+            File ziel = new File(ordner, eintrag.getName().substring(praefix.length())).getCanonicalFile();
+            if (!ziel.getPath().startsWith(ordner.getPath() + File.separator)) {
+                LOG.debug("ERROR (static): Eintrag " + eintrag.getName() + " liegt ausserhalb des Anwendungsordners");
+                erfolg = false;
+                continue;
+            }
+            archivDateien.add(ziel);
+            if (istUnveraendert(ziel, eintrag)) {
+                continue;
+            }
+
+            ziel.getParentFile().mkdirs();
+            try (InputStream in = zf.getInputStream(eintrag); FileOutputStream out = new FileOutputStream(ziel)) {
+                byte[] buffer = new byte[0xFFFF];
+                for (int len; (len = in.read(buffer)) != -1;) {
+                    out.write(buffer, 0, len);
+                }
+            }
+        }
+
+        return loescheFehlendeDateien(ordner, archivDateien) && erfolg;
+    }
+
+    private static boolean istUnveraendert(File datei, ZipEntry eintrag) throws IOException {
+        if (!datei.isFile() || datei.length() != eintrag.getSize() || eintrag.getCrc() == -1) {
+            return false;
+        }
+        CRC32 pruefsumme = new CRC32();
+        try (InputStream in = new FileInputStream(datei)) {
+            byte[] buffer = new byte[0xFFFF];
+            for (int len; (len = in.read(buffer)) != -1;) {
+                pruefsumme.update(buffer, 0, len);
+            }
+        }
+        return pruefsumme.getValue() == eintrag.getCrc();
+    }
+
+    private static boolean loescheFehlendeDateien(File ordner, Set<File> behalten) {
+        boolean erfolg = true;
+        File[] dateien = ordner.listFiles();
+        if (dateien != null) {
+            for (File datei : dateien) {
+                if (datei.isDirectory()) {
+                    erfolg = loescheFehlendeDateien(datei, behalten) && erfolg;
+                } else if (!behalten.contains(datei) && !datei.delete()) {
+                    LOG.debug("ERROR (static): Datei " + datei.getAbsolutePath() + " konnte nicht geloescht werden.");
+                    erfolg = false;
+                }
+            }
+        }
+        return erfolg;
+    }
+
+    private static boolean netzwerkLaden(InputStream in, List<GUIKnotenItem> hardwareItems,
+            List<GUIKabelItem> kabelItems, List<GUIDocuItem> docuItems) {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkLaden(" + in + ","
                 + hardwareItems + "," + kabelItems + ")");
         Object tmpObject = null;
-
-        if (Thread.currentThread().getContextClassLoader() != FiliusClassLoader
-                .getInstance(Thread.currentThread().getContextClassLoader()))
-            Thread.currentThread().setContextClassLoader(
-                    FiliusClassLoader.getInstance(Thread.currentThread().getContextClassLoader()));
+        setzeKlassenLader();
 
         boolean success = false;
-        try (XMLDecoder xmldec = new XMLDecoder(new BufferedInputStream(new FileInputStream(datei)))) {
+        try (XMLDecoder xmldec = new XMLDecoder(new BufferedInputStream(in))) {
             xmldec.setExceptionListener(new ExceptionListener() {
                 public void exceptionThrown(Exception e) {
                     LOG.debug("", e);
@@ -262,33 +325,7 @@ public class SzenarioVerwaltung extends Observable implements I18n {
             // WARNING: former versions expect LinkedList as first element in
             // the saved file!
             if (tmpObject instanceof String) {
-                String versionInfo = (String) tmpObject;
-                int startIdx = versionInfo.indexOf(":") + 2;
-                String versionString = versionInfo.substring(startIdx, versionInfo.indexOf(" ", startIdx));
-                LOG.debug("File saved by Filius in version '" + versionString + "'");
-                Version fileVersion = null;
-                try {
-                    fileVersion = Version.parseVersion(versionString.trim());
-                } catch (VersionFormatException e) {
-                    LOG.debug("Version string of project file is not a valid semantic version.");
-                }
-                Version programVersion = Version
-                        .parseVersion(Information.getVersion().substring(0, versionInfo.indexOf(" ")).trim());
-
-                if (fileVersion == null) {
-                    LOG.debug(
-                            "WARNING: version of scenario file could not be evaluated. Certain elements might not be rendered correctly any more!");
-                } else if (fileVersion.compareTo(programVersion) < 0) {
-                    LOG.debug("WARNING: current Filius version is newer ("
-                            + filius.rahmenprogramm.Information.getVersion()
-                            + ") than version of scenario file, such that certain elements might not be rendered correctly any more!");
-                } else if (fileVersion.compareTo(programVersion) > 0) {
-                    LOG.debug("WARNING: current Filius version is older ("
-                            + filius.rahmenprogramm.Information.getVersion()
-                            + ") than version of scenario file, such that certain elements might not be rendered correctly!");
-                } else {
-                    LOG.debug("\t...good, current version of Filius is equal to version of scenario file");
-                }
+                pruefeVersion((String) tmpObject);
                 tmpObject = null;
             } else {
                 LOG.debug("WARNING: Version information of Filius scenario file could not be determined!");
@@ -335,56 +372,63 @@ public class SzenarioVerwaltung extends Observable implements I18n {
                 }
             }
             success = true;
-        } catch (FileNotFoundException e) {
-            GUIErrorHandler.getGUIErrorHandler().DisplayError(messages.getString("rp_szenarioverwaltung_msg5"));
-            LOG.debug("", e);
-            success = false;
         } catch (ArrayIndexOutOfBoundsException e) {
-            LOG.debug("Incomplete project file " + datei);
+            LOG.debug("Incomplete project file");
             success = true;
         }
         return success;
     }
 
-    public static boolean erzeugeZipArchiv(String datenOrdner, String archivDatei) {
-        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, erzeugeZipArchiv(" + datenOrdner + ","
-                + archivDatei + ")");
-        FileOutputStream out;
-        ZipOutputStream zipOut;
-        File zipDatei;
-        File ordner;
-
-        zipDatei = new File(archivDatei);
-        new File(zipDatei.getParent()).mkdirs();
-
-        ordner = new File(datenOrdner);
-        if (!ordner.exists())
-            return false;
+    private static boolean netzwerkKompaktLaden(InputStream in, List<GUIKnotenItem> hardwareItems,
+            List<GUIKabelItem> kabelItems, List<GUIDocuItem> docuItems) {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkKompaktLaden(" + in + ","
+                + hardwareItems + "," + kabelItems + ")");
+        setzeKlassenLader();
 
+        boolean success = false;
         try {
-            zipDatei.createNewFile();
+            Information.getInformation().reset();
+            SzenarioFormat.lesen(in, hardwareItems, kabelItems, docuItems);
+            success = true;
         } catch (IOException e) {
-            LOG.debug("", e);
-            return false;
+            LOG.debug("Incomplete project file", e);
         }
+        return success;
+    }
 
+    /**
+     * Vergleicht die Version, mit der eine Projektdatei gespeichert wurde, mit der Version des laufenden Programms.
+     * 
+     * @param versionInfo
+     *            Versionsangabe aus der Projektdatei in der Form "Filius version: ..."
+     */
+    static void pruefeVersion(String versionInfo) {
+        int startIdx = versionInfo.indexOf(":") + 2;
+        String versionString = versionInfo.substring(startIdx, versionInfo.indexOf(" ", startIdx));
+        LOG.debug("File saved by Filius in version '" + versionString + "'");
+        Version fileVersion = null;
         try {
-            out = new FileOutputStream(zipDatei);
-            zipOut = new ZipOutputStream(out);
-            schreibeZipDatei(zipOut, ordner.getName() + "/", ordner.getAbsolutePath());
-            try {
-                zipOut.close();
-                out.close();
-            } catch (IOException e) {
-                LOG.debug("", e);
-                return false;
-            }
-        } catch (FileNotFoundException e) {
-            LOG.debug("", e);
-            return false;
+            fileVersion = Version.parseVersion(versionString.trim());
+        } catch (VersionFormatException e) {
+            LOG.debug("Version string of project file is not a valid semantic version.");
+        }
+        Version programVersion = Version
+                .parseVersion(Information.getVersion().substring(0, versionInfo.indexOf(" ")).trim());
+
+        if (fileVersion == null) {
+            LOG.debug(
+                    "WARNING: version of scenario file could not be evaluated. Certain elements might not be rendered correctly any more!");
+        } else if (fileVersion.compareTo(programVersion) < 0) {
+            LOG.debug("WARNING: current Filius version is newer ("
+                    + filius.rahmenprogramm.Information.getVersion()
+                    + ") than version of scenario file, such that certain elements might not be rendered correctly any more!");
+        } else if (fileVersion.compareTo(programVersion) > 0) {
+            LOG.debug("WARNING: current Filius version is older ("
+                    + filius.rahmenprogramm.Information.getVersion()
+                    + ") than version of scenario file, such that certain elements might not be rendered correctly!");
+        } else {
+            LOG.debug("\t...good, current version of Filius is equal to version of scenario file");
         }
-
-        return true;
     }
 
     private static boolean schreibeZipDatei(ZipOutputStream out, String relPfad, String datei) {
@@ -438,73 +482,6 @@ public class SzenarioVerwaltung extends Observable implements I18n {
         return true;
     }
 
-    public static boolean entpackeZipArchiv(String archivDatei, String zielOrdner) {
-        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, entpackeZipArchiv(" + archivDatei + ","
-                + zielOrdner + ")");
-        ZipFile zf;
-        File file;
-        InputStream is;
-        BufferedInputStream bis;
-        FileOutputStream fos;
-        BufferedOutputStream bos;
-
-        file = new File(archivDatei);
-        if (!file.exists()) {
-            LOG.debug("ERROR (static): " + archivDatei + " existiert nicht. Entpacken ist fehlgeschlagen!");
-            return false;
-        }
-
-        file = new File(zielOrdner);
-        if (!file.exists()) {
-            file.mkdirs();
-        }
-
-        try {
-            zf = new ZipFile(archivDatei);
-
-            for (Enumeration<? extends ZipEntry> e = zf.entries(); e.hasMoreElements();) {
-                ZipEntry target = e.nextElement();
-
-                file = new File(zielOrdner + target.getName());
-
-                if (target.isDirectory())
-                    file.mkdirs();
-                else {
-                    is = zf.getInputStream(target);
-                    bis = new BufferedInputStream(is);
-
-                    new File(file.getParent()).mkdirs();
-
-                    fos = new FileOutputStream(file);
-                    bos = new BufferedOutputStream(fos);
-
-                    final int EOF = -1;
-
-                    for (int c; (c = bis.read()) != EOF;)
-                        bos.write((byte) c);
-                    bos.close();
-                    fos.close();
-
-                    is.close();
-                    bis.close();
-                }
-
-            }
-
-            zf.close();
-        } catch (FileNotFoundException e) {
-            LOG.debug("EXCEPTION (static): zipfile not found");
-            return false;
-        } catch (ZipException e) {
-            LOG.debug("EXCEPTION (static): zip error...");
-            return false;
-        } catch (IOException e) {
-            LOG.debug("EXCEPTION (static): IO error...");
-            return false;
-        }
-        return true;
-    }
-
     public static boolean loescheVerzeichnisInhalt(String verzeichnis) {
         // LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung,
         // loescheVerzeichnisInhalt("+verzeichnis+")");
@@ -551,32 +528,6 @@ public class SzenarioVerwaltung extends Observable implements I18n {
         }
     }
 
-    public static boolean kopiereVerzeichnis(String quelle, String ziel) {
-        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, kopiereVerzeichnis(" + quelle + "," + ziel
-                + ")");
-        File quellOrdner, zielOrdner, tmp;
-
-        quellOrdner = new File(quelle);
-        zielOrdner = new File(ziel);
-
-        if (!quellOrdner.exists())
-            return false;
-
-        if (!zielOrdner.exists())
-            zielOrdner.mkdirs();
-        for (File file : quellOrdner.listFiles()) {
-            if (file.isDirectory()) {
-                tmp = new File(zielOrdner.getAbsolutePath() + "/" + file.getName());
-                kopiereVerzeichnis(file.getAbsolutePath(), tmp.getAbsolutePath());
-            } else
-                kopiereDatei(file.getAbsolutePath(), zielOrdner.getAbsolutePath() + "/" + file.getName());
-
-        }
-
-        return true;
-
-    }
-
     public static boolean saveStream(InputStream source, String zieldatei) {
         LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, saveStream(" + source + "," + zieldatei
                 + ")");
@@ -42,6 +42,7 @@ import org.slf4j.LoggerFactory;
 
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.transportschicht.TcpSegment;
 import filius.software.transportschicht.UdpSegment;
@@ -169,7 +170,7 @@ public class Lauscher implements I18n {
 
     protected Object[] frameWithTimestamp(EthernetFrame frame) {
         Object[] frameMitZeitstempel = new Object[2];
-        frameMitZeitstempel[0] = Long.valueOf(System.currentTimeMillis());
+        frameMitZeitstempel[0] = Long.valueOf(SimulationsUhr.jetzt());
         frameMitZeitstempel[1] = frame;
         return frameMitZeitstempel;
     }
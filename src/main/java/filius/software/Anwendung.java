@@ -25,10 +25,16 @@
  */
 package filius.software;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Observer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,13 +53,28 @@ import filius.software.system.InternetKnotenBetriebssystem;
 public abstract class Anwendung extends Thread {
     private static Logger LOG = LoggerFactory.getLogger(Anwendung.class);
 
+    /** Markierung in der Dispatch-Tabelle fuer Kommandos, zu denen es keine Methode gibt */
+    private static final MethodHandle KEINE_METHODE = MethodHandles.constant(Object.class, null);
+
+    /**
+     * Dispatch-Tabelle je Anwendungsklasse: zu Methodenname und Argumentklassen eines Kommandos das Handle der
+     * aufzurufenden Methode. Die Methoden werden beim ersten Aufruf einmalig ueber Reflection gesucht.
+     */
+    private static final ClassValue<Map<List<Object>, MethodHandle>> DISPATCH_TABELLEN =
+            new ClassValue<Map<List<Object>, MethodHandle>>() {
+                @Override
+                protected Map<List<Object>, MethodHandle> computeValue(Class<?> klasse) {
+                    return new ConcurrentHashMap<List<Object>, MethodHandle>();
+                }
+            };
+
     /** Bezeichnung fuer die Anwendung */
     private String anwendungsName;
 
     /**
      * Ein Puffer fuer eingehende Kommandos. In dem Puffer werden Objekt-Arrays aus zwei Elementen gespeichert. Das
-     * erste Element ist ein String, der die aufzurufende Methode bestimmt. Das zweite Element ist ein Objekt-Array mit
-     * den Parametern fuer den Methodenaufruf.
+     * erste Element ist ein String, der die aufzurufende Methode bestimmt, oder ein Runnable. Das zweite Element ist
+     * ein Objekt-Array mit den Parametern fuer den Methodenaufruf.
      */
     private LinkedList<Object[]> kommandos = new LinkedList<Object[]>();
 
@@ -76,11 +97,9 @@ public abstract class Anwendung extends Thread {
                 + " (Anwendung), constr: Anwendung()");
 
         try {
-            for (Map<String, String> appInfo : Information.getInformation().ladeProgrammListe()) {
-                if (this.getClass().getCanonicalName().equals((String) appInfo.get("Klasse"))) {
-                    this.setzeAnwendungsName(appInfo.get("Anwendung").toString());
-                    break;
-                }
+            Map<String, String> appInfo = Information.getInformation().holeProgramm(getClass().getCanonicalName());
+            if (appInfo != null) {
+                this.setzeAnwendungsName(appInfo.get("Anwendung").toString());
             }
         } catch (Exception e) {
             LOG.debug("", e);
@@ -172,6 +191,22 @@ public abstract class Anwendung extends Thread {
         }
     }
 
+    /**
+     * Methode zur Uebergabe eines auszufuehrenden Kommandos, das wie bei {@link #ausfuehren(String, Object[])} im
+     * Thread der Anwendung ausgefuehrt wird. Im Gegensatz dazu wird keine Methode ueber ihren Namen gesucht.
+     * 
+     * @param kommando
+     *            das auszufuehrende Kommando
+     */
+    protected void ausfuehren(Runnable kommando) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (Anwendung), ausfuehren("
+                + kommando + ")");
+        synchronized (kommandos) {
+            kommandos.addLast(new Object[] { kommando, null });
+            kommandos.notifyAll();
+        }
+    }
+
     /**
      * Hier wird der Puffer kommandos ueberwacht und wenn dort ein Methodenaufruf vorliegt wird diese Methode
      * aufgerufen.
@@ -179,8 +214,6 @@ public abstract class Anwendung extends Thread {
     public void run() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (Anwendung), run()");
         Class<?>[] argumentKlassen;
-        Class<?> klasse;
-        Method method;
         String methodenName;
         Object[] args;
         Object[] aufruf;
@@ -197,35 +230,36 @@ public abstract class Anwendung extends Thread {
                 if (kommandos.size() > 0) {
                     aufruf = (Object[]) kommandos.removeFirst();
 
+                    if (aufruf[0] instanceof Runnable) {
+                        try {
+                            ((Runnable) aufruf[0]).run();
+                        } catch (Throwable e) {
+                            LOG.debug("an unexpected error occurred during processing in application.", e);
+                        }
+                        continue;
+                    }
+
                     methodenName = aufruf[0].toString();
                     args = (Object[]) aufruf[1];
 
                     if (args != null) {
-                        argumentKlassen = new Class[args.length];
+                        argumentKlassen = new Class<?>[args.length];
                         for (int i = 0; i < args.length; i++) {
                             if (args[i] != null)
                                 argumentKlassen[i] = args[i].getClass();
                         }
                     } else {
-                        argumentKlassen = null;
+                        argumentKlassen = new Class<?>[0];
                     }
-                    klasse = getClass();
-                    // go upwards in inheritance hierarchy until the class was
-                    // found containing
-                    // the desired method, i.e., exceptions are rather harmless
-                    // here
-                    while (klasse != null) {
-                        try {
-                            method = klasse.getDeclaredMethod(methodenName, argumentKlassen);
-                            method.setAccessible(true);
-                            method.invoke(this, args);
-                            klasse = null;
-                        } catch (NoSuchMethodException e) {
-                            klasse = klasse.getSuperclass();
-                        } catch (Exception e) {
-                            LOG.debug("an unexpected error occurred during processing in application.", e);
-                            klasse = null;
-                        }
+                    MethodHandle handle = holeMethode(getClass(), methodenName, argumentKlassen);
+                    if (handle == KEINE_METHODE) {
+                        LOG.debug("no method " + methodenName + Arrays.toString(argumentKlassen) + " in " + getClass());
+                        continue;
+                    }
+                    try {
+                        handle.invokeExact((Object) this, args);
+                    } catch (Throwable e) {
+                        LOG.debug("an unexpected error occurred during processing in application.", e);
                     }
                 }
             } else {
@@ -238,6 +272,44 @@ public abstract class Anwendung extends Thread {
         }
     }
 
+    /**
+     * Sucht die Methode zu einem Kommando in der Dispatch-Tabelle der Klasse. Beim ersten Aufruf wird die Methode in
+     * der Klasse und ihren Oberklassen gesucht und das Handle so angepasst, dass es mit der Anwendung und dem Array der
+     * Argumente aufgerufen werden kann. Ein Rueckgabewert der Methode wird verworfen.
+     * 
+     * @return das Handle oder KEINE_METHODE, wenn die Klasse keine passende Methode hat
+     */
+    static MethodHandle holeMethode(Class<?> klasse, String methodenName, Class<?>[] argumentKlassen) {
+        Map<List<Object>, MethodHandle> tabelle = DISPATCH_TABELLEN.get(klasse);
+        Object[] schluessel = new Object[argumentKlassen.length + 1];
+        schluessel[0] = methodenName;
+        System.arraycopy(argumentKlassen, 0, schluessel, 1, argumentKlassen.length);
+        List<Object> signatur = Arrays.asList(schluessel);
+
+        MethodHandle handle = tabelle.get(signatur);
+        if (handle == null) {
+            handle = KEINE_METHODE;
+            // go upwards in inheritance hierarchy until the class was found containing the desired method
+            for (Class<?> k = klasse; k != null && handle == KEINE_METHODE; k = k.getSuperclass()) {
+                try {
+                    Method method = k.getDeclaredMethod(methodenName, argumentKlassen);
+                    method.setAccessible(true);
+                    handle = MethodHandles.lookup().unreflect(method)
+                            .asType(MethodType.genericMethodType(argumentKlassen.length + 1)
+                                    .changeReturnType(void.class))
+                            .asSpreader(Object[].class, argumentKlassen.length);
+                } catch (NoSuchMethodException e) {
+                    // search in super class
+                } catch (IllegalAccessException e) {
+                    LOG.debug("method " + methodenName + " of " + k + " not accessible.", e);
+                    break;
+                }
+            }
+            tabelle.put(signatur, handle);
+        }
+        return handle;
+    }
+
     /** Methode fuer den Zugriff auf den Anwendungsnamen */
     public String holeAnwendungsName() {
         return anwendungsName;
@@ -30,6 +30,8 @@ import java.util.LinkedList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.rahmenprogramm.SimulationsUhr;
+
 /**
  * Diese Klasse ist die Oberklasse von Protokoll-Threads. Die Aufgabe ist, den Puffer zu ueberwachen, und die
  * Verarbeitung der eingehenden Dateneinheiten zu starten.
@@ -79,7 +81,12 @@ public abstract class ProtokollThread<T> extends Thread {
                     } catch (InterruptedException e) {}
                 }
                 if (puffer.size() > 0) {
-                    verarbeiteDatenEinheit(puffer.removeFirst());
+                    SimulationsUhr.beginneArbeit();
+                    try {
+                        verarbeiteDatenEinheit(puffer.removeFirst());
+                    } finally {
+                        SimulationsUhr.beendeArbeit();
+                    }
                 }
             }
         }
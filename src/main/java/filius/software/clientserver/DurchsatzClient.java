@@ -0,0 +1,332 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.clientserver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.rahmenprogramm.I18n;
+import filius.rahmenprogramm.SimulationsUhr;
+import filius.software.transportschicht.Socket;
+import filius.software.transportschicht.TCPSocket;
+import filius.software.transportschicht.UDPSocket;
+
+/**
+ * <p>
+ * Client-Programm fuer Durchsatzmessungen (aehnlich wie iperf). Es sendet fuer eine einstellbare Dauer einen oder
+ * mehrere parallele Datenstroeme ueber TCP oder UDP an einen {@link DurchsatzServer}. Fuer jedes Intervall von
+ * {@link DurchsatzMessung#INTERVALL} Millisekunden wird die gesendete Datenmenge gemeldet; Verlust und Jitter werden
+ * vom Server ermittelt.
+ * </p>
+ * <p>
+ * TCP-Datenstroeme senden so schnell, wie es die Bestaetigungen des Empfaengers zulassen. UDP-Datenstroeme werden auf
+ * die eingestellte Datenrate begrenzt, weil UDP selbst keine Flusskontrolle hat. Alle Zeiten sind Simulationszeit.
+ * </p>
+ */
+public class DurchsatzClient extends ClientAnwendung implements I18n {
+    private static Logger LOG = LoggerFactory.getLogger(DurchsatzClient.class);
+
+    /** Port, auf dem der Durchsatz-Server standardmaessig Verbindungen annimmt (wie bei iperf) */
+    public static final int STANDARD_PORT = 5001;
+
+    private String zielIPAdresse;
+    private int zielPort = STANDARD_PORT;
+    private boolean udp = false;
+    /** Groesse einer Nachricht in Byte */
+    private int nachrichtenGroesse = 1000;
+    /** Anzahl paralleler Datenstroeme */
+    private int stroeme = 1;
+    /** Dauer der Messung in Sekunden */
+    private int dauer = 10;
+    /** Datenrate je UDP-Datenstrom in kbit/s */
+    private int datenrate = 1000;
+
+    private volatile boolean messungAktiv = false;
+    private Strom[] aktiveStroeme = new Strom[0];
+
+    /** Ein Datenstrom mit eigenem Socket, der in einem eigenen Thread sendet. */
+    private class Strom extends Thread {
+        private final String bezeichnung;
+        private final long ende;
+        private final LongAdder gesendet = new LongAdder();
+        private volatile Socket socket;
+
+        Strom(int nummer, long ende) {
+            this.bezeichnung = messages.getString("sw_durchsatz_msg4") + " " + nummer;
+            this.ende = ende;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (udp) {
+                    socket = new UDPSocket(getSystemSoftware(), zielIPAdresse, zielPort);
+                } else {
+                    socket = new TCPSocket(getSystemSoftware(), zielIPAdresse, zielPort);
+                }
+                socket.verbinden();
+
+                // Abstand zwischen zwei UDP-Nachrichten in ms: Bit je Nachricht / (kbit/s = Bit/ms)
+                double abstand = udp ? nachrichtenGroesse * 8.0 / datenrate : 0;
+                double naechsterVersand = SimulationsUhr.jetzt();
+                long nummer = 0;
+                while (messungAktiv && running && SimulationsUhr.jetzt() < ende) {
+                    socket.senden(DurchsatzMessung.erzeugeNachricht(nummer, SimulationsUhr.jetzt(),
+                            nachrichtenGroesse));
+                    gesendet.add(nachrichtenGroesse);
+                    nummer++;
+                    if (udp) {
+                        naechsterVersand += abstand;
+                        long warten = (long) naechsterVersand - SimulationsUhr.jetzt();
+                        if (warten > 0) {
+                            SimulationsUhr.schlafen(warten);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                LOG.debug("throughput stream interrupted", e);
+            } catch (Exception e) {
+                LOG.debug("", e);
+                benachrichtigeBeobachter("[" + bezeichnung + "] " + messages.getString("sw_durchsatz_msg5") + " "
+                        + e.getMessage());
+            } finally {
+                if (socket != null) {
+                    socket.schliessen();
+                }
+            }
+        }
+    }
+
+    /**
+     * Startet eine Messung mit den aktuellen Einstellungen. <br />
+     * Diese Methode ist <b>nicht blockierend</b>. Sie veranlasst den Aufruf von <code>messen</code> im Thread der
+     * Anwendung.
+     */
+    public void starteMessung() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzClient), starteMessung()");
+        if (!messungAktiv) {
+            messungAktiv = true;
+            ausfuehren("messen", null);
+        }
+    }
+
+    /** Bricht eine laufende Messung ab. Diese Methode ist <b>nicht blockierend</b>. */
+    public void stoppeMessung() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzClient), stoppeMessung()");
+        messungAktiv = false;
+    }
+
+    public boolean istMessungAktiv() {
+        return messungAktiv;
+    }
+
+    /**
+     * Fuehrt die Messung durch: die Datenstroeme werden gestartet und bis zum Ende der Messung wird fuer jedes
+     * Intervall die gesendete Datenmenge gemeldet. Diese Methode ist <b>blockierend</b> und sollte nicht direkt von der
+     * GUI aufgerufen werden.
+     */
+    public void messen() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzClient), messen()");
+        long beginn = SimulationsUhr.jetzt();
+        long ende = beginn + dauer * 1000L;
+        benachrichtigeBeobachter(messages.getString("sw_durchsatz_msg6") + " " + zielIPAdresse + ":" + zielPort + " ("
+                + (udp ? "UDP" : "TCP") + ", " + stroeme + " x " + nachrichtenGroesse + " Bytes, " + dauer + " s)");
+
+        Strom[] neueStroeme = new Strom[stroeme];
+        for (int i = 0; i < neueStroeme.length; i++) {
+            neueStroeme[i] = new Strom(i + 1, ende);
+        }
+        aktiveStroeme = neueStroeme;
+        for (Strom strom : neueStroeme) {
+            strom.start();
+        }
+
+        long[] gemeldet = new long[neueStroeme.length];
+        long intervallBeginn = beginn;
+        try {
+            while (messungAktiv && running && intervallBeginn < ende && laeuftNoch(neueStroeme)) {
+                long intervallEnde = Math.min(intervallBeginn + DurchsatzMessung.INTERVALL, ende);
+                long jetzt = SimulationsUhr.jetzt();
+                while (messungAktiv && running && jetzt < intervallEnde && laeuftNoch(neueStroeme)) {
+                    SimulationsUhr.schlafen(Math.max(1, Math.min(100, intervallEnde - jetzt)));
+                    jetzt = SimulationsUhr.jetzt();
+                }
+                jetzt = Math.min(jetzt, ende);
+                meldeIntervall(neueStroeme, gemeldet, intervallBeginn - beginn, jetzt - beginn);
+                intervallBeginn = jetzt;
+            }
+        } catch (InterruptedException e) {
+            LOG.debug("", e);
+        } finally {
+            beendeMessung(neueStroeme, beginn, ende);
+        }
+    }
+
+    /** Beendet die Datenstroeme und meldet die insgesamt gesendete Datenmenge. */
+    private void beendeMessung(Strom[] stroeme, long beginn, long ende) {
+        messungAktiv = false;
+        for (Strom strom : stroeme) {
+            try {
+                strom.join(DurchsatzServerMitarbeiter.UDP_TIMEOUT);
+            } catch (InterruptedException e) {
+                LOG.debug("", e);
+            }
+        }
+        long gesamt = 0;
+        for (Strom strom : stroeme) {
+            gesamt += strom.gesendet.sum();
+        }
+        long dauerMillis = Math.max(0, Math.min(SimulationsUhr.jetzt(), ende) - beginn);
+        DurchsatzMessung.Intervall summe = new DurchsatzMessung.Intervall(0, dauerMillis, gesamt, 0, 0, 0);
+        benachrichtigeBeobachter(summe.alsText(messages.getString("sw_durchsatz_msg7"), false) + " "
+                + messages.getString("sw_durchsatz_msg3"));
+    }
+
+    private void meldeIntervall(Strom[] stroeme, long[] gemeldet, long von, long bis) {
+        if (bis <= von) {
+            return;
+        }
+        long summe = 0;
+        for (int i = 0; i < stroeme.length; i++) {
+            long gesendet = stroeme[i].gesendet.sum();
+            long bytes = gesendet - gemeldet[i];
+            gemeldet[i] = gesendet;
+            summe += bytes;
+            if (stroeme.length > 1) {
+                benachrichtigeBeobachter(new DurchsatzMessung.Intervall(von, bis, bytes, 0, 0, 0)
+                        .alsText(stroeme[i].bezeichnung, false));
+            }
+        }
+        benachrichtigeBeobachter(new DurchsatzMessung.Intervall(von, bis, summe, 0, 0, 0)
+                .alsText(messages.getString("sw_durchsatz_msg7"), false));
+    }
+
+    private boolean laeuftNoch(Strom[] stroeme) {
+        for (Strom strom : stroeme) {
+            if (strom.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Beim Wechsel in den Entwurfsmodus wird eine laufende Messung abgebrochen und die Sockets der Datenstroeme werden
+     * verworfen.
+     */
+    @Override
+    public void beenden() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzClient), beenden()");
+        messungAktiv = false;
+        for (Strom strom : aktiveStroeme) {
+            Socket stromSocket = strom.socket;
+            if (stromSocket != null) {
+                stromSocket.beenden();
+            }
+            strom.interrupt();
+        }
+        super.beenden();
+    }
+
+    /** Ob gerade ein Datenstrom verbunden ist */
+    @Override
+    public boolean istVerbunden() {
+        for (Strom strom : aktiveStroeme) {
+            Socket stromSocket = strom.socket;
+            if (stromSocket != null && stromSocket.istVerbunden()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getZielIPAdresse() {
+        return zielIPAdresse;
+    }
+
+    public void setZielIPAdresse(String zielIPAdresse) {
+        this.zielIPAdresse = zielIPAdresse;
+    }
+
+    public int getZielPort() {
+        return zielPort;
+    }
+
+    public void setZielPort(int zielPort) {
+        this.zielPort = zielPort;
+    }
+
+    /** Ob UDP statt TCP verwendet wird */
+    public boolean isUdp() {
+        return udp;
+    }
+
+    public void setUdp(boolean udp) {
+        this.udp = udp;
+    }
+
+    /** Groesse einer Nachricht in Byte */
+    public int getNachrichtenGroesse() {
+        return nachrichtenGroesse;
+    }
+
+    public void setNachrichtenGroesse(int nachrichtenGroesse) {
+        this.nachrichtenGroesse = Math.max(1, nachrichtenGroesse);
+    }
+
+    /** Anzahl paralleler Datenstroeme */
+    public int getStroeme() {
+        return stroeme;
+    }
+
+    public void setStroeme(int stroeme) {
+        this.stroeme = Math.max(1, stroeme);
+    }
+
+    /** Dauer der Messung in Sekunden */
+    public int getDauer() {
+        return dauer;
+    }
+
+    public void setDauer(int dauer) {
+        this.dauer = Math.max(1, dauer);
+    }
+
+    /** Datenrate je UDP-Datenstrom in kbit/s */
+    public int getDatenrate() {
+        return datenrate;
+    }
+
+    public void setDatenrate(int datenrate) {
+        this.datenrate = Math.max(1, datenrate);
+    }
+}
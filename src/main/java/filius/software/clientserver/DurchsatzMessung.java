@@ -0,0 +1,261 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.clientserver;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import filius.rahmenprogramm.I18n;
+
+/**
+ * <p>
+ * Auswertung eines Datenstroms einer Durchsatzmessung auf der Seite des Empfaengers. Fuer jedes Intervall von
+ * {@link #INTERVALL} Millisekunden (Simulationszeit) werden die empfangene Datenmenge, die Anzahl verlorener Nachrichten
+ * und der Jitter ermittelt.
+ * </p>
+ * <p>
+ * Jede Nachricht beginnt mit einer fortlaufenden Nummer und dem Sendezeitpunkt. Danach folgen Fuellzeichen bis zur
+ * gewuenschten Nachrichtengroesse. Verluste werden an Luecken in der Nummerierung erkannt, der Jitter wird wie bei RTP
+ * (RFC 3550) als gleitender Mittelwert der Aenderung der Laufzeit berechnet.
+ * </p>
+ */
+public class DurchsatzMessung implements I18n {
+
+    /** Laenge eines Messintervalls in Millisekunden (Simulationszeit) */
+    public static final long INTERVALL = 1000;
+
+    private static final String TRENNZEICHEN = ";";
+
+    private static final char FUELLZEICHEN = '.';
+
+    /** Ergebnis der Messung fuer einen Zeitabschnitt */
+    public static class Intervall {
+        private final long von;
+        private final long bis;
+        private final long bytes;
+        private final long nachrichten;
+        private final long verloren;
+        private final double jitter;
+
+        public Intervall(long von, long bis, long bytes, long nachrichten, long verloren, double jitter) {
+            this.von = von;
+            this.bis = bis;
+            this.bytes = bytes;
+            this.nachrichten = nachrichten;
+            this.verloren = verloren;
+            this.jitter = jitter;
+        }
+
+        /** Beginn des Abschnitts in Millisekunden seit Beginn der Messung */
+        public long holeVon() {
+            return von;
+        }
+
+        /** Ende des Abschnitts in Millisekunden seit Beginn der Messung */
+        public long holeBis() {
+            return bis;
+        }
+
+        public long holeBytes() {
+            return bytes;
+        }
+
+        public long holeNachrichten() {
+            return nachrichten;
+        }
+
+        public long holeVerloren() {
+            return verloren;
+        }
+
+        /** Jitter in Millisekunden am Ende des Abschnitts */
+        public double holeJitter() {
+            return jitter;
+        }
+
+        /** Durchsatz in Bit pro Sekunde */
+        public double holeDurchsatz() {
+            if (bis <= von) {
+                return 0;
+            }
+            return bytes * 8000.0 / (bis - von);
+        }
+
+        /** Anteil der verlorenen an allen gesendeten Nachrichten (zwischen 0 und 1) */
+        public double holeVerlustrate() {
+            if (nachrichten + verloren == 0) {
+                return 0;
+            }
+            return (double) verloren / (nachrichten + verloren);
+        }
+
+        /**
+         * Textdarstellung fuer die Ausgabe in der Anwendung, z. B.
+         * <code>[192.168.0.10:49152] 1,0-2,0 s  12000 Bytes  96,0 kbit/s</code>.
+         * 
+         * @param bezeichnung
+         *            Bezeichnung des Datenstroms
+         * @param empfaenger
+         *            ob Verlust und Jitter mit ausgegeben werden sollen
+         */
+        public String alsText(String bezeichnung, boolean empfaenger) {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("[%s] %.1f-%.1f s  %d Bytes  %.1f kbit/s", bezeichnung, von / 1000.0,
+                    bis / 1000.0, bytes, holeDurchsatz() / 1000));
+            if (empfaenger) {
+                text.append(String.format("  %s %.2f ms  %s %d/%d (%.1f %%)", messages.getString("sw_durchsatz_msg1"),
+                        jitter, messages.getString("sw_durchsatz_msg2"), verloren, nachrichten + verloren,
+                        holeVerlustrate() * 100));
+            }
+            return text.toString();
+        }
+    }
+
+    private final long beginn;
+    private long intervallBeginn;
+    private long letzterEmpfang;
+
+    private long bytes;
+    private long nachrichten;
+    private long verloren;
+    private long gesamtBytes;
+    private long gesamtNachrichten;
+    private long gesamtVerloren;
+
+    private long hoechsteNummer = -1;
+    private double jitter;
+    private long letzteLaufzeit;
+    private boolean laufzeitBekannt;
+
+    /**
+     * @param beginn
+     *            Zeitpunkt (Simulationszeit), an dem das erste Intervall beginnt
+     */
+    public DurchsatzMessung(long beginn) {
+        this.beginn = beginn;
+        this.intervallBeginn = beginn;
+        this.letzterEmpfang = beginn;
+    }
+
+    /**
+     * Erzeugt eine Nachricht fuer eine Durchsatzmessung. Die Nachricht ist mindestens so lang wie die Angaben zu Nummer
+     * und Sendezeitpunkt.
+     */
+    public static String erzeugeNachricht(long nummer, long sendezeit, int groesse) {
+        StringBuilder nachricht = new StringBuilder(Math.max(groesse, 32));
+        nachricht.append(nummer).append(TRENNZEICHEN).append(sendezeit).append(TRENNZEICHEN);
+        while (nachricht.length() < groesse) {
+            nachricht.append(FUELLZEICHEN);
+        }
+        return nachricht.toString();
+    }
+
+    /**
+     * Wertet eine empfangene Nachricht aus.
+     * 
+     * @return die Intervalle, die vor dem Empfang dieser Nachricht abgeschlossen wurden (ggf. leer)
+     */
+    public List<Intervall> empfangen(String nachricht, long empfangszeit) {
+        List<Intervall> abgeschlossen = schliesseIntervalle(empfangszeit);
+        letzterEmpfang = Math.max(letzterEmpfang, empfangszeit);
+
+        bytes += nachricht.length();
+        gesamtBytes += nachricht.length();
+        nachrichten++;
+        gesamtNachrichten++;
+
+        String[] teile = nachricht.split(TRENNZEICHEN, 3);
+        if (teile.length == 3) {
+            try {
+                long nummer = Long.parseLong(teile[0]);
+                long sendezeit = Long.parseLong(teile[1]);
+                zaehleVerlust(nummer);
+                aktualisiereJitter(empfangszeit - sendezeit);
+            } catch (NumberFormatException e) {
+                // keine Nachricht einer Durchsatzmessung: nur die Datenmenge wird gezaehlt
+            }
+        }
+        return abgeschlossen;
+    }
+
+    private void zaehleVerlust(long nummer) {
+        if (nummer > hoechsteNummer) {
+            long luecke = nummer - hoechsteNummer - 1;
+            verloren += luecke;
+            gesamtVerloren += luecke;
+            hoechsteNummer = nummer;
+        } else if (gesamtVerloren > 0) {
+            // verspaetet eingetroffen und bereits als verloren gezaehlt
+            verloren = Math.max(0, verloren - 1);
+            gesamtVerloren--;
+        }
+    }
+
+    private void aktualisiereJitter(long laufzeit) {
+        if (laufzeitBekannt) {
+            jitter += (Math.abs(laufzeit - letzteLaufzeit) - jitter) / 16;
+        }
+        letzteLaufzeit = laufzeit;
+        laufzeitBekannt = true;
+    }
+
+    private List<Intervall> schliesseIntervalle(long jetzt) {
+        List<Intervall> abgeschlossen = new LinkedList<Intervall>();
+        while (jetzt >= intervallBeginn + INTERVALL) {
+            abgeschlossen.add(schliesseIntervall(intervallBeginn + INTERVALL));
+        }
+        return abgeschlossen;
+    }
+
+    private Intervall schliesseIntervall(long ende) {
+        Intervall intervall = new Intervall(intervallBeginn - beginn, ende - beginn, bytes, nachrichten, verloren,
+                jitter);
+        intervallBeginn = ende;
+        bytes = 0;
+        nachrichten = 0;
+        verloren = 0;
+        return intervall;
+    }
+
+    /**
+     * Schliesst die Messung beim Ende des Datenstroms ab. Das letzte, angebrochene Intervall endet mit dem Empfang der
+     * letzten Nachricht.
+     * 
+     * @return die noch nicht gemeldeten Intervalle
+     */
+    public List<Intervall> abschliessen() {
+        List<Intervall> abgeschlossen = schliesseIntervalle(letzterEmpfang);
+        if (letzterEmpfang > intervallBeginn) {
+            abgeschlossen.add(schliesseIntervall(letzterEmpfang));
+        }
+        return abgeschlossen;
+    }
+
+    /** Ergebnis fuer die gesamte bisherige Dauer der Messung */
+    public Intervall holeGesamt() {
+        return new Intervall(0, letzterEmpfang - beginn, gesamtBytes, gesamtNachrichten, gesamtVerloren, jitter);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.clientserver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.transportschicht.Socket;
+
+/**
+ * <p>
+ * Server-Programm fuer Durchsatzmessungen mit dem {@link DurchsatzClient}. Fuer jeden eingehenden Datenstrom wird ein
+ * {@link DurchsatzServerMitarbeiter} erzeugt, der Durchsatz, Verlust und Jitter je Intervall ausgibt.
+ * </p>
+ * <p>
+ * Der Server nimmt TCP-Verbindungen an. Datenstroeme ueber UDP werden von einem {@link DurchsatzUDPServer} auf dem
+ * gleichen Port angenommen, der zusammen mit diesem Server gestartet und beendet wird.
+ * </p>
+ */
+public class DurchsatzServer extends TCPServerAnwendung {
+    private static Logger LOG = LoggerFactory.getLogger(DurchsatzServer.class);
+
+    private final DurchsatzUDPServer udpServer = new DurchsatzUDPServer(this);
+
+    public DurchsatzServer() {
+        super();
+        LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + ", constr: DurchsatzServer()");
+        setPort(DurchsatzClient.STANDARD_PORT);
+    }
+
+    /** Der Server fuer UDP-Datenstroeme. Er wird nicht im Projekt gespeichert. */
+    public DurchsatzUDPServer holeUDPServer() {
+        return udpServer;
+    }
+
+    @Override
+    public void setPort(int port) {
+        super.setPort(port);
+        udpServer.setPort(port);
+    }
+
+    @Override
+    public void setAktiv(boolean flag) {
+        super.setAktiv(flag);
+        udpServer.setAktiv(flag);
+    }
+
+    @Override
+    public void starten() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzServer), starten()");
+        super.starten();
+        udpServer.setSystemSoftware(getSystemSoftware());
+        udpServer.starten();
+    }
+
+    @Override
+    public void beenden() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzServer), beenden()");
+        super.beenden();
+        udpServer.beenden();
+    }
+
+    @Override
+    protected void neuerMitarbeiter(Socket socket) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzServer), neuerMitarbeiter(" + socket + ")");
+        ServerMitarbeiter neuerMitarbeiter = new DurchsatzServerMitarbeiter(this, socket);
+        mitarbeiter.add(neuerMitarbeiter);
+        neuerMitarbeiter.starten();
+    }
+}
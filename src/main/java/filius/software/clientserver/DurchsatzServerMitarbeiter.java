@@ -0,0 +1,95 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.clientserver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.rahmenprogramm.SimulationsUhr;
+import filius.software.transportschicht.Socket;
+import filius.software.transportschicht.UDPSocket;
+
+/**
+ * Mitarbeiter des Durchsatz-Servers. Er nimmt einen Datenstrom eines {@link DurchsatzClient} entgegen, wertet ihn mit
+ * einer {@link DurchsatzMessung} aus und meldet das Ergebnis fuer jedes Intervall an die Beobachter des Servers. Die
+ * empfangenen Nachrichten selbst werden nicht angezeigt.
+ */
+public class DurchsatzServerMitarbeiter extends ServerMitarbeiter {
+    private static Logger LOG = LoggerFactory.getLogger(DurchsatzServerMitarbeiter.class);
+
+    /**
+     * Zeit in Millisekunden, nach der ein UDP-Datenstrom ohne weitere Nachricht als beendet gilt. Bei TCP wird das Ende
+     * durch den Verbindungsabbau angezeigt.
+     */
+    static final long UDP_TIMEOUT = 3000;
+
+    private final String bezeichnung;
+
+    private DurchsatzMessung messung;
+
+    public DurchsatzServerMitarbeiter(ServerAnwendung server, Socket socket) {
+        super(server, socket);
+        bezeichnung = socket.holeZielIPAdresse() + ":" + socket.holeZielPort();
+    }
+
+    @Override
+    protected long holeEmpfangsTimeout() {
+        if (socket instanceof UDPSocket) {
+            return UDP_TIMEOUT;
+        }
+        return super.holeEmpfangsTimeout();
+    }
+
+    @Override
+    protected void meldeEmpfang(String nachricht) {}
+
+    @Override
+    protected void verarbeiteNachricht(String nachricht) {
+        long jetzt = SimulationsUhr.jetzt();
+        if (messung == null) {
+            messung = new DurchsatzMessung(jetzt);
+        }
+        for (DurchsatzMessung.Intervall intervall : messung.empfangen(nachricht, jetzt)) {
+            server.benachrichtigeBeobachter(intervall.alsText(bezeichnung, true));
+        }
+    }
+
+    /**
+     * Nach dem Ende des Datenstroms werden das letzte Intervall und das Gesamtergebnis gemeldet.
+     */
+    @Override
+    public void run() {
+        super.run();
+        LOG.debug("throughput stream from {} finished", bezeichnung);
+        if (messung != null) {
+            for (DurchsatzMessung.Intervall intervall : messung.abschliessen()) {
+                server.benachrichtigeBeobachter(intervall.alsText(bezeichnung, true));
+            }
+            server.benachrichtigeBeobachter(messung.holeGesamt().alsText(bezeichnung, true) + " "
+                    + messages.getString("sw_durchsatz_msg3"));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.clientserver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.transportschicht.Socket;
+
+/**
+ * Nimmt die UDP-Datenstroeme fuer einen {@link DurchsatzServer} an. Meldungen werden mit dem Praefix "UDP" an die
+ * Beobachter des Durchsatz-Servers weitergegeben, so dass beide Protokolle in einem Fenster angezeigt werden.
+ */
+public class DurchsatzUDPServer extends UDPServerAnwendung {
+    private static Logger LOG = LoggerFactory.getLogger(DurchsatzUDPServer.class);
+
+    private final DurchsatzServer tcpServer;
+
+    public DurchsatzUDPServer(DurchsatzServer tcpServer) {
+        super();
+        LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + ", constr: DurchsatzUDPServer(" + tcpServer + ")");
+        this.tcpServer = tcpServer;
+    }
+
+    @Override
+    public void benachrichtigeBeobachter(Object daten) {
+        tcpServer.benachrichtigeBeobachter("UDP: " + daten);
+    }
+
+    @Override
+    protected void neuerMitarbeiter(Socket socket) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (DurchsatzUDPServer), neuerMitarbeiter(" + socket + ")");
+        ServerMitarbeiter neuerMitarbeiter = new DurchsatzServerMitarbeiter(this, socket);
+        mitarbeiter.add(neuerMitarbeiter);
+        neuerMitarbeiter.starten();
+    }
+}
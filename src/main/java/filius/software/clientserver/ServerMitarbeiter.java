@@ -28,6 +28,7 @@ package filius.software.clientserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.exception.TimeOutException;
 import filius.exception.VerbindungsException;
 import filius.rahmenprogramm.I18n;
 import filius.software.transportschicht.Socket;
@@ -70,6 +71,14 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
      */
     protected abstract void verarbeiteNachricht(String nachricht);
 
+    /**
+     * Zeit in Millisekunden, die auf die naechste Nachricht gewartet wird. Danach wird die Verbindung wie bei einem
+     * Verbindungsabbau durch den Client geschlossen. Standardmaessig wird unbegrenzt gewartet.
+     */
+    protected long holeEmpfangsTimeout() {
+        return Long.MAX_VALUE;
+    }
+
     /**
      * Mit dieser Methode werden Nachrichten versendet und wenn dies ohne Ausnahme (Exception) stattgefunden hat, an
      * Beobachter der Server-Anwendung weiter gegeben. <br />
@@ -89,6 +98,16 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
         }
     }
 
+    /**
+     * Gibt eine empfangene Nachricht an die Beobachter der Server-Anwendung weiter. Unterklassen, die sehr viele
+     * Nachrichten empfangen, koennen diese Ausgabe unterdruecken.
+     * 
+     * @param nachricht
+     */
+    protected void meldeEmpfang(String nachricht) {
+        server.benachrichtigeBeobachter(">>" + nachricht);
+    }
+
     /**
      * Hier wird auf eingehende Nachrichten gewartet und diese zum einen an Beobachter der Server-Anwendung und zum
      * anderen zur Verarbeitung an die Methode verarbeitenNachricht() weiter gegeben.
@@ -100,20 +119,20 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
         while (running) {
             try {
                 if (socket.istVerbunden()) {
-                    nachricht = socket.empfangen(Long.MAX_VALUE);
+                    nachricht = socket.empfangen(holeEmpfangsTimeout());
                 }
 
                 if (nachricht != null) {
-                    server.benachrichtigeBeobachter(">>" + nachricht);
+                    meldeEmpfang(nachricht);
                     verarbeiteNachricht(nachricht);
                 } else if (socket != null) {
-                    socket.schliessen();
-                    running = false;
-                    server.benachrichtigeBeobachter(
-                            messages.getString("sw_servermitarbeiter_msg1") + " " + socket.holeZielIPAdresse() + ":"
-                                    + socket.holeZielPort() + " " + messages.getString("sw_servermitarbeiter_msg2"));
+                    schliesseVerbindung();
                 }
                 nachricht = null;
+            } catch (TimeOutException e) {
+                // innerhalb von holeEmpfangsTimeout() ist keine weitere Nachricht eingegangen
+                LOG.debug("", e);
+                schliesseVerbindung();
             } catch (VerbindungsException e) {
                 LOG.debug("", e);
                 server.benachrichtigeBeobachter(e.getMessage());
@@ -130,6 +149,14 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
         }
     }
 
+    private void schliesseVerbindung() {
+        socket.schliessen();
+        running = false;
+        server.benachrichtigeBeobachter(messages.getString("sw_servermitarbeiter_msg1") + " "
+                + socket.holeZielIPAdresse() + ":" + socket.holeZielPort() + " "
+                + messages.getString("sw_servermitarbeiter_msg2"));
+    }
+
     /**
      * Methode zum Starten des Threads beim Wechsel vom Entwurfs- in den Aktionsmodus. Wenn sich der Thread noch in
      * einem wartenden oder blockierten Zustand wird kein neuer Thread gestartet, sondern lediglich gewaehrleistet, dass
@@ -0,0 +1,107 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dateiaustausch;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import filius.hardware.Verbindung;
+import filius.rahmenprogramm.SimulationsUhr;
+
+/**
+ * Menge von GUIDs bereits bekannter Nachrichten im Peer-to-Peer-Netzwerk. Anders als eine Liste wird die Menge nicht
+ * beliebig gross: Jede GUID verfaellt nach einer Lebensdauer, die als Vielfaches der RTT angegeben wird, und es werden
+ * hoechstens maxAnzahl GUIDs gespeichert (die aeltesten werden zuerst verdraengt). Nachrichten, deren GUID verfallen
+ * ist, sind laengst durch das Netz geflutet worden oder durch ihre TTL verworfen.
+ */
+class GUIDSpeicher {
+
+    private final int lebensdauerRTT;
+    private final int maxAnzahl;
+
+    /**
+     * GUID und Zeitpunkt des Einfuegens, in der Reihenfolge des Einfuegens. Die Lebensdauer wird erst beim Aufraeumen
+     * aus der aktuellen RTT berechnet, damit die Reihenfolge auch dann der Reihenfolge des Verfalls entspricht, wenn
+     * die Verzoegerung zur Laufzeit geaendert wird.
+     */
+    private final LinkedHashMap<Integer, Long> guids = new LinkedHashMap<Integer, Long>();
+
+    GUIDSpeicher(int lebensdauerRTT, int maxAnzahl) {
+        this.lebensdauerRTT = lebensdauerRTT;
+        this.maxAnzahl = maxAnzahl;
+    }
+
+    /**
+     * Fuegt eine GUID hinzu.
+     * 
+     * @return true, wenn die GUID neu ist, false, wenn sie bereits bekannt war
+     */
+    boolean hinzufuegen(int guid) {
+        return hinzufuegen(guid, SimulationsUhr.jetzt());
+    }
+
+    synchronized boolean hinzufuegen(int guid, long jetzt) {
+        entferneVerfallene(jetzt);
+        if (guids.containsKey(guid)) {
+            return false;
+        }
+        guids.put(guid, jetzt);
+        if (guids.size() > maxAnzahl) {
+            Iterator<Integer> iter = guids.keySet().iterator();
+            iter.next();
+            iter.remove();
+        }
+        return true;
+    }
+
+    boolean enthaelt(int guid) {
+        return enthaelt(guid, SimulationsUhr.jetzt());
+    }
+
+    synchronized boolean enthaelt(int guid, long jetzt) {
+        entferneVerfallene(jetzt);
+        return guids.containsKey(guid);
+    }
+
+    synchronized int anzahl() {
+        return guids.size();
+    }
+
+    synchronized void leeren() {
+        guids.clear();
+    }
+
+    private void entferneVerfallene(long jetzt) {
+        long grenze = jetzt - (long) lebensdauerRTT * Verbindung.holeRTT();
+        for (Iterator<Map.Entry<Integer, Long>> iter = guids.entrySet().iterator(); iter.hasNext();) {
+            if (iter.next().getValue() > grenze) {
+                break;
+            }
+            iter.remove();
+        }
+    }
+}
@@ -62,18 +62,39 @@ public class PeerToPeerAnwendung extends Anwendung {
      */
     private LinkedList<String> bekanntePeerToPeerTeilnehmer = new LinkedList<String>();
 
-    /** Liste eigener Anfragen, die verschickt worden sind */
-    private LinkedList<Integer> eigeneAnfragen = new LinkedList<Integer>();
+    /** Lebensdauer einer gespeicherten GUID als Vielfaches der RTT */
+    static final int GUID_LEBENSDAUER_RTT = 30;
+
+    /** maximale Anzahl gespeicherter GUIDs je Liste */
+    static final int MAX_GUIDS = 10000;
+
+    /** Lebensdauer zwischengespeicherter Suchergebnisse als Vielfaches der RTT */
+    static final int TREFFER_LEBENSDAUER_RTT = 10;
+
+    /** GUIDs eigener Anfragen, die verschickt worden sind */
+    private GUIDSpeicher eigeneAnfragen = new GUIDSpeicher(GUID_LEBENSDAUER_RTT, MAX_GUIDS);
+
+    /**
+     * GUIDs der Anfragen, die von anderen Teilnehmern im Peer-to-Peer-Netzwerk empfangen wurden. Antworten darauf
+     * werden weitergeleitet.
+     */
+    private GUIDSpeicher fremdeAnfragen = new GUIDSpeicher(GUID_LEBENSDAUER_RTT, MAX_GUIDS);
 
     /**
-     * Eine Liste der Anfragen, die von anderen Teilnehmern im Peer-to-Peer-Netzwerk empfangen wurden. wofuer???
+     * GUIDs bereits eingegangener und weitergeleiteter Anfragen (zur Verhinderung von Schleifen)
      */
-    private LinkedList<Integer> fremdeAnfragen = new LinkedList<Integer>();
+    private GUIDSpeicher schonmalVerschickt = new GUIDSpeicher(GUID_LEBENSDAUER_RTT, MAX_GUIDS);
+
+    /** kurzlebiger Zwischenspeicher der Treffer zu Suchbegriffen, um wiederholte Suchen lokal zu beantworten */
+    private TrefferCache trefferCache = new TrefferCache(TREFFER_LEBENSDAUER_RTT);
 
     /**
-     * Liste bereits eingegangener und weitergeleiteter Anfragen (zur Verhinderung von Schleifen)
+     * Dateinamen (in Kleinbuchstaben) und Dateien des Peer-to-Peer-Verzeichnisses. Der Index wird neu aufgebaut, wenn
+     * sich der Aenderungsstand des Dateisystems geaendert hat.
      */
-    private LinkedList<Integer> schonmalVerschicktListe = new LinkedList<Integer>();
+    private String[] indexNamen = new String[0];
+    private Datei[] indexDateien = new Datei[0];
+    private long indexStand = -1;
 
     /**
      * Liste der Dateien, zu welchen eine Anfrage zum Herunterladen an einen bestimmten Teilnehmer verschickt wurde und
@@ -138,9 +159,11 @@ public class PeerToPeerAnwendung extends Anwendung {
                 + " (PeerToPeerAnwendung), starten()");
         super.starten();
 
-        eigeneAnfragen = new LinkedList<Integer>();
-        fremdeAnfragen = new LinkedList<Integer>();
-        schonmalVerschicktListe = new LinkedList<Integer>();
+        eigeneAnfragen.leeren();
+        fremdeAnfragen.leeren();
+        schonmalVerschickt.leeren();
+        trefferCache.leeren();
+        indexStand = -1;
 
         peerToPeerServer = new PeerToPeerServer(this);
         peerToPeerServer.setSystemSoftware(getSystemSoftware());
@@ -179,7 +202,7 @@ public class PeerToPeerAnwendung extends Anwendung {
         long anzahlBytes = 0;
         Betriebssystem bs;
 
-        if (schonmalVerschicktListe.contains(ping.getGuid())) {
+        if (schonmalVerschickt.enthaelt(ping.getGuid())) {
             return null;
         } else {
             bs = (Betriebssystem) getSystemSoftware();
@@ -210,55 +233,101 @@ public class PeerToPeerAnwendung extends Anwendung {
     void sendePing(PingPaket ping, String absender) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerAnwendung), sendePing(" + ping + "," + absender + ")");
-        if (ping.getTtl() > 0 && !schonmalVerschicktListe.contains(ping.getGuid())) {
-            schonmalVerschicktListe.add(ping.getGuid());
-            fremdeAnfragen.add(ping.getGuid());
+        if (ping.getTtl() > 0 && schonmalVerschickt.hinzufuegen(ping.getGuid())) {
+            fremdeAnfragen.hinzufuegen(ping.getGuid());
             peerToPeerClient.sendePing("", ping, absender);
         }
     }
 
     /**
      * wenn eine neue Anfrage-Nachricht eingetroffen ist, wird diese Operation aufgerufen. Sie verarbeitet die Anfrage,
-     * schickt sie weiter, verwirft sie oder sendet ein Antwortpaket
+     * schickt sie weiter, verwirft sie oder erstellt Antwortpakete. Liegen zu dem Suchbegriff noch Treffer aus einer
+     * kurz zuvor gesehenen Suche vor, werden diese mit zurueckgegeben und die Anfrage wird nicht weitergeleitet.
      * 
-     * @param pufferElement
-     *            die ampfangene Anfrage
+     * @param absender
+     *            die IP-Adresse, von der die Anfrage kam
+     * @param anfrage
+     *            die empfangene Anfrage
+     * @return die Antwortpakete oder null, wenn die Anfrage bereits bekannt war
      */
-    LinkedList<Datei> verarbeiteAnfrage(String absender, QueryPaket anfrage) {
+    LinkedList<QueryHitPaket> verarbeiteAnfrage(String absender, QueryPaket anfrage) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerAnwendung), verarbeiteAnfrage(" + absender + "," + anfrage + ")");
-        LinkedList<Datei> ergebnisListe;
-        Datei ergebnis = null;
+        LinkedList<QueryHitPaket> antworten;
         List<Datei> dateien;
-        String aktuellerName;
-        String gesuchte;
+        List<String> bekannteTreffer;
+        String eigeneIP;
 
-        if (!schonmalVerschicktListe.contains(anfrage.getGuid())) {
-            fremdeAnfragen.add(anfrage.getGuid());
-            schonmalVerschicktListe.add(anfrage.getGuid());
-
-            dateien = getSystemSoftware().getDateisystem().holeDateien(verzeichnis);
-            ergebnisListe = new LinkedList<Datei>();
-            for (int i = 0; i < dateien.size(); i++) {
-                ergebnis = (Datei) dateien.get(i);
+        if (!schonmalVerschickt.hinzufuegen(anfrage.getGuid())) {
+            return null;
+        }
+        fremdeAnfragen.hinzufuegen(anfrage.getGuid());
+
+        String gesuchte = anfrage.getSuchKriterien().toLowerCase();
+        bekannteTreffer = trefferCache.holeTreffer(gesuchte);
+        trefferCache.merkeAnfrage(anfrage.getGuid(), gesuchte);
+
+        eigeneIP = ((Betriebssystem) getSystemSoftware()).primaryIPAdresse();
+        dateien = sucheDateien(gesuchte);
+        int anzahl = dateien.size() + (bekannteTreffer == null ? 0 : bekannteTreffer.size());
+        antworten = new LinkedList<QueryHitPaket>();
+        for (Datei datei : dateien) {
+            antworten.add(erstelleQueryHit(anfrage, anzahl, eigeneIP,
+                    datei.getName() + ": " + datei.holeGroesse() + " B"));
+        }
 
-                aktuellerName = ergebnis.getName().toLowerCase();
-                gesuchte = anfrage.getSuchKriterien().toLowerCase();
-                if (aktuellerName.contains(gesuchte)) {
-                    ergebnisListe.add(ergebnis);
-                }
+        if (bekannteTreffer != null) {
+            // die Anfrage wird aus dem Zwischenspeicher beantwortet und nicht weiter geflutet
+            for (String treffer : bekannteTreffer) {
+                int pos = treffer.indexOf("/");
+                antworten.add(erstelleQueryHit(anfrage, anzahl, treffer.substring(0, pos), treffer.substring(pos + 1)));
             }
+        } else if (anfrage.getTtl() > 0) {
+            anfrage.setTtl(anfrage.getTtl() - 1);
+            anfrage.setHops(anfrage.getHops() + 1);
+
+            peerToPeerClient.sendeAnfrage(anfrage, absender);
+        }
+        return antworten;
+    }
 
-            if (anfrage.getTtl() > 0) {
-                anfrage.setTtl(anfrage.getTtl() - 1);
-                anfrage.setHops(anfrage.getHops() + 1);
+    private QueryHitPaket erstelleQueryHit(QueryPaket anfrage, int anzahl, String ipAdresse, String ergebnis) {
+        QueryHitPaket antwortPaket = new QueryHitPaket(anzahl, 6346, ipAdresse, "2", "", " ");
+        antwortPaket.setGuid(anfrage.getGuid());
+        antwortPaket.setHops(0);
+        antwortPaket.setTtl(8);
+        antwortPaket.setErgebnis(ergebnis);
+        return antwortPaket;
+    }
 
-                peerToPeerClient.sendeAnfrage(anfrage, absender);
+    /**
+     * Liefert die Dateien des Peer-to-Peer-Verzeichnisses, deren Name den Suchbegriff enthaelt (ohne Beachtung von
+     * Gross- und Kleinschreibung). Die Dateinamen werden dazu einmalig in Kleinbuchstaben umgewandelt und erst nach
+     * einer Aenderung im Dateisystem neu eingelesen.
+     * 
+     * @param gesuchte
+     *            der Suchbegriff in Kleinbuchstaben
+     */
+    synchronized List<Datei> sucheDateien(String gesuchte) {
+        Dateisystem dateisystem = getSystemSoftware().getDateisystem();
+        long stand = dateisystem.holeAenderungsstand();
+        if (stand != indexStand) {
+            List<Datei> dateien = dateisystem.holeDateien(verzeichnis);
+            indexNamen = new String[dateien.size()];
+            indexDateien = new Datei[dateien.size()];
+            for (int i = 0; i < dateien.size(); i++) {
+                indexDateien[i] = dateien.get(i);
+                indexNamen[i] = dateien.get(i).getName().toLowerCase();
+            }
+            indexStand = stand;
+        }
+        List<Datei> ergebnis = new LinkedList<Datei>();
+        for (int i = 0; i < indexNamen.length; i++) {
+            if (indexNamen[i].contains(gesuchte)) {
+                ergebnis.add(indexDateien[i]);
             }
-            return ergebnisListe;
-        } else {
-            return null;
         }
+        return ergebnis;
     }
 
     /**
@@ -284,7 +353,7 @@ public class PeerToPeerAnwendung extends Anwendung {
         if (!bs.primaryIPAdresse().equals(teilnehmerIP)) {
             pingPaket = new PingPaket();
             pingPaket.setIp(bs.primaryIPAdresse());
-            eigeneAnfragen.add(pingPaket.getGuid());
+            eigeneAnfragen.hinzufuegen(pingPaket.getGuid());
 
             peerToPeerClient.sendePing(teilnehmerIP, pingPaket, bs.primaryIPAdresse());
         }
@@ -297,6 +366,7 @@ public class PeerToPeerAnwendung extends Anwendung {
 
     /**
      * Methode zum herunterladen einer zuvor von einem anderen Teilnehmer im Peer-to-Peer-Netzwerk angebotenen Datei.
+     * Bieten mehrere Teilnehmer dieselbe Datei an, werden Teilstuecke der Datei parallel von allen geladen.
      * 
      * @param ergebnisIndex
      *            Der Index der angebotenen Datei in der Liste der Ergebnisse (Attribut 'ergebnisse').
@@ -306,21 +376,35 @@ public class PeerToPeerAnwendung extends Anwendung {
                 + " (PeerToPeerAnwendung), herunterladenDatei(" + ergebnisIndex + ")");
         StringTokenizer tempTokenizer;
         String tmpBesitzer;
+        String tmpAngebot;
         StringTokenizer tempTokenizerDatei;
         String tmpDateiname;
+        LinkedList<String> quellen = new LinkedList<String>();
 
         tempTokenizer = new StringTokenizer(ergebnisse.get(ergebnisIndex), "/");
         tmpBesitzer = tempTokenizer.nextToken();
-        tempTokenizerDatei = new StringTokenizer(tempTokenizer.nextToken(), ":");
+        tmpAngebot = tempTokenizer.nextToken();
+        tempTokenizerDatei = new StringTokenizer(tmpAngebot, ":");
         tmpDateiname = tempTokenizerDatei.nextToken();
 
+        // alle Teilnehmer, die dieselbe Datei (Name und Groesse) anbieten, werden als Quellen verwendet
+        quellen.add(tmpBesitzer);
+        for (String ergebnis : ergebnisse) {
+            int pos = ergebnis.indexOf('/');
+            String ip = ergebnis.substring(0, Math.max(pos, 0));
+            if (pos > 0 && ergebnis.substring(pos + 1).equals(tmpAngebot) && !quellen.contains(ip)) {
+                quellen.add(ip);
+            }
+        }
+
         erwarteteDateien.add(tmpDateiname);
-        peerToPeerClient.dateiVomTeilnehmerAnfordern(tmpBesitzer, tmpDateiname);
+        peerToPeerClient.dateiVonTeilnehmernAnfordern(quellen, tmpDateiname);
         benachrichtigeBeobachter();
     }
 
     /**
-     * Methode zum Suchen von Dateien im Peer-to-Peer-Netzwerk
+     * Methode zum Suchen von Dateien im Peer-to-Peer-Netzwerk. Wurde kurz zuvor schon nach demselben Begriff gesucht,
+     * werden die zwischengespeicherten Treffer angezeigt, ohne eine neue Anfrage zu verschicken.
      * 
      * @param datei
      *            der Dateiname der zu suchenden Datei
@@ -332,8 +416,15 @@ public class PeerToPeerAnwendung extends Anwendung {
         QueryPaket anfragePaket;
 
         ergebnisse.clear();
+        List<String> bekannteTreffer = trefferCache.holeTreffer(datei);
+        if (bekannteTreffer != null) {
+            ergebnisse.addAll(bekannteTreffer);
+            benachrichtigeBeobachter();
+            return;
+        }
         anfragePaket = new QueryPaket("1", datei);
-        eigeneAnfragen.add(anfragePaket.getGuid());
+        eigeneAnfragen.hinzufuegen(anfragePaket.getGuid());
+        trefferCache.merkeAnfrage(anfragePaket.getGuid(), anfragePaket.getSuchKriterien());
 
         bs = (Betriebssystem) getSystemSoftware();
         peerToPeerClient.sendeAnfrage(anfragePaket, bs.primaryIPAdresse());
@@ -384,13 +475,15 @@ public class PeerToPeerAnwendung extends Anwendung {
     void verarbeiteQueryHit(QueryHitPaket antwortPaket) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerAnwendung), verarbeiteQueryHit(" + antwortPaket + ")");
+        trefferCache.hinzufuegen(antwortPaket.getGuid(),
+                antwortPaket.getIpAdresse() + "/" + antwortPaket.getErgebnis());
         // warte ich selbst auf diese Antwort?
-        if (eigeneAnfragen.contains(antwortPaket.getGuid())) {
+        if (eigeneAnfragen.enthaelt(antwortPaket.getGuid())) {
             hinzuErgebnis(antwortPaket);
             benachrichtigeBeobachter();
         }
         // ich kenne die Anfrage, die Antwort ist nicht fuer mich
-        else if (fremdeAnfragen.contains(antwortPaket.getGuid())) {
+        else if (fremdeAnfragen.enthaelt(antwortPaket.getGuid())) {
             if (antwortPaket.getTtl() > 0) {
                 antwortPaket.setTtl(antwortPaket.getTtl() - 1);
                 antwortPaket.setHops(antwortPaket.getHops() + 1);
@@ -410,7 +503,7 @@ public class PeerToPeerAnwendung extends Anwendung {
                 + " (PeerToPeerAnwendung), verarbeitePong(" + pongPaket + ")" + "\n\tPong-Nachricht bei '"
                 + getSystemSoftware().getKnoten().holeAnzeigeName() + "' eingetroffen: " + pongPaket.toString());
 
-        if (eigeneAnfragen.contains(pongPaket.getGuid())) {
+        if (eigeneAnfragen.enthaelt(pongPaket.getGuid())) {
             hinzuTeilnehmer(pongPaket.getIpAdresse());
         } else {
             pongPaket.setTtl(pongPaket.getTtl() - 1);
@@ -493,13 +586,10 @@ public class PeerToPeerAnwendung extends Anwendung {
     }
 
     /**
-     * Methode fuer den Zugriff auf die Liste mit GUID's zu eigenen Anfragen, die im Peer-to-Peer-Netzwerk verschickt
-     * worden sind.
-     * 
-     * @return
+     * Prueft, ob die GUID zu einer eigenen Anfrage gehoert, die im Peer-to-Peer-Netzwerk verschickt worden ist.
      */
-    LinkedList<Integer> holeEigeneAnfragen() {
-        return eigeneAnfragen;
+    boolean istEigeneAnfrage(int guid) {
+        return eigeneAnfragen.enthaelt(guid);
     }
 
     /**
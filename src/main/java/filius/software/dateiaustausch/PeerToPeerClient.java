@@ -25,7 +25,9 @@
  */
 package filius.software.dateiaustausch;
 
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 
 import org.slf4j.Logger;
@@ -59,6 +61,9 @@ class PeerToPeerClient extends Anwendung {
      */
     private LinkedList<PeerToPeerClientMitarbeiter> mitarbeiterFremdeAnfragen = new LinkedList<PeerToPeerClientMitarbeiter>();
 
+    /** Die gestarteten Downloads, die beim Beenden des Clients abgebrochen werden */
+    private LinkedList<SchwarmDownload> downloads = new LinkedList<SchwarmDownload>();
+
     /**
      * Konstruktor, in dem die zugehoerige PeerToPeerAnwendung initialisiert und der Konstruktor der Oberklasse
      * aufgerufen wird.
@@ -93,6 +98,13 @@ class PeerToPeerClient extends Anwendung {
             m = (PeerToPeerClientMitarbeiter) it.next();
             m.beenden();
         }
+
+        synchronized (downloads) {
+            for (SchwarmDownload download : downloads) {
+                download.beenden();
+            }
+            downloads.clear();
+        }
     }
 
     /**
@@ -154,22 +166,30 @@ class PeerToPeerClient extends Anwendung {
     }
 
     /**
-     * erstellt eine HTTP Nachricht und schickt sie an den Teilnehmer, auf welchem die entsprechende Datei liegt. Auch
-     * dazu wird ein Mitarbeiter-Thread gestartet und dieser in die Liste der Threads fuer eigene Anfragen eingefuegt.
+     * Startet das Herunterladen einer Datei, die von mehreren Teilnehmern angeboten wird. Die Teilstuecke der Datei
+     * werden parallel von allen angegebenen Teilnehmern angefordert (siehe {@link SchwarmDownload}).
      * 
-     * @param teilnehmerIp
-     *            der Teilnehmer, auf welchem die Datei liegt
+     * @param teilnehmerIps
+     *            die Teilnehmer, auf welchen die Datei liegt
      * @param dateiName
      *            der Name der gesuchten Datei
      */
-    void dateiVomTeilnehmerAnfordern(String teilnehmerIp, String dateiName) {
+    void dateiVonTeilnehmernAnfordern(List<String> teilnehmerIps, String dateiName) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
-                + " (PeerToPeerClient), dateiVomTeilnehmerAnfordern(" + teilnehmerIp + "," + dateiName + ")");
-        PeerToPeerClientMitarbeiter m;
-
-        m = new PeerToPeerClientMitarbeiter(peerToPeerAnwendung, teilnehmerIp, dateiName);
-        m.start();
-        mitarbeiterEigeneAnfragen.add(m);
+                + " (PeerToPeerClient), dateiVonTeilnehmernAnfordern(" + teilnehmerIps + "," + dateiName + ")");
+        SchwarmDownload download;
+
+        download = new SchwarmDownload(peerToPeerAnwendung, dateiName, teilnehmerIps);
+        synchronized (downloads) {
+            Iterator<SchwarmDownload> it = downloads.iterator();
+            while (it.hasNext()) {
+                if (!it.next().isAlive()) {
+                    it.remove();
+                }
+            }
+            downloads.add(download);
+        }
+        download.start();
     }
 
     /**
@@ -198,7 +218,7 @@ class PeerToPeerClient extends Anwendung {
             nachbar = (String) dieNachbarn.get(i);
             if (!nachbar.equals(absenderIP)) {
                 lauscher = new PeerToPeerClientMitarbeiter(peerToPeerAnwendung, nachbar, anfragePaket);
-                if (peerToPeerAnwendung.holeEigeneAnfragen().contains(anfragePaket.getGuid())) {
+                if (peerToPeerAnwendung.istEigeneAnfrage(anfragePaket.getGuid())) {
                     mitarbeiterEigeneAnfragen.add(lauscher);
                 } else {
                     mitarbeiterFremdeAnfragen.add(lauscher);
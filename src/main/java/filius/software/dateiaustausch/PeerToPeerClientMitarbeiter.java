@@ -28,9 +28,7 @@ package filius.software.dateiaustausch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import filius.software.system.Datei;
 import filius.software.transportschicht.TCPSocket;
-import filius.software.www.HTTPNachricht;
 
 /**
  * In dieser Klasse werden die Mitarbeiter-Threads zum Versand von Anfragen und zur Verarbeitung der Antworten
@@ -45,10 +43,10 @@ class PeerToPeerClientMitarbeiter extends Thread {
      * <ul>
      * <li>Versenden einer Ping-Nachricht und Verarbeitung eingehender Pong-Antworten</li>
      * <li>Versenden einer Suchanfrage (Query) und Verarbeitung der Antworten darauf.</li>
-     * <li>Versenden von HTTP-GET-Anfragen und verarbeiten der Antworten mit der angeforderten Datei.</li>
      * </ul>
+     * Dateien werden mit {@link SchwarmDownload} heruntergeladen.
      */
-    private static final int PING = 1, QUERY = 3, HTTP = 4;
+    private static final int PING = 1, QUERY = 3;
 
     /** die verwaltende Instanz der Peer-to-Peer-Anwendung */
     private PeerToPeerAnwendung peerToPeerAnwendung;
@@ -70,7 +68,6 @@ class PeerToPeerClientMitarbeiter extends Thread {
     /**
      * der Modus, der die Funktionalitaet des Mitarbeiter-Threads bestimmt
      * 
-     * @see filius.software.dateiaustausch.PeerToPeerClientMitarbeiter#HTTP
      * @see filius.software.dateiaustausch.PeerToPeerClientMitarbeiter#QUERY
      * @see filius.software.dateiaustausch.PeerToPeerClientMitarbeiter#PING
      */
@@ -101,46 +98,13 @@ class PeerToPeerClientMitarbeiter extends Thread {
         running = true;
     }
 
-    /**
-     * Konstruktor fuer einen Mitarbeiter-Thread zur Verarbeitung einer HTTP-GET-Anfrage
-     * 
-     * @param peerToPeerAnwendung
-     * @param ip
-     * @param paket
-     * @see filius.software.dateiaustausch.PeerToPeerClientMitarbeiter#HTTP
-     */
-    public PeerToPeerClientMitarbeiter(PeerToPeerAnwendung anwendung, String ip, String dateiname) {
-        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
-                + " (PeerToPeerClientMitarbeiter), constr: PeerToPeerClientMitarbeiter(" + anwendung + "," + ip + ","
-                + dateiname + ")");
-        HTTPNachricht nachricht;
-
-        this.ip = ip;
-        peerToPeerAnwendung = anwendung;
-        modus = HTTP;
-
-        nachricht = new HTTPNachricht(HTTPNachricht.CLIENT);
-        nachricht.setPfad(dateiname);
-        nachricht.setHost(ip);
-        nachricht.setMethod(HTTPNachricht.GET);
-
-        this.nachricht = nachricht.toString();
-
-        running = true;
-    }
-
     /**
      * Hier wird die Funktionalitaet des Threads implementiert.
      * <ol>
      * <li>Aufbau einer TCP/IP-Verbindung zur Ziel-IP-Adresse</li>
      * <li>Versenden der im Konstruktor initialisierten Nachricht</li>
-     * <li>Verarbeiten der Antworten:
-     * <ul>
-     * <li>im HTTP-Modus: empfangen der Datei und speichern im lokalen Dateisystem</li>
-     * <li>im QUERY- und PING-Modus: Empfang und Verarbeitung aller eingehenden Nachrichten bis der Thread beendet
+     * <li>Verarbeiten der Antworten: Empfang und Verarbeitung aller eingehenden Nachrichten bis der Thread beendet
      * wird.</li>
-     * </ul>
-     * </li>
      * <li>schliessen des Sockets fuer die TCP/IP-Verbindung</li>
      * </ol>
      */
@@ -148,28 +112,14 @@ class PeerToPeerClientMitarbeiter extends Thread {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerClientMitarbeiter), run()");
         String antwort;
-        HTTPNachricht http, abfrage;
         QueryHitPaket queryHitPaket;
         PongPaket pongPaket;
-        Datei datei;
 
         try {
             socket = new TCPSocket(this.peerToPeerAnwendung.getSystemSoftware(), ip, 6346);
             socket.verbinden();
             socket.senden(nachricht);
-            if (modus == HTTP) {
-                antwort = socket.empfangen();
-                http = new HTTPNachricht(antwort);
-
-                if (http.getStatusCode() == 200) {
-                    abfrage = new HTTPNachricht(nachricht);
-                    datei = new Datei();
-                    datei.setDateiTyp(http.getContentType());
-                    datei.setName(abfrage.getPfad());
-                    datei.setDateiInhalt(http.getDaten());
-                    peerToPeerAnwendung.speicherDatei(datei);
-                }
-            } else if (modus == QUERY) {
+            if (modus == QUERY) {
                 while (running) {
                     antwort = socket.empfangen();
                     if (antwort != null) {
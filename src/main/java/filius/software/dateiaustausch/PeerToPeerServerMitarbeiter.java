@@ -31,7 +31,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import filius.software.clientserver.ServerMitarbeiter;
-import filius.software.system.Betriebssystem;
 import filius.software.system.Datei;
 import filius.software.transportschicht.Socket;
 import filius.software.www.HTTPNachricht;
@@ -101,19 +100,9 @@ public class PeerToPeerServerMitarbeiter extends ServerMitarbeiter {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerServerMitarbeiter), httpAnfrageVerarbeiten(" + nachricht + ")");
         HTTPNachricht http, antwort;
-        Datei datei;
 
         http = new HTTPNachricht(nachricht);
-        antwort = new HTTPNachricht(HTTPNachricht.SERVER);
-        datei = peerToPeerAnwendung.holeDatei(http.getPfad());
-
-        if (datei != null) {
-            antwort.setStatusCode(200);
-            antwort.setContentType(datei.getDateiTyp());
-            antwort.setDaten(datei.getDateiInhalt());
-        } else {
-            antwort.setStatusCode(404);
-        }
+        antwort = erstelleHttpAntwort(http, peerToPeerAnwendung.holeDatei(http.getPfad()));
 
         try {
             socket.senden(antwort.toString());
@@ -122,6 +111,50 @@ public class PeerToPeerServerMitarbeiter extends ServerMitarbeiter {
         }
     }
 
+    /**
+     * Erzeugt die Antwort auf eine HTTP-GET-Anfrage. Mit dem Header Range wird nur ein Ausschnitt der Datei angefordert
+     * (fuer das parallele Herunterladen von mehreren Teilnehmern). Der Ausschnitt wird mit dem Status 206 und den
+     * Headern Content-Range, Content-MD5 und ETag geliefert, ein nicht erfuellbarer Bereich mit dem Status 416
+     * beantwortet.
+     * 
+     * @param anfrage
+     *            die eingegangene Anfrage
+     * @param datei
+     *            die angeforderte Datei oder null, wenn sie nicht vorhanden ist
+     */
+    static HTTPNachricht erstelleHttpAntwort(HTTPNachricht anfrage, Datei datei) {
+        HTTPNachricht antwort = new HTTPNachricht(HTTPNachricht.SERVER);
+
+        if (datei == null) {
+            antwort.setStatusCode(404);
+            return antwort;
+        }
+        String inhalt = datei.getDateiInhalt();
+        if (inhalt == null) {
+            inhalt = "";
+        }
+        if (anfrage.getRange() != null && inhalt.length() > 0) {
+            int[] bereich = SchwarmDownload.leseRange(anfrage.getRange(), inhalt.length());
+            if (bereich == null) {
+                antwort.setStatusCode(416);
+                antwort.setContentRange("bytes */" + inhalt.length());
+            } else {
+                String teil = inhalt.substring(bereich[0], bereich[1] + 1);
+                antwort.setStatusCode(206);
+                antwort.setContentType(datei.getDateiTyp());
+                antwort.setETag(SchwarmDownload.erzeugeETag(inhalt));
+                antwort.setContentRange("bytes " + bereich[0] + "-" + bereich[1] + "/" + inhalt.length());
+                antwort.setContentMD5(SchwarmDownload.pruefsumme(teil));
+                antwort.setDaten(teil);
+            }
+        } else {
+            antwort.setStatusCode(200);
+            antwort.setContentType(datei.getDateiTyp());
+            antwort.setDaten(inhalt);
+        }
+        return antwort;
+    }
+
     /**
      * Methode zur Verarbeitung einer eingehenden Ping-Nachricht.
      * <ol>
@@ -165,8 +198,8 @@ public class PeerToPeerServerMitarbeiter extends ServerMitarbeiter {
      * wird.</li>
      * <li>
      * <ul>
-     * <li>Wenn eine Liste mit mindestens einem Eintrag vorliegt, wird fuer jede Datei eine Antwortnachricht ueber den
-     * Socket verschickt (Query-Hit).</li>
+     * <li>Wenn eine Liste mit mindestens einem Eintrag vorliegt, wird jede Antwortnachricht (Query-Hit) ueber den
+     * Socket verschickt. Das koennen eigene Dateien oder zwischengespeicherte Treffer anderer Teilnehmer sein.</li>
      * </ul>
      * </li>
      * </ol>
@@ -176,24 +209,14 @@ public class PeerToPeerServerMitarbeiter extends ServerMitarbeiter {
     private void verarbeiteQuery(QueryPaket queryPaket) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerServerMitarbeiter), verarbeiteQuery(" + queryPaket + ")");
-        List<Datei> dateien;
-        Betriebssystem bs;
-        QueryHitPaket antwortPaket;
+        List<QueryHitPaket> antworten;
 
         guid = queryPaket.getGuid();
 
-        dateien = peerToPeerAnwendung.verarbeiteAnfrage(socket.holeZielIPAdresse(), queryPaket);
-
-        if (dateien != null && dateien.size() > 0) {
-            bs = (Betriebssystem) peerToPeerAnwendung.getSystemSoftware();
-
-            for (Datei aktuelleDatei : dateien) {
-                antwortPaket = new QueryHitPaket(dateien.size(), 6346, bs.primaryIPAdresse(), "2", "", " ");
-                antwortPaket.setGuid(queryPaket.getGuid());
-                antwortPaket.setHops(0);
-                antwortPaket.setTtl(8);
-                antwortPaket.setErgebnis(aktuelleDatei.getName() + ": " + aktuelleDatei.holeGroesse() + " B");
+        antworten = peerToPeerAnwendung.verarbeiteAnfrage(socket.holeZielIPAdresse(), queryPaket);
 
+        if (antworten != null && antworten.size() > 0) {
+            for (QueryHitPaket antwortPaket : antworten) {
                 try {
                     socket.senden(antwortPaket.toString());
                 } catch (Exception e) {
@@ -0,0 +1,463 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dateiaustausch;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.exception.TimeOutException;
+import filius.hardware.Verbindung;
+import filius.rahmenprogramm.Base64;
+import filius.software.system.Datei;
+import filius.software.transportschicht.TCPSocket;
+import filius.software.www.HTTPNachricht;
+
+/**
+ * Herunterladen einer Datei von mehreren Teilnehmern gleichzeitig. Die Datei wird in Teilstuecke der Groesse
+ * {@link #TEIL_GROESSE} zerlegt, die mit HTTP-Range-Anfragen parallel von allen Teilnehmern angefordert werden, die die
+ * Datei anbieten. Jedes Teilstueck wird anhand seiner MD5-Pruefsumme (Header Content-MD5) und des ETags der Datei
+ * geprueft. Schlaegt die Uebertragung fehl oder dauert sie zu lange, wird das Teilstueck bei einem anderen Teilnehmer
+ * angefordert. Wenn keine offenen Teilstuecke mehr vorhanden sind, fordern freie Teilnehmer die noch laufenden
+ * Teilstuecke zusaetzlich an, damit ein langsamer Teilnehmer den Abschluss nicht aufhaelt. Zum Schluss wird die Datei
+ * aus den Teilstuecken zusammengesetzt und im Dateisystem gespeichert.
+ * <p>
+ * Die Bereichsangaben beziehen sich auf die Zeichen des uebertragenen Dateiinhalts (bei Binaerdateien also auf die
+ * Base64-Kodierung).
+ */
+class SchwarmDownload extends Thread {
+    private static Logger LOG = LoggerFactory.getLogger(SchwarmDownload.class);
+
+    /** Groesse eines Teilstuecks (Anzahl Zeichen des uebertragenen Dateiinhalts) */
+    static final int TEIL_GROESSE = 4 * TCPSocket.MSS;
+
+    /** Anzahl der Fehlschlaege, nach denen ein Teilnehmer nicht mehr angefragt wird */
+    static final int MAX_FEHLER = 3;
+
+    /** Wartezeit auf ein Teilstueck in Vielfachen der RTT */
+    static final int WARTEZEIT_RTT = 10;
+
+    /** Wie viele Teilnehmer hoechstens gleichzeitig dasselbe Teilstueck laden */
+    private static final int MAX_LADENDE_JE_TEIL = 2;
+
+    private static final int PORT = 6346;
+
+    private PeerToPeerAnwendung anwendung;
+
+    private String dateiname;
+
+    /** Die Teilnehmer, von denen geladen wird */
+    private LinkedList<Quelle> quellen = new LinkedList<Quelle>();
+
+    /** Die empfangenen Teilstuecke (null, solange ein Teilstueck fehlt) */
+    private String[] teile;
+
+    /** Teilstuecke, die noch keinem Teilnehmer zugeteilt sind */
+    private LinkedList<Integer> offeneTeile = new LinkedList<Integer>();
+
+    /** Anzahl der Teilnehmer, die ein Teilstueck gerade laden */
+    private Map<Integer, Integer> ladende = new HashMap<Integer, Integer>();
+
+    private int fertigeTeile = 0;
+
+    private int aktiveQuellen = 0;
+
+    private int gesamtLaenge = -1;
+
+    private String eTag = null;
+
+    private String contentType = null;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param anwendung
+     *            die Anwendung, in deren Verzeichnis die Datei gespeichert wird
+     * @param dateiname
+     *            der Name der herunterzuladenden Datei
+     * @param quellen
+     *            die IP-Adressen der Teilnehmer, die die Datei anbieten
+     */
+    SchwarmDownload(PeerToPeerAnwendung anwendung, String dateiname, List<String> quellen) {
+        LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SchwarmDownload), constr: SchwarmDownload(" + anwendung + "," + dateiname + "," + quellen + ")");
+        this.anwendung = anwendung;
+        this.dateiname = dateiname;
+        for (String ip : quellen) {
+            this.quellen.add(new Quelle(ip));
+        }
+    }
+
+    public void run() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SchwarmDownload), run()");
+        String inhalt = null;
+
+        if (erstesTeilLaden()) {
+            if (teile.length > 1) {
+                synchronized (this) {
+                    aktiveQuellen = quellen.size();
+                }
+                for (Quelle quelle : quellen) {
+                    quelle.start();
+                }
+                synchronized (this) {
+                    while (running && fertigeTeile < teile.length && aktiveQuellen > 0) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {}
+                    }
+                }
+            }
+            inhalt = zusammensetzen();
+        }
+        for (Quelle quelle : quellen) {
+            quelle.beenden();
+        }
+        if (running) {
+            abschliessen(inhalt);
+        }
+    }
+
+    /** Zum Abbrechen des Downloads */
+    void beenden() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SchwarmDownload), beenden()");
+        running = false;
+        for (Quelle quelle : quellen) {
+            quelle.beenden();
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Mit dem ersten Teilstueck werden die Laenge, der Typ und das ETag der Datei ermittelt. Teilnehmer, die das
+     * Teilstueck nicht liefern, werden nicht weiter verwendet.
+     * 
+     * @return ob die Datei bei einem der Teilnehmer verfuegbar ist
+     */
+    private boolean erstesTeilLaden() {
+        Iterator<Quelle> it = quellen.iterator();
+        while (running && it.hasNext()) {
+            Quelle quelle = it.next();
+            try {
+                HTTPNachricht antwort = quelle.anfordern(0, TEIL_GROESSE - 1);
+                if (antwort.getStatusCode() == 200 && antwort.getDaten() != null) {
+                    // Der Teilnehmer liefert die ganze Datei (z. B. bei einer leeren Datei)
+                    contentType = antwort.getContentType();
+                    teile = new String[] { antwort.getDaten() };
+                    gesamtLaenge = teile[0].length();
+                    fertigeTeile = 1;
+                    return true;
+                }
+                long[] bereich = leseContentRange(antwort.getContentRange());
+                if (antwort.getStatusCode() == 206 && bereich != null && bereich[0] == 0 && bereich[2] > 0
+                        && bereich[2] <= Integer.MAX_VALUE) {
+                    gesamtLaenge = (int) bereich[2];
+                    eTag = antwort.getETag();
+                    contentType = antwort.getContentType();
+                    teile = new String[(gesamtLaenge + TEIL_GROESSE - 1) / TEIL_GROESSE];
+                    if (pruefeTeil(antwort, 0)) {
+                        teile[0] = antwort.getDaten();
+                        fertigeTeile = 1;
+                        for (int i = 1; i < teile.length; i++) {
+                            offeneTeile.add(i);
+                        }
+                        return true;
+                    }
+                }
+            } catch (Exception e) {
+                LOG.debug("", e);
+            }
+            quelle.beenden();
+            it.remove();
+        }
+        return false;
+    }
+
+    /**
+     * @return der vollstaendige Dateiinhalt oder null, wenn Teilstuecke fehlen oder die Datei nicht zum ETag passt
+     */
+    private synchronized String zusammensetzen() {
+        if (fertigeTeile < teile.length) {
+            return null;
+        }
+        StringBuilder inhalt = new StringBuilder(gesamtLaenge);
+        for (String teil : teile) {
+            inhalt.append(teil);
+        }
+        if (inhalt.length() != gesamtLaenge || (eTag != null && !eTag.equals(erzeugeETag(inhalt.toString())))) {
+            return null;
+        }
+        return inhalt.toString();
+    }
+
+    private void abschliessen(String inhalt) {
+        if (inhalt != null) {
+            Datei datei = new Datei();
+            datei.setDateiTyp(contentType);
+            datei.setName(dateiname);
+            datei.setDateiInhalt(inhalt);
+            anwendung.speicherDatei(datei);
+            LOG.debug("Datei " + dateiname + " von " + quellen.size() + " Teilnehmer(n) geladen");
+        } else {
+            LOG.debug("Datei " + dateiname + " konnte nicht geladen werden");
+        }
+        anwendung.benachrichtigeBeobachter();
+    }
+
+    /**
+     * Hier wird die HTTP-Anfrage ueber die Verbindung des Teilnehmers verschickt und auf die Antwort gewartet.
+     */
+    HTTPNachricht senden(Quelle quelle, HTTPNachricht anfrage) throws Exception {
+        if (quelle.socket == null) {
+            quelle.socket = new TCPSocket(anwendung.getSystemSoftware(), quelle.ip, PORT);
+            quelle.socket.verbinden();
+        }
+        quelle.socket.senden(anfrage.toString());
+        String antwort = quelle.socket.empfangen(WARTEZEIT_RTT * Verbindung.holeRTT());
+        if (antwort == null) {
+            throw new TimeOutException();
+        }
+        return new HTTPNachricht(antwort);
+    }
+
+    /**
+     * Ein Teilstueck ist gueltig, wenn es genau den angeforderten Bereich umfasst, zur selben Version der Datei gehoert
+     * und die Pruefsumme stimmt.
+     */
+    private boolean pruefeTeil(HTTPNachricht antwort, int teil) {
+        long von = (long) teil * TEIL_GROESSE;
+        long bis = Math.min(von + TEIL_GROESSE, gesamtLaenge) - 1;
+        long[] bereich = leseContentRange(antwort.getContentRange());
+        String daten = antwort.getDaten();
+
+        return antwort.getStatusCode() == 206 && bereich != null && bereich[0] == von && bereich[1] == bis
+                && bereich[2] == gesamtLaenge && daten != null && daten.length() == bis - von + 1
+                && (eTag == null ? antwort.getETag() == null : eTag.equals(antwort.getETag()))
+                && pruefsumme(daten).equals(antwort.getContentMD5());
+    }
+
+    /**
+     * Vergibt das naechste offene Teilstueck. Wenn alle Teilstuecke vergeben sind, wird ein noch laufendes Teilstueck
+     * zusaetzlich vergeben. Sonst wird gewartet, bis wieder ein Teilstueck frei wird.
+     * 
+     * @return der Index des Teilstuecks oder -1, wenn nichts mehr zu laden ist
+     */
+    private synchronized int naechstesTeil() {
+        while (running && fertigeTeile < teile.length) {
+            Integer teil = offeneTeile.poll();
+            if (teil == null) {
+                for (Map.Entry<Integer, Integer> eintrag : ladende.entrySet()) {
+                    if (teile[eintrag.getKey()] == null && eintrag.getValue() < MAX_LADENDE_JE_TEIL) {
+                        teil = eintrag.getKey();
+                        break;
+                    }
+                }
+            }
+            if (teil != null) {
+                Integer anzahl = ladende.get(teil);
+                ladende.put(teil, anzahl == null ? 1 : anzahl + 1);
+                return teil;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {}
+        }
+        return -1;
+    }
+
+    /**
+     * @param daten
+     *            der Inhalt des Teilstuecks oder null, wenn das Laden fehlgeschlagen ist
+     */
+    private synchronized void teilBeendet(int teil, String daten) {
+        int anzahl = ladende.get(teil) - 1;
+        if (anzahl > 0) {
+            ladende.put(teil, anzahl);
+        } else {
+            ladende.remove(teil);
+        }
+        if (daten != null && teile[teil] == null) {
+            teile[teil] = daten;
+            fertigeTeile++;
+        } else if (daten == null && teile[teil] == null && anzahl == 0) {
+            offeneTeile.addFirst(teil);
+        }
+        notifyAll();
+    }
+
+    private synchronized void quelleBeendet() {
+        aktiveQuellen--;
+        notifyAll();
+    }
+
+    /**
+     * Wertet die Bereichsangabe einer Anfrage (Header Range, z. B. 'bytes=0-99') fuer eine Ressource der angegebenen
+     * Laenge aus. Das Ende des Bereichs wird auf das Ende der Ressource begrenzt.
+     * 
+     * @return Anfang und Ende (jeweils einschliesslich) oder null, wenn der Bereich ungueltig oder nicht erfuellbar ist
+     */
+    static int[] leseRange(String range, int laenge) {
+        if (range == null || !range.startsWith("bytes=")) {
+            return null;
+        }
+        String[] grenzen = range.substring("bytes=".length()).split("-", -1);
+        try {
+            if (grenzen.length != 2 || grenzen[0].isEmpty()) {
+                return null;
+            }
+            long von = Long.parseLong(grenzen[0].trim());
+            long bis = grenzen[1].trim().isEmpty() ? laenge - 1 : Long.parseLong(grenzen[1].trim());
+            if (von < 0 || von >= laenge || bis < von) {
+                return null;
+            }
+            return new int[] { (int) von, (int) Math.min(bis, laenge - 1) };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Wertet die Bereichsangabe einer Antwort (Header Content-Range, z. B. 'bytes 0-99/1000') aus.
+     * 
+     * @return Anfang, Ende und Gesamtlaenge oder null, wenn die Angabe ungueltig ist
+     */
+    static long[] leseContentRange(String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return null;
+        }
+        String bereich = contentRange.substring("bytes ".length()).trim();
+        int strich = bereich.indexOf('-');
+        int schraegstrich = bereich.indexOf('/');
+        if (strich < 1 || schraegstrich < strich) {
+            return null;
+        }
+        try {
+            return new long[] { Long.parseLong(bereich.substring(0, strich)),
+                    Long.parseLong(bereich.substring(strich + 1, schraegstrich)),
+                    Long.parseLong(bereich.substring(schraegstrich + 1)) };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** @return die Base64-kodierte MD5-Pruefsumme der Daten (wie im Header Content-MD5) */
+    static String pruefsumme(String daten) {
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return Base64.encodeBytes(md5.digest(daten.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @return das ETag eines Dateiinhalts, gebildet wie beim Webserver aus Hashwert und Laenge */
+    static String erzeugeETag(String inhalt) {
+        return "\"" + Integer.toHexString(inhalt.hashCode()) + "-" + inhalt.length() + "\"";
+    }
+
+    /**
+     * Ein Teilnehmer, der die Datei anbietet. Jeder Teilnehmer laedt in einem eigenen Thread ueber eine dauerhafte
+     * Verbindung nacheinander Teilstuecke, bis die Datei vollstaendig ist oder der Teilnehmer zu oft fehlgeschlagen
+     * ist.
+     */
+    class Quelle extends Thread {
+        private String ip;
+
+        private TCPSocket socket = null;
+
+        private int fehler = 0;
+
+        private volatile boolean aktiv = true;
+
+        Quelle(String ip) {
+            this.ip = ip;
+        }
+
+        public void run() {
+            while (aktiv && fehler < MAX_FEHLER) {
+                int teil = naechstesTeil();
+                if (teil < 0) {
+                    break;
+                }
+                String daten = null;
+                try {
+                    long von = (long) teil * TEIL_GROESSE;
+                    HTTPNachricht antwort = anfordern(von, Math.min(von + TEIL_GROESSE, gesamtLaenge) - 1);
+                    if (pruefeTeil(antwort, teil)) {
+                        daten = antwort.getDaten();
+                    }
+                } catch (Exception e) {
+                    LOG.debug("", e);
+                }
+                if (daten == null) {
+                    // nach einem Fehler wird die Verbindung neu aufgebaut, damit keine verspaetete Antwort
+                    // fuer das naechste Teilstueck gehalten wird
+                    fehler++;
+                    schliessen();
+                }
+                teilBeendet(teil, daten);
+            }
+            schliessen();
+            quelleBeendet();
+        }
+
+        HTTPNachricht anfordern(long von, long bis) throws Exception {
+            HTTPNachricht anfrage = new HTTPNachricht(HTTPNachricht.CLIENT);
+            anfrage.setMethod(HTTPNachricht.GET);
+            anfrage.setPfad(dateiname);
+            anfrage.setHost(ip);
+            anfrage.setConnection(HTTPNachricht.CONNECTION_KEEP_ALIVE);
+            anfrage.setRange("bytes=" + von + "-" + bis);
+            return senden(this, anfrage);
+        }
+
+        private void schliessen() {
+            TCPSocket tmpSocket = socket;
+            socket = null;
+            if (tmpSocket != null) {
+                tmpSocket.schliessen();
+                tmpSocket.beenden();
+            }
+        }
+
+        void beenden() {
+            aktiv = false;
+            schliessen();
+        }
+    }
+}
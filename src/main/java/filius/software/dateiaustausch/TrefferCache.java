@@ -0,0 +1,147 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dateiaustausch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import filius.hardware.Verbindung;
+import filius.rahmenprogramm.SimulationsUhr;
+
+/**
+ * Zwischenspeicher fuer Suchergebnisse (Query-Hits) im Peer-to-Peer-Netzwerk. Zu jeder gesehenen Suchanfrage wird der
+ * Suchbegriff gemerkt, eintreffende Treffer werden unter diesem Begriff abgelegt. Wiederholte Suchen nach demselben
+ * Begriff koennen so fuer kurze Zeit lokal beantwortet werden, ohne die Anfrage erneut durch das Netz zu fluten. Die
+ * Treffer werden als Zeichenkette der Form 'IP-Adresse/Ergebnis' gespeichert (wie in der Ergebnisliste der
+ * PeerToPeerAnwendung).
+ */
+class TrefferCache {
+
+    private static class Eintrag {
+        final List<String> treffer = new ArrayList<String>();
+        final long angelegt;
+
+        Eintrag(long angelegt) {
+            this.angelegt = angelegt;
+        }
+    }
+
+    private static class Anfrage {
+        final String suchbegriff;
+        final long eingetroffen;
+
+        Anfrage(String suchbegriff, long eingetroffen) {
+            this.suchbegriff = suchbegriff;
+            this.eingetroffen = eingetroffen;
+        }
+    }
+
+    private final int lebensdauerRTT;
+
+    /** Suchbegriff (in Kleinbuchstaben) je GUID einer Anfrage, in der Reihenfolge des Eintreffens */
+    private final LinkedHashMap<Integer, Anfrage> anfragen = new LinkedHashMap<Integer, Anfrage>();
+
+    /** Treffer je Suchbegriff, in der Reihenfolge des Anlegens */
+    private final LinkedHashMap<String, Eintrag> eintraege = new LinkedHashMap<String, Eintrag>();
+
+    TrefferCache(int lebensdauerRTT) {
+        this.lebensdauerRTT = lebensdauerRTT;
+    }
+
+    /** Merkt sich den Suchbegriff einer Anfrage, damit die Treffer dazu zugeordnet werden koennen. */
+    void merkeAnfrage(int guid, String suchbegriff) {
+        merkeAnfrage(guid, suchbegriff, SimulationsUhr.jetzt());
+    }
+
+    synchronized void merkeAnfrage(int guid, String suchbegriff, long jetzt) {
+        entferneVerfallene(jetzt);
+        // erneut gesehene Anfrage ans Ende verschieben, sonst stimmt die Reihenfolge der Map nicht mehr
+        anfragen.remove(guid);
+        anfragen.put(guid, new Anfrage(suchbegriff.toLowerCase(), jetzt));
+    }
+
+    /**
+     * Legt einen Treffer zu der Anfrage mit der GUID ab. Treffer zu unbekannten Anfragen werden ignoriert.
+     */
+    void hinzufuegen(int guid, String treffer) {
+        hinzufuegen(guid, treffer, SimulationsUhr.jetzt());
+    }
+
+    synchronized void hinzufuegen(int guid, String treffer, long jetzt) {
+        entferneVerfallene(jetzt);
+        Anfrage anfrage = anfragen.get(guid);
+        if (anfrage != null) {
+            Eintrag eintrag = eintraege.get(anfrage.suchbegriff);
+            if (eintrag == null) {
+                eintrag = new Eintrag(jetzt);
+                eintraege.put(anfrage.suchbegriff, eintrag);
+            }
+            if (!eintrag.treffer.contains(treffer)) {
+                eintrag.treffer.add(treffer);
+            }
+        }
+    }
+
+    /**
+     * @return eine Kopie der noch gueltigen Treffer zu dem Suchbegriff oder null, wenn keine vorliegen
+     */
+    List<String> holeTreffer(String suchbegriff) {
+        return holeTreffer(suchbegriff, SimulationsUhr.jetzt());
+    }
+
+    synchronized List<String> holeTreffer(String suchbegriff, long jetzt) {
+        entferneVerfallene(jetzt);
+        Eintrag eintrag = eintraege.get(suchbegriff.toLowerCase());
+        return eintrag == null ? null : new ArrayList<String>(eintrag.treffer);
+    }
+
+    synchronized void leeren() {
+        anfragen.clear();
+        eintraege.clear();
+    }
+
+    /**
+     * Beide Maps sind nach dem Zeitpunkt des Einfuegens sortiert. Da die Lebensdauer fuer alle Eintraege aus der
+     * aktuellen RTT berechnet wird, genuegt es, vorne zu entfernen.
+     */
+    private void entferneVerfallene(long jetzt) {
+        long grenze = jetzt - (long) lebensdauerRTT * Verbindung.holeRTT();
+        for (Iterator<Anfrage> iter = anfragen.values().iterator(); iter.hasNext();) {
+            if (iter.next().eingetroffen > grenze) {
+                break;
+            }
+            iter.remove();
+        }
+        for (Iterator<Eintrag> iter = eintraege.values().iterator(); iter.hasNext();) {
+            if (iter.next().angelegt > grenze) {
+                break;
+            }
+            iter.remove();
+        }
+    }
+}
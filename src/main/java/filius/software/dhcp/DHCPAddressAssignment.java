@@ -26,6 +26,7 @@
 package filius.software.dhcp;
 
 import filius.rahmenprogramm.I18n;
+import filius.rahmenprogramm.SimulationsUhr;
 
 /**
  * 
@@ -75,7 +76,7 @@ public class DHCPAddressAssignment implements I18n {
     }
 
     public boolean isExpired() {
-        return leaseTime != 0 && leaseTime < System.currentTimeMillis();
+        return leaseTime != 0 && leaseTime < SimulationsUhr.jetzt();
     }
 
     public String toString() {
@@ -0,0 +1,225 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dhcp;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import filius.rahmenprogramm.SimulationsUhr;
+
+/**
+ * Verwaltung der Adresszuweisungen eines DHCP-Servers. Die Eintraege (Leases, Angebote, statische Zuweisungen und
+ * gesperrte Adressen) werden nach IP- und MAC-Adresse indiziert. Welche Adressen des Bereichs belegt sind, wird in
+ * einer Bitmap gefuehrt, so dass die naechste freie Adresse ohne Durchlaufen der Eintraege gefunden wird. Ablaufende
+ * Eintraege stehen in einer nach Ablaufzeit sortierten Warteschlange und werden vor jedem Zugriff entfernt.
+ * <p>
+ * Die Eintraege jeder Art bleiben in der Reihenfolge ihres Hinzufuegens. Die Klasse ist nicht synchronisiert; der
+ * DHCP-Server greift nur in synchronisierten Methoden darauf zu.
+ */
+class DHCPAddressPool {
+
+    /** Groesster Adressbereich, der in der Bitmap abgebildet wird */
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    /** Die Arten von Eintraegen. Jede Art hat eigene Indizes. */
+    enum Kind {
+        LEASE, OFFER, STATIC, BLACKLIST
+    }
+
+    private static class Expiry implements Comparable<Expiry> {
+        private final Kind kind;
+        private final DHCPAddressAssignment assignment;
+
+        Expiry(Kind kind, DHCPAddressAssignment assignment) {
+            this.kind = kind;
+            this.assignment = assignment;
+        }
+
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(assignment.getLeaseTime(), other.assignment.getLeaseTime());
+        }
+    }
+
+    private final Map<Kind, Map<String, DHCPAddressAssignment>> byIp = new HashMap<>();
+    private final Map<Kind, Map<String, DHCPAddressAssignment>> byMac = new HashMap<>();
+    private final PriorityQueue<Expiry> expiries = new PriorityQueue<>();
+
+    /** belegte Adressen des Bereichs; Bit i steht fuer die Adresse lowerLimit + i */
+    private final BitSet used = new BitSet();
+    private long lowerLimit = 0;
+    private long size = 0;
+
+    DHCPAddressPool() {
+        for (Kind kind : Kind.values()) {
+            byIp.put(kind, new LinkedHashMap<String, DHCPAddressAssignment>());
+            byMac.put(kind, new HashMap<String, DHCPAddressAssignment>());
+        }
+    }
+
+    /**
+     * Setzt den Bereich der dynamisch vergebenen Adressen. Die Bitmap wird aus den vorhandenen Eintraegen neu
+     * aufgebaut.
+     */
+    void setRange(long lowerLimit, long upperLimit) {
+        this.lowerLimit = lowerLimit;
+        this.size = Math.max(0, Math.min(upperLimit - lowerLimit + 1, MAX_SIZE));
+        used.clear();
+        for (Map<String, DHCPAddressAssignment> entries : byIp.values()) {
+            for (String ip : entries.keySet()) {
+                int index = indexOf(ip);
+                if (index >= 0) {
+                    used.set(index);
+                }
+            }
+        }
+    }
+
+    void add(Kind kind, DHCPAddressAssignment assignment) {
+        removeExpired();
+        DHCPAddressAssignment previous = byMac.get(kind).get(macKey(assignment.getMAC()));
+        if (previous != null && kind != Kind.BLACKLIST) {
+            remove(kind, previous.getIp());
+        }
+        previous = byIp.get(kind).put(assignment.getIp(), assignment);
+        if (previous != null) {
+            byMac.get(kind).remove(macKey(previous.getMAC()));
+        }
+        if (kind != Kind.BLACKLIST) {
+            byMac.get(kind).put(macKey(assignment.getMAC()), assignment);
+        }
+        int index = indexOf(assignment.getIp());
+        if (index >= 0) {
+            used.set(index);
+        }
+        if (assignment.getLeaseTime() != 0) {
+            expiries.add(new Expiry(kind, assignment));
+        }
+    }
+
+    DHCPAddressAssignment remove(Kind kind, String ip) {
+        DHCPAddressAssignment removed = byIp.get(kind).remove(ip);
+        if (removed != null) {
+            byMac.get(kind).remove(macKey(removed.getMAC()), removed);
+            int index = indexOf(ip);
+            if (index >= 0 && !isUsed(ip)) {
+                used.clear(index);
+            }
+        }
+        return removed;
+    }
+
+    DHCPAddressAssignment findByIp(Kind kind, String ip) {
+        removeExpired();
+        return byIp.get(kind).get(ip);
+    }
+
+    DHCPAddressAssignment findByMac(Kind kind, String mac) {
+        removeExpired();
+        return byMac.get(kind).get(macKey(mac));
+    }
+
+    /** @return ob die Adresse durch keinen Eintrag belegt ist */
+    boolean isAvailable(String ip) {
+        removeExpired();
+        return !isUsed(ip);
+    }
+
+    /**
+     * Sucht die erste freie Adresse des Bereichs ab der angegebenen Adresse. Am Ende des Bereichs wird am Anfang
+     * weitergesucht.
+     * 
+     * @return die freie Adresse oder null, wenn alle Adressen des Bereichs belegt sind
+     */
+    String nextAvailable(String start) {
+        removeExpired();
+        if (size == 0) {
+            return null;
+        }
+        int startIndex = Math.max(indexOf(start), 0);
+        int index = used.nextClearBit(startIndex);
+        if (index >= size) {
+            index = used.nextClearBit(0);
+            if (index >= startIndex) {
+                return null;
+            }
+        }
+        return DHCPServer.longToIp(lowerLimit + index);
+    }
+
+    /** Entfernt alle Eintraege, deren Lease-Zeit abgelaufen ist. */
+    void removeExpired() {
+        long now = SimulationsUhr.jetzt();
+        while (!expiries.isEmpty() && expiries.peek().assignment.getLeaseTime() < now) {
+            Expiry expiry = expiries.poll();
+            if (byIp.get(expiry.kind).get(expiry.assignment.getIp()) == expiry.assignment) {
+                remove(expiry.kind, expiry.assignment.getIp());
+            }
+        }
+    }
+
+    List<DHCPAddressAssignment> entries(Kind kind) {
+        removeExpired();
+        return new ArrayList<>(byIp.get(kind).values());
+    }
+
+    void clear(Kind kind) {
+        List<String> ips = new ArrayList<>(byIp.get(kind).keySet());
+        for (String ip : ips) {
+            remove(kind, ip);
+        }
+    }
+
+    private boolean isUsed(String ip) {
+        for (Map<String, DHCPAddressAssignment> entries : byIp.values()) {
+            if (entries.containsKey(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return der Index der Adresse in der Bitmap oder -1, wenn sie nicht im Bereich liegt */
+    private int indexOf(String ip) {
+        long address;
+        try {
+            address = DHCPServer.ipToLong(ip);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long index = address - lowerLimit;
+        return index >= 0 && index < size ? (int) index : -1;
+    }
+
+    private static String macKey(String mac) {
+        return mac == null ? "" : mac.toLowerCase();
+    }
+}
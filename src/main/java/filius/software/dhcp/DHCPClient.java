@@ -47,6 +47,7 @@ import filius.gui.GUIContainer;
 import filius.gui.netzwerksicht.GUIKnotenItem;
 import filius.hardware.Verbindung;
 import filius.hardware.knoten.Knoten;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.clientserver.ClientAnwendung;
 import filius.software.system.Betriebssystem;
 import filius.software.system.InternetKnotenBetriebssystem;
@@ -95,7 +96,7 @@ public class DHCPClient extends ClientAnwendung {
                                 + "' has been started");
                     }
                 }
-                Thread.sleep(100);
+                SimulationsUhr.schlafen(100);
             }
         } catch (InterruptedException e) {
             LOG.debug("", e);
@@ -219,7 +220,7 @@ public class DHCPClient extends ClientAnwendung {
             String serverIdentifier, DHCPMessageType... messageTypes)
             throws NoValidDhcpResponseException, TimeOutException {
         DHCPMessage responseMessage = null;
-        long start = System.currentTimeMillis();
+        long start = SimulationsUhr.jetzt();
         long duration = 0;
         do {
             String response = socket.empfangen(socketTimeoutMillis - duration);
@@ -234,7 +235,7 @@ public class DHCPClient extends ClientAnwendung {
             if (invalidMessageType || forOtherClient || fromOtherServer) {
                 responseMessage = null;
             }
-            duration = System.currentTimeMillis() - start;
+            duration = SimulationsUhr.jetzt() - start;
         } while (null == responseMessage && duration < socketTimeoutMillis);
         if (null == responseMessage) {
             throw new NoValidDhcpResponseException("No valid server response received");
@@ -27,7 +27,6 @@ package filius.software.dhcp;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -39,6 +38,7 @@ import filius.exception.AddressRequestNotAcceptedException;
 import filius.exception.NoAvailableAddressException;
 import filius.hardware.Verbindung;
 import filius.rahmenprogramm.EingabenUeberpruefung;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.clientserver.UDPServerAnwendung;
 import filius.software.system.GatewayFirmware;
 import filius.software.transportschicht.Socket;
@@ -71,14 +71,11 @@ public class DHCPServer extends UDPServerAnwendung {
 
     /** Die zuletzt vergebene IP-Adresse */
     String lastOfferedAddress = null;
-    /** Liste mit dynamisch vergebenen IP-Adressen mit zugehoeriger MAC-Adresse */
-    List<DHCPAddressAssignment> dynamicAssignedAddresses = new ArrayList<DHCPAddressAssignment>();
-    /** Liste mit statisch vergebenen IP-Adressen mit zugehoeriger MAC-Adresse */
-    List<DHCPAddressAssignment> staticAssignedAddresses = new ArrayList<DHCPAddressAssignment>();
-    /** Liste mit angebotenen IP-Adressen mit zugehoeriger MAC-Adresse */
-    List<DHCPAddressAssignment> offeredAddresses = new ArrayList<DHCPAddressAssignment>();
-    /** Liste mit IP-Adressen, die von anderen Servern angeboten wurden. */
-    List<DHCPAddressAssignment> blacklist = new ArrayList<DHCPAddressAssignment>();
+    /**
+     * Dynamisch und statisch vergebene, angebotene und von anderen Servern angebotene (gesperrte) IP-Adressen mit
+     * zugehoeriger MAC-Adresse
+     */
+    DHCPAddressPool pool = new DHCPAddressPool();
 
     /** Konstruktor, in dem der UDP-Port 67 gesetzt wird. */
     public DHCPServer() {
@@ -111,40 +108,39 @@ public class DHCPServer extends UDPServerAnwendung {
         return addressToOffer;
     }
 
+    /**
+     * Einem Client mit gueltiger Lease wird wieder dieselbe Adresse angeboten. Sonst wird ab der zuletzt angebotenen
+     * Adresse die naechste freie Adresse aus der Bitmap des Adresspools gesucht.
+     */
     private String findDynamicOffer(String mac) throws NoAvailableAddressException {
-        String addressToOffer;
-        addressToOffer = nextAddress();
-        String firstOffer = addressToOffer;
-        while (!checkAddressAvailable(addressToOffer)) {
-            addressToOffer = nextAddress();
-            if (StringUtils.equals(firstOffer, addressToOffer)) {
-                throw new NoAvailableAddressException();
-            }
+        DHCPAddressAssignment lease = pool.findByMac(DHCPAddressPool.Kind.LEASE, mac);
+        if (lease != null) {
+            return lease.getIp();
         }
-        long leaseTime = System.currentTimeMillis() + 4 * Verbindung.holeRTT();
-        offeredAddresses.add(new DHCPAddressAssignment(mac, addressToOffer, leaseTime));
+        DHCPAddressAssignment offer = pool.findByMac(DHCPAddressPool.Kind.OFFER, mac);
+        String addressToOffer = offer != null ? offer.getIp() : pool.nextAvailable(nextAddress());
+        if (addressToOffer == null) {
+            throw new NoAvailableAddressException();
+        }
+        lastOfferedAddress = addressToOffer;
+        long leaseTime = SimulationsUhr.jetzt() + 4 * Verbindung.holeRTT();
+        pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment(mac, addressToOffer, leaseTime));
         return addressToOffer;
     }
 
     private String findStaticOffer(String mac) {
-        String addressToOffer = null;
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
-            if (StringUtils.equalsIgnoreCase(mac, entry.getMAC())) {
-                addressToOffer = entry.getIp();
-                break;
-            }
-        }
-        return addressToOffer;
+        DHCPAddressAssignment entry = pool.findByMac(DHCPAddressPool.Kind.STATIC, mac);
+        return entry != null ? entry.getIp() : null;
     }
 
     public synchronized void blacklistAddress(String ip) {
-        long leaseTime = System.currentTimeMillis() + 4 * Verbindung.holeRTT();
-        blacklist.add(new DHCPAddressAssignment("", ip, leaseTime));
+        long leaseTime = SimulationsUhr.jetzt() + 4 * Verbindung.holeRTT();
+        pool.add(DHCPAddressPool.Kind.BLACKLIST, new DHCPAddressAssignment("", ip, leaseTime));
     }
 
     public synchronized DHCPAddressAssignment requestAddress(String mac, String ip)
             throws AddressRequestNotAcceptedException {
-        if (assignmentListContains(blacklist, ip)) {
+        if (pool.findByIp(DHCPAddressPool.Kind.BLACKLIST, ip) != null) {
             throw new AddressRequestNotAcceptedException();
         }
         DHCPAddressAssignment assignment = requestStaticAssignment(mac, ip);
@@ -155,41 +151,35 @@ public class DHCPServer extends UDPServerAnwendung {
     }
 
     private DHCPAddressAssignment requestStaticAssignment(String mac, String ip) {
-        DHCPAddressAssignment assignment = null;
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
-            if (StringUtils.equalsIgnoreCase(mac, entry.getMAC()) && StringUtils.equalsIgnoreCase(ip, entry.getIp())) {
-                assignment = entry;
-                break;
-            }
+        DHCPAddressAssignment entry = pool.findByMac(DHCPAddressPool.Kind.STATIC, mac);
+        if (entry != null && StringUtils.equalsIgnoreCase(ip, entry.getIp())) {
+            return entry;
         }
-        return assignment;
+        return null;
     }
 
+    /**
+     * Die Adresse wird zugewiesen, wenn sie diesem Client angeboten wurde, bereits an ihn vergeben ist (Verlaengerung
+     * der Lease) oder noch frei ist. Eine andere Lease des Clients wird dabei freigegeben.
+     */
     private DHCPAddressAssignment requestDynamicAssignment(String mac, String ip)
             throws AddressRequestNotAcceptedException {
-        boolean success = false;
-        for (DHCPAddressAssignment assignment : offeredAddresses) {
-            if (StringUtils.equalsIgnoreCase(ip, assignment.getIp())) {
-                if (StringUtils.equalsIgnoreCase(mac, assignment.getMAC())) {
-                    success = true;
-                    offeredAddresses.remove(assignment);
-                    break;
-                } else {
-                    success = false;
-                    break;
-                }
-            }
-        }
-        if (!success && checkAddressAvailable(ip)) {
-            success = true;
-        }
-        DHCPAddressAssignment assignment;
-        if (success) {
-            assignment = new DHCPAddressAssignment(mac, ip, System.currentTimeMillis() + DEFAULT_LEASE_TIME_MILLIS);
-            dynamicAssignedAddresses.add(assignment);
+        DHCPAddressAssignment offer = pool.findByIp(DHCPAddressPool.Kind.OFFER, ip);
+        DHCPAddressAssignment lease = pool.findByIp(DHCPAddressPool.Kind.LEASE, ip);
+        boolean success;
+        if (offer != null || lease != null) {
+            success = (offer == null || StringUtils.equalsIgnoreCase(mac, offer.getMAC()))
+                    && (lease == null || StringUtils.equalsIgnoreCase(mac, lease.getMAC()));
         } else {
+            success = checkAddressAvailable(ip);
+        }
+        if (!success) {
             throw new AddressRequestNotAcceptedException();
         }
+        pool.remove(DHCPAddressPool.Kind.OFFER, ip);
+        DHCPAddressAssignment assignment = new DHCPAddressAssignment(mac, ip,
+                SimulationsUhr.jetzt() + DEFAULT_LEASE_TIME_MILLIS);
+        pool.add(DHCPAddressPool.Kind.LEASE, assignment);
         return assignment;
     }
 
@@ -199,34 +189,10 @@ public class DHCPServer extends UDPServerAnwendung {
 
     /**
      * Zur Pruefung, ob eine bestimmte IP-Adresse bereits vergeben ist. <br />
-     * Zunaechst wird dazu die Liste vergebener IP-Adressen aufgeraeumt (d.h. abgelaufene Eintraege entfernt).
+     * Abgelaufene Eintraege werden dabei zuvor entfernt.
      */
     synchronized boolean checkAddressAvailable(String ip) {
-        cleanUpAssignments();
-
-        boolean available = true;
-        if (assignmentListContains(dynamicAssignedAddresses, ip)) {
-            available = false;
-        } else if (assignmentListContains(staticAssignedAddresses, ip)) {
-            available = false;
-        } else if (assignmentListContains(offeredAddresses, ip)) {
-            available = false;
-        } else if (assignmentListContains(blacklist, ip)) {
-            available = false;
-        }
-
-        return available;
-    }
-
-    private boolean assignmentListContains(List<DHCPAddressAssignment> assignmentList, String ip) {
-        boolean contains = false;
-        for (DHCPAddressAssignment assignment : assignmentList) {
-            if (assignment.getIp().equalsIgnoreCase(ip)) {
-                contains = true;
-                break;
-            }
-        }
-        return contains;
+        return pool.isAvailable(ip);
     }
 
     public void setOwnSettings(boolean val) {
@@ -234,33 +200,19 @@ public class DHCPServer extends UDPServerAnwendung {
     }
 
     /**
-     * Entfernt abgelaufene Eintraege. Wird automatisch vor jeder Suche nach der naechsten freien IP-Adresse
-     * ausgefuehrt.
+     * Entfernt abgelaufene Eintraege. Wird automatisch vor jedem Zugriff auf den Adresspool ausgefuehrt.
      */
     synchronized void cleanUpAssignments() {
-        cleanUpAssignmentList(dynamicAssignedAddresses);
-        cleanUpAssignmentList(staticAssignedAddresses);
-        cleanUpAssignmentList(offeredAddresses);
-        cleanUpAssignmentList(blacklist);
-    }
-
-    private void cleanUpAssignmentList(List<DHCPAddressAssignment> assignments) {
-        List<DHCPAddressAssignment> expiredAssignments = new LinkedList<>();
-        for (DHCPAddressAssignment assignment : assignments) {
-            if (assignment.isExpired()) {
-                expiredAssignments.add(assignment);
-            }
-        }
-        for (DHCPAddressAssignment expired : expiredAssignments) {
-            assignments.remove(expired);
-        }
+        pool.removeExpired();
     }
 
     public void starten() {
         LOG.debug(
                 "INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (DHCPServer), starten()");
-        dynamicAssignedAddresses.clear();
-        lastOfferedAddress = null;
+        synchronized (this) {
+            pool.clear(DHCPAddressPool.Kind.LEASE);
+            lastOfferedAddress = null;
+        }
         super.starten();
     }
 
@@ -324,6 +276,7 @@ public class DHCPServer extends UDPServerAnwendung {
 
     public void setObergrenze(String obergrenze) {
         this.obergrenze = obergrenze;
+        updatePoolRange();
     }
 
     public String getUntergrenze() {
@@ -332,6 +285,15 @@ public class DHCPServer extends UDPServerAnwendung {
 
     public void setUntergrenze(String untergrenze) {
         this.untergrenze = untergrenze;
+        updatePoolRange();
+    }
+
+    private synchronized void updatePoolRange() {
+        try {
+            pool.setRange(ipToLong(untergrenze), ipToLong(obergrenze));
+        } catch (NumberFormatException e) {
+            pool.setRange(0, -1);
+        }
     }
 
     public String getDnsserverip() {
@@ -382,41 +344,35 @@ public class DHCPServer extends UDPServerAnwendung {
         return getSystemSoftware().primarySubnetMask();
     }
 
-    public List<DHCPAddressAssignment> holeStaticAssignedAddresses() {
-        return Collections.unmodifiableList(staticAssignedAddresses);
+    public synchronized List<DHCPAddressAssignment> holeStaticAssignedAddresses() {
+        return Collections.unmodifiableList(pool.entries(DHCPAddressPool.Kind.STATIC));
     }
 
-    public List<String> getStaticAssignedAddresses() {
+    public synchronized List<String> getStaticAssignedAddresses() {
         List<String> entries = new ArrayList<>();
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
+        for (DHCPAddressAssignment entry : pool.entries(DHCPAddressPool.Kind.STATIC)) {
             entries.add(String.format("%s %s", entry.getMAC(), entry.getIp()));
         }
         return entries;
     }
 
-    public void setStaticAssignedAddresses(List<String> assignedAddresses) {
-        staticAssignedAddresses.clear();
+    public synchronized void setStaticAssignedAddresses(List<String> assignedAddresses) {
+        pool.clear(DHCPAddressPool.Kind.STATIC);
         for (String entry : assignedAddresses) {
             String[] pair = StringUtils.split(entry);
-            staticAssignedAddresses.add(new DHCPAddressAssignment(pair[0], pair[1], 0));
+            pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment(pair[0], pair[1], 0));
         }
     }
 
-    public void addStaticAssignment(String mac, String ip) {
-        boolean alreadyExisting = false;
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
-            if (StringUtils.equalsIgnoreCase(entry.getMAC(), mac)) {
-                alreadyExisting = true;
-                break;
-            }
-        }
+    public synchronized void addStaticAssignment(String mac, String ip) {
+        boolean alreadyExisting = pool.findByMac(DHCPAddressPool.Kind.STATIC, mac) != null;
         if (!alreadyExisting && EingabenUeberpruefung.isGueltig(mac, EingabenUeberpruefung.musterMacAddress)
                 && EingabenUeberpruefung.isGueltig(ip, EingabenUeberpruefung.musterIpAdresse)) {
-            staticAssignedAddresses.add(new DHCPAddressAssignment(mac, ip, 0));
+            pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment(mac, ip, 0));
         }
     }
 
-    public void clearStaticAssignments() {
-        staticAssignedAddresses.clear();
+    public synchronized void clearStaticAssignments() {
+        pool.clear(DHCPAddressPool.Kind.STATIC);
     }
 }
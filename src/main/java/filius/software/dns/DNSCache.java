@@ -0,0 +1,146 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dns;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.rahmenprogramm.SimulationsUhr;
+
+/**
+ * Zwischenspeicher fuer Antworten, die ein rekursiv aufloesender DNS-Server von anderen Nameservern erhalten hat. Die
+ * Eintraege verfallen nach Ablauf der kleinsten TTL der enthaltenen Resource Records. Treffen gleichzeitig mehrere
+ * identische Anfragen ein, wird nur eine Anfrage an den entfernten Nameserver gestellt; die uebrigen warten auf deren
+ * Ergebnis.
+ */
+public class DNSCache {
+    private static Logger LOG = LoggerFactory.getLogger(DNSCache.class);
+
+    private final ConcurrentMap<String, Eintrag> eintraege = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FutureTask<List<ResourceRecord>>> laufendeAnfragen = new ConcurrentHashMap<>();
+
+    private final AtomicLong treffer = new AtomicLong();
+    private final AtomicLong fehlschlaege = new AtomicLong();
+
+    private static class Eintrag {
+        private final List<ResourceRecord> records;
+        private final long ablaufZeitpunkt;
+
+        private Eintrag(List<ResourceRecord> records, long ablaufZeitpunkt) {
+            this.records = records;
+            this.ablaufZeitpunkt = ablaufZeitpunkt;
+        }
+    }
+
+    /**
+     * Liefert die Antwort auf die Anfrage aus dem Zwischenspeicher. Wenn kein gueltiger Eintrag vorliegt, wird die
+     * uebergebene Aufloesung ausgefuehrt - bei gleichzeitigen identischen Anfragen allerdings nur einmal.
+     * 
+     * @param query
+     *            die zu beantwortende Anfrage
+     * @param aufloesung
+     *            die Abfrage der entfernten Nameserver; wird nur bei einem Fehlschlag aufgerufen
+     * @return die Resource Records der Antwort (ggfs. leer)
+     */
+    public List<ResourceRecord> holeAntwort(Query query, Callable<List<ResourceRecord>> aufloesung) {
+        String schluessel = erzeugeSchluessel(query);
+        Eintrag eintrag = eintraege.get(schluessel);
+        if (eintrag != null) {
+            if (eintrag.ablaufZeitpunkt > SimulationsUhr.jetzt()) {
+                treffer.incrementAndGet();
+                return new ArrayList<>(eintrag.records);
+            }
+            eintraege.remove(schluessel, eintrag);
+        }
+
+        FutureTask<List<ResourceRecord>> anfrage = new FutureTask<>(aufloesung);
+        FutureTask<List<ResourceRecord>> laufendeAnfrage = laufendeAnfragen.putIfAbsent(schluessel, anfrage);
+        if (laufendeAnfrage == null) {
+            fehlschlaege.incrementAndGet();
+            laufendeAnfrage = anfrage;
+            try {
+                anfrage.run();
+                speichern(schluessel, anfrage.get());
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.debug("DNS resolution failed for query " + query, e);
+            } finally {
+                laufendeAnfragen.remove(schluessel, anfrage);
+            }
+        } else {
+            treffer.incrementAndGet();
+        }
+
+        try {
+            return new ArrayList<>(laufendeAnfrage.get());
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.debug("DNS resolution failed for query " + query, e);
+            return new ArrayList<>();
+        }
+    }
+
+    private void speichern(String schluessel, List<ResourceRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        long ttl = Long.MAX_VALUE;
+        for (ResourceRecord rr : records) {
+            ttl = Math.min(ttl, rr.getTtl());
+        }
+        // TTL 0 bedeutet laut RFC 1035, dass der Eintrag nicht zwischengespeichert werden darf
+        if (ttl > 0) {
+            eintraege.put(schluessel,
+                    new Eintrag(Collections.unmodifiableList(new ArrayList<>(records)),
+                            SimulationsUhr.jetzt() + ttl * 1000));
+        }
+    }
+
+    private String erzeugeSchluessel(Query query) {
+        return query.holeDomainname().toLowerCase() + " " + query.holeTyp() + " " + query.holeKlasse();
+    }
+
+    /** Entfernt alle Eintraege, z. B. nach einer Aenderung der lokalen Resource Records. */
+    public void leeren() {
+        eintraege.clear();
+    }
+
+    public long holeAnzahlTreffer() {
+        return treffer.get();
+    }
+
+    public long holeAnzahlFehlschlaege() {
+        return fehlschlaege.get();
+    }
+}
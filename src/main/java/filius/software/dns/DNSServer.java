@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -46,6 +47,7 @@ public class DNSServer extends UDPServerAnwendung {
 
     private boolean recursiveResolutionEnabled = false;
     private Resolver resolver;
+    private final DNSCache cache = new DNSCache();
 
     public boolean isRecursiveResolutionEnabled() {
         return recursiveResolutionEnabled;
@@ -55,6 +57,16 @@ public class DNSServer extends UDPServerAnwendung {
         this.recursiveResolutionEnabled = recursiveResolutionEnabled;
     }
 
+    /** Anzahl der Anfragen, die aus dem Zwischenspeicher fuer rekursive Aufloesung beantwortet wurden */
+    public long holeCacheTreffer() {
+        return cache.holeAnzahlTreffer();
+    }
+
+    /** Anzahl der Anfragen, fuer die andere Nameserver befragt werden mussten */
+    public long holeCacheFehlschlaege() {
+        return cache.holeAnzahlFehlschlaege();
+    }
+
     public DNSServer() {
         super();
         LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -72,6 +84,7 @@ public class DNSServer extends UDPServerAnwendung {
     public void starten() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (DNSServer), starten()");
         super.starten();
+        cache.leeren();
 
         Dateisystem dateisystem = getSystemSoftware().getDateisystem();
         if (!dateisystem.dateiVorhanden(Dateisystem.FILE_SEPARATOR + "dns", "hosts")) {
@@ -145,6 +158,7 @@ public class DNSServer extends UDPServerAnwendung {
         }
 
         hostsFile.setDateiInhalt(text.toString());
+        cache.leeren();
     }
 
     public void changeSingleEntry(int recordIdx, int partIdx, String type, String newValue) {
@@ -199,7 +213,16 @@ public class DNSServer extends UDPServerAnwendung {
         return answerResourceRecords;
     }
 
-    List<ResourceRecord> answerWithRemoteData(Query query) {
+    List<ResourceRecord> answerWithRemoteData(final Query query) {
+        return cache.holeAntwort(query, new Callable<List<ResourceRecord>>() {
+            @Override
+            public List<ResourceRecord> call() {
+                return resolveWithRemoteNameservers(query);
+            }
+        });
+    }
+
+    private List<ResourceRecord> resolveWithRemoteNameservers(Query query) {
         List<ResourceRecord> answerResourceRecords = new ArrayList<>();
         List<ResourceRecord> recordList = leseRecordListe();
         ResourceRecord nsRecord = ResourceRecord.findApplicableNSRecord(query.holeDomainname(), recordList);
@@ -67,6 +67,12 @@ public class Email implements Serializable {
     /** sie endgueltig geloescht. Sie wird dann nur nicht mehr angezeigt. */
     private boolean versendet = false;
 
+    /** Eindeutige Kennung der Nachricht im Postfach des Mail-Servers (fuer UIDL), wird vom Server vergeben */
+    private String uid;
+
+    /** zwischengespeicherte Groesse (Laenge von toString()), -1 wenn sie neu berechnet werden muss */
+    private int groesse = -1;
+
     public Email() {}
 
     /**
@@ -150,6 +156,17 @@ public class Email implements Serializable {
      */
     public String toString() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Email), toString()");
+        String ergebnis = holeKopf();
+        if (text != null) {
+            ergebnis += "\n" + text.trim();
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Die Kopfzeilen der Nachricht, so wie sie am Anfang von toString() stehen.
+     */
+    public String holeKopf() {
         String ergebnis;
         String toListe = "", ccListe = "";
 
@@ -178,11 +195,28 @@ public class Email implements Serializable {
         if (!dateReceived.equals("")) {
             ergebnis += "Date Received: " + dateReceived + "\n";
         }
-        if (text != null) {
-            ergebnis += "\n" + text.trim();
+        return ergebnis;
+    }
+
+    /**
+     * Groesse der Nachricht in Zeichen, so wie sie mit toString() (z. B. per POP3-RETR) uebertragen wird. Der Wert wird
+     * zwischengespeichert und bei Aenderungen ueber die Setter verworfen.
+     */
+    public int holeGroesse() {
+        int tmpGroesse = groesse;
+        if (tmpGroesse < 0) {
+            tmpGroesse = toString().length();
+            groesse = tmpGroesse;
         }
+        return tmpGroesse;
+    }
 
-        return ergebnis;
+    public String holeUID() {
+        return uid;
+    }
+
+    public void setzeUID(String uid) {
+        this.uid = uid;
     }
 
     public String holeEmpfaengerListe() {
@@ -230,22 +264,27 @@ public class Email implements Serializable {
 
     public void setAbsender(String absender) {
         this.absender = new AddressEntry(absender);
+        this.groesse = -1;
     }
 
     public void setAbsender(AddressEntry absender) {
         this.absender = absender;
+        this.groesse = -1;
     }
 
     public void setBetreff(String betreff) {
         this.betreff = betreff;
+        this.groesse = -1;
     }
 
     public void setEmpfaenger(List<AddressEntry> empfaenger) {
         this.empfaenger = empfaenger;
+        this.groesse = -1;
     }
 
     public void setText(String text) {
         this.text = text;
+        this.groesse = -1;
     }
 
     public String getDateReceived() {
@@ -254,6 +293,7 @@ public class Email implements Serializable {
 
     public void setDateReceived(String dateReceived) {
         this.dateReceived = dateReceived;
+        this.groesse = -1;
     }
 
     public boolean isVersendet() {
@@ -278,5 +318,6 @@ public class Email implements Serializable {
 
     public void setCc(List<AddressEntry> cc) {
         this.cc = cc;
+        this.groesse = -1;
     }
 }
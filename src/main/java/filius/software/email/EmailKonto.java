@@ -25,8 +25,10 @@
  */
 package filius.software.email;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +48,14 @@ public class EmailKonto {
     private String pop3server, smtpserver, pop3port, smtpport;
     private String emailAdresse;
 
-    private List<Email> nachrichten = new LinkedList<Email>();
+    private List<Email> nachrichten = new ArrayList<Email>();
+
+    /**
+     * Sperre fuer den Zugriff auf die Nachrichten dieses Postfachs auf dem Mail-Server. Lesende POP3-Befehle teilen
+     * sich die Sperre, Zustellung und Loeschen benoetigen sie exklusiv. Sitzungen verschiedener Benutzer blockieren
+     * sich damit nicht gegenseitig.
+     */
+    private final ReadWriteLock sperre = new ReentrantReadWriteLock();
 
     public EmailKonto() {}
 
@@ -87,6 +96,10 @@ public class EmailKonto {
         return nachrichten;
     }
 
+    public ReadWriteLock holeSperre() {
+        return sperre;
+    }
+
     public void setBenutzername(String benutzername) {
         this.benutzername = benutzername;
     }
@@ -30,7 +30,9 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 
@@ -56,8 +58,14 @@ import filius.software.system.InternetKnotenBetriebssystem;
 public class EmailServer extends Anwendung implements I18n {
     private static Logger LOG = LoggerFactory.getLogger(EmailServer.class);
     public static final String LINE_SEPARATOR = "----";
+    /** Verzeichnis (unterhalb von /mailserver) mit einem Unterverzeichnis je Postfach */
+    static final String POSTFAECHER = "postfaecher";
 
     private List<EmailKonto> listeBenutzerkonten = new LinkedList<EmailKonto>();
+    /** Index der Benutzerkonten, Schluessel ist der Benutzername in Kleinbuchstaben */
+    private volatile Map<String, EmailKonto> kontenIndex = new ConcurrentHashMap<String, EmailKonto>();
+    /** Nachrichtenablage je Benutzerkonto, gleicher Schluessel wie kontenIndex */
+    private Map<String, Postfach> postfaecher = new ConcurrentHashMap<String, Postfach>();
     private String mailDomain = "filius.de";
     private POP3Server pop3;
     private SMTPServer smtp;
@@ -103,6 +111,9 @@ public class EmailServer extends Anwendung implements I18n {
         super.beenden();
 
         kontenSpeichern();
+        for (EmailKonto konto : getListeBenutzerkonten()) {
+            postfachSpeichern(konto);
+        }
 
         if (pop3 != null)
             pop3.beenden();
@@ -187,6 +198,8 @@ public class EmailServer extends Anwendung implements I18n {
             synchronized (getListeBenutzerkonten()) {
                 getListeBenutzerkonten().add(konto);
             }
+            kontenIndex.put(schluessel(benutzername), konto);
+            holePostfach(konto);
             benachrichtigeBeobachter();
         } catch (Exception e) {
             throw new CreateAccountException("-ERR This account could not be created. Please try again!");
@@ -230,6 +243,12 @@ public class EmailServer extends Anwendung implements I18n {
         synchronized (getListeBenutzerkonten()) {
             getListeBenutzerkonten().remove(konto);
         }
+        String schluessel = schluessel(konto.getBenutzername());
+        kontenIndex.remove(schluessel, konto);
+        Postfach postfach = postfaecher.remove(schluessel);
+        if (postfach != null) {
+            postfach.loeschen();
+        }
         kontenSpeichern();
         benachrichtigeBeobachter();
         return true;
@@ -250,10 +269,9 @@ public class EmailServer extends Anwendung implements I18n {
     public EmailKonto sucheKonto(String benName, String passwd) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), sucheKonto(" + benName + "," + passwd + ")");
-        for (EmailKonto konto : getListeBenutzerkonten()) {
-            if (konto.getBenutzername().equalsIgnoreCase(benName) && konto.getPasswort().equals(passwd)) {
-                return konto;
-            }
+        EmailKonto konto = sucheKonto(benName);
+        if (konto != null && konto.getPasswort().equals(passwd)) {
+            return konto;
         }
         return null;
     }
@@ -267,18 +285,69 @@ public class EmailServer extends Anwendung implements I18n {
     public EmailKonto sucheKonto(String benName) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), sucheKonto(" + benName + ")");
-        for (EmailKonto tempKonto : listeBenutzerkonten) {
-            if (tempKonto.getBenutzername().equalsIgnoreCase(benName)) {
-                return tempKonto;
+        if (benName == null) {
+            return null;
+        }
+        return kontenIndex.get(schluessel(benName));
+    }
+
+    private static String schluessel(String benutzername) {
+        return benutzername.toLowerCase();
+    }
+
+    /**
+     * Liefert die Nachrichtenablage eines Kontos. Sie wird beim ersten Zugriff angelegt.
+     */
+    private Postfach holePostfach(EmailKonto konto) {
+        String schluessel = schluessel(konto.getBenutzername());
+        Postfach postfach = postfaecher.get(schluessel);
+        if (postfach == null) {
+            getSystemSoftware().getDateisystem().erstelleVerzeichnis(verzeichnis, POSTFAECHER);
+            postfach = new Postfach(getSystemSoftware().getDateisystem(),
+                    Dateisystem.absoluterPfad(verzeichnis) + Dateisystem.FILE_SEPARATOR + POSTFAECHER
+                            + Dateisystem.FILE_SEPARATOR + schluessel);
+            Postfach vorhanden = postfaecher.putIfAbsent(schluessel, postfach);
+            if (vorhanden != null) {
+                postfach = vorhanden;
             }
         }
-        return null;
+        return postfach;
     }
 
     /**
-     * NACHTRAG 2008: Methode ist void, gibt aber boolean erfolg aus, außerdem wird sie in "nachrichtenKommunikation"
-     * aufgerufen, die selbst keinerlei Aufgabe mehr hat! Hier werden die Benutzerkonten zunaechst in einer Datei
-     * gespeichert, anschließend in das virtuelle Baumverzeichnis eingefuegt
+     * Legt eine eingegangene Nachricht im Postfach eines Kontos ab. Dabei wird nur die Datei der neuen Nachricht
+     * geschrieben.
+     */
+    public void nachrichtAblegen(EmailKonto konto, Email email) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (EmailServer), nachrichtAblegen(" + konto + "," + email + ")");
+        konto.holeSperre().writeLock().lock();
+        try {
+            konto.getNachrichten().add(email);
+            holePostfach(konto).ablegen(email);
+        } finally {
+            konto.holeSperre().writeLock().unlock();
+        }
+    }
+
+    /**
+     * Speichert die Aenderungen an einem einzelnen Postfach, z. B. nachdem Nachrichten geloescht wurden. Die anderen
+     * Postfaecher und die Kontenliste bleiben unberuehrt.
+     */
+    public void postfachSpeichern(EmailKonto konto) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (EmailServer), postfachSpeichern(" + konto + ")");
+        konto.holeSperre().writeLock().lock();
+        try {
+            holePostfach(konto).abgleichen(konto.getNachrichten());
+        } finally {
+            konto.holeSperre().writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hier werden die Benutzerkonten (ohne Nachrichten) in der Datei konten.txt gespeichert. Die Nachrichten liegen in
+     * einem eigenen Verzeichnis je Postfach und werden mit nachrichtAblegen() bzw. postfachSpeichern() geschrieben.
      * 
      */
     public void kontenSpeichern() {
@@ -290,34 +359,9 @@ public class EmailServer extends Anwendung implements I18n {
         konten.setDateiInhalt(tmp);
     }
 
-    private String nltobr(String originalText) {
-        return originalText.replaceAll("\n", "|");
-    }
-
-    private String brtonl(String originalText) {
-        return originalText.replaceAll("\\|", "\n");
-    }
-
-    private String undoSpecialChar(String escapeStr) {
-        String result = escapeStr.replaceAll("&&00036&&", "\\$");
-        result = result.replaceAll("&&00059&&", ";");
-        result = result.replaceAll("&&00124&&", "\\|");
-        result = result.replaceAll("&&00035&&", "\\#");
-        return result;
-    }
-
-    private String replaceSpecialChar(String mailtext) {
-        String result = mailtext.replaceAll("\\$", "&&00036&&");
-        result = result.replaceAll(";", "&&00059&&");
-        result = result.replaceAll("\\|", "&&00124&&");
-        result = result.replaceAll("#", "&&00035&&");
-        return result;
-    }
-
     /**
-     * NACHTRAG 2008: 2te "while-Schleife" scheint ueberfluessig, scheint dennoch zu gehen. Hier wird ein Benutzerkonto
-     * aus der Liste der Benutzerkonten in einen String umgewandelt. Der String hat die Form
-     * benutzername+kontoDomain+passwort+nachname+vorname+nachrichten. Dies brauche ich fuer SPEICHERUNG
+     * Hier werden die Benutzerkonten in einen String umgewandelt. Je Konto gibt es eine Zeile der Form
+     * benutzername;kontoDomain;passwort;nachname;vorname;
      * 
      * @param benutzerkonten
      * @return
@@ -325,28 +369,20 @@ public class EmailServer extends Anwendung implements I18n {
     private String listeBenutzerkontenZuString(List<EmailKonto> benutzerkonten) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), listeBenutzerkontenZuString(" + benutzerkonten + ")");
-        String ergebnis = "";
+        StringBuilder ergebnis = new StringBuilder();
 
         for (EmailKonto konto : benutzerkonten) {
-            String emailStr = "";
-
-            for (Email email : konto.getNachrichten()) {
-                emailStr = emailStr + "#" + (email.getAbsender() != null ? email.getAbsender() : "") + "$"
-                        + EmailUtils.addressEntryListToString(email.getEmpfaenger()) + "$"
-                        + EmailUtils.addressEntryListToString(email.getCc()) + "$"
-                        + EmailUtils.addressEntryListToString(email.getBcc()) + "$" + email.getDateReceived() + "$"
-                        + (email.getBetreff() != null ? email.getBetreff() : "") + "$"
-                        + nltobr(replaceSpecialChar(email.getText()));
-
-            }
-            ergebnis = ergebnis + konto.getBenutzername() + ";" + this.mailDomain + ";" + konto.getPasswort() + ";"
-                    + konto.getNachname() + ";" + konto.getVorname() + ";" + emailStr + "\n";
+            ergebnis.append(konto.getBenutzername()).append(";").append(this.mailDomain).append(";")
+                    .append(konto.getPasswort()).append(";").append(konto.getNachname()).append(";")
+                    .append(konto.getVorname()).append(";").append("\n");
         }
-        return ergebnis;
+        return ergebnis.toString();
     }
 
     /**
-     * Das brauche ich fuers LADEN, ist der Gegensatz zu listeBenutzerkontenZuString.
+     * Das brauche ich fuers LADEN, ist der Gegensatz zu listeBenutzerkontenZuString. Bis Version 1.x standen die
+     * Nachrichten eines Kontos ('#'-getrennt) mit in dessen Zeile. Solche Nachrichten werden ebenfalls eingelesen und
+     * beim Laden in das Postfach des Kontos uebertragen.
      * 
      * @param speicherung
      * @return
@@ -355,7 +391,6 @@ public class EmailServer extends Anwendung implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), stringZuListeBenutzerkonten(" + speicherung + ")");
         List<EmailKonto> temp = new LinkedList<EmailKonto>();
-        String[] strArray;
 
         StringTokenizer speicherungTokenizer = new StringTokenizer(speicherung, "\n");
         while (speicherungTokenizer.hasMoreTokens()) {
@@ -374,18 +409,8 @@ public class EmailServer extends Anwendung implements I18n {
                 try {
                     String[] nachrichtenArray = nachrichten.split("#");
                     for (int i = 0; i < nachrichtenArray.length; i++) {
-                        strArray = nachrichtenArray[i].split("\\$");
-
-                        if (strArray.length == 7) {
-                            Email email = new Email();
-                            email.setAbsender(strArray[0]);
-                            email.setEmpfaenger(EmailUtils.stringToAddressEntryList(strArray[1]));
-                            email.setCc(EmailUtils.stringToAddressEntryList(strArray[2]));
-                            email.setBcc(EmailUtils.stringToAddressEntryList(strArray[3]));
-                            email.setDateReceived(strArray[4]);
-                            email.setBetreff(strArray[5]);
-                            email.setText(undoSpecialChar(brtonl(strArray[6])));
-
+                        Email email = Postfach.stringZuNachricht(nachrichtenArray[i]);
+                        if (email != null) {
                             konto.getNachrichten().add(email);
                         }
                     }
@@ -406,7 +431,23 @@ public class EmailServer extends Anwendung implements I18n {
         Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, "konten.txt");
 
         if (konten != null) {
-            setListeBenutzerkonten(stringZuListeBenutzerkonten(konten.getDateiInhalt()));
+            List<EmailKonto> geladen = stringZuListeBenutzerkonten(konten.getDateiInhalt());
+            boolean altesFormat = false;
+            postfaecher.clear();
+            for (EmailKonto konto : geladen) {
+                Postfach postfach = holePostfach(konto);
+                if (konto.getNachrichten().isEmpty()) {
+                    konto.getNachrichten().addAll(postfach.laden());
+                } else {
+                    altesFormat = true;
+                    postfach.laden();
+                    postfach.abgleichen(konto.getNachrichten());
+                }
+            }
+            setListeBenutzerkonten(geladen);
+            if (altesFormat) {
+                kontenSpeichern();
+            }
         } else {
             LOG.debug("ERROR (" + this.hashCode() + "): Konten laden fehlgeschlagen");
         }
@@ -423,6 +464,13 @@ public class EmailServer extends Anwendung implements I18n {
 
     public synchronized void setListeBenutzerkonten(List<EmailKonto> listeBenutzerkonten) {
         this.listeBenutzerkonten = listeBenutzerkonten;
+        Map<String, EmailKonto> index = new ConcurrentHashMap<String, EmailKonto>();
+        for (EmailKonto konto : listeBenutzerkonten) {
+            if (konto.getBenutzername() != null && !index.containsKey(schluessel(konto.getBenutzername()))) {
+                index.put(schluessel(konto.getBenutzername()), konto);
+            }
+        }
+        this.kontenIndex = index;
     }
 
     public void setPOP3Server(POP3Server pop3) {
@@ -463,9 +511,21 @@ public class EmailServer extends Anwendung implements I18n {
         }
     }
 
+    /**
+     * Leitet eine E-Mail an Empfaenger anderer Domains weiter. Die Nachricht wird in die Warteschlange des SMTP-Servers
+     * eingereiht, die die Zustellung je Domain gebuendelt und mit Wiederholungen uebernimmt. Ohne laufenden SMTP-Server
+     * wird die Nachricht wie bisher direkt im Thread dieser Anwendung versendet.
+     * 
+     * @param rcpt
+     *            durch Komma getrennte Liste der Empfaenger
+     */
     public void emailWeiterleiten(Email email, String absender, String rcpt) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), emailWeiterleiten(" + email + "," + absender + "," + rcpt + ")");
+        if (smtp != null && smtp.holeWarteschlange() != null) {
+            smtp.holeWarteschlange().einreihen(email, absender, rcpt);
+            return;
+        }
         Object[] args;
 
         args = new Object[3];
@@ -515,11 +575,11 @@ public class EmailServer extends Anwendung implements I18n {
             AddressEntry senderAddress = new AddressEntry(sender);
             if (pruefeAufSelbeDomain(senderAddress.getMailAddress())) {
                 EmailKonto empfaengerKonto = sucheKonto(senderAddress.getMailAddress().split("@")[0]);
-                empfaengerKonto.getNachrichten().add(unknownRecipientResponse);
+                nachrichtAblegen(empfaengerKonto, unknownRecipientResponse);
                 benachrichtigeBeobachter(messages.getString("sw_smtpmitarbeiter_msg12") + " "
                         + empfaengerKonto.getBenutzername() + " " + messages.getString("sw_smtpmitarbeiter_msg13"));
             } else {
-                this.weiterleiten(unknownRecipientResponse, "<>", senderAddress.toString());
+                emailWeiterleiten(unknownRecipientResponse, "<>", senderAddress.toString());
             }
         }
     }
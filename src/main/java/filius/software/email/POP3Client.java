@@ -25,8 +25,13 @@
  */
 package filius.software.email;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +46,12 @@ public class POP3Client extends ClientAnwendung implements I18n {
 
     private EmailAnwendung anwendung;
 
+    /**
+     * Die eindeutigen Kennungen (UIDL) der bereits abgerufenen Nachrichten je Konto (Benutzername@Server). Damit
+     * werden Nachrichten, die nach einer abgebrochenen Sitzung noch auf dem Server liegen, nicht erneut abgerufen.
+     */
+    private Map<String, Set<String>> abgerufeneUIDs = new HashMap<String, Set<String>>();
+
     public POP3Client(EmailAnwendung anwendung) {
         super();
         LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -115,7 +126,7 @@ public class POP3Client extends ClientAnwendung implements I18n {
                 if (erfolg)
                     erfolg = eingabePasswort(pw);
                 if (erfolg)
-                    erfolg = alleEmailsAbrufen();
+                    erfolg = alleEmailsAbrufen(benName + "@" + socket.holeZielIPAdresse());
                 sitzungBeenden();
             } catch (Exception e) {
                 LOG.debug("", e);
@@ -126,9 +137,65 @@ public class POP3Client extends ClientAnwendung implements I18n {
         }
     }
 
-    private boolean alleEmailsAbrufen() throws Exception {
+    /**
+     * Ruft die neuen Nachrichten ab. Mit UIDL werden die Kennungen aller Nachrichten geholt und nur die noch
+     * unbekannten mit RETR abgerufen. Kennt der Server UIDL nicht, werden wie bisher alle mit LIST aufgefuehrten
+     * Nachrichten abgerufen.
+     */
+    private boolean alleEmailsAbrufen(String kontoSchluessel) throws Exception {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (POP3Client), alleEmailsAbrufen(" + kontoSchluessel + ")");
+        Map<Integer, String> kennungen = kennungenAbrufen();
+        if (kennungen == null) {
+            return alleEmailsUeberListeAbrufen();
+        }
+
+        Set<String> bekannt = abgerufeneUIDs.get(kontoSchluessel);
+        if (bekannt == null) {
+            bekannt = new HashSet<String>();
+            abgerufeneUIDs.put(kontoSchluessel, bekannt);
+        }
+        // Kennungen von Nachrichten, die nicht mehr auf dem Server liegen, werden vergessen
+        bekannt.retainAll(kennungen.values());
+
+        for (Map.Entry<Integer, String> eintrag : kennungen.entrySet()) {
+            if (!bekannt.contains(eintrag.getValue())) {
+                emailAbrufen(eintrag.getKey());
+                bekannt.add(eintrag.getValue());
+            }
+            emailLoeschen(eintrag.getKey());
+        }
+        return true;
+    }
+
+    /**
+     * Sendet UIDL und liefert die Kennungen der Nachrichten zu ihrer Nummer, in der Reihenfolge des Servers.
+     * 
+     * @return null, wenn der Server UIDL nicht unterstuetzt
+     */
+    private Map<Integer, String> kennungenAbrufen() throws Exception {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (POP3Client), kennungenAbrufen()");
+        socket.senden("UIDL");
+        String antwort = socket.empfangen();
+        if (!antwort.startsWith("+OK")) {
+            return null;
+        }
+        Map<Integer, String> kennungen = new LinkedHashMap<Integer, String>();
+        String[] zeilen = antwort.split("\n");
+        // die erste Zeile enthaelt nur "+OK"
+        for (int i = 1; i < zeilen.length; i++) {
+            String[] teile = zeilen[i].trim().split(" ");
+            if (teile.length == 2) {
+                kennungen.put(Integer.parseInt(teile[0]), teile[1]);
+            }
+        }
+        return kennungen;
+    }
+
+    private boolean alleEmailsUeberListeAbrufen() throws Exception {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
-                + " (POP3Client), alleEmailsAbrufen()");
+                + " (POP3Client), alleEmailsUeberListeAbrufen()");
         String[] statusteile;
         int anzahlMails = 0;
         String auflistung = "";
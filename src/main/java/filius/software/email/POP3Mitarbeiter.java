@@ -25,9 +25,8 @@
  */
 package filius.software.email;
 
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +44,10 @@ import filius.software.transportschicht.TCPSocket;
 
 public class POP3Mitarbeiter extends ServerMitarbeiter {
     private static Logger LOG = LoggerFactory.getLogger(POP3Mitarbeiter.class);
+
+    /** Groesse der Bloecke, in denen eine Nachricht bei RETR an den Socket uebergeben wird */
+    static final int RETR_BLOCK = 16 * TCPSocket.MSS;
+
     private EmailServer emailServer;
 
     private String benutzername;
@@ -120,7 +123,7 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
 
             sendeAntwort(antwort);
         } else if (befehl.equalsIgnoreCase("LIST")) {
-            if (incoming.length < 1) {
+            if (incoming.length > 1) {
                 // listet die Email mit der nr == attribut auf
                 String antwort = list(Integer.parseInt(incoming[1]), aktivesKonto);
 
@@ -133,9 +136,13 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
             }
         } else if (befehl.equalsIgnoreCase("RETR")) {
             // holt die Email mit der nr == attribut vom Server
-            String antwort = retr(Integer.parseInt(incoming[1]), aktivesKonto);
-
-            sendeAntwort(antwort);
+            retr(Integer.parseInt(incoming[1]), aktivesKonto);
+        } else if (befehl.equalsIgnoreCase("UIDL")) {
+            if (incoming.length > 1) {
+                sendeAntwort(uidl(Integer.parseInt(incoming[1]), aktivesKonto));
+            } else {
+                sendeAntwort(uidl(aktivesKonto));
+            }
         } else if (befehl.equalsIgnoreCase("DELE")) {
             // loescht Emails vom Server. Die Email wird als geloescht markiert,
             // bleibt aber ungeloescht, bis zum naechsten update, oder zum
@@ -229,20 +236,14 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     }
 
     /**
-     * Diese Methode liefert den Status der Mailbox. Es wird zunaechst die Fktn. des EmailServers aufgerufen, die die
-     * Anzahl der Emails im Postfach zaehlt. Diese Ergebnisse werden in einem int- Array aufgefangen. Groesse und Anzahl
-     * werden dann ausgelesen und in 2 int-Werten gespeichert. Der datenstring enthaelt die auszugebende Message.
-     * Anschlieï¿½end wird der Status durch die Fktn. emailServer.sendeAntwort an den Client uebertragen.
+     * Diese Methode liefert den Status der Mailbox: Anzahl der nicht zum Loeschen markierten Nachrichten und deren
+     * Gesamtgroesse. Die Groessen sind in den Nachrichten zwischengespeichert.
      * 
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
     public String stat(EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), stat("
                 + uebergebenesAktivesKonto + ")");
-        // Main.debug
-        // .println("===========================================STAT - BenName: "
-        // + uebergebenesAktivesKonto.getBenutzername()
-        // + " Passwd: " + uebergebenesAktivesKonto.getPasswort());
         String daten = "";
         if (isTransactionState()) {
             try {
@@ -257,12 +258,10 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     }
 
     /**
-     * Hier werden alle auf dem Server gespeicherten Emails aufgelistet. Zunaechst wird die Methode stat auf- gerufen,
-     * die den Status ausgibt, und anschliessend werden aus dem String-Array die daten fuer alle emails (indexnr und
-     * groesse in bytes) ausgelesen. Die werden dann in einer while-Schleife solange immer jede Email einzeln
-     * ausgegeben, bis alle daten uebertragen wurden.
+     * Hier werden alle auf dem Server gespeicherten Emails aufgelistet. Zuerst wird der Status ausgegeben, danach folgt
+     * je Nachricht eine Zeile mit Nummer und Groesse.
      * 
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
     public String list(EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), list("
@@ -272,17 +271,9 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
             try {
                 // zunaechst wird der Status aufgefuehrt, dann folgt das
                 // eigentliche listing... Da ist auch das +OK bei
-                ergebnis = stat(aktivesKonto) + "\n";
-
-                String a = emailsAuflisten(uebergebenesAktivesKonto);
-
-                String[] ergServer = a.split(" ");
-
-                int i = 0;
-                while (i < ergServer.length) {
-                    ergebnis = ergebnis + ergServer[i] + " " + ergServer[i + 1] + "\n";
-                    i = i + 2;
-                }
+                StringBuilder liste = new StringBuilder(stat(uebergebenesAktivesKonto)).append("\n");
+                liste.append(emailsAuflisten(uebergebenesAktivesKonto));
+                ergebnis = liste.toString();
             } catch (Exception e) {
                 LOG.debug("", e);
                 ergebnis = "-ERR no such message";
@@ -292,13 +283,10 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     }
 
     /**
-     * FUNKTIONIERT Diese Methode verfaehrt ebenso wie die "list", jedoch werden hier nur einmal Daten uebertragen, und
-     * nicht in einer for-Schleife, und zwar fuer die email mit dem index i im String der zurueckgegebenen Emails.
-     * Dafuer wird zunaechst die Methode emailsAuflisten des EmailServers aufgerufen, um alle Emails in einen langen
-     * String zu speichern. Dann wird die Email mit dem index "int i" mit ihrer groesse an den Client gesendet.
+     * Liefert Nummer und Groesse der Nachricht mit der Nummer i.
      * 
      * @param i
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
     public String list(int i, EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), list("
@@ -306,80 +294,154 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
         String ergebnis = "";
 
         if (isTransactionState()) {
-            try {
-                String a = emailsAuflisten(uebergebenesAktivesKonto);
-
-                String[] ergServer = a.split(" ");
+            Email email = emailsAbrufen(i, uebergebenesAktivesKonto);
+            if (email == null || email.getDelete()) {
+                ergebnis = "-ERR no such message";
+            } else {
+                ergebnis = "+OK " + i + " " + email.holeGroesse();
+            }
+        }
+        return ergebnis;
+    }
 
-                int j = 0;
-                while (j < ergServer.length) {
-                    // wenn der Index der Email (j) mit der gewuenschten
-                    // Abfragenummer (i) uebereinstimmt
-                    if (j == i) {
-                        ergebnis = "+OK " + ergServer[i] + " " + ergServer[i + 1];
+    /**
+     * Liefert die eindeutigen Kennungen (UIDL) aller nicht zum Loeschen markierten Nachrichten, je Zeile Nummer und
+     * Kennung. Damit kann ein Client Nachrichten ueberspringen, die er bereits abgerufen hat.
+     * 
+     * @param uebergebenesAktivesKonto
+     */
+    public String uidl(EmailKonto uebergebenesAktivesKonto) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), uidl("
+                + uebergebenesAktivesKonto + ")");
+        StringBuilder ergebnis = new StringBuilder();
+        if (isTransactionState()) {
+            ergebnis.append("+OK\n");
+            uebergebenesAktivesKonto.holeSperre().readLock().lock();
+            try {
+                List<Email> nachrichten = uebergebenesAktivesKonto.getNachrichten();
+                for (int idx = 0; idx < nachrichten.size(); idx++) {
+                    Email email = nachrichten.get(idx);
+                    if (!email.getDelete()) {
+                        ergebnis.append(idx).append(" ").append(holeUID(email)).append("\n");
                     }
-                    i = i + 2;
                 }
-            } catch (Exception e) {
-                LOG.debug("", e);
+            } finally {
+                uebergebenesAktivesKonto.holeSperre().readLock().unlock();
+            }
+        }
+        return ergebnis.toString();
+    }
+
+    /**
+     * Liefert die eindeutige Kennung der Nachricht mit der Nummer i.
+     */
+    public String uidl(int i, EmailKonto uebergebenesAktivesKonto) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), uidl("
+                + i + "," + uebergebenesAktivesKonto + ")");
+        String ergebnis = "";
+        if (isTransactionState()) {
+            Email email = emailsAbrufen(i, uebergebenesAktivesKonto);
+            if (email == null || email.getDelete()) {
                 ergebnis = "-ERR no such message";
+            } else {
+                ergebnis = "+OK " + i + " " + holeUID(email);
             }
         }
         return ergebnis;
     }
 
+    private static String holeUID(Email email) {
+        if (email.holeUID() != null) {
+            return email.holeUID();
+        }
+        return Integer.toHexString(System.identityHashCode(email));
+    }
+
     /**
-     * FUNKTIONIERT Diese Methode dient zum abrufen der Emails vom Server, hiermit werden die Emails an den Client
-     * geschickt. Wir bekommen immer nur genau eine email vom Server, eben jene mit Index i. Dieser Email Attribute
-     * werden einzelnen Strings zugeordnet. Dieser wird zu einem einzig langen String verarbeitet, der sinn- voll
-     * getrennt wird. Dieser lange String wird dann an den Client gesendet, und zuvor die Statusaus- gabe. Klappt das
-     * nicht, wird ein Fehler geworfen. Es wird auf jeden Fall noch abgefragt, ob die Email bereits als zu loeschen
-     * markiert wurde, wenn ja, dann darf sie nicht mehr abgesendet werden.
+     * Diese Methode schickt die Email mit der Nummer i an den Client. Die Nachricht wird dabei nicht als Ganzes
+     * zusammengesetzt: Statuszeile und Kopfzeilen gehen als erster Teil an den Socket, der Text folgt in Bloecken von
+     * RETR_BLOCK Zeichen (ein Vielfaches der MSS). Der Client empfaengt sie trotzdem als eine Antwort. Ist die
+     * Nachricht zum Loeschen markiert oder bereits abgerufen worden, wird ein Fehler gemeldet.
      * 
      * @param i
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
-    public String retr(int i, EmailKonto uebergebenesAktivesKonto) {
+    public void retr(int i, EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), retr("
                 + i + "," + uebergebenesAktivesKonto + ")");
-        Email abgerufeneEmail = emailsAbrufen(i, uebergebenesAktivesKonto);
-        String ergebnis = "";
+        if (!isTransactionState()) {
+            sendeAntwort("");
+            return;
+        }
+        Email abgerufeneEmail = null;
+        String kopf = null;
+        String text = null;
+        uebergebenesAktivesKonto.holeSperre().writeLock().lock();
+        try {
+            Email email = emailsAbrufen(i, uebergebenesAktivesKonto);
+            if (email != null && !email.getDelete() && email.getNeu()) {
+                email.setNeu(false);
+                abgerufeneEmail = email;
+                kopf = email.holeKopf();
+                text = email.getText();
+            }
+        } finally {
+            uebergebenesAktivesKonto.holeSperre().writeLock().unlock();
+        }
+        if (abgerufeneEmail == null) {
+            sendeAntwort("-ERR no such message");
+        } else {
+            sendeNachricht("+OK message follows " + "\n", kopf, text, abgerufeneEmail.holeGroesse());
+        }
+    }
 
-        if (isTransactionState()) {
-            try {
-                if (abgerufeneEmail.getDelete() == true || abgerufeneEmail.getNeu() == false) {
-                    ergebnis = "-ERR no such message";
-                } else {
-                    ergebnis = "+OK message follows " + "\n" + abgerufeneEmail.toString();
-                    abgerufeneEmail.setNeu(false);
-                }
-            } catch (Exception e) {
-                LOG.debug("", e);
-                ergebnis = "-ERR no such message";
+    /**
+     * Versendet Statuszeile, Kopf und Text als eine Antwort. Statuszeile und Kopf bilden den ersten Teil, der Text wird
+     * direkt in Bloecken von RETR_BLOCK Zeichen an den Socket uebergeben, ohne vorher eine Kopie der ganzen Nachricht
+     * anzulegen.
+     */
+    private void sendeNachricht(String statuszeile, String kopf, String text, int groesse) {
+        emailServer.benachrichtigeBeobachter(socket.holeZielIPAdresse() + "> " + statuszeile + "[" + groesse + "]");
+        TCPSocket tcpSocket = (TCPSocket) socket;
+        try {
+            if (text == null) {
+                tcpSocket.senden(statuszeile + kopf, true);
+                return;
+            }
+            // Grenzen wie bei text.trim(), aber ohne den Text zu kopieren
+            int anfang = 0;
+            int schluss = text.length();
+            while (anfang < schluss && text.charAt(anfang) <= ' ') {
+                anfang++;
+            }
+            while (schluss > anfang && text.charAt(schluss - 1) <= ' ') {
+                schluss--;
             }
+            tcpSocket.senden(statuszeile + kopf + "\n", anfang == schluss);
+            for (int start = anfang; start < schluss; start += RETR_BLOCK) {
+                int ende = Math.min(start + RETR_BLOCK, schluss);
+                tcpSocket.senden(text.substring(start, ende), ende == schluss);
+            }
+        } catch (Exception e) {
+            LOG.debug("", e);
+            emailServer.benachrichtigeBeobachter(e.getMessage());
         }
-        return ergebnis;
     }
 
     /**
-     * FUNKTIONIERT Hiermit wird die Methode des EmailServers aufgerufen, dass deine Email, die der Client wuenscht,
-     * geloescht wird. Wenn diese Methode erfolgreich ausgefuehrt werden konnte, dann wird die Antwort an den Client
-     * uebermittelt. Sonst erfolgt eine Exception, mit der ent- sprechenden Antwort fuer den Client.
+     * Markiert die Email mit der Nummer i als zu loeschen.
      * 
      * @param i
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
     public String dele(int i, EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), dele("
                 + i + "," + uebergebenesAktivesKonto + ")");
         String ergebnis = "";
         if (isTransactionState()) {
-            try {
-                if (emailsAlsGeloeschtMarkieren(i, uebergebenesAktivesKonto) == true) {
-                    ergebnis = "+OK message marked for delete";
-                }
-            } catch (Exception e) {
-                LOG.debug("", e);
+            if (emailsAlsGeloeschtMarkieren(i, uebergebenesAktivesKonto) == true) {
+                ergebnis = "+OK message marked for delete";
+            } else {
                 ergebnis = "-ERR no such message";
             }
         }
@@ -387,62 +449,54 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     }
 
     /**
-     * FUNKTIONIERT In dieser Methode wird der Status der Emails, ob diese nach dem Abmelden geloescht werden sollen
-     * oder nicht korrigiert. Hier wird das Nachrichtenkonto des angemeldeten Users ueber- prueft, ob sich darin
-     * irgendwelche Mails befinden, die geloescht werden sollen (getDelete = true). Dieser Wert aller Emails in diesem
-     * Postfach wird dann auf false gesetzt, sodass nach dem Abmelden keine Email geloescht wird. Dann wird dem Client
-     * eine Nachricht ueber den erfolgreichen Vorgang uebermittelt.
+     * Setzt die Loeschmarkierung aller Emails des Postfachs zurueck.
      * 
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
     public String rset(EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), rset("
                 + uebergebenesAktivesKonto + ")");
         String ergebnis = "";
         if (isTransactionState()) {
+            uebergebenesAktivesKonto.holeSperre().writeLock().lock();
             try {
-                for (ListIterator<Email> iter = uebergebenesAktivesKonto.getNachrichten().listIterator(); iter
-                        .hasNext();) {
-                    Email email = (Email) iter.next();
+                for (Email email : uebergebenesAktivesKonto.getNachrichten()) {
                     email.setDelete(false);
                 }
-                ergebnis = "+OK";
-
-            } catch (Exception e) {
-                LOG.debug("", e);
-                // Der Server gibt dem Client, auch wenn nichts geaendert werden
-                // konnte, keine negative
-                // Antwort mit -ERR.
+            } finally {
+                uebergebenesAktivesKonto.holeSperre().writeLock().unlock();
             }
+            ergebnis = "+OK";
         }
         return ergebnis;
     }
 
     /**
-     * NACHTRAG 2008: Nicht wird die Verbindung zwischen Client und Server (das ja vom POP3Server uebernommen wird)
-     * getrennt. Nur die Emails werden geloescht. In dieser Methode wird die Sitzung zwischen POP3Server und Client
-     * geschlossen. Die als zu loeschen markierten Emails werden endgueltig beseitigt, und die Verbindung aus der Liste
-     * des EmailServers entfernt. Anschliessend erfolgt eine Ausgabe des Servers und eine Anweisung an den Client,
-     * selbst die Verbindung auch zu loeschen, wird uebermittelt.
+     * Beendet die Sitzung. Die als zu loeschen markierten Emails werden endgueltig entfernt und nur dieses Postfach
+     * wird gespeichert.
      * 
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      */
     public String quit(EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (POP3Mitarbeiter), quit("
                 + uebergebenesAktivesKonto + ")");
         String ergebnis = "";
         if (isTransactionState()) {
+            uebergebenesAktivesKonto.holeSperre().writeLock().lock();
             try {
-                for (int idx = uebergebenesAktivesKonto.getNachrichten().size() - 1; idx >= 0; idx--) {
-                    if (((Email) uebergebenesAktivesKonto.getNachrichten().get(idx)).getDelete()) {
-                        uebergebenesAktivesKonto.getNachrichten().remove(idx);
+                for (Iterator<Email> iter = uebergebenesAktivesKonto.getNachrichten().iterator(); iter.hasNext();) {
+                    if (iter.next().getDelete()) {
+                        iter.remove();
                     }
                 }
+                emailServer.postfachSpeichern(uebergebenesAktivesKonto);
                 ergebnis = "+OK";
             } catch (Exception e) {
                 LOG.debug("EXCEPTION (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                         + " (POP3Mitarbeiter), quit: ");
                 LOG.debug("", e);
+            } finally {
+                uebergebenesAktivesKonto.holeSperre().writeLock().unlock();
             }
         }
 
@@ -492,13 +546,7 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     public boolean sucheBenutzer(String benutzernamen) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (POP3Mitarbeiter), sucheBenutzer(" + benutzernamen + ")");
-        for (ListIterator<EmailKonto> iter = emailServer.getListeBenutzerkonten().listIterator(); iter.hasNext();) {
-            EmailKonto konto = (EmailKonto) iter.next();
-            if ((konto.getBenutzername().equalsIgnoreCase(benutzernamen))) {
-                return true;
-            }
-        }
-        return false;
+        return emailServer.sucheKonto(benutzernamen) != null;
     }
 
     /**
@@ -523,70 +571,54 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     }
 
     /**
-     * FUNKTIONIERT In dieser Methode wird versucht, eine Email mit dem Index, den der USER angibt, als zu loeschen
-     * markieren. Diese soll dann nicht mehr aufgefuehrt werden, und wird zum Schluss der Sitzung wirklich geloescht.
+     * Markiert die Email mit der Nummer i als zu loeschen. Sie wird dann nicht mehr aufgefuehrt und zum Schluss der
+     * Sitzung wirklich geloescht.
      * 
      * @param i
-     * @return boolean
+     * @return ob es eine Nachricht mit dieser Nummer gibt
      */
     public boolean emailsAlsGeloeschtMarkieren(int i, EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (POP3Mitarbeiter), emailsAlsGeloeschtMarkieren(" + i + "," + uebergebenesAktivesKonto + ")");
-        List<Email> emails = uebergebenesAktivesKonto.getNachrichten();
+        uebergebenesAktivesKonto.holeSperre().writeLock().lock();
         try {
-            if (i >= emails.size()) {
+            Email email = emailsAbrufen(i, uebergebenesAktivesKonto);
+            if (email == null) {
                 return false;
             }
-            emails.get(i).setDelete(true);
-            emailServer.kontenSpeichern();
+            email.setDelete(true);
             return true;
-        } catch (Exception e) {
-            LOG.debug("", e);
-            emailServer.kontenSpeichern();
+        } finally {
+            uebergebenesAktivesKonto.holeSperre().writeLock().unlock();
         }
-        return false;
     }
 
     /**
-     * FUNKTIONIERT Hier wird zunaechst eine LL erstellt, die die gewuenschten Emails enthaelt und spaeter zurueck
-     * gegeben wird. Anschliessend wird das gesuchte Konto mit Hilfe der Methode sucheKontoZuVerb er- mittelt.
-     * Anschlieï¿½end wird die LL mit der Liste aller Nachrichten dieses Kontos gefuellt. Sollen alle Emails abgerufen
-     * werden (i == 0), so werden lediglich der Wert, ob diese Emails schon einmal abgerufen wurden (der in jeder Email
-     * gespeichert ist (boolean isNeu)), auf false gesetzt und die LL emails kann einfach zurueckgegeben werden. Wird
-     * aber eine bestimmte Email verlangt (i != 0), so wird die Email mit dem Index i, der beim Speichern in die LL ja
-     * immer noch derselbe ist, wie der, als der Status oder aufgelistet wurde, zurueckgegeben. Dazu wird der Wert isNeu
-     * auf false gesetzt, die LL emails geleert (.clear()) und dann die gewuenschte Email in der LL gespeichert als
-     * einzigstes Element.
+     * Liefert die Email mit der Nummer i (Position im Postfach) oder null, wenn es sie nicht gibt.
      * 
-     * @param verbindungsId
-     * @return LinkedList
+     * @param i
+     * @param uebergebenesAktivesKonto
      */
     public Email emailsAbrufen(int i, EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (POP3Mitarbeiter), emailsAbrufen(" + i + "," + uebergebenesAktivesKonto + ")");
-        List<Email> gespeicherteEmails = new LinkedList<Email>();
-        Email abgerufeneEmail = new Email();
-
+        uebergebenesAktivesKonto.holeSperre().readLock().lock();
         try {
-            gespeicherteEmails = uebergebenesAktivesKonto.getNachrichten();
-            abgerufeneEmail = gespeicherteEmails.get(i);
-        } catch (Exception e) {
-            LOG.debug("", e);
-            emailServer.kontenSpeichern();
+            List<Email> gespeicherteEmails = uebergebenesAktivesKonto.getNachrichten();
+            if (i >= 0 && i < gespeicherteEmails.size()) {
+                return gespeicherteEmails.get(i);
+            }
+            return null;
+        } finally {
+            uebergebenesAktivesKonto.holeSperre().readLock().unlock();
         }
-
-        return abgerufeneEmail;
     }
 
     /**
-     * FUNKTIONIERT BESCHREIBUNG UEBERARBEITEN Hier werden die Emails der Reihe nach aufgelistet und wï¿½hrenddessen
-     * indiziert. Zunaechst wird ein Konto zu der (bestehenden?) Verbindung gesucht, und dann abgefragt, ob diese Email
-     * auch nicht geloescht werden soll. Wenn nein, wird anschliessend die Groesse jeder Email einzeln ermittelt. Der
-     * Index der Email im Konto (fortlaufend nummeriert ohne besonderes) und die Lï¿½nge der Email in bytes wird dann in
-     * einem 2-dimensionalen Array gesichert. Hier liegt auch die Groesse des Postfaches. Das Array kann max. 1000
-     * verschiedene Emails erfassen. Das Array ist lediglich 2 Felder breit, fuer Index und Email-Groesse(bytes).
+     * Listet je nicht zum Loeschen markierter Email eine Zeile mit Nummer und Groesse auf. Die Nummer ist die Position
+     * im Postfach und bleibt damit auch nach DELE gueltig.
      * 
-     * @param verbindungsId
+     * @param uebergebenesAktivesKonto
      * @return String
      */
     public String emailsAuflisten(EmailKonto uebergebenesAktivesKonto) {
@@ -594,61 +626,40 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
                 + " (POP3Mitarbeiter), emailsAuflisten(" + uebergebenesAktivesKonto + ")");
         StringBuilder str = new StringBuilder();
 
+        uebergebenesAktivesKonto.holeSperre().readLock().lock();
         try {
-            int index = 0;
-            for (Email email : uebergebenesAktivesKonto.getNachrichten()) {
+            List<Email> nachrichten = uebergebenesAktivesKonto.getNachrichten();
+            for (int index = 0; index < nachrichten.size(); index++) {
+                Email email = nachrichten.get(index);
                 if (email.getDelete() == false) {
-                    // Postfachgroesse in Oktetten, hier in bytes
-                    String emailgroesse = email.getText() + email.getAbsender() + email.getBetreff()
-                            + email.getEmpfaenger() + email.getDateReceived();
-
-                    str.append(index++);
-                    str.append(" ");
-                    str.append(emailgroesse.length());
-                    str.append(" ");
+                    str.append(index).append(" ").append(email.holeGroesse()).append("\n");
                 }
             }
-        } catch (Exception e) {
-            LOG.debug("", e);
-            emailServer.kontenSpeichern();
+        } finally {
+            uebergebenesAktivesKonto.holeSperre().readLock().unlock();
         }
         return str.toString();
     }
 
     /**
-     * FUNKTIONIERT Es wird die Anzahl aller Emails, die in einem EmailKonto gespeichert sind ausgegeben. Dazu wird
-     * zunaechst geschaut, ob der User, der anfragt, mit dieser VerbindungsId ein EmailKonto hat. Dafuer wird in der
-     * (temp.) Verbindung nach dem Username und Passwort gefragt, mit dem er sich angemeldet hat. Gibt es ein solches
-     * Konto, das mit der Methode "sucheKontoZuVerbindung" gesucht wird, wird fuer jede Email in dem Postfach die
-     * Lï¿½nge ihrer Bytes gemessen und aufaddiert zu einem langen String. Hat man dann die gesamte Lï¿½nge aller
-     * Strings im Postfach, wird diese, und die gesamtanzahl aller Emails im Postfach in einem 2-dimensionalen int-
-     * Array der Grï¿½ï¿½e 1 zurueckgegeben. Vor der Erzeugung des Strings wird natuerlich noch abgefragt, ob die Email,
-     * die man gerade betrachtet, nicht zum loeschen ist (getDelete). Wenn sie nicht geloescht werden soll, dann wird
-     * sie dem String hinzugefuegt.
+     * Liefert Gesamtgroesse (Index 0) und Anzahl (Index 1) der nicht zum Loeschen markierten Emails.
      * 
-     * @return int [][]
+     * @return int []
      */
     public int[] anzahlEmailsImPostfach(EmailKonto uebergebenesAktivesKonto) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (POP3Mitarbeiter), anzahlEmailsImPostfach(" + uebergebenesAktivesKonto + ")");
-        String str = "";
         int[] a = new int[2];
-        int i = 0;
-        a[0] = 0;
-        a[1] = 0;
+        uebergebenesAktivesKonto.holeSperre().readLock().lock();
         try {
             for (Email email : uebergebenesAktivesKonto.getNachrichten()) {
                 if (email.getDelete() != true) {
-                    str = str + email.getText() + email.getAbsender() + email.getBetreff() + email.getEmpfaenger()
-                            + email.getDateReceived();
-                    i++;
+                    a[0] += email.holeGroesse();
+                    a[1]++;
                 }
             }
-            a[0] = str.length();
-            a[1] = i;
-        } catch (Exception e) {
-            LOG.debug("", e);
-            emailServer.kontenSpeichern();
+        } finally {
+            uebergebenesAktivesKonto.holeSperre().readLock().unlock();
         }
         return a;
     }
@@ -666,11 +677,6 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     public void sendeAntwort(String daten) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (POP3Mitarbeiter), sendeAntwort(" + daten + ")");
-        try {
-            if (isTransactionState() || isBenAuth()) {
-                emailServer.kontenSpeichern();
-            }
-        } catch (Exception e) {}
         emailServer.benachrichtigeBeobachter(socket.holeZielIPAdresse() + "> " + daten);
         sendeNachricht(daten);
     }
@@ -0,0 +1,220 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.email;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.system.Datei;
+import filius.software.system.Dateisystem;
+
+/**
+ * Ablage der Nachrichten eines Postfachs im Dateisystem des Mail-Servers. Jede Nachricht wird in einer eigenen Datei
+ * gespeichert (z. B. /mailserver/postfaecher/bob/00000003.eml). Die fortlaufend vergebenen Dateinamen legen die
+ * Reihenfolge der Nachrichten fest. Neue Nachrichten werden nur angehaengt, beim Loeschen wird nur die Datei der
+ * geloeschten Nachricht entfernt.
+ */
+class Postfach {
+    private static Logger LOG = LoggerFactory.getLogger(Postfach.class);
+
+    static final String DATEI_ENDUNG = ".eml";
+
+    private final Dateisystem dateisystem;
+    private final String pfad;
+
+    /** Zuordnung der gespeicherten Nachrichten zu ihren Dateinamen (Email ueberschreibt equals() nicht) */
+    private final Map<Email, String> dateinamen = new IdentityHashMap<Email, String>();
+    private int naechsteNummer = 1;
+
+    /**
+     * @param dateisystem
+     *            Dateisystem des Mail-Servers
+     * @param pfad
+     *            absoluter Pfad des Postfach-Verzeichnisses. Das Verzeichnis wird bei Bedarf angelegt.
+     */
+    Postfach(Dateisystem dateisystem, String pfad) {
+        this.dateisystem = dateisystem;
+        this.pfad = pfad;
+        dateisystem.erstelleVerzeichnis(Dateisystem.getDirectory(pfad), Dateisystem.getBasename(pfad));
+    }
+
+    String holePfad() {
+        return pfad;
+    }
+
+    /**
+     * Liest alle Nachrichten des Postfachs in der Reihenfolge ihres Eingangs.
+     */
+    synchronized List<Email> laden() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", laden() " + pfad);
+        dateinamen.clear();
+        naechsteNummer = 1;
+        List<Datei> dateien = dateisystem.holeDateien(dateisystem.verzeichnisKnoten(pfad));
+        List<String> namen = new ArrayList<String>();
+        Map<String, Datei> dateiZuName = new HashMap<String, Datei>();
+        if (dateien != null) {
+            for (Datei datei : dateien) {
+                if (datei.getName().endsWith(DATEI_ENDUNG)) {
+                    namen.add(datei.getName());
+                    dateiZuName.put(datei.getName(), datei);
+                }
+            }
+        }
+        Collections.sort(namen);
+
+        List<Email> nachrichten = new ArrayList<Email>(namen.size());
+        for (String name : namen) {
+            Email email = stringZuNachricht(dateiZuName.get(name).getDateiInhalt());
+            if (email != null) {
+                email.setzeUID(name.substring(0, name.length() - DATEI_ENDUNG.length()));
+                nachrichten.add(email);
+                dateinamen.put(email, name);
+            }
+            naechsteNummer = Math.max(naechsteNummer, nummer(name) + 1);
+        }
+        return nachrichten;
+    }
+
+    /**
+     * Legt eine neue Nachricht als eigene Datei im Postfach ab.
+     */
+    synchronized void ablegen(Email email) {
+        if (!dateinamen.containsKey(email)) {
+            String uid = String.format("%08d", naechsteNummer++);
+            String name = uid + DATEI_ENDUNG;
+            email.setzeUID(uid);
+            dateisystem.speicherDatei(pfad, new Datei(name, "text", nachrichtZuString(email)));
+            dateinamen.put(email, name);
+        }
+    }
+
+    /**
+     * Gleicht die Dateien des Postfachs mit der uebergebenen Nachrichtenliste ab: Dateien entfernter Nachrichten werden
+     * geloescht, noch nicht gespeicherte Nachrichten werden angehaengt. Unveraenderte Nachrichten werden nicht neu
+     * geschrieben.
+     */
+    synchronized void abgleichen(List<Email> nachrichten) {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", abgleichen() " + pfad);
+        List<Email> aktuell = new ArrayList<Email>(nachrichten);
+        Set<Email> vorhanden = Collections.newSetFromMap(new IdentityHashMap<Email, Boolean>());
+        vorhanden.addAll(aktuell);
+        List<Email> entfernt = new LinkedList<Email>();
+        for (Map.Entry<Email, String> eintrag : dateinamen.entrySet()) {
+            if (!vorhanden.contains(eintrag.getKey())) {
+                dateisystem.deleteFile(pfad + Dateisystem.FILE_SEPARATOR + eintrag.getValue());
+                entfernt.add(eintrag.getKey());
+            }
+        }
+        for (Email email : entfernt) {
+            dateinamen.remove(email);
+        }
+        for (Email email : aktuell) {
+            ablegen(email);
+        }
+    }
+
+    /**
+     * Entfernt das Postfach samt aller Nachrichten aus dem Dateisystem.
+     */
+    synchronized void loeschen() {
+        dateisystem.deleteFile(pfad);
+        dateinamen.clear();
+    }
+
+    private static int nummer(String dateiname) {
+        try {
+            return Integer.parseInt(dateiname.substring(0, dateiname.length() - DATEI_ENDUNG.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Wandelt eine Nachricht in die gespeicherte Form um: Absender, Empfaenger, Cc, Bcc, Empfangsdatum, Betreff und
+     * Text, getrennt durch '$'. Es ist dieselbe Form, in der frueher alle Nachrichten in konten.txt standen.
+     */
+    static String nachrichtZuString(Email email) {
+        return (email.getAbsender() != null ? email.getAbsender() : "") + "$"
+                + EmailUtils.addressEntryListToString(email.getEmpfaenger()) + "$"
+                + EmailUtils.addressEntryListToString(email.getCc()) + "$"
+                + EmailUtils.addressEntryListToString(email.getBcc()) + "$" + email.getDateReceived() + "$"
+                + (email.getBetreff() != null ? replaceSpecialChar(email.getBetreff()) : "") + "$"
+                + nltobr(replaceSpecialChar(email.getText()));
+    }
+
+    /**
+     * @return die Nachricht oder null, wenn der String keine gespeicherte Nachricht enthaelt
+     * @see #nachrichtZuString(Email)
+     */
+    static Email stringZuNachricht(String gespeichert) {
+        String[] strArray = gespeichert.split("\\$");
+        if (strArray.length != 7) {
+            return null;
+        }
+        Email email = new Email();
+        email.setAbsender(strArray[0]);
+        email.setEmpfaenger(EmailUtils.stringToAddressEntryList(strArray[1]));
+        email.setCc(EmailUtils.stringToAddressEntryList(strArray[2]));
+        email.setBcc(EmailUtils.stringToAddressEntryList(strArray[3]));
+        email.setDateReceived(strArray[4]);
+        email.setBetreff(undoSpecialChar(strArray[5]));
+        email.setText(undoSpecialChar(brtonl(strArray[6])));
+        return email;
+    }
+
+    private static String nltobr(String originalText) {
+        return originalText.replaceAll("\n", "|");
+    }
+
+    private static String brtonl(String originalText) {
+        return originalText.replaceAll("\\|", "\n");
+    }
+
+    private static String undoSpecialChar(String escapeStr) {
+        String result = escapeStr.replaceAll("&&00036&&", "\\$");
+        result = result.replaceAll("&&00059&&", ";");
+        result = result.replaceAll("&&00124&&", "\\|");
+        result = result.replaceAll("&&00035&&", "\\#");
+        return result;
+    }
+
+    private static String replaceSpecialChar(String mailtext) {
+        String result = mailtext.replaceAll("\\$", "&&00036&&");
+        result = result.replaceAll(";", "&&00059&&");
+        result = result.replaceAll("\\|", "&&00124&&");
+        result = result.replaceAll("#", "&&00035&&");
+        return result;
+    }
+}
@@ -229,6 +229,123 @@ public class SMTPClient extends ClientAnwendung implements I18n {
         }
     }
 
+    /**
+     * Uebertraegt mehrere Nachrichten ueber eine einzige Verbindung zum Mail-Server. Jede Nachricht wird in einer
+     * eigenen Transaktion (MAIL FROM, RCPT TO je Empfaenger, DATA) gesendet. Die Antworten des Servers werden je
+     * Nachricht und je Empfaenger ausgewertet: Empfaenger, die endgueltig abgelehnt werden (5xx), werden im Auftrag
+     * unter <code>abgelehnt</code> vermerkt, ohne die Zustellung an die uebrigen Empfaenger zu verhindern. Nach einer
+     * abgebrochenen Transaktion wird sie mit RSET zurueckgesetzt und die naechste Nachricht ueber dieselbe Verbindung
+     * gesendet. Diese Methode ist <b>blockierend</b> und wird von der Warteschlange des SMTP-Servers in deren Thread
+     * aufgerufen.
+     * 
+     * @return die Auftraege, die nicht (an alle Empfaenger) zugestellt werden konnten. In ihnen sind nur noch die
+     *         Empfaenger enthalten, an die nicht zugestellt wurde. Bei einer Ablehnung durch den Server ist deren
+     *         Antwort im Auftrag vermerkt.
+     */
+    List<SMTPWarteschlange.Auftrag> versendeAuftraege(String serverAdresse, List<SMTPWarteschlange.Auftrag> auftraege) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPClient), versendeAuftraege(" + serverAdresse + "," + auftraege.size() + ")");
+        List<SMTPWarteschlange.Auftrag> fehlgeschlagen = new ArrayList<SMTPWarteschlange.Auftrag>();
+
+        initialisiereSocket(serverAdresse, 25);
+        if (socket == null) {
+            fehlgeschlagen.addAll(auftraege);
+            return fehlgeschlagen;
+        }
+        int gesendet = 0;
+        try {
+            if (schickeHelo()) {
+                for (SMTPWarteschlange.Auftrag auftrag : auftraege) {
+                    if (!uebertrageAuftrag(auftrag)) {
+                        fehlgeschlagen.add(auftrag);
+                    }
+                    gesendet++;
+                }
+                schickeQuit();
+            }
+        } catch (Exception e) {
+            LOG.debug("", e);
+            anwendung.benachrichtigeBeobachter(e);
+        } finally {
+            schliesseSocket();
+        }
+        // nach einem Abbruch der Verbindung sind die restlichen Nachrichten nicht uebertragen worden
+        fehlgeschlagen.addAll(auftraege.subList(gesendet, auftraege.size()));
+        return fehlgeschlagen;
+    }
+
+    /**
+     * Uebertraegt eine Nachricht in einer eigenen Transaktion.
+     * 
+     * @return ob die Nachricht an alle nicht endgueltig abgelehnten Empfaenger zugestellt wurde
+     * @throws Exception
+     *             bei einem Fehler der Verbindung
+     */
+    boolean uebertrageAuftrag(SMTPWarteschlange.Auftrag auftrag) throws Exception {
+        auftrag.fehler = null;
+        AddressEntry senderAddress = new AddressEntry(auftrag.absender);
+        if (senderAddress.getMailAddress().length() > 0 && !EingabenUeberpruefung
+                .isGueltig(senderAddress.getMailAddress(), EingabenUeberpruefung.musterEmailAdresse)) {
+            // ungueltige Absenderadresse, ein erneuter Versuch ist zwecklos
+            auftrag.fehler = messages.getString("sw_smtpmitarbeiter_msg5");
+            return false;
+        }
+        String antwort = sendeBefehl("MAIL FROM: <" + senderAddress.getMailAddress() + ">");
+        if (!antwort.startsWith("250")) {
+            return brecheTransaktionAb(auftrag, antwort);
+        }
+
+        List<String> angenommen = new ArrayList<String>();
+        List<String> zurueckgestellt = new ArrayList<String>();
+        for (String empfaenger : auftrag.empfaenger) {
+            if (!EingabenUeberpruefung.isGueltig(empfaenger, EingabenUeberpruefung.musterEmailAdresse)) {
+                auftrag.abgelehnt.add(empfaenger);
+                continue;
+            }
+            antwort = sendeBefehl("RCPT TO:<" + empfaenger + ">");
+            if (antwort.startsWith("250") || antwort.startsWith("251")) {
+                angenommen.add(empfaenger);
+            } else if (antwort.startsWith("5")) {
+                auftrag.abgelehnt.add(empfaenger);
+            } else {
+                zurueckgestellt.add(empfaenger);
+                auftrag.fehler = antwort;
+            }
+        }
+        auftrag.empfaenger.removeAll(auftrag.abgelehnt);
+        if (angenommen.isEmpty()) {
+            sendeBefehl("RSET");
+            return auftrag.empfaenger.isEmpty();
+        }
+
+        antwort = sendeBefehl("DATA");
+        if (!antwort.startsWith("354")) {
+            return brecheTransaktionAb(auftrag, antwort);
+        }
+        antwort = sendeBefehl(auftrag.email.toString() + "\r\n.\r\n");
+        if (!antwort.startsWith("250")) {
+            // mit der Antwort auf die Daten ist die Transaktion beendet
+            auftrag.fehler = antwort;
+            return false;
+        }
+        anwendung.benachrichtigeBeobachter(
+                messages.getString("sw_smtpclient_msg4") + " " + String.join(",", angenommen));
+        auftrag.empfaenger.retainAll(zurueckgestellt);
+        return auftrag.empfaenger.isEmpty();
+    }
+
+    /** Vermerkt die Ablehnung der Transaktion im Auftrag und setzt die Transaktion mit RSET zurueck. */
+    private boolean brecheTransaktionAb(SMTPWarteschlange.Auftrag auftrag, String antwort) throws Exception {
+        auftrag.fehler = antwort;
+        sendeBefehl("RSET");
+        return false;
+    }
+
+    private String sendeBefehl(String befehl) throws Exception {
+        socket.senden(befehl);
+        return socket.empfangen();
+    }
+
     /**
      * Dient der Aufloesung der EmailAdressen-Domains auf den Empfaengerangaben zu einer Ip-Adresse, damit zum dortigen
      * MTA eine Verbindung aufgebaut werden kann. Es muss nur der Domainnamen eingegeben werden, der Socket loest sofort
@@ -45,8 +45,8 @@ import filius.software.transportschicht.TCPSocket;
  * einem Zeilenumbruch beendet werden (&lt;CR&gt;&lt;LF&gt;.&lt;CR&gt;&lt;LF&gt;)</li>
  * <li>END: Der Datenaustausch wurde beendet. (Das ist der einzig gueltige Endzustand!)</li>
  * </ol>
- * Nachdem eine Nachricht ordnungsgemaess empfangen wurde, befindet sich der Mitarbeiter im END-Zustand. Das heisst,
- * dass dieser Mail-Server es nicht ermoeglicht mit einer Verbindung mehrere E-Mails zu uebertragen.
+ * Nachdem eine Nachricht ordnungsgemaess empfangen wurde, befindet sich der Mitarbeiter im END-Zustand. Mit einem
+ * weiteren MAIL FROM beginnt die Uebertragung der naechsten E-Mail ueber dieselbe Verbindung.
  * 
  */
 public class SMTPMitarbeiter extends ServerMitarbeiter {
@@ -93,6 +93,15 @@ public class SMTPMitarbeiter extends ServerMitarbeiter {
         if (nachricht.trim().equalsIgnoreCase("QUIT")) {
             senden(messages.getString("sw_smtpmitarbeiter_msg2"));
             socket.schliessen();
+        } else if (nachricht.trim().equalsIgnoreCase("RSET") && zustand != DATA) {
+            // RSET verwirft die laufende Transaktion
+            rcptTo.clear();
+            quelltext = "";
+            mailFrom = null;
+            if (zustand != START) {
+                zustand = ENVELOPE;
+            }
+            senden("250 OK");
         } else if (zustand == START) {
             pos = nachricht.indexOf(" ");
             if (pos > 0)
@@ -111,7 +120,8 @@ public class SMTPMitarbeiter extends ServerMitarbeiter {
             } else if (tmp.equalsIgnoreCase("NOOP")) {
                 senden(messages.getString("sw_smtpmitarbeiter_msg3"));
             }
-        } else if (zustand == ENVELOPE) {
+        } else if (zustand == ENVELOPE || (zustand == END && nachricht.trim().toUpperCase().startsWith("MAIL FROM"))) {
+            zustand = ENVELOPE;
             pos = nachricht.indexOf(":");
             if (pos > 0)
                 tmp = nachricht.substring(0, pos).trim();
@@ -122,6 +132,9 @@ public class SMTPMitarbeiter extends ServerMitarbeiter {
                 pos = nachricht.indexOf("<");
                 pos2 = nachricht.indexOf(">");
                 if (pos > 0 && pos2 > pos) {
+                    // MAIL FROM beginnt eine neue Transaktion
+                    rcptTo.clear();
+                    quelltext = "";
                     mailFrom = nachricht.substring(pos + 1, pos2).trim();
                     senden(messages.getString("sw_smtpmitarbeiter_msg4"));
                 } else {
@@ -182,7 +195,7 @@ public class SMTPMitarbeiter extends ServerMitarbeiter {
             if (emailServer.pruefeAufSelbeDomain(aktuellerEmpfaenger)) {
                 empfaengerKonto = emailServer.sucheKonto(benutzer);
                 if (empfaengerKonto != null) {
-                    empfaengerKonto.getNachrichten().add(new Email(email.toString()));
+                    emailServer.nachrichtAblegen(empfaengerKonto, new Email(email.toString()));
                     emailServer.benachrichtigeBeobachter(messages.getString("sw_smtpmitarbeiter_msg12") + " "
                             + empfaengerKonto.getBenutzername() + " " + messages.getString("sw_smtpmitarbeiter_msg13"));
                 } else {
@@ -193,7 +206,6 @@ public class SMTPMitarbeiter extends ServerMitarbeiter {
                 weitereEmpfaenger.append(",");
             }
         }
-        emailServer.kontenSpeichern();
         if (weitereEmpfaenger.length() > 0) {
             emailServer.emailWeiterleiten(new Email(email.toString()), mailFrom, weitereEmpfaenger.toString());
         }
@@ -42,6 +42,9 @@ public class SMTPServer extends TCPServerAnwendung {
 
     private EmailServer emailServer;
 
+    /** Warteschlange fuer E-Mails, die an andere Mail-Server weitergeleitet werden */
+    private SMTPWarteschlange warteschlange;
+
     public SMTPServer(int port, EmailServer emailServer) {
         super();
         LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -71,6 +74,32 @@ public class SMTPServer extends TCPServerAnwendung {
         return emailServer;
     }
 
+    SMTPWarteschlange holeWarteschlange() {
+        return warteschlange;
+    }
+
+    @Override
+    public void starten() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPServer), starten()");
+        super.starten();
+        if (warteschlange != null) {
+            warteschlange.beenden();
+        }
+        warteschlange = new SMTPWarteschlange(emailServer);
+        warteschlange.starten();
+    }
+
+    @Override
+    public void beenden() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPServer), beenden()");
+        super.beenden();
+        if (warteschlange != null) {
+            warteschlange.beenden();
+        }
+    }
+
     @Override
     protected void neuerMitarbeiter(Socket socket) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
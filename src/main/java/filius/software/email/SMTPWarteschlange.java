@@ -0,0 +1,324 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.email;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.exception.TimeOutException;
+import filius.hardware.Verbindung;
+import filius.rahmenprogramm.I18n;
+import filius.rahmenprogramm.SimulationsUhr;
+
+/**
+ * Warteschlange des SMTP-Servers fuer E-Mails, die an andere Mail-Domains weitergeleitet werden. Die Zustellung
+ * erfolgt in einem eigenen Thread und damit nicht mehr in der Sitzung des einliefernden Clients. <br />
+ * Alle faelligen Nachrichten fuer dieselbe Domain werden ueber eine Verbindung uebertragen, je Nachricht mit allen
+ * Empfaengern dieser Domain (mehrere RCPT TO). Die per DNS ermittelte Adresse des Mail-Servers einer Domain wird
+ * zwischengespeichert. Schlaegt die Zustellung fehl, wird sie mit wachsendem Abstand wiederholt; nach MAX_VERSUCHE
+ * Versuchen oder einer endgueltigen Ablehnung (5xx) erhaelt der Absender eine Fehlermeldung. Lehnt der Server nur
+ * einzelne Empfaenger endgueltig ab, gilt die Fehlermeldung nur diesen; die Nachricht wird den uebrigen Empfaengern
+ * trotzdem zugestellt.
+ */
+class SMTPWarteschlange extends Thread implements I18n {
+    private static Logger LOG = LoggerFactory.getLogger(SMTPWarteschlange.class);
+
+    /** Anzahl der Zustellversuche, nach denen eine Nachricht als unzustellbar gilt */
+    static final int MAX_VERSUCHE = 5;
+    /** Wartezeit vor dem ersten erneuten Versuch als Vielfaches der RTT; sie verdoppelt sich mit jedem Versuch */
+    static final int WARTEZEIT_RTT = 4;
+    /** Gueltigkeitsdauer eines Eintrags im Zwischenspeicher der Mail-Server-Adressen in Millisekunden */
+    static final long MX_CACHE_DAUER = 5 * 60 * 1000;
+
+    /** Eine Nachricht mit allen Empfaengern einer Domain */
+    static class Auftrag {
+        final Email email;
+        final String absender;
+        final String domain;
+        /** die Empfaenger, an die noch nicht zugestellt wurde */
+        final List<String> empfaenger;
+        /** die Empfaenger, die der Server beim letzten Versuch endgueltig abgelehnt hat */
+        final List<String> abgelehnt = new ArrayList<String>();
+        int versuche = 0;
+        long naechsterVersuch = 0;
+        /** die Antwort des Servers, mit der die letzte Zustellung abgelehnt wurde */
+        String fehler;
+
+        Auftrag(Email email, String absender, String domain, List<String> empfaenger) {
+            this.email = email;
+            this.absender = absender;
+            this.domain = domain;
+            this.empfaenger = empfaenger;
+        }
+
+        boolean istEndgueltigAbgelehnt() {
+            return fehler != null && fehler.startsWith("5");
+        }
+    }
+
+    private static class MXEintrag {
+        final String adresse;
+        final long ablauf;
+
+        MXEintrag(String adresse, long ablauf) {
+            this.adresse = adresse;
+            this.ablauf = ablauf;
+        }
+    }
+
+    private final EmailServer emailServer;
+    private final LinkedList<Auftrag> auftraege = new LinkedList<Auftrag>();
+    private final Map<String, MXEintrag> mxCache = new ConcurrentHashMap<String, MXEintrag>();
+    private volatile boolean running = false;
+
+    SMTPWarteschlange(EmailServer emailServer) {
+        super("SMTP-Warteschlange");
+        LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPWarteschlange), constr: SMTPWarteschlange(" + emailServer + ")");
+        this.emailServer = emailServer;
+    }
+
+    /**
+     * Reiht eine Nachricht zur Weiterleitung ein. Die Empfaenger werden nach Domain aufgeteilt, je Domain entsteht ein
+     * Auftrag.
+     * 
+     * @param rcpts
+     *            durch Komma getrennte Liste der Empfaenger
+     */
+    void einreihen(Email email, String absender, String rcpts) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPWarteschlange), einreihen(" + email + "," + absender + "," + rcpts + ")");
+        Map<String, List<String>> empfaengerJeDomain = new LinkedHashMap<String, List<String>>();
+        for (String empfaenger : rcpts.split(",")) {
+            if (empfaenger.trim().length() > 0) {
+                String adresse = new AddressEntry(empfaenger.trim()).getMailAddress();
+                String domain = adresse.substring(adresse.indexOf('@') + 1).toLowerCase();
+                List<String> liste = empfaengerJeDomain.get(domain);
+                if (liste == null) {
+                    liste = new ArrayList<String>();
+                    empfaengerJeDomain.put(domain, liste);
+                }
+                liste.add(adresse);
+            }
+        }
+        synchronized (auftraege) {
+            for (Map.Entry<String, List<String>> eintrag : empfaengerJeDomain.entrySet()) {
+                auftraege.add(new Auftrag(email, absender, eintrag.getKey(), eintrag.getValue()));
+            }
+            auftraege.notifyAll();
+        }
+    }
+
+    int anzahlAuftraege() {
+        synchronized (auftraege) {
+            return auftraege.size();
+        }
+    }
+
+    void starten() {
+        running = true;
+        start();
+    }
+
+    /** Beendet den Thread. Noch nicht zugestellte Nachrichten werden verworfen. */
+    void beenden() {
+        running = false;
+        synchronized (auftraege) {
+            auftraege.clear();
+            auftraege.notifyAll();
+        }
+    }
+
+    public void run() {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPWarteschlange), run()");
+        while (running) {
+            synchronized (auftraege) {
+                long wartezeit = wartezeitBisFaellig(SimulationsUhr.jetzt());
+                if (wartezeit != 0) {
+                    try {
+                        if (wartezeit < 0) {
+                            // keine Auftraege, warten bis einer eingereiht wird
+                            SimulationsUhr.wartenUnbegrenzt(auftraege);
+                        } else {
+                            SimulationsUhr.warten(auftraege, wartezeit);
+                        }
+                    } catch (InterruptedException e) {}
+                    continue;
+                }
+            }
+            verarbeiteFaellige(SimulationsUhr.jetzt());
+        }
+    }
+
+    /**
+     * @return 0, wenn ein Auftrag faellig ist, -1, wenn keine Auftraege vorliegen, sonst die Zeit bis zum naechsten
+     *         faelligen Auftrag
+     */
+    private long wartezeitBisFaellig(long jetzt) {
+        long naechster = Long.MAX_VALUE;
+        for (Auftrag auftrag : auftraege) {
+            naechster = Math.min(naechster, auftrag.naechsterVersuch);
+        }
+        if (naechster == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(naechster - jetzt, 0);
+    }
+
+    /**
+     * Entnimmt alle faelligen Auftraege, fasst sie nach Domain zusammen und stellt sie je Domain ueber eine Verbindung
+     * zu.
+     */
+    void verarbeiteFaellige(long jetzt) {
+        for (Map.Entry<String, List<Auftrag>> stapel : entnehmeFaellige(jetzt).entrySet()) {
+            zustellen(stapel.getKey(), stapel.getValue());
+        }
+    }
+
+    Map<String, List<Auftrag>> entnehmeFaellige(long jetzt) {
+        Map<String, List<Auftrag>> stapel = new LinkedHashMap<String, List<Auftrag>>();
+        synchronized (auftraege) {
+            for (Iterator<Auftrag> iter = auftraege.iterator(); iter.hasNext();) {
+                Auftrag auftrag = iter.next();
+                if (auftrag.naechsterVersuch <= jetzt) {
+                    iter.remove();
+                    List<Auftrag> liste = stapel.get(auftrag.domain);
+                    if (liste == null) {
+                        liste = new ArrayList<Auftrag>();
+                        stapel.put(auftrag.domain, liste);
+                    }
+                    liste.add(auftrag);
+                }
+            }
+        }
+        return stapel;
+    }
+
+    private void zustellen(String domain, List<Auftrag> stapel) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (SMTPWarteschlange), zustellen(" + domain + "," + stapel.size() + ")");
+        String serverAdresse;
+        try {
+            serverAdresse = holeMailServer(domain);
+        } catch (TimeOutException e) {
+            LOG.debug("", e);
+            for (Auftrag auftrag : stapel) {
+                erneutVersuchen(auftrag);
+            }
+            return;
+        }
+        if (serverAdresse == null) {
+            for (Auftrag auftrag : stapel) {
+                emailServer.sendUnknownReceiverResponse(auftrag.email, auftrag.absender, auftrag.empfaenger);
+            }
+            return;
+        }
+
+        List<Auftrag> fehlgeschlagen = versenden(serverAdresse, stapel);
+        for (Auftrag auftrag : stapel) {
+            if (!auftrag.abgelehnt.isEmpty()) {
+                List<String> abgelehnt = new ArrayList<String>(auftrag.abgelehnt);
+                auftrag.abgelehnt.clear();
+                emailServer.benachrichtigeBeobachter(messages.getString("sw_smtpwarteschlange_msg2") + " "
+                        + abgelehnt);
+                emailServer.sendUnknownReceiverResponse(auftrag.email, auftrag.absender, abgelehnt);
+            }
+        }
+        boolean serverGestoert = false;
+        for (Auftrag auftrag : fehlgeschlagen) {
+            // Verbindungsfehler oder voruebergehende Ablehnung (4xx)
+            serverGestoert |= !auftrag.istEndgueltigAbgelehnt();
+            erneutVersuchen(auftrag);
+        }
+        if (serverGestoert) {
+            // beim naechsten Versuch wird die Adresse des Servers neu ermittelt
+            mxCache.remove(domain);
+        }
+    }
+
+    /**
+     * Uebertraegt die Auftraege ueber eine Verbindung zum Mail-Server.
+     * 
+     * @return die Auftraege, die nicht zugestellt werden konnten
+     */
+    List<Auftrag> versenden(String serverAdresse, List<Auftrag> stapel) {
+        return new SMTPClient(emailServer).versendeAuftraege(serverAdresse, stapel);
+    }
+
+    /**
+     * Liefert die Adresse des Mail-Servers einer Domain. Die Adresse wird fuer MX_CACHE_DAUER zwischengespeichert.
+     * 
+     * @return null, wenn es fuer die Domain keinen Mail-Server gibt
+     */
+    String holeMailServer(String domain) throws TimeOutException {
+        MXEintrag eintrag = mxCache.get(domain);
+        if (eintrag != null && eintrag.ablauf > SimulationsUhr.jetzt()) {
+            return eintrag.adresse;
+        }
+        String adresse = loeseAuf(domain);
+        LOG.debug("Mail-Server fuer Domain " + domain + " ist: " + adresse);
+        if (adresse != null) {
+            mxCache.put(domain, new MXEintrag(adresse, SimulationsUhr.jetzt() + MX_CACHE_DAUER));
+        }
+        return adresse;
+    }
+
+    String loeseAuf(String domain) throws TimeOutException {
+        return emailServer.getSystemSoftware().holeDNSClient().holeIPAdresseMailServer(domain);
+    }
+
+    private void erneutVersuchen(Auftrag auftrag) {
+        auftrag.versuche++;
+        if (auftrag.istEndgueltigAbgelehnt() || auftrag.versuche >= MAX_VERSUCHE) {
+            emailServer.benachrichtigeBeobachter(messages.getString("sw_smtpwarteschlange_msg2") + " "
+                    + auftrag.empfaenger);
+            emailServer.sendUnknownReceiverResponse(auftrag.email, auftrag.absender, auftrag.empfaenger);
+        } else {
+            long wartezeit = wartezeit(auftrag.versuche);
+            auftrag.naechsterVersuch = SimulationsUhr.jetzt() + wartezeit;
+            emailServer.benachrichtigeBeobachter(messages.getString("sw_smtpwarteschlange_msg1") + " "
+                    + auftrag.empfaenger + " (" + (wartezeit / 1000.0) + " s)");
+            synchronized (auftraege) {
+                auftraege.add(auftrag);
+                auftraege.notifyAll();
+            }
+        }
+    }
+
+    /** Wartezeit bis zum naechsten Versuch: WARTEZEIT_RTT RTTs, verdoppelt mit jedem weiteren Versuch */
+    static long wartezeit(int versuche) {
+        return ((long) WARTEZEIT_RTT * Verbindung.holeRTT()) << (versuche - 1);
+    }
+}
@@ -30,6 +30,7 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.StringTokenizer;
 
@@ -38,7 +39,6 @@ import javax.swing.tree.DefaultMutableTreeNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import filius.rahmenprogramm.Base64;
 import filius.rahmenprogramm.I18n;
 import filius.software.Anwendung;
 import filius.software.system.Datei;
@@ -70,8 +70,8 @@ public class FileExplorer extends Anwendung implements I18n {
     }
 
     /**
-     * Diese Funktion importiert die ausgewaehlte Datei in das Betriebssystem des Rechners. Dabei wird die Datei Base64
-     * kodiert, um sie als String verarbeiten zu koennen!
+     * Diese Funktion importiert die ausgewaehlte Datei in das Betriebssystem des Rechners. Textdateien werden als
+     * String, alle anderen Dateien unkodiert als byte[] uebernommen.
      * 
      * @param dateiname
      * @return
@@ -108,9 +108,13 @@ public class FileExplorer extends Anwendung implements I18n {
                 }
                 tempDatei = new Datei(neuerName, dateityp, txtInhalt);
             } else {
-                tempDatei = new Datei(neuerName, dateityp, Base64.encodeFromFile(pfadname + dateiname));
-                tempDatei.setSize(file.length());
-                ergebnis = messages.getString("sw_fileexplorer_msg2");
+                try {
+                    tempDatei = new Datei(neuerName, dateityp, Files.readAllBytes(file.toPath()));
+                    ergebnis = messages.getString("sw_fileexplorer_msg2");
+                } catch (IOException e) {
+                    LOG.debug("", e);
+                    return ergebnis;
+                }
             }
             getSystemSoftware().getDateisystem().speicherDatei(ordner, tempDatei);
         }
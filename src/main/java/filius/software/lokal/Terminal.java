@@ -41,6 +41,7 @@ import filius.exception.TimeOutException;
 import filius.rahmenprogramm.EingabenUeberpruefung;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.rahmenprogramm.nachrichten.Lauscher;
 import filius.software.clientserver.ClientAnwendung;
 import filius.software.dns.DNSNachricht;
@@ -51,6 +52,7 @@ import filius.software.system.Betriebssystem;
 import filius.software.system.Datei;
 import filius.software.system.Dateisystem;
 import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
 import filius.software.transportschicht.ServerSocket;
 import filius.software.transportschicht.Socket;
 import filius.software.transportschicht.SocketSchnittstelle;
@@ -533,6 +535,9 @@ public class Terminal extends ClientAnwendung implements I18n {
     }
 
     public String netstat(String[] args) {
+        if (numParams(args, 1, 2) && "-s".equals(args[0])) {
+            return protokollStatistik(numParams(args, 2) && "-j".equals(args[1]));
+        }
         TransportProtokoll transport;
         StringBuffer ergebnis = new StringBuffer();
         String protocol;
@@ -552,6 +557,21 @@ public class Terminal extends ClientAnwendung implements I18n {
         return ergebnis.toString();
     }
 
+    /**
+     * 'netstat -s': Zaehler der Protokolle dieses Knotens, wahlweise als JSON-Objekt
+     */
+    private String protokollStatistik(boolean json) {
+        ProtokollStatistik statistik = getSystemSoftware().holeProtokollStatistik();
+        String ergebnis;
+        if (json) {
+            ergebnis = statistik.alsJson(getSystemSoftware().getKnoten().getName()) + "\n";
+        } else {
+            ergebnis = statistik.alsText();
+        }
+        benachrichtigeBeobachter(ergebnis);
+        return ergebnis;
+    }
+
     private void processSockets(StringBuffer ergebnis, TransportProtokoll transport, String protocol) {
         for (SocketSchnittstelle socket : transport.holeAktiveSockets()) {
             for (SocketInformation info : getSocketInfo(socket)) {
@@ -833,24 +853,24 @@ public class Terminal extends ClientAnwendung implements I18n {
         int loopNumber = Information.isPosixCommandLineToolBehaviour() ? 10 : 4;
         for (num = 0; !interrupted && num < loopNumber; num++) {
             try {
-                timeStart = System.currentTimeMillis();
+                timeStart = SimulationsUhr.jetzt();
                 // / CAVE: wahrscheinlich hier Queue nötig und blockieren, bis
                 // Ergebnis da ist!!!
                 int resTTL = getSystemSoftware().holeICMP().startSinglePing(destIp, num + 1);
                 // wait 1s between single ping executions subtract needed time
                 // for former ping
-                timeDiff = 1000 - (System.currentTimeMillis() - timeStart);
+                timeDiff = 1000 - (SimulationsUhr.jetzt() - timeStart);
                 // LOG.debug("DEBUG: Terminal, ping (num="+(num+1)+"), resTTL="+resTTL+",
                 // delay="+(1000-timeDiff)+", timeDiff="+timeDiff);
                 if (resTTL >= 0) {
                     benachrichtigeBeobachter("\nFrom " + args[0] + " (" + destIp + "): icmp_seq=" + (num + 1) + " ttl="
-                            + resTTL + " time=" + (System.currentTimeMillis() - timeStart) + "ms");
+                            + resTTL + " time=" + (SimulationsUhr.jetzt() - timeStart) + "ms");
                     receivedReplies++;
                 }
                 if (timeDiff > 0) {
                     try {
                         // LOG.debug("DEBUG: Terminal wartet für "+timeDiff+"ms");
-                        Thread.sleep(timeDiff);
+                        SimulationsUhr.schlafen(timeDiff);
                         // LOG.debug("DEBUG: Terminal fertig mit Warten");
                     } catch (InterruptedException e) {}
                 }
@@ -886,7 +906,7 @@ public class Terminal extends ClientAnwendung implements I18n {
 
         Lauscher lauscher = Lauscher.getLauscher();
         String localMacAddress = ((Betriebssystem) getSystemSoftware()).primaryMACAddress();
-        int offset = lauscher.getOffsetByTimestamp(localMacAddress, System.currentTimeMillis());
+        int offset = lauscher.getOffsetByTimestamp(localMacAddress, SimulationsUhr.jetzt());
         while (!interrupted) {
             Object[][] data = lauscher.getDaten(localMacAddress, true, offset);
             for (int i = 0; i < data.length; i++) {
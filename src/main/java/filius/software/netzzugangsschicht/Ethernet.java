@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.rahmenprogramm.nachrichten.Lauscher;
 import filius.software.Protokoll;
 import filius.software.system.SystemSoftware;
@@ -105,6 +106,7 @@ public class Ethernet extends Protokoll {
                     nic.getPort().holeEingangsPuffer().add(ethernetFrame);
                     nic.getPort().holeEingangsPuffer().notify();
                 }
+                SimulationsUhr.meldeAktivitaet();
                 gesendet = true;
             }
         }
@@ -112,11 +114,9 @@ public class Ethernet extends Protokoll {
         if (!gesendet) {
             for (NetzwerkInterface nic : ((InternetKnoten) holeSystemSoftware().getKnoten()).getNetzwerkInterfaces()) {
                 if (nic.getMac().equalsIgnoreCase(startMAC)) {
-                    synchronized (nic.getPort().holeAusgangsPuffer()) {
-                        nic.getPort().holeAusgangsPuffer().add(ethernetFrame);
-                        nic.getPort().holeAusgangsPuffer().notify();
+                    if (nic.getPort().einreihen(ethernetFrame)) {
+                        Lauscher.getLauscher().addDatenEinheit(nic.getMac(), ethernetFrame);
                     }
-                    Lauscher.getLauscher().addDatenEinheit(nic.getMac(), ethernetFrame);
                 }
             }
         }
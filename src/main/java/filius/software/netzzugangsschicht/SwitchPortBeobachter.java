@@ -84,17 +84,11 @@ public class SwitchPortBeobachter extends ProtokollThread<EthernetFrame> {
 
             Port zielAnschluss = switchFirmware.holeAnschlussFuerMAC(etp.getZielMacAdresse());
             if (zielAnschluss != null) {
-                synchronized (zielAnschluss.holeAusgangsPuffer()) {
-                    zielAnschluss.holeAusgangsPuffer().add(etp);
-                    zielAnschluss.holeAusgangsPuffer().notify();
-                }
+                zielAnschluss.einreihen(etp);
             } else {
                 for (Port aktiverAnschluss : ((Switch) switchFirmware.getKnoten()).getAnschluesse()) {
                     if (!aktiverAnschluss.isPortFrei() && (aktiverAnschluss != anschluss)) {
-                        synchronized (aktiverAnschluss.holeAusgangsPuffer()) {
-                            aktiverAnschluss.holeAusgangsPuffer().add(etp);
-                            aktiverAnschluss.holeAusgangsPuffer().notify();
-                        }
+                        aktiverAnschluss.einreihen(etp);
                     }
                 }
             }
@@ -25,11 +25,13 @@
  */
 package filius.software.rip;
 
+import java.util.List;
 import java.util.Random;
 
 import filius.exception.VerbindungsException;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.clientserver.ClientAnwendung;
 import filius.software.system.VermittlungsrechnerBetriebssystem;
 import filius.software.transportschicht.UDPSocket;
@@ -64,36 +66,62 @@ public class RIPBeacon extends ClientAnwendung {
 
 		while (running) {
 			synchronized (table) {
-				while (table.getNextBeacon() - RIPUtil.getTime() > 0) {
+				while (nextUpdate(table) - RIPUtil.getTime() > 0) {
 					try {
-						table.wait(table.getNextBeacon() - RIPUtil.getTime());
+						SimulationsUhr.warten(table, nextUpdate(table) - RIPUtil.getTime());
 					} catch (InterruptedException e) {
 					}
 				}
 
 				table.check();
-				broadcast(sock, bs, table);
-
-				table.setNextBeacon(RIPUtil.getTime() + (int) (RIPTable.INTERVAL * (rand.nextFloat() / 3 + 0.84)));
+				if (table.getNextBeacon() - RIPUtil.getTime() <= 0) {
+					table.takeChangedRoutes();
+					broadcast(sock, bs, table);
+					table.setNextBeacon(
+					        RIPUtil.getTime() + (int) (RIPTable.INTERVAL * (rand.nextFloat() / 3 + 0.84)));
+				} else if (table.hasChangedRoutes()) {
+					// triggered update: only the changed routes
+					broadcast(sock, bs, table.takeChangedRoutes());
+					table.setLastTriggeredUpdate(RIPUtil.getTime());
+				}
 			}
 		}
 
 		sock.beenden();
 	}
 
+	/**
+	 * @return the time of the next regular beacon or, if routes have changed, of the next triggered update
+	 */
+	private long nextUpdate(RIPTable table) {
+		if (table.hasChangedRoutes()) {
+			return Math.min(table.getNextBeacon(), table.getNextTriggeredUpdate());
+		}
+		return table.getNextBeacon();
+	}
+
 	public void broadcast(UDPSocket sock, VermittlungsrechnerBetriebssystem bs, RIPTable table) {
+		broadcast(sock, bs, table.routes);
+	}
+
+	public void broadcast(UDPSocket sock, VermittlungsrechnerBetriebssystem bs, List<RIPRoute> routes) {
 		InternetKnoten knoten = (InternetKnoten) bs.getKnoten();
 
 		RIPMessage msg;
 
+		int splitHorizon = bs.getRipSplitHorizon();
 		for (NetzwerkInterface nic : knoten.getNetzwerkInterfaces()) {
 			msg = new RIPMessage(nic.getIp(), bs.primaryIPAdresse(), RIPTable.INFINITY, RIPTable.TIMEOUT);
-			for (RIPRoute route : table.routes) {
-				// split horizon:
+			for (RIPRoute route : routes) {
+				int hops = route.hops;
 				if (nic.getIp().equals(route.getInterfaceIpAddress())) {
-					continue;
+					if (splitHorizon == RIPTable.SPLIT_HORIZON) {
+						continue;
+					} else if (splitHorizon == RIPTable.POISON_REVERSE && hops > 0) {
+						hops = RIPTable.INFINITY;
+					}
 				}
-				msg.addRoute(new RIPMessageRoute(route.getNetAddress(), route.getNetMask(), route.hops));
+				msg.addRoute(new RIPMessageRoute(route.getNetAddress(), route.getNetMask(), hops));
 			}
 			sock.bind(nic.getIp());
 			sock.senden(msg.toString());
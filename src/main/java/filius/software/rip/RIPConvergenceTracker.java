@@ -0,0 +1,94 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.rip;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how long RIP needs to converge after a change of the topology. A topology change is registered when RIP
+ * is started on a router and when a router detects an expired route (e.g. after a link failure). Each change of a
+ * routing table is reported to the tracker. The network is regarded as converged when no table has changed for
+ * QUIET_PERIOD; the convergence time is the time from the topology change to the last change of a table. Only the
+ * first topology change of an episode starts the measurement, further changes before convergence belong to the same
+ * episode. The tracker is reset when the simulation is started and when a new scenario is created.
+ */
+public class RIPConvergenceTracker {
+	private static Logger LOG = LoggerFactory.getLogger(RIPConvergenceTracker.class);
+
+	/** time in millis without changes after which the network is regarded as converged */
+	public static final int QUIET_PERIOD = RIPTable.INTERVAL;
+
+	private static RIPConvergenceTracker tracker = null;
+
+	private long topologyChange = -1;
+
+	private long lastChange = -1;
+
+	private RIPConvergenceTracker() {
+	}
+
+	public static synchronized RIPConvergenceTracker getTracker() {
+		if (tracker == null) {
+			tracker = new RIPConvergenceTracker();
+		}
+		return tracker;
+	}
+
+	/** forgets the current episode, e.g. when the simulation is (re-)started */
+	public synchronized void reset() {
+		topologyChange = -1;
+		lastChange = -1;
+	}
+
+	public synchronized void topologyChanged(long time) {
+		LOG.debug("RIP topology change at " + time);
+		if (topologyChange < 0 || time - lastChange >= QUIET_PERIOD) {
+			topologyChange = time;
+		}
+		lastChange = Math.max(lastChange, time);
+	}
+
+	public synchronized void tableChanged(long time) {
+		lastChange = Math.max(lastChange, time);
+	}
+
+	/** @return time of the last change of any routing table or -1, if RIP has not been started */
+	public synchronized long getLastChange() {
+		return lastChange;
+	}
+
+	/**
+	 * @return the time in millis from the last topology change until the routing tables converged, or -1 if they
+	 *         have not converged yet
+	 */
+	public synchronized long getConvergenceTime(long now) {
+		if (topologyChange < 0 || now - lastChange < QUIET_PERIOD) {
+			return -1;
+		}
+		return lastChange - topologyChange;
+	}
+}
@@ -85,19 +85,20 @@ public class RIPServerMitarbeiter extends ServerMitarbeiter {
 						route.setGateway(msg.ip);
 						route.hopPublicIp = msg.publicIp;
 						route.setInterfaceIpAddress(nicIp);
-					} else if (route.hops < hops) {
-						// the old route just got worse. this has to be
-						// flushed to other routers immediately
-						table.setNextBeacon(0);
+					}
+					if (route.hops != hops) {
+						// the route got better or worse. this has to be
+						// flushed to other routers with a triggered update
+						table.markChanged(route);
 					}
 					route.hops = hops;
-					route.refresh(msg.timeout);
+					table.refresh(route, msg.timeout);
 				} else {
 					// route is unknown, create it
 					if (hops < RIPTable.INFINITY) {
 						route = new RIPRoute(msg.timeout, entry.ip, entry.mask, msg.ip, msg.publicIp, nicIp, hops);
 						table.addRoute(route);
-						table.setNextBeacon(0);
+						table.markChanged(route);
 					}
 				}
 			}
@@ -25,7 +25,13 @@
  */
 package filius.software.rip;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
@@ -33,6 +39,9 @@ import filius.software.system.InternetKnotenBetriebssystem;
 import filius.software.vermittlungsschicht.IP;
 
 /**
+ * The routes are indexed by their numeric network address and mask. For forwarding, the routes are grouped by mask
+ * (longest mask first) so that a lookup needs one hash access per distinct mask instead of a scan of all routes.
+ * Changed routes are collected and sent by the RIPBeacon as triggered update before the next regular beacon.
  * 
  * @author pyropeter
  * @author stefanf
@@ -48,11 +57,36 @@ public class RIPTable {
 	 */
 	public static final int INTERVAL = 1000 * 30;
 	public static final int TIMEOUT = INTERVAL * 5 / 2;
+	/** minimum time in millis between two triggered updates (to damp update storms) */
+	public static final int TRIGGER_INTERVAL = 1000;
+
+	/**
+	 * How routes are advertised on the interface they were learned from: as any other route, not at all (split
+	 * horizon) or as unreachable (poison reverse).
+	 */
+	public static final int SPLIT_HORIZON_OFF = 0, SPLIT_HORIZON = 1, POISON_REVERSE = 2;
 
 	public LinkedList<RIPRoute> routes;
 
+	/** routes by network address (upper 32 bits) and mask (lower 32 bits) */
+	private Map<Long, RIPRoute> index;
+
+	/** routes grouped by mask, longest mask first; within a group by network address */
+	private TreeMap<Long, Map<Long, RIPRoute>> routesByMask;
+
+	/** routes changed since the last update was sent */
+	private LinkedHashSet<RIPRoute> changedRoutes;
+
+	/** lower bound for the expiry time of all routes */
+	private long nextExpiry;
+
 	private long nextBeacon;
 
+	private long lastTriggeredUpdate;
+
+	/** time of the last change of this table */
+	private long lastChange;
+
 	private InternetKnotenBetriebssystem bs;
 
 	public RIPTable(InternetKnotenBetriebssystem bs) {
@@ -62,11 +96,30 @@ public class RIPTable {
 
 	public void reset() {
 		this.routes = new LinkedList<RIPRoute>();
+		this.index = new HashMap<Long, RIPRoute>();
+		this.routesByMask = new TreeMap<Long, Map<Long, RIPRoute>>(Collections.reverseOrder());
+		this.changedRoutes = new LinkedHashSet<RIPRoute>();
+		this.nextExpiry = Long.MAX_VALUE;
+		this.lastTriggeredUpdate = 0;
+		this.lastChange = RIPUtil.getTime();
 		this.setNextBeacon(RIPUtil.getTime() + 1000);
 	}
 
 	public void addRoute(RIPRoute route) {
+		long netAddr = IP.inetAton(route.getNetAddress());
+		long netMask = IP.inetAton(route.getNetMask());
+
 		routes.add(route);
+		index.put(key(netAddr, netMask), route);
+		Map<Long, RIPRoute> group = routesByMask.get(netMask);
+		if (group == null) {
+			group = new HashMap<Long, RIPRoute>();
+			routesByMask.put(netMask, group);
+		}
+		group.put(netAddr, route);
+		if (route.expires > 0) {
+			nextExpiry = Math.min(nextExpiry, route.expires);
+		}
 	}
 
 	public void addLocalRoutes(InternetKnoten knoten) {
@@ -82,22 +135,98 @@ public class RIPTable {
 	}
 
 	public RIPRoute search(String net, String mask) {
-		for (RIPRoute route : routes) {
-			if (route.getNetAddress().equals(net) && route.getNetMask().equals(mask)) {
-				return route;
+		return index.get(key(IP.inetAton(net), IP.inetAton(mask)));
+	}
+
+	/**
+	 * Determines the route used to forward a packet: among the matching routes with less than INFINITY hops the one
+	 * with the fewest hops, and for equal hops the one with the longest mask.
+	 * 
+	 * @param ipAddr
+	 *            numeric destination address
+	 * @return the route or null, if there is no usable route
+	 */
+	public RIPRoute lookup(long ipAddr) {
+		RIPRoute bestRoute = null;
+		for (Map.Entry<Long, Map<Long, RIPRoute>> group : routesByMask.entrySet()) {
+			RIPRoute route = group.getValue().get(ipAddr & group.getKey());
+			if (route != null && route.hops < INFINITY && (bestRoute == null || route.hops < bestRoute.hops)) {
+				bestRoute = route;
 			}
 		}
-		return null;
+		return bestRoute;
 	}
 
+	/**
+	 * Sets the hop count of expired routes to INFINITY. The routes are only examined, if a route may have expired.
+	 */
 	public void check() {
+		long now = RIPUtil.getTime();
+		if (now <= nextExpiry) {
+			return;
+		}
+		nextExpiry = Long.MAX_VALUE;
 		for (RIPRoute route : routes) {
 			if (route.isExpired()) {
-				route.hops = INFINITY;
+				if (route.hops != INFINITY) {
+					// the router that advertised this route cannot be reached any more
+					RIPConvergenceTracker.getTracker().topologyChanged(now);
+					route.hops = INFINITY;
+					markChanged(route);
+				}
+			} else if (route.expires > 0) {
+				nextExpiry = Math.min(nextExpiry, route.expires);
 			}
 		}
 	}
 
+	/**
+	 * Marks a route as changed. It will be sent with the next triggered update.
+	 */
+	public void markChanged(RIPRoute route) {
+		changedRoutes.add(route);
+		lastChange = RIPUtil.getTime();
+		RIPConvergenceTracker.getTracker().tableChanged(lastChange);
+	}
+
+	public long getLastChange() {
+		return lastChange;
+	}
+
+	/**
+	 * Refreshes the expiry time of a route.
+	 */
+	public void refresh(RIPRoute route, int timeout) {
+		route.refresh(timeout);
+		if (route.expires > 0) {
+			nextExpiry = Math.min(nextExpiry, route.expires);
+		}
+	}
+
+	public boolean hasChangedRoutes() {
+		return !changedRoutes.isEmpty();
+	}
+
+	/**
+	 * @return the routes changed since the last update; the list of changes is cleared
+	 */
+	public List<RIPRoute> takeChangedRoutes() {
+		List<RIPRoute> changes = new LinkedList<RIPRoute>(changedRoutes);
+		changedRoutes.clear();
+		return changes;
+	}
+
+	/**
+	 * @return the time at which the pending changes may be sent as triggered update
+	 */
+	public long getNextTriggeredUpdate() {
+		return lastTriggeredUpdate + TRIGGER_INTERVAL;
+	}
+
+	public void setLastTriggeredUpdate(long lastTriggeredUpdate) {
+		this.lastTriggeredUpdate = lastTriggeredUpdate;
+	}
+
 	public long getNextBeacon() {
 		return nextBeacon;
 	}
@@ -105,4 +234,8 @@ public class RIPTable {
 	public void setNextBeacon(long nextBeacon) {
 		this.nextBeacon = nextBeacon;
 	}
+
+	private static long key(long netAddr, long netMask) {
+		return (netAddr << 32) | netMask;
+	}
 }
@@ -25,7 +25,7 @@
  */
 package filius.software.rip;
 
-import java.util.Calendar;
+import filius.rahmenprogramm.SimulationsUhr;
 
 /**
  * 
@@ -37,6 +37,6 @@ public class RIPUtil {
 	}
 
 	public static long getTime() {
-		return Calendar.getInstance().getTimeInMillis();
+		return SimulationsUhr.jetzt();
 	}
 }
@@ -26,6 +26,7 @@
 package filius.software.system;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Observable;
 
 import filius.rahmenprogramm.Base64;
@@ -34,6 +35,13 @@ import filius.rahmenprogramm.Base64;
  * Dateien sind Objekte, die vom Betriebssystem verwaltet werden. Jede Datei hat
  * einen Dateinamen (der eindeutig sein sollte, einen Datei Typ (ähnlich einem
  * mime/type) und natürlich den Dateiinhalt selber.
+ * <br />
+ * Binaere Inhalte werden intern als byte[] gehalten. Die Base64-Darstellung,
+ * die z. B. fuer die Projektdatei oder die Uebertragung per HTTP benoetigt
+ * wird, wird erst beim ersten Aufruf von getDateiInhalt() erzeugt und bis
+ * zur naechsten Aenderung des Inhalts zwischengespeichert. Als String
+ * uebergebene Inhalte werden unveraendert gespeichert; ob sie Base64-kodiert
+ * sind, entscheidet der Aufrufer (siehe holeBinaerDaten()).
  * 
  * @author Nadja & Thomas Gerding
  * 
@@ -45,9 +53,21 @@ public class Datei extends Observable implements Serializable {
 	/** Typ der Datei, z.B. mp3, doc, txt,... */
 	private String dateiTyp;
 
-	/** Inhalt der Datei als String (ggf. Base64-kodiert) */
+	/**
+	 * Inhalt der Datei als String, wie er uebergeben wurde (Text oder
+	 * Base64-kodiert). Entweder dieses Attribut oder daten ist gesetzt.
+	 */
 	private String dateiInhalt;
 
+	/** Der unkodierte Inhalt von Dateien mit binaerem Inhalt */
+	private byte[] daten;
+
+	/**
+	 * Zwischengespeicherte Base64-Kodierung von daten; wird bei jeder
+	 * Aenderung des Inhalts verworfen.
+	 */
+	private transient String kodierterInhalt;
+
 	/** Der Dateiname (ist auch der Rueckgabewert von toString()) */
 	private String name; // Dateiname
 
@@ -75,9 +95,26 @@ public class Datei extends Observable implements Serializable {
 	 *            gespeichert werden.
 	 */
 	public Datei(String name, String typ, String dateiInhalt) {
-		this.dateiInhalt = dateiInhalt;
 		this.name = name;
 		this.dateiTyp = typ;
+		speichereInhalt(dateiInhalt);
+	}
+
+	/**
+	 * Erzeugt ein neues Objekt vom Typ Datei mit binaerem Inhalt.
+	 * 
+	 * @param name
+	 *            der Bezeichner der Datei
+	 * @param typ
+	 *            ein Dateittyp
+	 * @param daten
+	 *            der unkodierte Inhalt
+	 */
+	public Datei(String name, String typ, byte[] daten) {
+		this.name = name;
+		this.dateiTyp = typ;
+		this.daten = daten;
+		this.decodedSize = daten.length;
 	}
 
 	public void setSize(long size) {
@@ -87,71 +124,139 @@ public class Datei extends Observable implements Serializable {
 	/**
 	 * Liefert die Groesse der Datei zurueck
 	 * 
-	 * @return die Laenge des Strings dateiInhalt
+	 * @return bei Textdateien die Laenge des Dateiinhalts, sonst die Anzahl
+	 *         der (dekodierten) Bytes
 	 */
-	public long holeGroesse() {
-		if (this.getDateiInhalt() == null)
+	public synchronized long holeGroesse() {
+		if (daten != null) {
+			if (this.dateiTyp != null && this.dateiTyp.equals("text"))
+				return getDateiInhalt().length();
+			return daten.length;
+		}
+		if (dateiInhalt == null)
 			return 0;
 		if (this.dateiTyp != null && this.dateiTyp.equals("text"))
-			return this.getDateiInhalt().length();
-		else {
-			try {
-				if (decodedSize < 0)
-					setSize(Base64.decode(this.getDateiInhalt()).length); // set
-					                                                      // current
-					                                                      // size
-					                                                      // to
-					                                                      // be
-					                                                      // sure
-					                                                      // it's
-					                                                      // correct
-				return decodedSize;
-			} catch (Exception e) {
-				// current file does not seem to be Base64 encoded (that's why
-				// an error occurred... hopefully)
-				if (decodedSize < 0)
-					return this.getDateiInhalt().length();
-				else
-					return decodedSize;
-			}
+			return dateiInhalt.length();
+		if (decodedSize < 0) {
+			byte[] dekodiert = dekodiere(dateiInhalt);
+			if (dekodiert == null)
+				return dateiInhalt.length();
+			decodedSize = dekodiert.length;
 		}
+		return decodedSize;
 	}
 
 	/**
 	 * Liefert den Dateiinhalt so zurueck, wie er gespeichert wurde. D. h., dass
-	 * kodierte Dateien auch kodiert ausgegeben werden.
+	 * kodierte Dateien auch kodiert ausgegeben werden. Die Base64-Kodierung
+	 * wird nur beim ersten Aufruf nach einer Aenderung erzeugt.
 	 * 
 	 * @return der Dateiinhalt als String
 	 */
-	public String getDateiInhalt() {
+	public synchronized String getDateiInhalt() {
+		if (daten != null) {
+			if (kodierterInhalt == null) {
+				kodierterInhalt = Base64.encodeBytes(daten);
+			}
+			return kodierterInhalt;
+		}
 		return dateiInhalt;
 	}
 
 	public void setDateiInhalt(String dateiInhalt) {
-		this.dateiInhalt = dateiInhalt;
+		speichereInhalt(dateiInhalt);
 		this.setChanged();
 		this.notifyObservers();
 	}
 
 	/**
-	 * Methode fuer den Zugriff auf Base64-kodierte Dateien.
+	 * Liefert den unkodierten Dateiinhalt. Fuer Inhalte, die als String
+	 * uebergeben wurden, ist das die UTF-8-Kodierung des Textes.
 	 * 
-	 * @return Gibt den Base64-dekodierten Dateiinhalt als String zurück.
+	 * @return der Inhalt als Bytes (nicht kopiert, darf nicht veraendert
+	 *         werden!)
+	 */
+	public byte[] holeDaten() {
+		byte[] tmpDaten = daten;
+		if (tmpDaten != null) {
+			return tmpDaten;
+		} else if (dateiInhalt == null) {
+			return new byte[0];
+		}
+		return dateiInhalt.getBytes(StandardCharsets.UTF_8);
+	}
+
+	public void setzeDaten(byte[] daten) {
+		synchronized (this) {
+			this.dateiInhalt = null;
+			this.daten = daten;
+			this.kodierterInhalt = null;
+			this.decodedSize = daten.length;
+		}
+		this.setChanged();
+		this.notifyObservers();
+	}
+
+	/**
+	 * Methode fuer den Zugriff auf binaer gespeicherten Text.
+	 * 
+	 * @return Gibt den dekodierten Dateiinhalt als (UTF-8) String zurück.
 	 * @see setzeDateiInhaltDecoded
 	 */
 	public String holeDateiInhaltDecoded() {
-		return (String) Base64.decodeToObject(this.getDateiInhalt());
+		return new String(holeDaten(), StandardCharsets.UTF_8);
 	}
 
 	/**
-	 * Methode fuer den Zugriff auf Base64-kodierte Dateien.
+	 * Methode fuer den Zugriff auf binaer gespeicherten Text.
 	 * 
 	 * @param dateiInhalt
-	 *            einen "binaeren" Dateiinhalt, der Base64-kodiert gespeichert
-	 *            werden soll
+	 *            ein Text, der binaer (UTF-8) gespeichert werden soll
 	 */
 	public void setzeDateiInhaltDecoded(String dateiInhalt) {
-		this.dateiInhalt = Base64.encodeObject(dateiInhalt);
+		setzeDaten(dateiInhalt.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Liefert den unkodierten Inhalt einer Datei mit binaerem Inhalt (z. B.
+	 * eines Bildes). Ein als String uebergebener Inhalt wird dazu als Base64
+	 * dekodiert und ab dann dekodiert gehalten; getDateiInhalt() liefert
+	 * weiterhin den uebergebenen String. Ist der Inhalt nicht Base64-kodiert,
+	 * wird wie bei holeDaten() die UTF-8-Kodierung des Textes geliefert.
+	 * 
+	 * @return der Inhalt als Bytes (nicht kopiert, darf nicht veraendert
+	 *         werden!)
+	 */
+	public synchronized byte[] holeBinaerDaten() {
+		if (daten == null && dateiInhalt != null) {
+			byte[] dekodiert = dekodiere(dateiInhalt);
+			if (dekodiert != null) {
+				this.daten = dekodiert;
+				this.kodierterInhalt = dateiInhalt;
+				this.dateiInhalt = null;
+				this.decodedSize = dekodiert.length;
+			}
+		}
+		return holeDaten();
+	}
+
+	private void speichereInhalt(String inhalt) {
+		synchronized (this) {
+			this.daten = null;
+			this.kodierterInhalt = null;
+			this.dateiInhalt = inhalt;
+			this.decodedSize = -1;
+		}
+	}
+
+	/** @return null, wenn der Inhalt nicht Base64-kodiert ist */
+	private static byte[] dekodiere(String inhalt) {
+		try {
+			byte[] ascii = inhalt.getBytes(StandardCharsets.US_ASCII);
+			return Base64.decode(ascii, 0, ascii.length, Base64.NO_OPTIONS);
+		} catch (Exception e) {
+			return null;
+		}
 	}
 
 	public String getDateiTyp() {
@@ -29,7 +29,11 @@ import java.io.Serializable;
 import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
@@ -65,6 +69,20 @@ public class Dateisystem implements Serializable {
      */
     private DefaultMutableTreeNode root;
 
+    /**
+     * Index aller Knoten des Verzeichnisbaums, Schluessel ist der absolute Pfad in Kleinbuchstaben (Dateinamen werden
+     * unabhaengig von Gross- und Kleinschreibung verglichen). Der Index wird bei Bedarf aus dem Baum aufgebaut und ist
+     * kein Bestandteil der Projektdatei (kein Getter/Setter!). Wird der Baum an Dateisystem vorbei veraendert, muss
+     * {@link #verwerfeIndex()} aufgerufen werden.
+     */
+    private transient volatile Map<String, DefaultMutableTreeNode> pfadIndex;
+
+    /**
+     * Wird bei jeder Aenderung der Struktur des Verzeichnisbaums (Einfuegen, Loeschen, Umbenennen) erhoeht. Damit
+     * koennen Anwendungen eigene Verzeichnislisten zwischenspeichern und erkennen, wann sie veraltet sind.
+     */
+    private final AtomicLong aenderungsstand = new AtomicLong();
+
     /**
      * Diese Klasse muss fuer die persistente Speicherung einer Filius-Projektdatei den Anforderungen einer JavaBean
      * genuegen. Daher ist der Paramterlose Konstruktor wichtig!
@@ -88,6 +106,7 @@ public class Dateisystem implements Serializable {
     @Deprecated
     public void setArbeitsVerzeichnis(DefaultMutableTreeNode arbeitsVerzeichnis) {
         this.root = arbeitsVerzeichnis;
+        verwerfeIndex();
     }
 
     // print entire tree, starting from root node
@@ -126,6 +145,8 @@ public class Dateisystem implements Serializable {
 
         if (verzeichnis == null) {
             return false;
+        } else if (verzeichnis.getRoot() == root && !dateiName.isEmpty() && !dateiName.contains(FILE_SEPARATOR)) {
+            return sucheImIndex(kindPfad(absoluterPfad(verzeichnis), dateiName)) != null;
         } else {
             for (Enumeration<TreeNode> e = verzeichnis.children(); e.hasMoreElements();) {
                 DefaultMutableTreeNode enode = (DefaultMutableTreeNode) e.nextElement();
@@ -194,19 +215,109 @@ public class Dateisystem implements Serializable {
         if (pfad.equals(FILE_SEPARATOR) || pfad.isEmpty()) {
             return root;
         }
-        Enumeration<TreeNode> enumeration;
-        DefaultMutableTreeNode node;
+        return sucheImIndex(pfad);
+    }
+
+    /**
+     * Sucht einen Knoten ueber den Pfad-Index. Ein Treffer wird gegen den Baum geprueft (Knoten noch unter root und
+     * Pfad unveraendert). Passt er nicht mehr, wurde der Baum an Dateisystem vorbei veraendert und der Index wird
+     * einmal neu aufgebaut.
+     * 
+     * @param pfad
+     *            der normalisierte, absolute Pfad
+     * @return der Knoten oder null, wenn kein Knoten mit diesem Pfad existiert
+     */
+    private DefaultMutableTreeNode sucheImIndex(String pfad) {
+        String schluessel = pfad.toLowerCase();
+        DefaultMutableTreeNode node = holeIndex().get(schluessel);
+        if (node != null && !istGueltig(node, pfad)) {
+            LOG.debug("Pfad-Index veraltet fuer " + pfad + ", wird neu aufgebaut");
+            verwerfeIndex();
+            node = holeIndex().get(schluessel);
+        }
+        return node;
+    }
+
+    private boolean istGueltig(DefaultMutableTreeNode node, String pfad) {
+        return node.getRoot() == root && pfad.equalsIgnoreCase(absoluterPfad(node));
+    }
+
+    private Map<String, DefaultMutableTreeNode> holeIndex() {
+        Map<String, DefaultMutableTreeNode> index = pfadIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = pfadIndex;
+                if (index == null) {
+                    index = new ConcurrentHashMap<String, DefaultMutableTreeNode>();
+                    indiziere(index, root);
+                    pfadIndex = index;
+                }
+            }
+        }
+        return index;
+    }
 
-        enumeration = root.preorderEnumeration();
+    /**
+     * Nimmt einen Knoten samt aller Unterknoten in den Index auf. Bei Namen, die sich nur in Gross- und
+     * Kleinschreibung unterscheiden, gewinnt wie bei der Suche im Baum der erste Knoten in Preorder-Reihenfolge.
+     */
+    private static void indiziere(Map<String, DefaultMutableTreeNode> index, DefaultMutableTreeNode knoten) {
+        Enumeration<TreeNode> enumeration = knoten.preorderEnumeration();
         while (enumeration.hasMoreElements()) {
-            node = (DefaultMutableTreeNode) enumeration.nextElement();
-            // LOG.debug("DEBUG: verzeichnisKnoten:\n\t'"+pfad+"' =?= '"+absoluterPfad(node)+"'");
-            if (pfad.equalsIgnoreCase(absoluterPfad(node))) {
-                return node;
+            DefaultMutableTreeNode node = (DefaultMutableTreeNode) enumeration.nextElement();
+            String schluessel = absoluterPfad(node).toLowerCase();
+            if (!index.containsKey(schluessel)) {
+                index.put(schluessel, node);
             }
         }
+    }
 
-        return null;
+    /**
+     * Entfernt einen Knoten samt aller Unterknoten aus dem Index. Muss aufgerufen werden, solange der Knoten noch im
+     * Baum haengt, da sich sonst sein Pfad nicht mehr bestimmen laesst.
+     */
+    private void entferneAusIndex(DefaultMutableTreeNode knoten) {
+        Map<String, DefaultMutableTreeNode> index = pfadIndex;
+        if (index != null) {
+            Enumeration<TreeNode> enumeration = knoten.preorderEnumeration();
+            while (enumeration.hasMoreElements()) {
+                DefaultMutableTreeNode node = (DefaultMutableTreeNode) enumeration.nextElement();
+                index.remove(absoluterPfad(node).toLowerCase(), node);
+            }
+        }
+    }
+
+    private void fuegeInIndexEin(DefaultMutableTreeNode knoten) {
+        Map<String, DefaultMutableTreeNode> index = pfadIndex;
+        if (index != null) {
+            indiziere(index, knoten);
+        }
+    }
+
+    /**
+     * Verwirft den Pfad-Index. Er wird bei der naechsten Suche neu aus dem Verzeichnisbaum aufgebaut. Das ist immer
+     * dann noetig, wenn Knoten direkt (also nicht ueber die Methoden dieser Klasse) eingefuegt, entfernt oder
+     * umbenannt wurden.
+     */
+    public void verwerfeIndex() {
+        pfadIndex = null;
+        aenderungsstand.incrementAndGet();
+    }
+
+    /**
+     * Liefert einen Zaehler, der sich bei jeder Aenderung der Struktur des Verzeichnisbaums (Einfuegen, Loeschen,
+     * Umbenennen von Knoten) erhoeht. Aenderungen am Inhalt einer Datei werden nicht gezaehlt.
+     */
+    public long holeAenderungsstand() {
+        return aenderungsstand.get();
+    }
+
+    private static String kindPfad(String verzeichnisPfad, String name) {
+        if (verzeichnisPfad.endsWith(FILE_SEPARATOR)) {
+            return verzeichnisPfad + name;
+        } else {
+            return verzeichnisPfad + FILE_SEPARATOR + name;
+        }
     }
 
     /**
@@ -250,14 +361,76 @@ public class Dateisystem implements Serializable {
         LOG.debug(
                 "INVOKED (" + this.hashCode() + ") " + getClass() + " (Dateisystem), deleteFile(" + absolutePath + ")");
         DefaultMutableTreeNode node = verzeichnisKnoten(absolutePath);
-        if (node != null) {
-            node.removeFromParent();
+        if (node != null && node != root) {
+            loescheKnoten(node);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Entfernt einen Knoten (Datei oder Verzeichnis samt Inhalt) aus dem Verzeichnisbaum.
+     * 
+     * @param node
+     *            der zu entfernende Knoten
+     */
+    public void loescheKnoten(DefaultMutableTreeNode node) {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", loescheKnoten(" + node + ")");
+        if (node.getRoot() == root) {
+            entferneAusIndex(node);
+        }
+        node.removeFromParent();
+        aenderungsstand.incrementAndGet();
+    }
+
+    /**
+     * Haengt einen Knoten (z. B. eine Kopie eines Verzeichnisses) samt Unterknoten in ein Verzeichnis ein.
+     * 
+     * @param verzeichnis
+     *            das Zielverzeichnis
+     * @param node
+     *            der neue Knoten
+     */
+    public void fuegeKnotenEin(DefaultMutableTreeNode verzeichnis, DefaultMutableTreeNode node) {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", fuegeKnotenEin(" + verzeichnis + "," + node
+                + ")");
+        if (node.getRoot() == root) {
+            entferneAusIndex(node);
+        }
+        verzeichnis.add(node);
+        if (verzeichnis.getRoot() == root) {
+            fuegeInIndexEin(node);
+        }
+        aenderungsstand.incrementAndGet();
+    }
+
+    /**
+     * Benennt eine Datei oder ein Verzeichnis um. Bei Verzeichnissen aendern sich damit auch die Pfade aller
+     * enthaltenen Dateien.
+     * 
+     * @param node
+     *            der Knoten der Datei oder des Verzeichnisses
+     * @param neuerName
+     *            der neue Name
+     */
+    public void benenneUm(DefaultMutableTreeNode node, String neuerName) {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", benenneUm(" + node + "," + neuerName + ")");
+        boolean imBaum = node.getRoot() == root;
+        if (imBaum) {
+            entferneAusIndex(node);
+        }
+        if (node.getUserObject() instanceof Datei) {
+            ((Datei) node.getUserObject()).setName(neuerName);
+        } else {
+            node.setUserObject(neuerName);
+        }
+        if (imBaum) {
+            fuegeInIndexEin(node);
+        }
+        aenderungsstand.incrementAndGet();
+    }
+
     /**
      * Mit dieser Methode wird eine Referenz auf eine Datei geholt.
      * 
@@ -330,13 +503,16 @@ public class Dateisystem implements Serializable {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Dateisystem), dateiSuche(" + suchVerzeichnis
                 + "," + suchString + ")");
 
+        // Der Suchbegriff wird woertlich genommen (keine regulaeren Ausdruecke) und nur einmal uebersetzt
+        Pattern suchMuster = Pattern.compile(Pattern.quote(suchString), Pattern.CASE_INSENSITIVE
+                | Pattern.UNICODE_CASE);
         List<Datei> dateien = new LinkedList<Datei>();
         for (Enumeration<TreeNode> e = verzeichnisKnoten(suchVerzeichnis).children(); e.hasMoreElements();) {
             DefaultMutableTreeNode node = (DefaultMutableTreeNode) e.nextElement();
 
             if (node.getUserObject() instanceof Datei) {
                 Datei tmpDatei = (Datei) node.getUserObject();
-                if (tmpDatei.getName().toLowerCase().matches("(.+)?" + suchString.toLowerCase() + "(.+)?")) {
+                if (suchMuster.matcher(tmpDatei.getName()).find()) {
                     dateien.add(tmpDatei);
                 }
             }
@@ -363,7 +539,7 @@ public class Dateisystem implements Serializable {
         if (node != null) {
             if (!dateiVorhanden(node, datei.getName())) {
                 DefaultMutableTreeNode dateiNode = new DefaultMutableTreeNode(datei);
-                node.add(dateiNode);
+                fuegeKnotenEin(node, dateiNode);
             } else {
                 node = verzeichnisKnoten(verzeichnisPfad + FILE_SEPARATOR + datei.getName());
                 Datei file = (Datei) node.getUserObject();
@@ -428,7 +604,7 @@ public class Dateisystem implements Serializable {
                                 + "weil es im Verzeichnis " + verzeichnisPfad + " bereits existiert.");
             } else {
                 neuerNode = new DefaultMutableTreeNode(neuesVerzeichnis);
-                node.add(neuerNode);
+                fuegeKnotenEin(node, neuerNode);
                 // LOG.debug("DEBUG ("+this.hashCode()+"): Verzeichnis "
                 // + neuesVerzeichnis + " wurde erstellt.");
             }
@@ -507,9 +683,11 @@ public class Dateisystem implements Serializable {
 
     public void setRoot(DefaultMutableTreeNode root) {
         this.root = root;
+        verwerfeIndex();
     }
 
     public void fixDirectory(DefaultMutableTreeNode root) {
+        verwerfeIndex();
         if (root.getAllowsChildren()) {
             for (int i = 0; i < root.getChildCount(); i++) {
                 fixDirectory((DefaultMutableTreeNode) root.getChildAt(i));
@@ -133,6 +133,9 @@ public abstract class InternetKnotenBetriebssystem extends SystemSoftware {
      */
     private Ethernet ethernet;
 
+    /** Zaehler fuer Ereignisse in den Protokollen, wird bei jedem Start zurueckgesetzt */
+    private ProtokollStatistik protokollStatistik = new ProtokollStatistik();
+
     /**
      * Konstruktor fuer das Betriebssystem eines Internetknotens. Hier werden
      * <ul>
@@ -231,6 +234,7 @@ public abstract class InternetKnotenBetriebssystem extends SystemSoftware {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (InternetKnotenBetriebssystem), starten()");
 
         dateisystem.fixDirectory(dateisystem.getRoot());
+        protokollStatistik.zuruecksetzen();
 
         // Die Protokoll-Threads der einzelnen Schichten werden
         // beginnend mit der untersten Schicht gestartet.
@@ -306,6 +310,11 @@ public abstract class InternetKnotenBetriebssystem extends SystemSoftware {
         return vermittlung;
     }
 
+    /** Methode fuer den Zugriff auf die Zaehler der Protokolle */
+    public ProtokollStatistik holeProtokollStatistik() {
+        return protokollStatistik;
+    }
+
     /** Methode fuer den Zugriff auf das Ethernet-Protokoll */
     public Ethernet holeEthernet() {
         return ethernet;
@@ -442,11 +451,7 @@ public abstract class InternetKnotenBetriebssystem extends SystemSoftware {
     private boolean checkAppAvailable(String klassenname) {
         boolean available = false;
         try {
-            for (Map<String, String> app : Information.getInformation().ladeProgrammListe()) {
-                if (klassenname.equals(app.get("Klasse"))) {
-                    available = true;
-                }
-            }
+            available = Information.getInformation().holeProgramm(klassenname) != null;
         } catch (Exception e) {
             LOG.debug("list of applications could not be read.", e);
         }
@@ -0,0 +1,148 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.system;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import filius.rahmenprogramm.I18n;
+
+/**
+ * Zaehler fuer Ereignisse in den Protokollen eines Internetknotens, z. B. weitergeleitete oder verworfene Pakete. Die
+ * Zaehler sind {@link LongAdder}, damit die Protokoll-Threads sie ohne gegenseitige Behinderung erhoehen koennen. Sie
+ * werden mit <code>netstat -s</code> im Terminal angezeigt.
+ */
+public class ProtokollStatistik implements I18n {
+
+    /** Die erfassten Ereignisse mit Protokoll und Schluessel fuer die JSON-Ausgabe */
+    public enum Zaehler {
+        IP_EMPFANGEN("ip", "received"),
+        IP_GESENDET("ip", "sent"),
+        IP_WEITERGELEITET("ip", "forwarded"),
+        IP_KEINE_ROUTE("ip", "no_route"),
+        IP_TTL_ABGELAUFEN("ip", "ttl_expired"),
+        ARP_FEHLTREFFER("arp", "cache_misses"),
+        ARP_UNAUFGELOEST("arp", "unresolved"),
+        ICMP_FEHLER_GESENDET("icmp", "errors_sent"),
+        TCP_WIEDERHOLUNGEN("tcp", "retransmissions"),
+        TCP_ZEITUEBERSCHREITUNGEN("tcp", "timeouts"),
+        TCP_KEIN_EMPFAENGER("tcp", "no_listener"),
+        UDP_KEIN_EMPFAENGER("udp", "no_listener");
+
+        private final String protokoll;
+        private final String schluessel;
+
+        private Zaehler(String protokoll, String schluessel) {
+            this.protokoll = protokoll;
+            this.schluessel = schluessel;
+        }
+
+        public String holeProtokoll() {
+            return protokoll;
+        }
+
+        public String holeSchluessel() {
+            return schluessel;
+        }
+    }
+
+    private final LongAdder[] zaehler = new LongAdder[Zaehler.values().length];
+
+    public ProtokollStatistik() {
+        for (int i = 0; i < zaehler.length; i++) {
+            zaehler[i] = new LongAdder();
+        }
+    }
+
+    public void erhoehe(Zaehler art) {
+        zaehler[art.ordinal()].increment();
+    }
+
+    public long holeWert(Zaehler art) {
+        return zaehler[art.ordinal()].sum();
+    }
+
+    public void zuruecksetzen() {
+        for (LongAdder wert : zaehler) {
+            wert.reset();
+        }
+    }
+
+    /** Ausgabe nach Protokollen gruppiert wie bei <code>netstat -s</code> */
+    public String alsText() {
+        StringBuilder text = new StringBuilder();
+        String protokoll = null;
+        for (Zaehler art : Zaehler.values()) {
+            if (!art.holeProtokoll().equals(protokoll)) {
+                protokoll = art.holeProtokoll();
+                text.append(protokoll.toUpperCase()).append(":\n");
+            }
+            text.append(String.format("    %8d %s\n", holeWert(art),
+                    messages.getString("protokollstatistik_" + art.name().toLowerCase())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Maschinenlesbare Ausgabe als JSON-Objekt, z. B.
+     * <code>{"node":"PC 1","ip":{"received":12,...},"arp":{...},...}</code>
+     */
+    public String alsJson(String knotenName) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"node\":\"").append(maskiere(knotenName)).append('"');
+        String protokoll = null;
+        for (Zaehler art : Zaehler.values()) {
+            if (!art.holeProtokoll().equals(protokoll)) {
+                if (protokoll != null) {
+                    json.append('}');
+                }
+                protokoll = art.holeProtokoll();
+                json.append(",\"").append(protokoll).append("\":{");
+            } else {
+                json.append(',');
+            }
+            json.append('"').append(art.holeSchluessel()).append("\":").append(holeWert(art));
+        }
+        json.append("}}");
+        return json.toString();
+    }
+
+    private static String maskiere(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder ergebnis = new StringBuilder(text.length());
+        for (char zeichen : text.toCharArray()) {
+            if (zeichen == '"' || zeichen == '\\') {
+                ergebnis.append('\\').append(zeichen);
+            } else if (zeichen < 0x20) {
+                ergebnis.append(String.format("\\u%04x", (int) zeichen));
+            } else {
+                ergebnis.append(zeichen);
+            }
+        }
+        return ergebnis.toString();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.system;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.dns.DNSServer;
+
+/**
+ * Startet die Systemsoftware aller Knoten beim Wechsel in den Aktionsmodus. Die Knoten werden parallel mit einer
+ * begrenzten Anzahl von Threads gestartet, und zwar in Stufen: zuerst Switches und Modems, dann Vermittlungsrechner
+ * und Rechner mit DHCP- oder DNS-Server und zuletzt alle uebrigen Rechner. Eine Stufe beginnt erst, wenn alle Knoten
+ * der vorherigen Stufe gestartet sind, damit z. B. DHCP-Clients bereits einen laufenden Server vorfinden.
+ */
+public class SystemStart extends Thread {
+    private static Logger LOG = LoggerFactory.getLogger(SystemStart.class);
+
+    /** Beobachter fuer den Fortschritt des Starts */
+    public interface Fortschritt {
+        /** Wird aufgerufen, nachdem ein Knoten gestartet wurde. */
+        void gestartet(SystemSoftware system, int anzahlGestartet, int anzahlGesamt);
+
+        /** Wird aufgerufen, nachdem alle Knoten gestartet wurden oder der Start abgebrochen wurde. */
+        void beendet();
+    }
+
+    static final int STUFE_NETZ = 0;
+    static final int STUFE_DIENSTE = 1;
+    static final int STUFE_ENDSYSTEME = 2;
+
+    private static final int MAX_THREADS = 8;
+
+    private final List<SystemSoftware> systeme;
+    private final Fortschritt fortschritt;
+    private final AtomicInteger anzahlGestartet = new AtomicInteger();
+    private volatile boolean abgebrochen = false;
+
+    public SystemStart(List<SystemSoftware> systeme, Fortschritt fortschritt) {
+        super("SystemStart");
+        this.systeme = new LinkedList<SystemSoftware>(systeme);
+        this.fortschritt = fortschritt;
+    }
+
+    /**
+     * Bestimmt die Stufe, in der eine Systemsoftware gestartet wird.
+     */
+    static int holeStartStufe(SystemSoftware system) {
+        if (!(system instanceof InternetKnotenBetriebssystem)) {
+            return STUFE_NETZ;
+        }
+        InternetKnotenBetriebssystem bs = (InternetKnotenBetriebssystem) system;
+        if (system instanceof VermittlungsrechnerBetriebssystem
+                || (bs.getDHCPServer() != null && bs.getDHCPServer().isAktiv())
+                || bs.holeSoftware(DNSServer.class.getName()) != null) {
+            return STUFE_DIENSTE;
+        }
+        return STUFE_ENDSYSTEME;
+    }
+
+    @Override
+    public void run() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", run()");
+        long beginn = System.currentTimeMillis();
+        int anzahlThreads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(anzahlThreads, new ThreadFactory() {
+            private int nummer = 0;
+
+            public synchronized Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "SystemStart-" + (++nummer));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            for (int stufe = STUFE_NETZ; stufe <= STUFE_ENDSYSTEME && !abgebrochen; stufe++) {
+                List<Future<?>> laufend = new LinkedList<Future<?>>();
+                for (final SystemSoftware system : systeme) {
+                    if (holeStartStufe(system) == stufe) {
+                        laufend.add(executor.submit(new Runnable() {
+                            public void run() {
+                                starteSystem(system);
+                            }
+                        }));
+                    }
+                }
+                for (Future<?> start : laufend) {
+                    try {
+                        start.get();
+                    } catch (ExecutionException e) {
+                        LOG.debug("system software could not be started", e.getCause());
+                    } catch (InterruptedException e) {
+                        abgebrochen = true;
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        LOG.debug("started " + anzahlGestartet.get() + " of " + systeme.size() + " nodes with " + anzahlThreads
+                + " threads in " + (System.currentTimeMillis() - beginn) + " ms");
+        if (fortschritt != null) {
+            fortschritt.beendet();
+        }
+    }
+
+    private void starteSystem(SystemSoftware system) {
+        if (abgebrochen) {
+            return;
+        }
+        long beginn = System.currentTimeMillis();
+        system.starten();
+        long dauer = System.currentTimeMillis() - beginn;
+        String name = system.getKnoten() != null ? system.getKnoten().holeAnzeigeName() : system.toString();
+        LOG.debug("started " + name + " in " + dauer + " ms");
+
+        int anzahl = anzahlGestartet.incrementAndGet();
+        if (fortschritt != null) {
+            fortschritt.gestartet(system, anzahl, systeme.size());
+        }
+    }
+
+    /**
+     * Bricht den Start ab. Noch nicht gestartete Knoten werden nicht mehr gestartet. Die Methode kehrt zurueck, wenn
+     * die bereits laufenden Starts abgeschlossen sind.
+     */
+    public void abbrechen() {
+        abgebrochen = true;
+        try {
+            join();
+        } catch (InterruptedException e) {
+            LOG.debug("", e);
+        }
+    }
+}
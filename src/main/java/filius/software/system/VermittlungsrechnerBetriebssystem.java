@@ -37,8 +37,10 @@ import filius.software.firewall.FirewallRule;
 import filius.software.firewall.FirewallWebKonfig;
 import filius.software.firewall.FirewallWebLog;
 import filius.software.rip.RIPBeacon;
+import filius.software.rip.RIPConvergenceTracker;
 import filius.software.rip.RIPServer;
 import filius.software.rip.RIPTable;
+import filius.software.rip.RIPUtil;
 import filius.software.vermittlungsschicht.VermittlungWeb;
 import filius.software.www.WebServer;
 
@@ -54,6 +56,9 @@ public class VermittlungsrechnerBetriebssystem extends InternetKnotenBetriebssys
 
     private boolean ripEnabled;
 
+    /** wie gelernte Routen auf der Schnittstelle angekuendigt werden, ueber die sie gelernt wurden */
+    private volatile int ripSplitHorizon = RIPTable.SPLIT_HORIZON;
+
     private RIPTable riptable;
     private RIPBeacon ripbeacon;
     private RIPServer ripserver;
@@ -138,6 +143,7 @@ public class VermittlungsrechnerBetriebssystem extends InternetKnotenBetriebssys
         if (ripEnabled) {
             riptable.reset();
             riptable.addLocalRoutes((InternetKnoten) this.getKnoten());
+            RIPConvergenceTracker.getTracker().topologyChanged(RIPUtil.getTime());
             ripserver.starten();
             ripserver.setAktiv(true);
             ripbeacon.starten();
@@ -170,6 +176,17 @@ public class VermittlungsrechnerBetriebssystem extends InternetKnotenBetriebssys
         ripEnabled = state;
     }
 
+    /**
+     * @return RIPTable.SPLIT_HORIZON_OFF, RIPTable.SPLIT_HORIZON oder RIPTable.POISON_REVERSE
+     */
+    public int getRipSplitHorizon() {
+        return ripSplitHorizon;
+    }
+
+    public void setRipSplitHorizon(int ripSplitHorizon) {
+        this.ripSplitHorizon = ripSplitHorizon;
+    }
+
     /**
      * Methode fuer den Zugriff auf die Firewall. Dieser Zugriff ist nicht JavaBean-konform, weil die Speicherung der
      * Firewall als eine Anwendung durch die Oberklasse erfolgt.
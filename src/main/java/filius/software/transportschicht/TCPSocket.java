@@ -36,7 +36,9 @@ import filius.exception.SocketException;
 import filius.exception.TimeOutException;
 import filius.exception.VerbindungsException;
 import filius.hardware.Verbindung;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
 import filius.software.vermittlungsschicht.IpPaket;
 
 /**
@@ -158,7 +160,7 @@ public class TCPSocket extends Socket implements Runnable {
     protected static final int MAX_SENDEVERSUCHE = 3;
 
     /** Maximum Segment Size (MSS) */
-    protected final static int MSS = 1460;
+    public final static int MSS = 1460;
 
     /** Puffer fuer eingegangene Segmente. */
     private LinkedList<TcpSegment> puffer = new LinkedList<>();
@@ -271,7 +273,7 @@ public class TCPSocket extends Socket implements Runnable {
 
         while (zustand != ESTABLISHED && !closeSocket && !stopThread) {
             try {
-                Thread.sleep(100);
+                SimulationsUhr.schlafen(100);
             } catch (InterruptedException e) {}
         }
         if (closeSocket) {
@@ -313,13 +315,13 @@ public class TCPSocket extends Socket implements Runnable {
             synchronized (puffer) {
                 if (puffer.size() < 1) {
                     try {
-                        puffer.wait(defaultTimeout());
+                        SimulationsUhr.warten(puffer, defaultTimeout());
                     } catch (InterruptedException e) {}
                 }
             }
 
             if (puffer.size() >= 1) {
-                sendezeit = System.currentTimeMillis();
+                sendezeit = SimulationsUhr.jetzt();
 
                 TcpSegment segment = (TcpSegment) puffer.removeFirst();
                 if (zustand == LISTEN && segment.isSyn()) {
@@ -344,7 +346,7 @@ public class TCPSocket extends Socket implements Runnable {
                 } else {
                     closeSocket = true;
                 }
-            } else if (System.currentTimeMillis() - sendezeit > defaultTimeout()) {
+            } else if (SimulationsUhr.jetzt() - sendezeit > defaultTimeout()) {
                 timeout = true;
                 closeSocket = true;
             }
@@ -364,7 +366,7 @@ public class TCPSocket extends Socket implements Runnable {
                 synchronized (puffer) {
                     if (puffer.size() < 1) {
                         try {
-                            puffer.wait(defaultTimeout());
+                            SimulationsUhr.warten(puffer, defaultTimeout());
                         } catch (InterruptedException e) {}
                     }
                 }
@@ -396,32 +398,28 @@ public class TCPSocket extends Socket implements Runnable {
 
     /**
      * Diese Methode erstellt die entsprechende Anzahl von Segmenten zur Uebertragung einer Nachricht und gibt diese in
-     * einer Liste zurueck. Das letzte Segment wird mit dem Flag 'Ende' markiert.
+     * einer Liste zurueck. Das letzte Segment wird mit dem Flag 'Ende' markiert, sofern push gesetzt ist.
      * 
      * @author carsten
      * @param daten
      *            - Datenstring, der in den Segmenten als Nutzdaten uebertragen werden soll
+     * @param push
+     *            - ob mit diesen Daten die Nachricht abgeschlossen ist
      * @return - Gibt eine Liste mit den erstellten TcpSegmenten zurueck.
      */
-    protected LinkedList<TcpSegment> erstelleSegmente(String daten) {
+    protected LinkedList<TcpSegment> erstelleSegmente(String daten, boolean push) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (TCPSocket), erstelleSegment(" + daten + ")");
         LinkedList<TcpSegment> segmenteListe;
         int paketeAnzahl;
         TcpSegment segment;
 
-        paketeAnzahl = Math.max(1, (int) Math.ceil((float) daten.length() / (float) MSS));
+        paketeAnzahl = Math.max(1, (daten.length() + MSS - 1) / MSS);
         segmenteListe = new LinkedList<TcpSegment>();
         for (int i = 1; i <= paketeAnzahl; i++) {
             segment = new TcpSegment();
+            segment.setDaten(daten.substring((i - 1) * MSS, Math.min(i * MSS, daten.length())));
 
-            if (daten.length() < MSS) {
-                segment.setDaten(daten);
-            } else {
-                segment.setDaten(daten.substring(0, MSS));
-                daten = daten.substring(MSS);
-            }
-
-            if (i == paketeAnzahl) {
+            if (i == paketeAnzahl && push) {
                 segment.setPush(true);
             }
             segmenteListe.add(segment);
@@ -442,8 +440,24 @@ public class TCPSocket extends Socket implements Runnable {
      * @throws TimeOutException
      *             wenn eine Bestaetigung nicht rechtzeitig eintrifft
      */
-    public synchronized void senden(String nachricht) throws VerbindungsException, TimeOutException {
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (TCPSocket), senden(" + nachricht + ")");
+    public void senden(String nachricht) throws VerbindungsException, TimeOutException {
+        senden(nachricht, true);
+    }
+
+    /**
+     * Versendet einen Teil einer Nachricht. Solange push nicht gesetzt ist, fuegt der Empfaenger die Teile zusammen
+     * und empfangen() kehrt erst nach dem letzten Teil zurueck. So kann eine grosse Nachricht in Bloecken (am besten
+     * Vielfache von MSS) verschickt werden, ohne sie vorher komplett als String zusammenzusetzen.
+     * 
+     * @param nachricht
+     *            der zu versendende Teil
+     * @param push
+     *            ob dies der letzte Teil der Nachricht ist
+     * @see #senden(String)
+     */
+    public synchronized void senden(String nachricht, boolean push) throws VerbindungsException, TimeOutException {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (TCPSocket), senden(" + nachricht + ","
+                + push + ")");
         TcpSegment segment;
         boolean bestaetigt = true;
         long versendeZeitpunkt = Long.MAX_VALUE;
@@ -455,7 +469,7 @@ public class TCPSocket extends Socket implements Runnable {
             throw new VerbindungsException(messages.getString("sw_tcpsocket_msg6"));
         }
 
-        LinkedList<TcpSegment> liste = erstelleSegmente(nachricht);
+        LinkedList<TcpSegment> liste = erstelleSegmente(nachricht, push);
 
         // Die erstellten Segmente werden verschickt
         // und auf die Bestaetigung gewartet, bevor das
@@ -480,7 +494,10 @@ public class TCPSocket extends Socket implements Runnable {
                 }
 
                 sendeSegment(segment, i > 0);
-                versendeZeitpunkt = System.currentTimeMillis();
+                if (i > 0) {
+                    holeStatistik().erhoehe(ProtokollStatistik.Zaehler.TCP_WIEDERHOLUNGEN);
+                }
+                versendeZeitpunkt = SimulationsUhr.jetzt();
 
                 // In dieser Schleife werden alle eingehenden
                 // Segmente geprueft, ob sie das ACK-Segment und
@@ -491,7 +508,7 @@ public class TCPSocket extends Socket implements Runnable {
                     synchronized (puffer) {
                         if (puffer.size() < 1) {
                             try {
-                                puffer.wait(defaultTimeout());
+                                SimulationsUhr.warten(puffer, defaultTimeout());
                             } catch (InterruptedException e) {
                                 LOG.debug("", e);
                             }
@@ -504,13 +521,14 @@ public class TCPSocket extends Socket implements Runnable {
                             }
                         }
                     }
-                    rtt = System.currentTimeMillis() - versendeZeitpunkt;
+                    rtt = SimulationsUhr.jetzt() - versendeZeitpunkt;
                 } while (!bestaetigt && (rtt < defaultTimeout()) && zustand == ESTABLISHED && !closeSocket
                         && !stopThread);
             }
             if (!bestaetigt && zustand != CLOSED && !stopThread) {
                 LOG.debug("[port={}] message '{}' could not be transferred. socket will be closed.", lokalerPort,
                         nachricht);
+                holeStatistik().erhoehe(ProtokollStatistik.Zaehler.TCP_ZEITUEBERSCHREITUNGEN);
                 schliessen();
                 throw new TimeOutException(messages.getString("sw_tcpsocket_msg8"));
             }
@@ -534,6 +552,10 @@ public class TCPSocket extends Socket implements Runnable {
         return empfangen(0);
     }
 
+    private ProtokollStatistik holeStatistik() {
+        return ((InternetKnotenBetriebssystem) protokoll.holeSystemSoftware()).holeProtokollStatistik();
+    }
+
     protected int defaultTimeout() {
         return MAX_SENDEVERSUCHE * Verbindung.holeRTT();
     }
@@ -558,15 +580,19 @@ public class TCPSocket extends Socket implements Runnable {
             throw new VerbindungsException(messages.getString("sw_tcpsocket_msg9"));
         }
 
-        long startTime = System.currentTimeMillis();
+        long startTime = SimulationsUhr.jetzt();
         synchronized (receivedPayload) {
             if (receivedPayload.size() < 1) {
                 try {
-                    receivedPayload.wait(timeoutMillis);
+                    if (timeoutMillis > 0) {
+                        SimulationsUhr.warten(receivedPayload, timeoutMillis);
+                    } else {
+                        SimulationsUhr.wartenUnbegrenzt(receivedPayload);
+                    }
                 } catch (InterruptedException e) {}
             }
         }
-        long stopTime = System.currentTimeMillis();
+        long stopTime = SimulationsUhr.jetzt();
         String data = null;
         if (zustand == ESTABLISHED && !receivedPayload.isEmpty()) {
             synchronized (receivedPayload) {
@@ -585,7 +611,7 @@ public class TCPSocket extends Socket implements Runnable {
             synchronized (puffer) {
                 if (puffer.size() < 1) {
                     try {
-                        puffer.wait(Verbindung.holeRTT());
+                        SimulationsUhr.warten(puffer, Verbindung.holeRTT());
                     } catch (InterruptedException e) {}
                 } else {
                     segment = (TcpSegment) puffer.getFirst();
@@ -701,7 +727,7 @@ public class TCPSocket extends Socket implements Runnable {
                 synchronized (puffer) {
                     if (puffer.size() < 1) {
                         try {
-                            puffer.wait(defaultTimeout());
+                            SimulationsUhr.warten(puffer, defaultTimeout());
                         } catch (InterruptedException e) {}
                     }
                     if (zustand == TIME_WAIT) {
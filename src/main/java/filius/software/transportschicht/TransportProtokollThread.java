@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import filius.exception.SocketException;
 import filius.software.ProtokollThread;
 import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
 import filius.software.vermittlungsschicht.IpPaket;
 
 public class TransportProtokollThread extends ProtokollThread<IpPaket> {
@@ -55,6 +56,9 @@ public class TransportProtokollThread extends ProtokollThread<IpPaket> {
             SocketSchnittstelle socket = protokoll.holeSocket(segment.getZielPort());
             socket.hinzufuegen(paket.getSender(), segment.getQuellPort(), segment);
         } catch (SocketException e) {
+            ((InternetKnotenBetriebssystem) protokoll.holeSystemSoftware()).holeProtokollStatistik()
+                    .erhoehe(protokoll.holeTyp() == IpPaket.TCP ? ProtokollStatistik.Zaehler.TCP_KEIN_EMPFAENGER
+                            : ProtokollStatistik.Zaehler.UDP_KEIN_EMPFAENGER);
             if (!paket.getEmpfaenger().equals("255.255.255.255") && !paket.getEmpfaenger().equals("0.0.0.0"))
                 LOG.debug("", e);
         }
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import filius.exception.SocketException;
 import filius.exception.VerbindungsException;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.system.InternetKnotenBetriebssystem;
 import filius.software.vermittlungsschicht.IpPaket;
 
@@ -132,7 +133,11 @@ public class UDPSocket extends Socket {
         synchronized (puffer) {
             if (puffer.size() < 1) {
                 try {
-                    puffer.wait(millis);
+                    if (millis > 0) {
+                        SimulationsUhr.warten(puffer, millis);
+                    } else {
+                        SimulationsUhr.wartenUnbegrenzt(puffer);
+                    }
                 } catch (InterruptedException e) {
                     LOG.debug("UDP socket interrupted");
                 }
@@ -224,7 +229,7 @@ public class UDPSocket extends Socket {
                 synchronized (puffer) {
                     while (puffer.size() <= 0 && !stopListening) {
                         try {
-                            puffer.wait(100);
+                            SimulationsUhr.warten(puffer, 100);
                         } catch (InterruptedException e) {}
                     }
                 }
@@ -35,8 +35,10 @@ import org.slf4j.LoggerFactory;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.Verbindung;
 import filius.hardware.knoten.InternetKnoten;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
 import filius.software.system.SystemSoftware;
 
 /**
@@ -98,7 +100,7 @@ public class ARP extends VermittlungsProtokoll {
     public void hinzuARPTabellenEintrag(String ipAdresse, String macAdresse) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ARP), hinzuARPTabellenEintrag(" + ipAdresse
                 + "," + macAdresse + ")");
-        String tmpTime = "" + System.currentTimeMillis();
+        String tmpTime = "" + SimulationsUhr.jetzt();
         String[] tmpString = { macAdresse, tmpTime };
 
         synchronized (arpTabelle) {
@@ -166,13 +168,14 @@ public class ARP extends VermittlungsProtokoll {
         if (arpEntry != null) {
             return ((String[]) arpEntry)[0];
         } else {
+            erhoeheZaehler(ProtokollStatistik.Zaehler.ARP_FEHLTREFFER);
             // ARP-Broadcast und warte auf Antwort
             for (int i = 0; arpEntry == null && i < maxRetries; i++) {
                 LOG.debug("Send ARP query for " + (i + 1) + ". time.");
                 sendeARPBroadcast(zielIp);
                 synchronized (arpTabelle) {
                     try {
-                        arpTabelle.wait(Verbindung.holeRTT());
+                        SimulationsUhr.warten(arpTabelle, Verbindung.holeRTT());
                     } catch (InterruptedException e) {
                         LOG.debug("EXCEPTION (" + this.hashCode() + "): keine Anwort auf ARP-Broadcast fuer IP-Adresse "
                                 + zielIp + " eingegangen!", e);
@@ -188,9 +191,16 @@ public class ARP extends VermittlungsProtokoll {
         }
 
         LOG.debug("ERROR (" + this.hashCode() + "): kein ARP-Tabellen-Eintrag fuer " + zielIp);
+        erhoeheZaehler(ProtokollStatistik.Zaehler.ARP_UNAUFGELOEST);
         return null;
     }
 
+    private void erhoeheZaehler(ProtokollStatistik.Zaehler art) {
+        if (holeSystemSoftware() instanceof InternetKnotenBetriebssystem) {
+            ((InternetKnotenBetriebssystem) holeSystemSoftware()).holeProtokollStatistik().erhoehe(art);
+        }
+    }
+
     /** Hilfsmethode zum Versenden einer ARP-Anfrage */
     private void sendeARPBroadcast(String suchIp) {
         NetzwerkInterface nic = getBroadcastNic(suchIp);
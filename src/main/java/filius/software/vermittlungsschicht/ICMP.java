@@ -39,6 +39,7 @@ import filius.hardware.knoten.InternetKnoten;
 import filius.rahmenprogramm.I18n;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
 import filius.software.system.SystemSoftware;
 
 /**
@@ -112,6 +113,10 @@ public class ICMP extends VermittlungsProtokoll implements I18n {
     }
 
     private void sendeICMP(int typ, int code, int ttl, int seqNr, String quellIP, String zielIP) {
+        if (typ == TYPE_DESTINATION_UNREACHABLE || typ == TYPE_TIME_EXCEEDED) {
+            ((InternetKnotenBetriebssystem) holeSystemSoftware()).holeProtokollStatistik()
+                    .erhoehe(ProtokollStatistik.Zaehler.ICMP_FEHLER_GESENDET);
+        }
         IcmpPaket icmpPaket = new IcmpPaket();
         icmpPaket.setEmpfaenger(zielIP);
         icmpPaket.setIcmpType(typ);
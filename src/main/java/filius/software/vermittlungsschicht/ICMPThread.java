@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import filius.hardware.Verbindung;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.ProtokollThread;
 import filius.software.system.InternetKnotenBetriebssystem;
 
@@ -88,7 +89,7 @@ public class ICMPThread extends ProtokollThread<IcmpPaket> {
         IcmpPaket response = null;
         synchronized (rcvdPackets) {
             try {
-                rcvdPackets.wait(Verbindung.holeRTT());
+                SimulationsUhr.warten(rcvdPackets, Verbindung.holeRTT());
             } catch (InterruptedException e) {}
 
             if (rcvdPackets.size() > 0) {
@@ -42,6 +42,8 @@ import filius.hardware.knoten.InternetKnoten;
 import filius.rahmenprogramm.I18n;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
+import filius.software.system.ProtokollStatistik.Zaehler;
 import filius.software.transportschicht.Segment;
 import filius.software.transportschicht.TcpSegment;
 import filius.software.transportschicht.UdpSegment;
@@ -179,6 +181,7 @@ public class IP extends VermittlungsProtokoll implements I18n {
     void benachrichtigeTransportschicht(IpPaket paket) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (IP), benachrichtigeTransportschicht("
                 + paket.toString() + ")");
+        holeStatistik().erhoehe(Zaehler.IP_EMPFANGEN);
         if (paket.getSegment() instanceof TcpSegment) {
             synchronized (ipPaketListeTCP) {
                 ipPaketListeTCP.add(paket);
@@ -255,19 +258,24 @@ public class IP extends VermittlungsProtokoll implements I18n {
             // Paket ist an diesen Rechner gerichtet
             paket.setSender(LOCALHOST);
             benachrichtigeTransportschicht(paket);
+            holeStatistik().erhoehe(Zaehler.IP_GESENDET);
         } else if (zielIp.equals("255.255.255.255")) {
             if (quellIp == null) {
                 quellIp = ((InternetKnotenBetriebssystem) holeSystemSoftware()).primaryIPAdresse();
             }
             paket.setSender(quellIp);
             sendeBroadcast(paket);
+            holeStatistik().erhoehe(Zaehler.IP_GESENDET);
         } else {
             try {
                 InternetKnotenBetriebssystem bs = (InternetKnotenBetriebssystem) holeSystemSoftware();
                 Route route = bs.determineRoute(paket.getEmpfaenger());
                 paket.setSender(route.getInterfaceIpAddress());
                 sendeUnicast(paket, route);
-            } catch (RouteNotFoundException e) {}
+                holeStatistik().erhoehe(Zaehler.IP_GESENDET);
+            } catch (RouteNotFoundException e) {
+                holeStatistik().erhoehe(Zaehler.IP_KEINE_ROUTE);
+            }
         }
     }
 
@@ -283,6 +291,7 @@ public class IP extends VermittlungsProtokoll implements I18n {
         InternetKnotenBetriebssystem bs = (InternetKnotenBetriebssystem) holeSystemSoftware();
 
         if (paket.getTtl() <= 0) {
+            bs.holeProtokollStatistik().erhoehe(Zaehler.IP_TTL_ABGELAUFEN);
             bs.holeICMP().sendeICMP(ICMP.TYPE_TIME_EXCEEDED, ICMP.CODE_TTL_EXPIRED, paket.getSender());
         } else {
             try {
@@ -290,7 +299,9 @@ public class IP extends VermittlungsProtokoll implements I18n {
                 IpPaket packetClone = paket.clone();
                 packetClone.decrementTtl();
                 sendeUnicast(packetClone, route);
+                bs.holeProtokollStatistik().erhoehe(Zaehler.IP_WEITERGELEITET);
             } catch (RouteNotFoundException e) {
+                bs.holeProtokollStatistik().erhoehe(Zaehler.IP_KEINE_ROUTE);
                 bs.holeICMP().sendeICMP(ICMP.TYPE_DESTINATION_UNREACHABLE, ICMP.CODE_DEST_NETWORK_UNREACHABLE,
                         paket.getSender());
                 bs.benachrichtigeBeobacher(messages.getString("sw_ip_msg4") + " \"" + bs.getKnoten().getName() + "\"!\n"
@@ -317,6 +328,10 @@ public class IP extends VermittlungsProtokoll implements I18n {
         return null;
     }
 
+    private ProtokollStatistik holeStatistik() {
+        return ((InternetKnotenBetriebssystem) holeSystemSoftware()).holeProtokollStatistik();
+    }
+
     /**
      * Hier wird der Thread zur Ueberwachung des Puffers fuer eingehende IP-Pakete der Netzzugangsschicht
      */
@@ -29,6 +29,7 @@ import java.io.IOException;
 
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
+import filius.software.rip.RIPConvergenceTracker;
 import filius.software.rip.RIPRoute;
 import filius.software.rip.RIPTable;
 import filius.software.rip.RIPUtil;
@@ -112,10 +113,12 @@ public class VermittlungWeb extends WebServerPlugIn implements I18n {
 
     private String createRoutingTablePage(RIPTable table) {
         StringBuffer routingEntries = new StringBuffer();
+        long lastChange;
         synchronized (table) {
             for (RIPRoute route : table.routes) {
                 routingEntries.append(routeToHtml(route));
             }
+            lastChange = table.getLastChange();
         }
 
         String html = null;
@@ -123,7 +126,8 @@ public class VermittlungWeb extends WebServerPlugIn implements I18n {
             html = textDateiEinlesen("tmpl/routing_" + Information.getInformation().getLocaleOrDefault() + ".html");
             html = html.replaceAll(":title:", messages.getString("sw_vermittlungweb_msg6"));
             html = html.replaceAll(":routing_entries:", routingEntries.toString());
-            html = html.replaceAll(":hint:", messages.getString("sw_vermittlungweb_msg1"));
+            html = html.replaceAll(":hint:", messages.getString("sw_vermittlungweb_msg1") + "<br />"
+                    + convergenceToHtml(lastChange));
         } catch (IOException e) {
             System.err.println("routing table template could not be read.");
             e.printStackTrace();
@@ -131,6 +135,18 @@ public class VermittlungWeb extends WebServerPlugIn implements I18n {
         return html;
     }
 
+    private String convergenceToHtml(long lastChange) {
+        long now = RIPUtil.getTime();
+        String html = String.format(messages.getString("sw_vermittlungweb_msg7"), (now - lastChange) / 1000);
+        long convergenceTime = RIPConvergenceTracker.getTracker().getConvergenceTime(now);
+        if (convergenceTime >= 0) {
+            html += " " + String.format(messages.getString("sw_vermittlungweb_msg8"), convergenceTime);
+        } else {
+            html += " " + messages.getString("sw_vermittlungweb_msg9");
+        }
+        return html;
+    }
+
     private String routeToHtml(RIPRoute route) {
         String html = "";
 
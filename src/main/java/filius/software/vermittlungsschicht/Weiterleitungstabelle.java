@@ -33,7 +33,6 @@ import org.slf4j.LoggerFactory;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
 import filius.rahmenprogramm.I18n;
-import filius.software.rip.RIPRoute;
 import filius.software.rip.RIPTable;
 import filius.software.system.InternetKnotenBetriebssystem;
 
@@ -307,21 +306,7 @@ public class Weiterleitungstabelle implements I18n {
         RIPTable table = firmware.getRIPTable();
         Route bestRoute = null;
         synchronized (table) {
-            int bestHops = RIPTable.INFINITY - 1;
-            long bestMask = -1;
-
-            for (RIPRoute route : table.routes) {
-                if (route.getNetAddress().equals(berechneNetzkennung(ip, route.getNetMask()))) {
-                    if (bestHops < route.hops) {
-                        continue;
-                    }
-                    if (bestHops > route.hops || bestMask < IP.inetAton(route.getNetMask())) {
-                        bestRoute = route;
-                        bestHops = route.hops;
-                        bestMask = IP.inetAton(route.getNetMask());
-                    }
-                }
-            }
+            bestRoute = table.lookup(IP.inetAton(ip));
         }
         if (bestRoute != null) {
             return bestRoute;
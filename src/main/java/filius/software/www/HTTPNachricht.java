@@ -48,6 +48,8 @@ public class HTTPNachricht implements I18n {
     public static final String IMAGE_JPG = "image/jpg";
     public static final String TEXT_PLAIN = "text/plain";
 
+    public static final String CONNECTION_KEEP_ALIVE = "keep-alive", CONNECTION_CLOSE = "close";
+
     private String contentType = null;
 
     private String host = null;
@@ -64,6 +66,24 @@ public class HTTPNachricht implements I18n {
 
     private String pfad = null;
 
+    /** Kennung einer Ressourcenversion (Header ETag einer Server-Nachricht) */
+    private String eTag = null;
+
+    /** Bekannte Ressourcenversion des Clients (Header If-None-Match fuer bedingtes GET) */
+    private String ifNoneMatch = null;
+
+    /** Ob die TCP-Verbindung nach der Nachricht offen bleiben soll (Header Connection) */
+    private String connection = null;
+
+    /** Angeforderter Ausschnitt der Ressource (Header Range einer Client-Nachricht, z. B. bytes=0-99) */
+    private String range = null;
+
+    /** Gelieferter Ausschnitt der Ressource (Header Content-Range einer Server-Nachricht, z. B. bytes 0-99/1000) */
+    private String contentRange = null;
+
+    /** Base64-kodierte MD5-Pruefsumme der gelieferten Daten (Header Content-MD5 einer Server-Nachricht) */
+    private String contentMD5 = null;
+
     /**
      * Zur Erzeugung einer neuen HTTP-Nachricht. Unterschieden werden Server- und Client-Nachrichten. Danach richtet
      * sich, welche Attribute des Kopfteils (Header) verwendet werden.
@@ -126,6 +146,12 @@ public class HTTPNachricht implements I18n {
                             token = tokenizer.nextToken().trim();
                             if (token.equalsIgnoreCase("host:")) {
                                 host = tokenizer.nextToken().trim();
+                            } else if (token.equalsIgnoreCase("if-none-match:")) {
+                                ifNoneMatch = tokenizer.nextToken().trim();
+                            } else if (token.equalsIgnoreCase("connection:")) {
+                                connection = tokenizer.nextToken().trim();
+                            } else if (token.equalsIgnoreCase("range:")) {
+                                range = tokenizer.nextToken().trim();
                             }
                         }
                     }
@@ -138,14 +164,13 @@ public class HTTPNachricht implements I18n {
                     statusCode = Integer.parseInt(token);
                     // LOG.debug("Status-Code: " + statusCode);
 
+                    int kopfLaenge = zeilen[0].length() + 1;
                     for (int i = 1; i < zeilen.length; i++) {
+                        kopfLaenge += zeilen[i].length() + 1;
                         if (zeilen[i].equals("")) {
-                            daten = new StringBuffer();
-                            for (int j = i + 1; j < zeilen.length; j++) {
-                                daten.append(zeilen[j]);
-                                if (j < zeilen.length - 1)
-                                    daten.append("\n");
-                            }
+                            // der Rumpf wird direkt aus der Nachricht entnommen, damit abschliessende
+                            // Zeilenumbrueche (die split() verwirft) erhalten bleiben
+                            daten = new StringBuffer(nachricht.substring(Math.min(kopfLaenge, nachricht.length())));
                             i = zeilen.length;
                             // LOG.debug("Daten: " + daten.toString());
                         } else {
@@ -153,6 +178,14 @@ public class HTTPNachricht implements I18n {
                             token = tokenizer.nextToken().trim();
                             if (token.equalsIgnoreCase("content-type:")) {
                                 contentType = tokenizer.nextToken().trim();
+                            } else if (token.equalsIgnoreCase("etag:")) {
+                                eTag = tokenizer.nextToken().trim();
+                            } else if (token.equalsIgnoreCase("connection:")) {
+                                connection = tokenizer.nextToken().trim();
+                            } else if (token.equalsIgnoreCase("content-range:")) {
+                                contentRange = zeilen[i].substring(zeilen[i].indexOf(':') + 1).trim();
+                            } else if (token.equalsIgnoreCase("content-md5:")) {
+                                contentMD5 = tokenizer.nextToken().trim();
                             }
                         }
                     }
@@ -169,6 +202,15 @@ public class HTTPNachricht implements I18n {
             if (host != null) {
                 buffer.append("Host: " + host + "\n");
             }
+            if (ifNoneMatch != null) {
+                buffer.append("If-None-Match: " + ifNoneMatch + "\n");
+            }
+            if (connection != null) {
+                buffer.append("Connection: " + connection + "\n");
+            }
+            if (range != null) {
+                buffer.append("Range: " + range + "\n");
+            }
 
             if (method.equals(POST) && daten != null) {
                 buffer.append("\n" + daten);
@@ -179,6 +221,18 @@ public class HTTPNachricht implements I18n {
                 buffer.append("Content-type: " + contentType + "\n");
 
             }
+            if (eTag != null) {
+                buffer.append("ETag: " + eTag + "\n");
+            }
+            if (connection != null) {
+                buffer.append("Connection: " + connection + "\n");
+            }
+            if (contentRange != null) {
+                buffer.append("Content-Range: " + contentRange + "\n");
+            }
+            if (contentMD5 != null) {
+                buffer.append("Content-MD5: " + contentMD5 + "\n");
+            }
             if (daten != null) {
                 buffer.append("\n" + daten);
             }
@@ -413,6 +467,109 @@ public class HTTPNachricht implements I18n {
         this.statusCode = statusCode;
     }
 
+    /**
+     * @return the ETag identifying the version of the delivered resource
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @param eTag
+     *            the ETag to set
+     */
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
+    /**
+     * @return the ETag of the version of the resource already known by the client
+     */
+    public String getIfNoneMatch() {
+        return ifNoneMatch;
+    }
+
+    /**
+     * @param ifNoneMatch
+     *            the ETag of the version of the resource already known by the client
+     */
+    public void setIfNoneMatch(String ifNoneMatch) {
+        this.ifNoneMatch = ifNoneMatch;
+    }
+
+    /**
+     * @return the value of the connection header, i.e. keep-alive or close
+     */
+    public String getConnection() {
+        return connection;
+    }
+
+    /**
+     * @param connection
+     *            the value of the connection header, i.e. keep-alive or close
+     */
+    public void setConnection(String connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return the requested range of the resource, e.g. bytes=0-99
+     */
+    public String getRange() {
+        return range;
+    }
+
+    /**
+     * @param range
+     *            the requested range of the resource, e.g. bytes=0-99
+     */
+    public void setRange(String range) {
+        this.range = range;
+    }
+
+    /**
+     * @return the delivered range of the resource, e.g. bytes 0-99/1000
+     */
+    public String getContentRange() {
+        return contentRange;
+    }
+
+    /**
+     * @param contentRange
+     *            the delivered range of the resource, e.g. bytes 0-99/1000
+     */
+    public void setContentRange(String contentRange) {
+        this.contentRange = contentRange;
+    }
+
+    /**
+     * @return the Base64 encoded MD5 checksum of the delivered data
+     */
+    public String getContentMD5() {
+        return contentMD5;
+    }
+
+    /**
+     * @param contentMD5
+     *            the Base64 encoded MD5 checksum of the delivered data
+     */
+    public void setContentMD5(String contentMD5) {
+        this.contentMD5 = contentMD5;
+    }
+
+    /**
+     * Bei HTTP/1.1 bleibt die Verbindung offen, solange nicht mit dem Header 'Connection: close' etwas anderes
+     * vereinbart wird. Bei aelteren Protokollversionen muss 'Connection: keep-alive' angegeben werden.
+     * 
+     * @return ob die Verbindung nach dieser Nachricht weiter genutzt werden kann
+     */
+    public boolean isKeepAlive() {
+        if (CONNECTION_CLOSE.equalsIgnoreCase(connection)) {
+            return false;
+        }
+        return "HTTP/1.1".equalsIgnoreCase(protocolVersion) || CONNECTION_KEEP_ALIVE.equalsIgnoreCase(connection);
+    }
+
     protected static String encodePath(String path) {
         String urlEncodedPath = "";
         try {
@@ -33,7 +33,16 @@ import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.htmlparser.Node;
 import org.htmlparser.Parser;
@@ -42,12 +51,13 @@ import org.htmlparser.visitors.TagFindingVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import filius.exception.VerbindungsException;
+import filius.hardware.Verbindung;
 import filius.rahmenprogramm.Base64;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
 import filius.rahmenprogramm.ResourceUtil;
-import filius.software.clientserver.ClientAnwendung;
+import filius.rahmenprogramm.SimulationsUhr;
+import filius.software.Anwendung;
 import filius.software.transportschicht.TCPSocket;
 
 /**
@@ -63,15 +73,46 @@ import filius.software.transportschicht.TCPSocket;
  * Beobachter als HTTPNachricht weitergegeben.
  * 
  */
-public class WebBrowser extends ClientAnwendung implements I18n {
+public class WebBrowser extends Anwendung implements I18n {
     private static Logger LOG = LoggerFactory.getLogger(WebBrowser.class);
 
     private static final int ABRUF_HTML = 1, ABRUF_IMG = 2;
 
+    /** Maximale Anzahl gleichzeitiger Verbindungen zu einem Host, ueber die eingebettete Bilder abgerufen werden */
+    static final int MAX_VERBINDUNGEN_PRO_HOST = 4;
+
+    /**
+     * Anzahl der RTTs, die eine ungenutzte Verbindung zur Wiederverwendung vorgehalten wird. Der Wert ist kleiner als
+     * beim Webserver, damit nicht eine Verbindung verwendet wird, die der Server gerade schliesst.
+     */
+    static final int KEEP_ALIVE_RTT = WebServerMitarbeiter.KEEP_ALIVE_RTT / 2;
+
     private LinkedList<String> bilddateien = new LinkedList<String>();
 
     private String host;
 
+    /**
+     * Zuletzt abgerufene Ressourcen mit ETag (Schluessel: Host und Pfad). Sie werden bei einem erneuten Abruf mit
+     * bedingtem GET angefragt und bei der Antwort 304 (Not Modified) wiederverwendet.
+     */
+    private Map<String, HTTPNachricht> antwortCache = new ConcurrentHashMap<String, HTTPNachricht>();
+
+    /** Offene Verbindungen (HTTP keep-alive), die fuer weitere Anfragen an einen Host genutzt werden koennen. */
+    private Map<String, LinkedList<FreieVerbindung>> freieVerbindungen = new HashMap<String, LinkedList<FreieVerbindung>>();
+
+    /** Threads, mit denen eingebettete Bilder parallel abgerufen werden; laeuft nur im Aktionsmodus */
+    private ExecutorService bildAbruf;
+
+    private static class FreieVerbindung {
+        private final TCPSocket socket;
+        private final long freigabeZeitpunkt;
+
+        private FreieVerbindung(TCPSocket socket) {
+            this.socket = socket;
+            this.freigabeZeitpunkt = SimulationsUhr.jetzt();
+        }
+    }
+
     public void holeWebseite(URL url) {
         holeWebseite(url, "");
     }
@@ -80,66 +121,112 @@ public class WebBrowser extends ClientAnwendung implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (WebBrowser), holeWebseite(" + url + "," + post + ")");
 
-        if (socket != null) {
-            ausfuehren("closeConnection", new Object[0]);
-        }
-
         ausfuehren("initConnection", new Object[] { url });
         ausfuehren("retrieveWebpage", new Object[] { url, post });
         ausfuehren("retrieveImages", new Object[0]);
-        ausfuehren("closeConnection", new Object[0]);
     }
 
     void initConnection(URL url) {
         if (url.getHost() != null && !url.getHost().equals("")) {
             host = url.getHost();
         }
-        if (socket == null) {
-            try {
-                socket = new TCPSocket(getSystemSoftware(), host, 80);
-            } catch (VerbindungsException e) {
-                HTTPNachricht fehler = new HTTPNachricht(HTTPNachricht.CLIENT);
-                fehler.setDaten(erzeugeHtmlFehlermeldung(0));
-                benachrichtigeBeobachter(fehler);
+    }
+
+    void retrieveWebpage(URL url, String post) {
+        HTTPNachricht nachricht = createRequest(url, post);
+        HTTPNachricht response = sendeAnfrage(host, nachricht);
+        if (response == null) {
+            response = new HTTPNachricht(HTTPNachricht.CLIENT);
+            response.setDaten(erzeugeHtmlFehlermeldung(0));
+        } else if (response.getStatusCode() != 200) {
+            response.setDaten(erzeugeHtmlFehlermeldung(response.getStatusCode()));
+        } else {
+            String contentType = response.getContentType();
+            if (HTTPNachricht.TEXT_HTML.equalsIgnoreCase(contentType) && response.getDaten() != null) {
+                extractImagesReferences(response.getDaten(), response.getHost());
             }
         }
-        if (socket != null && !socket.istVerbunden()) {
+        benachrichtigeBeobachter(response);
+    }
+
+    /**
+     * Versendet eine Anfrage ueber eine offene Verbindung zum Host oder baut dazu eine neue Verbindung auf. Wenn eine
+     * wiederverwendete Verbindung inzwischen vom Server geschlossen wurde, wird die Anfrage einmal ueber eine neue
+     * Verbindung wiederholt. Nach Erhalt der Antwort wird die Verbindung fuer weitere Anfragen vorgehalten.
+     * 
+     * @return die Antwort des Servers oder null, wenn keine Antwort empfangen wurde
+     */
+    private HTTPNachricht sendeAnfrage(String zielHost, HTTPNachricht anfrage) {
+        TCPSocket verbindung = holeFreieVerbindung(zielHost);
+        boolean wiederverwendet = verbindung != null;
+        while (true) {
             try {
-                socket.verbinden();
+                if (verbindung == null) {
+                    verbindung = new TCPSocket(getSystemSoftware(), zielHost, 80);
+                    verbindung.verbinden();
+                }
+                verbindung.senden(anfrage.toString());
+                String responseData = verbindung.empfangen();
+                if (responseData != null) {
+                    HTTPNachricht response = verarbeiteAntwort(anfrage, responseData);
+                    if (response.isKeepAlive() && anfrage.isKeepAlive()) {
+                        freigebenVerbindung(zielHost, verbindung);
+                    } else {
+                        verbindung.schliessen();
+                    }
+                    return response;
+                }
             } catch (Exception e) {
-                HTTPNachricht fehler = new HTTPNachricht(HTTPNachricht.CLIENT);
-                fehler.setDaten(erzeugeHtmlFehlermeldung(0));
-                benachrichtigeBeobachter(fehler);
+                LOG.debug("Error while sending http request.", e);
+            }
+            if (verbindung != null) {
+                verbindung.schliessen();
+                verbindung = null;
+            }
+            if (!wiederverwendet) {
+                return null;
             }
+            wiederverwendet = false;
         }
     }
 
-    void retrieveWebpage(URL url, String post) {
-        HTTPNachricht nachricht = createRequest(url, post);
-        if (socket != null && socket.istVerbunden()) {
-            try {
-                socket.senden(nachricht.toString());
+    private TCPSocket holeFreieVerbindung(String zielHost) {
+        synchronized (freieVerbindungen) {
+            LinkedList<FreieVerbindung> verbindungen = freieVerbindungen.get(zielHost);
+            while (verbindungen != null && !verbindungen.isEmpty()) {
+                FreieVerbindung freieVerbindung = verbindungen.removeLast();
+                if (freieVerbindung.socket.istVerbunden() && SimulationsUhr.jetzt()
+                        - freieVerbindung.freigabeZeitpunkt < KEEP_ALIVE_RTT * Verbindung.holeRTT()) {
+                    return freieVerbindung.socket;
+                }
+                freieVerbindung.socket.schliessen();
+            }
+        }
+        return null;
+    }
 
-                String responseData = socket.empfangen();
-                if (responseData == null) {
-                    HTTPNachricht response = new HTTPNachricht(HTTPNachricht.CLIENT);
-                    response.setDaten(erzeugeHtmlFehlermeldung(0));
-                    benachrichtigeBeobachter(response);
-                } else {
-                    HTTPNachricht response = new HTTPNachricht(responseData);
-                    if (response.getStatusCode() != 200) {
-                        response.setDaten(erzeugeHtmlFehlermeldung(response.getStatusCode()));
-                    } else {
-                        String contentType = response.getContentType();
-                        if (HTTPNachricht.TEXT_HTML.equalsIgnoreCase(contentType) && response.getDaten() != null) {
-                            extractImagesReferences(response.getDaten(), response.getHost());
-                        }
-                    }
-                    benachrichtigeBeobachter(response);
+    private void freigebenVerbindung(String zielHost, TCPSocket verbindung) {
+        synchronized (freieVerbindungen) {
+            LinkedList<FreieVerbindung> verbindungen = freieVerbindungen.get(zielHost);
+            if (verbindungen == null) {
+                verbindungen = new LinkedList<FreieVerbindung>();
+                freieVerbindungen.put(zielHost, verbindungen);
+            }
+            verbindungen.addLast(new FreieVerbindung(verbindung));
+            while (verbindungen.size() > MAX_VERBINDUNGEN_PRO_HOST) {
+                verbindungen.removeFirst().socket.schliessen();
+            }
+        }
+    }
+
+    private void schliesseVerbindungen() {
+        synchronized (freieVerbindungen) {
+            for (LinkedList<FreieVerbindung> verbindungen : freieVerbindungen.values()) {
+                for (FreieVerbindung freieVerbindung : verbindungen) {
+                    freieVerbindung.socket.beenden();
                 }
-            } catch (Exception e) {
-                LOG.debug("Error while retrieving web page.", e);
             }
+            freieVerbindungen.clear();
         }
     }
 
@@ -150,14 +237,38 @@ public class WebBrowser extends ClientAnwendung implements I18n {
         if (nachricht.getHost() != null && !nachricht.getHost().equals("")) {
             if (post != null && !post.equals("")) {
                 nachricht.setMethod(HTTPNachricht.POST);
+                nachricht.setConnection(HTTPNachricht.CONNECTION_KEEP_ALIVE);
                 nachricht.setDaten(post);
             } else {
                 nachricht.setMethod(HTTPNachricht.GET);
+                nachricht.setConnection(HTTPNachricht.CONNECTION_KEEP_ALIVE);
+                HTTPNachricht bekannteAntwort = antwortCache.get(host + nachricht.getPfad());
+                if (bekannteAntwort != null) {
+                    nachricht.setIfNoneMatch(bekannteAntwort.getETag());
+                }
             }
         }
         return nachricht;
     }
 
+    /**
+     * Rekonstruiert die Antwort des Servers. Bei Status 304 (Not Modified) wird die zwischengespeicherte Antwort
+     * geliefert, neue Antworten mit ETag werden fuer spaetere bedingte Anfragen gespeichert.
+     */
+    private HTTPNachricht verarbeiteAntwort(HTTPNachricht request, String responseData) {
+        HTTPNachricht response = new HTTPNachricht(responseData);
+        String schluessel = request.getHost() + request.getPfad();
+        if (response.getStatusCode() == 304 && antwortCache.containsKey(schluessel)) {
+            response = antwortCache.get(schluessel);
+        } else if (response.getStatusCode() == 200 && response.getETag() != null
+                && HTTPNachricht.GET.equals(request.getMethod())) {
+            antwortCache.put(schluessel, response);
+        } else {
+            antwortCache.remove(schluessel);
+        }
+        return response;
+    }
+
     public String holeHost() {
         return host;
     }
@@ -165,6 +276,28 @@ public class WebBrowser extends ClientAnwendung implements I18n {
     public void starten() {
         super.starten();
         bilddateien = new LinkedList<String>();
+        synchronized (this) {
+            if (bildAbruf == null) {
+                bildAbruf = Executors.newFixedThreadPool(MAX_VERBINDUNGEN_PRO_HOST, new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "WebBrowser-Bildabruf");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+        }
+    }
+
+    public void beenden() {
+        super.beenden();
+        synchronized (this) {
+            if (bildAbruf != null) {
+                bildAbruf.shutdownNow();
+                bildAbruf = null;
+            }
+        }
+        schliesseVerbindungen();
     }
 
     /**
@@ -242,53 +375,63 @@ public class WebBrowser extends ClientAnwendung implements I18n {
     }
 
     /**
-     * Liste der gefundenen IMG SRCs wird iteriert, die einzelnen Bilder werden abgerufen
+     * Die Bilder aus der Liste der gefundenen IMG SRCs werden abgerufen. Dazu werden bis zu MAX_VERBINDUNGEN_PRO_HOST
+     * Verbindungen parallel genutzt.
      */
     void retrieveImages() {
+        LinkedList<String> offeneBilder;
         synchronized (bilddateien) {
-            for (String dateipfad : bilddateien) {
-                try {
-                    HTTPNachricht request = createRequest(new URL("http", host, dateipfad), "");
-                    if (socket != null && socket.istVerbunden()) {
-                        socket.senden(request.toString());
-
-                        String responseData = socket.empfangen();
-                        if (responseData != null) {
-                            HTTPNachricht response = new HTTPNachricht(responseData);
-
-                            if (response.getStatusCode() != 200) {
-                                benachrichtigeBeobachter();
-                            } else {
-                                String contentType = response.getContentType();
-                                if (HTTPNachricht.IMAGE_BMP.equalsIgnoreCase(contentType)
-                                        || HTTPNachricht.IMAGE_GIF.equalsIgnoreCase(contentType)
-                                        || HTTPNachricht.IMAGE_JPG.equalsIgnoreCase(contentType)
-                                        || HTTPNachricht.IMAGE_PNG.equalsIgnoreCase(contentType)) {
-                                    synchronized (bilddateien) {
-                                        if (bilddateien.size() > 0) {
-                                            dateipfad = bilddateien.removeFirst();
-                                            Base64.decodeToFile(response.getDaten(),
-                                                    Information.getInformation().getTempPfad() + dateipfad);
-                                        }
-                                    }
-                                    benachrichtigeBeobachter();
-                                }
-                            }
-                        }
+            offeneBilder = new LinkedList<String>(bilddateien);
+            bilddateien.clear();
+        }
+        final String bildHost = host;
+        List<Future<?>> abrufe = new LinkedList<Future<?>>();
+        synchronized (this) {
+            if (bildAbruf == null) {
+                return;
+            }
+            for (final String dateipfad : offeneBilder) {
+                abrufe.add(bildAbruf.submit(new Runnable() {
+                    public void run() {
+                        retrieveImage(bildHost, dateipfad);
                     }
-                } catch (MalformedURLException e) {
-                    LOG.debug("Could not retrieve image. Invalid URL.", e);
-                } catch (Exception e) {
-                    LOG.debug("Unexpected error while retrieving images via http.", e);
-                }
+                }));
+            }
+        }
+        for (Future<?> abruf : abrufe) {
+            try {
+                abruf.get();
+            } catch (ExecutionException e) {
+                LOG.debug("", e.getCause());
+            } catch (InterruptedException e) {
+                LOG.debug("", e);
+                return;
             }
         }
     }
 
-    void closeConnection() {
-        if (socket != null) {
-            socket.schliessen();
-            socket = null;
+    private void retrieveImage(String bildHost, String dateipfad) {
+        try {
+            HTTPNachricht request = createRequest(new URL("http", bildHost, dateipfad), "");
+            HTTPNachricht response = sendeAnfrage(bildHost, request);
+            if (response != null) {
+                if (response.getStatusCode() != 200) {
+                    benachrichtigeBeobachter();
+                } else {
+                    String contentType = response.getContentType();
+                    if (HTTPNachricht.IMAGE_BMP.equalsIgnoreCase(contentType)
+                            || HTTPNachricht.IMAGE_GIF.equalsIgnoreCase(contentType)
+                            || HTTPNachricht.IMAGE_JPG.equalsIgnoreCase(contentType)
+                            || HTTPNachricht.IMAGE_PNG.equalsIgnoreCase(contentType)) {
+                        Base64.decodeToFile(response.getDaten(), Information.getInformation().getTempPfad() + dateipfad);
+                        benachrichtigeBeobachter();
+                    }
+                }
+            }
+        } catch (MalformedURLException e) {
+            LOG.debug("Could not retrieve image. Invalid URL.", e);
+        } catch (Exception e) {
+            LOG.debug("Unexpected error while retrieving images via http.", e);
         }
     }
 }
@@ -30,7 +30,9 @@ import java.io.FileInputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 
@@ -58,6 +60,12 @@ public class WebServer extends TCPServerAnwendung {
 
     private HashMap<String, WebServerPlugIn> plugins = new HashMap<String, WebServerPlugIn>();
 
+    /**
+     * Zwischenspeicher fuer versandfertige Antworten. Der Schluessel ist der Dateipfad relativ zum Webserver-Verzeichnis
+     * einschliesslich des Verzeichnisses des virtuellen Hosts.
+     */
+    private Map<String, WebServerAntwort> antwortCache = new ConcurrentHashMap<String, WebServerAntwort>();
+
     private String[][] vHostArray = new String[5][2];
     private boolean useVHost;
 
@@ -176,6 +184,43 @@ public class WebServer extends TCPServerAnwendung {
         return tmpDatei;
     }
 
+    /**
+     * liefert die versandfertige Antwort auf eine Anfrage nach einer Datei aus dem Verzeichnisbaum des WebServers. Die
+     * Antwort wird zwischengespeichert, bis sich die Datei aendert.
+     * 
+     * @param relativerPfad
+     *            der Pfad der Datei (einschliesslich des Verzeichnisses fuer einen virtuellen Host)
+     * @param ifNoneMatch
+     *            der Wert des Headers If-None-Match der Anfrage (oder null)
+     * @return die HTTP-Antwort als String oder null, wenn die Datei nicht existiert
+     */
+    String holeAntwort(String relativerPfad, String ifNoneMatch) {
+        Datei datei = dateiLiefern(relativerPfad);
+        WebServerAntwort eintrag = antwortCache.get(relativerPfad);
+        if (datei == null) {
+            if (eintrag != null && antwortCache.remove(relativerPfad, eintrag)) {
+                eintrag.verwerfen();
+            }
+            return null;
+        }
+        if (eintrag == null || !eintrag.istGueltig(datei)) {
+            WebServerAntwort neuerEintrag = new WebServerAntwort(datei);
+            if (eintrag != null) {
+                eintrag.verwerfen();
+            }
+            antwortCache.put(relativerPfad, neuerEintrag);
+            eintrag = neuerEintrag;
+        }
+        return eintrag.holeAntwort(ifNoneMatch);
+    }
+
+    private void leereAntwortCache() {
+        for (WebServerAntwort eintrag : antwortCache.values()) {
+            eintrag.verwerfen();
+        }
+        antwortCache.clear();
+    }
+
     /**
      * sucht nach einem bestimmten PlugIn. Zum Beispiel fuer eine Firewall Bisher installierte PlugIns: /konfig.html &
      * /log.html
@@ -261,6 +306,7 @@ public class WebServer extends TCPServerAnwendung {
     public void starten() {
         LOG.debug("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (WebServer), starten()");
         super.starten();
+        leereAntwortCache();
 
         if (!getSystemSoftware().getDateisystem().dateiVorhanden("www.conf", "vhosts")) {
             getSystemSoftware().getDateisystem().erstelleVerzeichnis("root", "www.conf");
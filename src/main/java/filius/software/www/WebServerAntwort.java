@@ -0,0 +1,112 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.www;
+
+import java.util.Observable;
+import java.util.Observer;
+
+import filius.software.system.Datei;
+
+/**
+ * Versandfertige Antwort des Webservers fuer eine Datei. Kopf und Datenteil werden einmalig erzeugt und bei weiteren
+ * Anfragen unveraendert versendet. Sobald sich die zugrunde liegende Datei aendert, wird der Eintrag ungueltig.
+ */
+class WebServerAntwort implements Observer {
+
+    private final Datei datei;
+
+    private final String eTag;
+
+    private final String antwort;
+
+    private final String nichtGeaendert;
+
+    private volatile boolean gueltig = true;
+
+    WebServerAntwort(Datei datei) {
+        this.datei = datei;
+        String inhalt = datei.getDateiInhalt();
+        eTag = "\"" + Integer.toHexString(inhalt != null ? inhalt.hashCode() : 0) + "-"
+                + (inhalt != null ? inhalt.length() : 0) + "\"";
+
+        HTTPNachricht nachricht = new HTTPNachricht(HTTPNachricht.SERVER);
+        nachricht.setStatusCode(200);
+        nachricht.setContentType(bestimmeContentType(datei.getName()));
+        nachricht.setETag(eTag);
+        nachricht.setDaten(inhalt);
+        antwort = nachricht.toString();
+
+        nachricht = new HTTPNachricht(HTTPNachricht.SERVER);
+        nachricht.setStatusCode(304);
+        nachricht.setETag(eTag);
+        nichtGeaendert = nachricht.toString();
+
+        datei.addObserver(this);
+    }
+
+    static String bestimmeContentType(String dateiname) {
+        String filenameLowerCase = dateiname.toLowerCase();
+        if (filenameLowerCase.endsWith("html") || filenameLowerCase.endsWith("htm")) {
+            return HTTPNachricht.TEXT_HTML;
+        } else if (filenameLowerCase.endsWith("png")) {
+            return HTTPNachricht.IMAGE_PNG;
+        } else if (filenameLowerCase.endsWith("bmp")) {
+            return HTTPNachricht.IMAGE_BMP;
+        } else if (filenameLowerCase.endsWith("gif")) {
+            return HTTPNachricht.IMAGE_GIF;
+        } else if (filenameLowerCase.endsWith("jpg")) {
+            return HTTPNachricht.IMAGE_JPG;
+        } else {
+            return HTTPNachricht.TEXT_PLAIN;
+        }
+    }
+
+    /**
+     * Liefert die versandfertige Antwort. Wenn der Client die aktuelle Version der Datei bereits kennt, wird nur der
+     * Status 304 (Not Modified) ohne Datenteil zurueckgegeben.
+     */
+    String holeAntwort(String ifNoneMatch) {
+        if (eTag.equals(ifNoneMatch)) {
+            return nichtGeaendert;
+        }
+        return antwort;
+    }
+
+    /** Ob die Antwort noch zu der (aktuell unter dem Pfad gespeicherten) Datei passt. */
+    boolean istGueltig(Datei aktuelleDatei) {
+        return gueltig && datei == aktuelleDatei;
+    }
+
+    void verwerfen() {
+        gueltig = false;
+        datei.deleteObserver(this);
+    }
+
+    @Override
+    public void update(Observable o, Object arg) {
+        verwerfen();
+    }
+}
@@ -28,8 +28,8 @@ package filius.software.www;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.hardware.Verbindung;
 import filius.software.clientserver.ServerMitarbeiter;
-import filius.software.system.Datei;
 import filius.software.transportschicht.TCPSocket;
 
 /*
@@ -38,6 +38,11 @@ import filius.software.transportschicht.TCPSocket;
 public class WebServerMitarbeiter extends ServerMitarbeiter {
     private static Logger LOG = LoggerFactory.getLogger(WebServerMitarbeiter.class);
 
+    /**
+     * Anzahl der RTTs, die eine persistente Verbindung ohne weitere Anfrage offen gehalten wird
+     */
+    static final int KEEP_ALIVE_RTT = 10;
+
     /**
      * Konstruktor: setzt den webserver, socket und webkonfig. startet anschließend den Thread
      */
@@ -45,13 +50,12 @@ public class WebServerMitarbeiter extends ServerMitarbeiter {
         super(server, socket);
     }
 
-    private HTTPNachricht verarbeiteAnfrage(HTTPNachricht anfrage) {
+    private String verarbeiteAnfrage(HTTPNachricht anfrage) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (WebServerMitarbeiter), verarbeiteAnfrage(" + anfrage + ")");
         HTTPNachricht antwort;
         WebServerPlugIn plugin;
         String dateipfad;
-        Datei datei;
         String tmp = null;
 
         antwort = new HTTPNachricht(HTTPNachricht.SERVER);
@@ -89,35 +93,19 @@ public class WebServerMitarbeiter extends ServerMitarbeiter {
                 antwort.setStatusCode(500);
             }
         } else {
-            datei = ((WebServer) server).dateiLiefern(dateipfad);
-            if (datei != null) {
-                antwort.setDaten(datei.getDateiInhalt());
-                String filenameLowerCase = datei.getName().toLowerCase();
-                if (filenameLowerCase.endsWith("html") || filenameLowerCase.endsWith("htm")) {
-                    antwort.setContentType(HTTPNachricht.TEXT_HTML);
-                    antwort.setStatusCode(200);
-                } else if (filenameLowerCase.endsWith("png")) {
-                    antwort.setContentType(HTTPNachricht.IMAGE_PNG);
-                    antwort.setStatusCode(200);
-                } else if (filenameLowerCase.endsWith("bmp")) {
-                    antwort.setContentType(HTTPNachricht.IMAGE_BMP);
-                    antwort.setStatusCode(200);
-                } else if (filenameLowerCase.endsWith("gif")) {
-                    antwort.setContentType(HTTPNachricht.IMAGE_GIF);
-                    antwort.setStatusCode(200);
-                } else if (filenameLowerCase.endsWith("jpg")) {
-                    antwort.setContentType(HTTPNachricht.IMAGE_JPG);
-                    antwort.setStatusCode(200);
-                } else {
-                    antwort.setContentType(HTTPNachricht.TEXT_PLAIN);
-                    antwort.setStatusCode(200);
-                }
-            } else {
-                antwort.setStatusCode(404);
+            tmp = ((WebServer) server).holeAntwort(dateipfad, anfrage.getIfNoneMatch());
+            if (tmp != null) {
+                return tmp;
             }
+            antwort.setStatusCode(404);
         }
 
-        return antwort;
+        return antwort.toString();
+    }
+
+    @Override
+    protected long holeEmpfangsTimeout() {
+        return KEEP_ALIVE_RTT * Verbindung.holeRTT();
     }
 
     protected void verarbeiteNachricht(String nachricht) {
@@ -128,13 +116,16 @@ public class WebServerMitarbeiter extends ServerMitarbeiter {
         anfrage = new HTTPNachricht(nachricht);
 
         if (anfrage.getMethod().equals(HTTPNachricht.GET) || anfrage.getMethod().equals(HTTPNachricht.POST)) {
-            antwort = verarbeiteAnfrage(anfrage);
+            sendeNachricht(verarbeiteAnfrage(anfrage));
         } else {
             antwort = new HTTPNachricht(HTTPNachricht.SERVER);
             antwort.setStatusCode(501);
+            sendeNachricht(antwort.toString());
         }
 
-        sendeNachricht(antwort.toString());
+        if (!anfrage.isKeepAlive()) {
+            shutdown(true);
+        }
     }
 
 }
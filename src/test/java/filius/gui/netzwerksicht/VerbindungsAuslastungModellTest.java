@@ -0,0 +1,52 @@
+package filius.gui.netzwerksicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import filius.hardware.Kabel;
+import filius.hardware.Port;
+import filius.hardware.knoten.Knoten;
+import filius.hardware.knoten.Rechner;
+import filius.hardware.knoten.Switch;
+
+public class VerbindungsAuslastungModellTest {
+
+    private GUIKnotenItem erzeugeKnotenItem(Knoten knoten) {
+        GUIKnotenItem item = new GUIKnotenItem();
+        item.setImageLabel(new JSidebarButton());
+        item.setKnoten(knoten);
+        return item;
+    }
+
+    @Test
+    public void testAktualisieren_ZeileJeRichtung() {
+        Rechner rechner = new Rechner();
+        rechner.setName("PC 1");
+        Switch vermittler = new Switch();
+        vermittler.setName("Switch 1");
+        Kabel kabel = new Kabel();
+        kabel.setAnschluesse(new Port[] { rechner.getNetzwerkInterfaces().get(0).getPort(),
+                vermittler.getAnschluesse().get(0) });
+        GUIKabelItem kabelItem = new GUIKabelItem();
+        kabelItem.getKabelpanel().setZiel1(erzeugeKnotenItem(vermittler));
+        kabelItem.getKabelpanel().setZiel2(erzeugeKnotenItem(rechner));
+        kabelItem.setDasKabel(kabel);
+        List<GUIKabelItem> kabelItems = new LinkedList<GUIKabelItem>();
+        kabelItems.add(kabelItem);
+        VerbindungsAuslastungModell modell = new VerbindungsAuslastungModell();
+
+        modell.aktualisieren(kabelItems);
+
+        assertThat(modell.getRowCount(), is(2));
+        assertThat((String) modell.getValueAt(0, VerbindungsAuslastungModell.SPALTE_VERBINDUNG),
+                is("PC 1 → Switch 1"));
+        assertThat((String) modell.getValueAt(1, VerbindungsAuslastungModell.SPALTE_VERBINDUNG),
+                is("Switch 1 → PC 1"));
+        assertThat((Long) modell.getValueAt(0, VerbindungsAuslastungModell.SPALTE_RAHMEN), is(0L));
+    }
+}
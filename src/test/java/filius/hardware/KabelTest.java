@@ -0,0 +1,242 @@
+package filius.hardware;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+
+import org.junit.After;
+import org.junit.Test;
+
+import filius.rahmenprogramm.SimulationsUhr;
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.transportschicht.TcpSegment;
+import filius.software.vermittlungsschicht.ArpPaket;
+import filius.software.vermittlungsschicht.IpPaket;
+
+public class KabelTest {
+
+    private Kabel kabel;
+
+    @After
+    public void tearDown() {
+        if (kabel != null) {
+            kabel.deaktivieren();
+        }
+    }
+
+    @Test
+    public void testKonstruktor_VerbindetAnschluesseOhneUebertragung() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+
+        kabel = new Kabel(port1, port2);
+
+        assertThat(port1.getVerbindung(), sameInstance((Verbindung) kabel));
+        assertThat(port2.getVerbindung(), sameInstance((Verbindung) kabel));
+        assertThat(kabel.findConnectedPort(port1), sameInstance(port2));
+        assertThat(kabel.istAktiviert(), is(false));
+    }
+
+    @Test
+    public void testAktivieren_UebertraegtFrame() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+
+        kabel.aktivieren();
+        EthernetFrame frame = new EthernetFrame("daten", "00:00:00:00:00:01", "00:00:00:00:00:02",
+                EthernetFrame.IP);
+        sende(port1, frame);
+
+        EthernetFrame empfangen = empfange(port2);
+        assertThat(kabel.istAktiviert(), is(true));
+        assertThat(empfangen, notNullValue());
+        assertThat((String) empfangen.getDaten(), is("daten"));
+    }
+
+    @Test
+    public void testAktivieren_ZaehltUebertragung() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+
+        kabel.aktivieren();
+        sende(port1, new EthernetFrame("daten", "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        empfange(port2);
+
+        VerbindungsStatistik statistik = kabel.holeStatistik(0);
+        assertThat(statistik.holeRahmen(), is(1L));
+        assertThat(statistik.holeBytes() > 0, is(true));
+        assertThat(statistik.holeVerworfen(), is(0L));
+        assertThat(statistik.holeMaxWarteschlange(), is(1L));
+        assertThat(statistik.holeBelegtMillis(), is((long) Verbindung.holeVerzoegerung()));
+        assertThat(kabel.holeStatistik(1).holeRahmen(), is(0L));
+        kabel.aktualisiereAuslastung();
+        assertThat(kabel.holeAuslastung() > 0, is(true));
+    }
+
+    @Test
+    public void testDeaktivieren_BehaeltVerbindung() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+        kabel.aktivieren();
+
+        kabel.deaktivieren();
+
+        assertThat(kabel.istAktiviert(), is(false));
+        assertThat(port1.getVerbindung(), sameInstance((Verbindung) kabel));
+        assertThat(port2.getVerbindung(), sameInstance((Verbindung) kabel));
+    }
+
+    @Test
+    public void testAnschluesseTrennen_OhneAktivierung() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+
+        kabel.anschluesseTrennen();
+
+        assertThat(port1.getVerbindung(), is(nullValue()));
+        assertThat(port2.getVerbindung(), is(nullValue()));
+    }
+
+    @Test
+    public void testSetAnschluesse_AktivesKabelBleibtAktiv() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        Port port3 = new Port();
+        kabel = new Kabel(port1, port2);
+        kabel.aktivieren();
+
+        kabel.setAnschluesse(new Port[] { port1, port3 });
+        sende(port3, new EthernetFrame("antwort", "00:00:00:00:00:03", "00:00:00:00:00:01", EthernetFrame.IP));
+
+        assertThat(kabel.istAktiviert(), is(true));
+        assertThat(port3.getVerbindung(), sameInstance((Verbindung) kabel));
+        assertThat((String) empfange(port1).getDaten(), is("antwort"));
+    }
+
+    @Test
+    public void testHoleRahmenGroesse_AbhaengigVomInhalt() throws Exception {
+        TcpSegment segment = new TcpSegment();
+        segment.setDaten(new String(new char[1460]));
+        IpPaket paket = new IpPaket(IpPaket.TCP);
+        paket.setSegment(segment);
+
+        int tcp = SimplexVerbindung.holeRahmenGroesse(
+                new EthernetFrame(paket, "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        int arp = SimplexVerbindung.holeRahmenGroesse(
+                new EthernetFrame(new ArpPaket(), "00:00:00:00:00:01", "FF:FF:FF:FF:FF:FF", EthernetFrame.ARP));
+
+        assertThat(tcp, is(18 + 20 + 20 + 1460));
+        assertThat(arp, is(64));
+    }
+
+    @Test
+    public void testAktivieren_DatenrateBestimmtBelegung() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+        kabel.setDatenrate(64);
+
+        kabel.aktivieren();
+        long gesendet = SimulationsUhr.jetzt();
+        sende(port1, new EthernetFrame("daten", "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        EthernetFrame empfangen = empfange(port2);
+
+        // 64 Byte Mindestgroesse: 512 Bit bei 64 kbit/s = 8 ms; die Verzoegerung belegt die Verbindung nicht
+        VerbindungsStatistik statistik = kabel.holeStatistik(0);
+        assertThat(empfangen, notNullValue());
+        assertThat(statistik.holeBytes(), is(64L));
+        assertThat(statistik.holeBelegtMillis(), is(8L));
+        assertTrue(SimulationsUhr.jetzt() - gesendet >= Verbindung.holeVerzoegerung() + 8);
+    }
+
+    @Test
+    public void testAktivieren_AufeinanderfolgendeRahmenErreichenDatenrate() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+        int datenrate = 1000;
+        kabel.setDatenrate(datenrate);
+        int anzahl = 20;
+        // 1000 Zeichen Nutzdaten und 18 Byte Kopf: 8144 Bit, bei 1000 kbit/s rund 8 ms je Rahmen
+        String daten = new String(new char[1000]);
+
+        kabel.aktivieren();
+        for (int i = 0; i < anzahl; i++) {
+            sende(port1, new EthernetFrame(daten, "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        }
+        assertThat(empfange(port2), notNullValue());
+        long ersterEmpfang = SimulationsUhr.jetzt();
+        for (int i = 1; i < anzahl; i++) {
+            assertThat(empfange(port2), notNullValue());
+        }
+        long letzterEmpfang = SimulationsUhr.jetzt();
+
+        // Ohne Pipeline laege zwischen zwei Rahmen jeweils die volle Verzoegerung (mindestens 50 ms)
+        double bitProMilli = (anzahl - 1) * 8144.0 / (letzterEmpfang - ersterEmpfang);
+        assertTrue("erreicht: " + bitProMilli + " kbit/s", bitProMilli > 0.7 * datenrate);
+        assertTrue("erreicht: " + bitProMilli + " kbit/s", bitProMilli < 1.3 * datenrate);
+    }
+
+    @Test
+    public void testEinreihen_VollerPufferVerwirftRahmen() throws Exception {
+        Port port1 = new Port();
+        Port port2 = new Port();
+        kabel = new Kabel(port1, port2);
+        kabel.setPufferGroesse(1);
+
+        boolean erster = port1.einreihen(
+                new EthernetFrame("eins", "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        boolean zweiter = port1.einreihen(
+                new EthernetFrame("zwei", "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        boolean gegenrichtung = port2.einreihen(
+                new EthernetFrame("drei", "00:00:00:00:00:02", "00:00:00:00:00:01", EthernetFrame.IP));
+
+        assertThat(erster, is(true));
+        assertThat(zweiter, is(false));
+        assertThat(gegenrichtung, is(true));
+        assertThat(port1.holeAusgangsPuffer().size(), is(1));
+        assertThat(kabel.holeStatistik(0).holeVerworfen(), is(1L));
+        assertThat(kabel.holeStatistik(1).holeVerworfen(), is(0L));
+    }
+
+    @Test
+    public void testEinreihen_UnbegrenzterPuffer() throws Exception {
+        Port port1 = new Port();
+        kabel = new Kabel(port1, new Port());
+
+        for (int i = 0; i < 100; i++) {
+            port1.einreihen(new EthernetFrame("daten", "00:00:00:00:00:01", "00:00:00:00:00:02", EthernetFrame.IP));
+        }
+
+        assertThat(port1.holeAusgangsPuffer().size(), is(100));
+        assertThat(kabel.holeStatistik(0).holeVerworfen(), is(0L));
+    }
+
+    private void sende(Port port, EthernetFrame frame) {
+        LinkedList<EthernetFrame> puffer = port.holeAusgangsPuffer();
+        synchronized (puffer) {
+            puffer.add(frame);
+            puffer.notify();
+        }
+    }
+
+    private EthernetFrame empfange(Port port) throws InterruptedException {
+        LinkedList<EthernetFrame> puffer = port.holeEingangsPuffer();
+        long ende = System.currentTimeMillis() + 5000;
+        synchronized (puffer) {
+            while (puffer.isEmpty() && System.currentTimeMillis() < ende) {
+                puffer.wait(100);
+            }
+            return puffer.isEmpty() ? null : puffer.removeFirst();
+        }
+    }
+}
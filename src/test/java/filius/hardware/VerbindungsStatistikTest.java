@@ -0,0 +1,69 @@
+package filius.hardware;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import filius.rahmenprogramm.SimulationsUhr;
+
+public class VerbindungsStatistikTest {
+
+    @Test
+    public void testWarteschlange() {
+        VerbindungsStatistik statistik = new VerbindungsStatistik();
+
+        statistik.rahmenEntnommen(1);
+        statistik.rahmenEntnommen(4);
+        statistik.rahmenEntnommen(1);
+
+        assertThat(statistik.holeMaxWarteschlange(), is(4L));
+        assertThat(statistik.holeMittlereWarteschlange(), is(2.0));
+    }
+
+    @Test
+    public void testUebertragenUndVerworfen() {
+        VerbindungsStatistik statistik = new VerbindungsStatistik();
+
+        statistik.rahmenUebertragen(100, 50);
+        statistik.rahmenUebertragen(20, 50);
+        statistik.rahmenVerworfen(50);
+
+        assertThat(statistik.holeRahmen(), is(2L));
+        assertThat(statistik.holeBytes(), is(120L));
+        assertThat(statistik.holeVerworfen(), is(1L));
+        assertThat(statistik.holeBelegtMillis(), is(150L));
+    }
+
+    @Test
+    public void testAuslastung_JeMessintervall() {
+        VerbindungsStatistik statistik = new VerbindungsStatistik();
+        long jetzt = SimulationsUhr.jetzt();
+
+        statistik.aktualisiereAuslastung(jetzt + 600000);
+        assertThat(statistik.holeAuslastung(), is(0.0));
+
+        statistik.rahmenUebertragen(100, 1000);
+        statistik.aktualisiereAuslastung(jetzt + 601000);
+        assertThat(statistik.holeAuslastung(), is(1.0));
+
+        statistik.rahmenUebertragen(100, 250);
+        statistik.aktualisiereAuslastung(jetzt + 602000);
+        assertThat(statistik.holeAuslastung(), is(0.25));
+    }
+
+    @Test
+    public void testZuruecksetzen() {
+        VerbindungsStatistik statistik = new VerbindungsStatistik();
+        statistik.rahmenEntnommen(3);
+        statistik.rahmenUebertragen(100, 50);
+
+        statistik.zuruecksetzen();
+
+        assertThat(statistik.holeRahmen(), is(0L));
+        assertThat(statistik.holeBytes(), is(0L));
+        assertThat(statistik.holeMaxWarteschlange(), is(0L));
+        assertThat(statistik.holeMittlereWarteschlange(), is(0.0));
+        assertThat(statistik.holeAuslastung(), is(0.0));
+    }
+}
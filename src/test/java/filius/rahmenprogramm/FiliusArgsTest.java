@@ -11,11 +11,16 @@ import java.io.File;
 import java.io.PrintStream;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class FiliusArgsTest {
     FiliusArgs filiusArgs = new FiliusArgs();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testParseCommandLine_showHelp() throws Exception {
         filiusArgs.parseCommandLine(new String[] { "-h" });
@@ -92,8 +97,7 @@ public class FiliusArgsTest {
 
     @Test
     public void testParseCommandLine_ProjectFile() throws Exception {
-        File testFile = new File("test.fls");
-        testFile.createNewFile();
+        File testFile = folder.newFile("test.fls");
 
         filiusArgs.parseCommandLine(new String[] { testFile.getPath() });
 
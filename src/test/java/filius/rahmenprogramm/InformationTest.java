@@ -0,0 +1,122 @@
+package filius.rahmenprogramm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class InformationTest {
+
+    private Information information;
+
+    @Before
+    public void setUp() {
+        information = Information.getInformation();
+        information.setLocale(Locale.GERMANY);
+    }
+
+    @Test
+    public void testLadeProgrammListe_Cached() {
+        List<Map<String, String>> ersteListe = information.ladeProgrammListe();
+        List<Map<String, String>> zweiteListe = information.ladeProgrammListe();
+
+        assertThat(zweiteListe, sameInstance(ersteListe));
+    }
+
+    @Test
+    public void testAktualisiereProgrammListe() {
+        List<Map<String, String>> ersteListe = information.ladeProgrammListe();
+
+        information.aktualisiereProgrammListe();
+
+        assertThat(information.ladeProgrammListe(), not(sameInstance(ersteListe)));
+        assertThat(information.ladeProgrammListe(), is(ersteListe));
+    }
+
+    @Test
+    public void testHoleProgramm() {
+        Map<String, String> programm = information.holeProgramm("filius.software.lokal.Terminal");
+
+        assertThat(programm, notNullValue());
+        assertThat(programm.get("Anwendung"), is("Befehlszeile"));
+    }
+
+    @Test
+    public void testHoleProgramm_Unknown() {
+        assertThat(information.holeProgramm("filius.software.lokal.Unbekannt"), nullValue());
+    }
+
+    @Test
+    public void testHoleFreieMACAdresse_LokalAdministriert() {
+        String mac = information.holeFreieMACAdresse();
+
+        assertThat(mac.matches("02(:[0-9a-f]{2}){5}"), is(true));
+    }
+
+    @Test
+    public void testHoleFreieMACAdresse_Eindeutig() {
+        Set<String> vergeben = new HashSet<String>();
+        for (int i = 0; i < 10000; i++) {
+            String mac = information.holeFreieMACAdresse();
+            information.macHinzufuegen(mac);
+            assertThat(vergeben.add(mac), is(true));
+        }
+        for (String mac : vergeben) {
+            information.macEntfernen(mac);
+        }
+    }
+
+    @Test
+    public void testHoleFreieMACAdresse_UeberspringtVergebeneAdresse() {
+        long erste = alsZahl(information.holeFreieMACAdresse());
+        String belegt = alsMac(erste + 1).toUpperCase();
+        information.macHinzufuegen(belegt);
+
+        String naechste = information.holeFreieMACAdresse();
+
+        assertThat(alsZahl(naechste), is(erste + 2));
+        information.macEntfernen(belegt);
+    }
+
+    @Test
+    public void testZufaelligeMacNummer_ImBereichUndVerschieden() {
+        Set<Long> nummern = new HashSet<Long>();
+        for (int i = 0; i < 100; i++) {
+            long nummer = Information.zufaelligeMacNummer();
+            assertThat(nummer >= 1 && nummer < 0x010000000000L, is(true));
+            nummern.add(nummer);
+        }
+
+        assertThat(nummern.size() > 1, is(true));
+    }
+
+    @Test
+    public void testMacEntfernen() {
+        information.macHinzufuegen("0A:0B:0C:0D:0E:0F");
+        assertThat(information.macVergeben("0a:0b:0c:0d:0e:0f"), is(true));
+
+        information.macEntfernen("0a:0b:0c:0d:0e:0f");
+
+        assertThat(information.macVergeben("0A:0B:0C:0D:0E:0F"), is(false));
+    }
+
+    private long alsZahl(String mac) {
+        return Long.parseLong(mac.replace(":", ""), 16);
+    }
+
+    private String alsMac(long wert) {
+        String hex = String.format("%012x", wert);
+        return hex.replaceAll("(..)(?!$)", "$1:");
+    }
+}
@@ -0,0 +1,195 @@
+package filius.rahmenprogramm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SimulationsUhrTest {
+
+    @After
+    public void tearDown() {
+        SimulationsUhr.setzeLeerlaufUeberspringen(false);
+        SimulationsUhr.setzeZeitraffer(1);
+        SimulationsUhr.zuruecksetzen();
+    }
+
+    @Test
+    public void testInEchtzeit_OhneZeitraffer() {
+        assertThat(SimulationsUhr.inEchtzeit(50), is(50L));
+        assertThat(SimulationsUhr.inEchtzeit(0), is(0L));
+    }
+
+    @Test
+    public void testInEchtzeit_MitZeitraffer() {
+        SimulationsUhr.setzeZeitraffer(5);
+
+        assertThat(SimulationsUhr.inEchtzeit(1000), is(200L));
+        assertThat(SimulationsUhr.inEchtzeit(0), is(0L));
+    }
+
+    @Test
+    public void testInEchtzeit_KabelverzoegerungOhneRundung() {
+        SimulationsUhr.setzeZeitraffer(SimulationsUhr.MAX_ZEITRAFFER);
+
+        assertThat(SimulationsUhr.inEchtzeit(5) * SimulationsUhr.MAX_ZEITRAFFER, is(5L));
+        assertThat(SimulationsUhr.inEchtzeit(50) * SimulationsUhr.MAX_ZEITRAFFER, is(50L));
+    }
+
+    @Test
+    public void testSetzeZeitraffer_Begrenzt() {
+        SimulationsUhr.setzeZeitraffer(0);
+        assertThat(SimulationsUhr.holeZeitraffer(), is(1));
+
+        SimulationsUhr.setzeZeitraffer(1000);
+        assertThat(SimulationsUhr.holeZeitraffer(), is(SimulationsUhr.MAX_ZEITRAFFER));
+    }
+
+    @Test
+    public void testJetzt_OhneZeitrafferSystemzeit() {
+        long vorher = System.currentTimeMillis();
+        long jetzt = SimulationsUhr.jetzt();
+        long nachher = System.currentTimeMillis();
+
+        assertTrue(jetzt >= vorher && jetzt <= nachher);
+    }
+
+    @Test
+    public void testZuruecksetzen_WiederSystemzeit() throws Exception {
+        SimulationsUhr.setzeZeitraffer(5);
+        Thread.sleep(20);
+        SimulationsUhr.setzeZeitraffer(1);
+        assertTrue(SimulationsUhr.jetzt() > System.currentTimeMillis());
+
+        SimulationsUhr.zuruecksetzen();
+
+        long vorher = System.currentTimeMillis();
+        long jetzt = SimulationsUhr.jetzt();
+        long nachher = System.currentTimeMillis();
+        assertTrue(jetzt >= vorher && jetzt <= nachher);
+    }
+
+    @Test
+    public void testJetzt_ZeitrafferWechselStetig() {
+        long vorher = SimulationsUhr.jetzt();
+
+        SimulationsUhr.setzeZeitraffer(5);
+
+        assertTrue(SimulationsUhr.jetzt() >= vorher);
+    }
+
+    @Test
+    public void testWarten_VerkuerztEchtzeit() throws Exception {
+        SimulationsUhr.setzeZeitraffer(5);
+        Object monitor = new Object();
+        long simulierterBeginn = SimulationsUhr.jetzt();
+        long beginn = System.currentTimeMillis();
+
+        synchronized (monitor) {
+            SimulationsUhr.warten(monitor, 2000);
+        }
+
+        assertTrue(System.currentTimeMillis() - beginn < 1000);
+        assertTrue(SimulationsUhr.jetzt() - simulierterBeginn >= 2000);
+    }
+
+    @Test
+    public void testUeberspringeLeerlauf_OhneWartezeitKeinSprung() {
+        assertThat(SimulationsUhr.ueberspringeLeerlauf(), is(false));
+    }
+
+    @Test
+    public void testSchlafen_LeerlaufWirdUebersprungen() throws Exception {
+        SimulationsUhr.setzeLeerlaufUeberspringen(true);
+        long simulierterBeginn = SimulationsUhr.jetzt();
+        long beginn = System.currentTimeMillis();
+
+        SimulationsUhr.schlafen(60000);
+
+        assertTrue(System.currentTimeMillis() - beginn < 5000);
+        assertTrue(SimulationsUhr.jetzt() - simulierterBeginn >= 60000);
+    }
+
+    @Test
+    public void testWarten_LeerlaufWirdUebersprungen() throws Exception {
+        SimulationsUhr.setzeLeerlaufUeberspringen(true);
+        Object monitor = new Object();
+        long simulierterBeginn = SimulationsUhr.jetzt();
+        long beginn = System.currentTimeMillis();
+
+        synchronized (monitor) {
+            SimulationsUhr.warten(monitor, 60000);
+        }
+
+        assertTrue(System.currentTimeMillis() - beginn < 5000);
+        assertTrue(SimulationsUhr.jetzt() - simulierterBeginn >= 60000);
+    }
+
+    @Test
+    public void testSchlafen_NichtPositivSofort() throws Exception {
+        long beginn = System.currentTimeMillis();
+
+        SimulationsUhr.schlafen(0);
+        SimulationsUhr.schlafen(-10);
+
+        assertTrue(System.currentTimeMillis() - beginn < 1000);
+    }
+
+    @Test
+    public void testWarten_NichtPositivSofort() throws Exception {
+        Object monitor = new Object();
+        long beginn = System.currentTimeMillis();
+
+        synchronized (monitor) {
+            SimulationsUhr.warten(monitor, 0);
+            SimulationsUhr.warten(monitor, -10);
+        }
+
+        assertTrue(System.currentTimeMillis() - beginn < 1000);
+    }
+
+    @Test
+    public void testInEchtzeit_SehrLangeDauer() {
+        SimulationsUhr.setzeZeitraffer(SimulationsUhr.MAX_ZEITRAFFER);
+
+        assertTrue(SimulationsUhr.inEchtzeit(Long.MAX_VALUE) > 0);
+    }
+
+    @Test
+    public void testIstLeerlauf_NichtWaehrendArbeit() throws Exception {
+        SimulationsUhr.beginneArbeit();
+        try {
+            Thread.sleep(SimulationsUhr.LEERLAUF_MILLIS + 10);
+            assertThat(SimulationsUhr.istLeerlauf(), is(false));
+        } finally {
+            SimulationsUhr.beendeArbeit();
+        }
+        assertThat(SimulationsUhr.istLeerlauf(), is(false));
+    }
+
+    @Test
+    public void testUeberspringeLeerlauf_UnbegrenzteWartezeitKeinSprung() throws Exception {
+        final Object monitor = new Object();
+        Thread wartender = new Thread() {
+            public void run() {
+                synchronized (monitor) {
+                    try {
+                        SimulationsUhr.warten(monitor, Long.MAX_VALUE);
+                    } catch (InterruptedException e) {}
+                }
+            }
+        };
+        wartender.start();
+        Thread.sleep(100);
+        long simulierterBeginn = SimulationsUhr.jetzt();
+
+        assertThat(SimulationsUhr.ueberspringeLeerlauf(), is(false));
+        assertTrue(SimulationsUhr.jetzt() - simulierterBeginn < 60000);
+        assertThat(wartender.isAlive(), is(true));
+
+        wartender.interrupt();
+        wartender.join();
+    }
+}
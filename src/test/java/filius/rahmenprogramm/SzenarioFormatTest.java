@@ -0,0 +1,151 @@
+package filius.rahmenprogramm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import filius.gui.netzwerksicht.GUIDocuItem;
+import filius.gui.netzwerksicht.GUIKabelItem;
+import filius.gui.netzwerksicht.GUIKnotenItem;
+import filius.gui.netzwerksicht.JSidebarButton;
+import filius.hardware.Kabel;
+import filius.hardware.Port;
+import filius.hardware.knoten.InternetKnoten;
+import filius.hardware.knoten.Knoten;
+import filius.hardware.knoten.Rechner;
+import filius.hardware.knoten.Switch;
+
+public class SzenarioFormatTest {
+
+    private GUIKnotenItem erzeugeKnotenItem(Knoten knoten, int x, int y) {
+        JSidebarButton label = new JSidebarButton();
+        label.setText(knoten.getName());
+        label.setLocation(x, y);
+        GUIKnotenItem item = new GUIKnotenItem();
+        item.setImageLabel(label);
+        item.setKnoten(knoten);
+        return item;
+    }
+
+    @Test
+    public void testSchreibenUndLesen() throws Exception {
+        Rechner rechner = new Rechner();
+        rechner.setName("PC 1");
+        ((InternetKnoten) rechner).getNetzwerkInterfaces().get(0).setIp("10.0.0.1");
+        Switch vermittler = new Switch();
+        List<GUIKnotenItem> knoten = new LinkedList<GUIKnotenItem>();
+        knoten.add(erzeugeKnotenItem(rechner, 20, 30));
+        knoten.add(erzeugeKnotenItem(vermittler, 200, 300));
+
+        Kabel kabel = new Kabel();
+        kabel.setAnschluesse(new Port[] { vermittler.getAnschluesse().get(3),
+                rechner.getNetzwerkInterfaces().get(0).getPort() });
+        kabel.setDatenrate(2048);
+        kabel.setPufferGroesse(16);
+        GUIKabelItem kabelItem = new GUIKabelItem();
+        kabelItem.getKabelpanel().setZiel1(knoten.get(1));
+        kabelItem.getKabelpanel().setZiel2(knoten.get(0));
+        kabelItem.setDasKabel(kabel);
+        List<GUIKabelItem> kabelListe = new LinkedList<GUIKabelItem>();
+        kabelListe.add(kabelItem);
+
+        GUIDocuItem docuItem = new GUIDocuItem();
+        docuItem.setType(GUIDocuItem.TEXT);
+        docuItem.setText("Netz A ä");
+        docuItem.setX(5);
+        docuItem.setY(6);
+        docuItem.setWidth(70);
+        docuItem.setHeight(80);
+        docuItem.setColor(new Color(10, 20, 30, 40));
+        docuItem.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
+        List<GUIDocuItem> docuListe = new LinkedList<GUIDocuItem>();
+        docuListe.add(docuItem);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SzenarioFormat.schreiben(out, knoten, kabelListe, docuListe);
+        List<GUIKnotenItem> geleseneKnoten = new LinkedList<GUIKnotenItem>();
+        List<GUIKabelItem> geleseneKabel = new LinkedList<GUIKabelItem>();
+        List<GUIDocuItem> geleseneDoku = new LinkedList<GUIDocuItem>();
+        SzenarioFormat.lesen(new ByteArrayInputStream(out.toByteArray()), geleseneKnoten, geleseneKabel,
+                geleseneDoku);
+
+        assertThat(geleseneKnoten.size(), is(2));
+        Rechner geleseneRechner = (Rechner) geleseneKnoten.get(0).getKnoten();
+        assertThat(geleseneRechner.getName(), is("PC 1"));
+        assertThat(geleseneRechner.getNetzwerkInterfaces().get(0).getIp(), is("10.0.0.1"));
+        assertThat(geleseneKnoten.get(0).getImageLabel().getX(), is(20));
+        assertThat(geleseneKnoten.get(0).getImageLabel().getY(), is(30));
+        assertThat(geleseneKnoten.get(0).getImageLabel().getText(), is("PC 1"));
+        Switch geleseneSwitch = (Switch) geleseneKnoten.get(1).getKnoten();
+
+        assertThat(geleseneKabel.size(), is(1));
+        GUIKabelItem gelesenesKabel = geleseneKabel.get(0);
+        assertThat(gelesenesKabel.getKabelpanel().getZiel1(), sameInstance(geleseneKnoten.get(1)));
+        assertThat(gelesenesKabel.getKabelpanel().getZiel2(), sameInstance(geleseneKnoten.get(0)));
+        assertThat(gelesenesKabel.getDasKabel().getAnschluesse()[0],
+                sameInstance(geleseneSwitch.getAnschluesse().get(3)));
+        assertThat(gelesenesKabel.getDasKabel().getAnschluesse()[1],
+                sameInstance(geleseneRechner.getNetzwerkInterfaces().get(0).getPort()));
+        assertThat(gelesenesKabel.getDasKabel().getDatenrate(), is(2048));
+        assertThat(gelesenesKabel.getDasKabel().getPufferGroesse(), is(16));
+
+        assertThat(geleseneDoku.size(), is(1));
+        GUIDocuItem geleseneDokuItem = geleseneDoku.get(0);
+        assertThat(geleseneDokuItem.getType(), is(GUIDocuItem.TEXT));
+        assertThat(geleseneDokuItem.getText(), is("Netz A ä"));
+        assertThat(geleseneDokuItem.getWidth(), is(70));
+        assertThat(geleseneDokuItem.getColor(), is(new Color(10, 20, 30, 40)));
+        assertThat(geleseneDokuItem.getFont().getSize(), is(14));
+        assertThat(geleseneDokuItem.getFont().isBold(), is(true));
+    }
+
+    @Test
+    public void testLeseKabel_Version1OhneDatenrateUndPuffer() throws Exception {
+        Rechner rechner = new Rechner();
+        Switch vermittler = new Switch();
+        List<GUIKnotenItem> knoten = new LinkedList<GUIKnotenItem>();
+        knoten.add(erzeugeKnotenItem(rechner, 20, 30));
+        knoten.add(erzeugeKnotenItem(vermittler, 200, 300));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream satz = new DataOutputStream(out);
+        satz.writeInt(1);
+        satz.writeInt(0);
+        satz.writeInt(1);
+        satz.writeInt(3);
+        satz.writeInt(0);
+        satz.writeInt(0);
+        satz.writeBoolean(false);
+        satz.writeByte('E');
+        DataInputStream daten = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+
+        GUIKabelItem kabelItem = SzenarioFormat.leseKabel(daten, knoten, 1);
+
+        assertThat(kabelItem.getKabelpanel().getZiel1(), sameInstance(knoten.get(1)));
+        assertThat(kabelItem.getDasKabel().getAnschluesse()[0], sameInstance(vermittler.getAnschluesse().get(3)));
+        assertThat(kabelItem.getDasKabel().getAnschluesse()[1],
+                sameInstance(rechner.getNetzwerkInterfaces().get(0).getPort()));
+        assertThat(kabelItem.getDasKabel().getDatenrate(), is(0));
+        assertThat(kabelItem.getDasKabel().getPufferGroesse(), is(0));
+        assertThat(daten.readUnsignedByte(), is((int) 'E'));
+    }
+
+    @Test(expected = IOException.class)
+    public void testLesen_NoCompactFormat() throws Exception {
+        byte[] xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes("UTF-8");
+
+        SzenarioFormat.lesen(new ByteArrayInputStream(xml), new LinkedList<GUIKnotenItem>(),
+                new LinkedList<GUIKabelItem>(), new LinkedList<GUIDocuItem>());
+    }
+}
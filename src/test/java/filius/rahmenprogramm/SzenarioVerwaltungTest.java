@@ -0,0 +1,85 @@
+package filius.rahmenprogramm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SzenarioVerwaltungTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File archiv;
+    private File anwendungen;
+
+    @Before
+    public void setUp() throws Exception {
+        archiv = temp.newFile("projekt.fls");
+        anwendungen = temp.newFolder("anwendungen");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archiv))) {
+            schreibeEintrag(out, "projekt/anwendungen/EigeneAnwendungen.txt", "Server;MeinServer");
+            schreibeEintrag(out, "projekt/anwendungen/filius/software/clientserver/MeinServer.class", "neu");
+            schreibeEintrag(out, "projekt/anwendungen/../ausserhalb.txt", "x");
+            schreibeEintrag(out, "projekt/netzwerk.fsn", "netz");
+        }
+    }
+
+    private void schreibeEintrag(ZipOutputStream out, String name, String inhalt) throws Exception {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(inhalt.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private File schreibeDatei(String pfad, String inhalt) throws Exception {
+        File datei = new File(anwendungen, pfad);
+        datei.getParentFile().mkdirs();
+        Files.write(datei.toPath(), inhalt.getBytes(StandardCharsets.UTF_8));
+        return datei;
+    }
+
+    private String lese(String pfad) throws Exception {
+        return new String(Files.readAllBytes(new File(anwendungen, pfad).toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testEntpackeAnwendungen() throws Exception {
+        File unveraendert = schreibeDatei("EigeneAnwendungen.txt", "Server;MeinServer");
+        unveraendert.setLastModified(1000000000L);
+        schreibeDatei("filius/software/clientserver/MeinServer.class", "alt");
+        File veraltet = schreibeDatei("filius/software/clientserver/Alt.class", "alt");
+
+        boolean erfolg;
+        try (ZipFile zf = new ZipFile(archiv)) {
+            erfolg = SzenarioVerwaltung.entpackeAnwendungen(zf, anwendungen.getAbsolutePath());
+        }
+
+        assertThat(erfolg, is(false));
+        assertThat(unveraendert.lastModified(), is(1000000000L));
+        assertThat(lese("filius/software/clientserver/MeinServer.class"), is("neu"));
+        assertThat(veraltet.exists(), is(false));
+        assertThat(new File(temp.getRoot(), "ausserhalb.txt").exists(), is(false));
+        assertThat(new File(anwendungen, "netzwerk.fsn").exists(), is(false));
+    }
+
+    @Test
+    public void testEntpackeAnwendungen_EmptyDirectory() throws Exception {
+        try (ZipFile zf = new ZipFile(archiv)) {
+            SzenarioVerwaltung.entpackeAnwendungen(zf, anwendungen.getAbsolutePath());
+        }
+
+        assertThat(lese("EigeneAnwendungen.txt"), is("Server;MeinServer"));
+        assertThat(lese("filius/software/clientserver/MeinServer.class"), is("neu"));
+    }
+}
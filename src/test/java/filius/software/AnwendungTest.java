@@ -0,0 +1,85 @@
+package filius.software;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.invoke.MethodHandle;
+
+import org.junit.Test;
+
+public class AnwendungTest {
+
+    private static class Basis {
+        String aufgerufen;
+
+        @SuppressWarnings("unused")
+        private void verarbeiten(String text, Integer zahl) {
+            aufgerufen = "basis " + text + zahl;
+        }
+    }
+
+    private static class Abgeleitet extends Basis {
+        @SuppressWarnings("unused")
+        private void beenden() {
+            aufgerufen = "beenden";
+        }
+
+        @SuppressWarnings("unused")
+        private String zaehlen() {
+            aufgerufen = "zaehlen";
+            return aufgerufen;
+        }
+    }
+
+    @Test
+    public void testHoleMethode_InheritedPrivateMethod() throws Throwable {
+        MethodHandle handle = Anwendung.holeMethode(Abgeleitet.class, "verarbeiten",
+                new Class<?>[] { String.class, Integer.class });
+        Abgeleitet anwendung = new Abgeleitet();
+
+        handle.invokeExact((Object) anwendung, new Object[] { "a", 1 });
+
+        assertThat(anwendung.aufgerufen, is("basis a1"));
+    }
+
+    @Test
+    public void testHoleMethode_NoArguments() throws Throwable {
+        MethodHandle handle = Anwendung.holeMethode(Abgeleitet.class, "beenden", new Class<?>[0]);
+        Abgeleitet anwendung = new Abgeleitet();
+
+        handle.invokeExact((Object) anwendung, (Object[]) null);
+
+        assertThat(anwendung.aufgerufen, is("beenden"));
+    }
+
+    @Test
+    public void testHoleMethode_ReturnValueDiscarded() throws Throwable {
+        MethodHandle handle = Anwendung.holeMethode(Abgeleitet.class, "zaehlen", new Class<?>[0]);
+        Abgeleitet anwendung = new Abgeleitet();
+
+        handle.invokeExact((Object) anwendung, new Object[0]);
+
+        assertThat(anwendung.aufgerufen, is("zaehlen"));
+    }
+
+    @Test
+    public void testHoleMethode_ResolvedOnce() {
+        MethodHandle erster = Anwendung.holeMethode(Abgeleitet.class, "beenden", new Class<?>[0]);
+        MethodHandle zweiter = Anwendung.holeMethode(Abgeleitet.class, "beenden", new Class<?>[0]);
+
+        assertThat(zweiter, sameInstance(erster));
+    }
+
+    @Test
+    public void testHoleMethode_UnknownMethod() {
+        MethodHandle vorhanden = Anwendung.holeMethode(Abgeleitet.class, "beenden", new Class<?>[0]);
+        MethodHandle unbekannt = Anwendung.holeMethode(Abgeleitet.class, "unbekannt", new Class<?>[0]);
+        MethodHandle falscheArgumente = Anwendung.holeMethode(Abgeleitet.class, "verarbeiten",
+                new Class<?>[] { String.class });
+
+        assertThat(unbekannt, not(sameInstance(vorhanden)));
+        assertThat(falscheArgumente, sameInstance(unbekannt));
+    }
+}
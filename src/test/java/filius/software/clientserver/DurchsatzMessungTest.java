@@ -0,0 +1,97 @@
+package filius.software.clientserver;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import filius.software.clientserver.DurchsatzMessung.Intervall;
+
+public class DurchsatzMessungTest {
+
+    @Test
+    public void testErzeugeNachricht_HasRequestedSize() {
+        String nachricht = DurchsatzMessung.erzeugeNachricht(7, 12345, 100);
+
+        assertThat(nachricht.length(), is(100));
+        assertTrue(nachricht.startsWith("7;12345;"));
+    }
+
+    @Test
+    public void testErzeugeNachricht_TooSmallSizeKeepsHeader() {
+        String nachricht = DurchsatzMessung.erzeugeNachricht(7, 12345, 3);
+
+        assertThat(nachricht, is("7;12345;"));
+    }
+
+    @Test
+    public void testEmpfangen_ClosesIntervalsWhenTimePasses() {
+        DurchsatzMessung messung = new DurchsatzMessung(10000);
+
+        assertThat(messung.empfangen(DurchsatzMessung.erzeugeNachricht(0, 10000, 500), 10000).size(), is(0));
+        assertThat(messung.empfangen(DurchsatzMessung.erzeugeNachricht(1, 10500, 500), 10500).size(), is(0));
+        List<Intervall> abgeschlossen = messung.empfangen(DurchsatzMessung.erzeugeNachricht(2, 12100, 500), 12100);
+
+        assertThat(abgeschlossen.size(), is(2));
+        assertThat(abgeschlossen.get(0).holeVon(), is(0L));
+        assertThat(abgeschlossen.get(0).holeBis(), is(1000L));
+        assertThat(abgeschlossen.get(0).holeBytes(), is(1000L));
+        assertThat(abgeschlossen.get(0).holeDurchsatz(), is(8000.0));
+        assertThat(abgeschlossen.get(1).holeBytes(), is(0L));
+    }
+
+    @Test
+    public void testEmpfangen_CountsGapsAsLoss() {
+        DurchsatzMessung messung = new DurchsatzMessung(0);
+
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(0, 0, 100), 10);
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(3, 30, 100), 40);
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(4, 40, 100), 50);
+        Intervall gesamt = messung.holeGesamt();
+
+        assertThat(gesamt.holeNachrichten(), is(3L));
+        assertThat(gesamt.holeVerloren(), is(2L));
+        assertThat(gesamt.holeVerlustrate(), is(0.4));
+    }
+
+    @Test
+    public void testEmpfangen_LateMessageIsNoLongerLost() {
+        DurchsatzMessung messung = new DurchsatzMessung(0);
+
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(0, 0, 100), 10);
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(2, 20, 100), 30);
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(1, 10, 100), 35);
+
+        assertThat(messung.holeGesamt().holeVerloren(), is(0L));
+    }
+
+    @Test
+    public void testEmpfangen_JitterFromTransitTimeVariation() {
+        DurchsatzMessung messung = new DurchsatzMessung(0);
+
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(0, 0, 100), 10);
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(1, 100, 100), 110);
+        assertThat(messung.holeGesamt().holeJitter(), is(0.0));
+
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(2, 200, 100), 226);
+
+        assertThat(messung.holeGesamt().holeJitter(), is(1.0));
+    }
+
+    @Test
+    public void testAbschliessen_LastIntervalEndsWithLastMessage() {
+        DurchsatzMessung messung = new DurchsatzMessung(0);
+
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(0, 0, 100), 0);
+        messung.empfangen(DurchsatzMessung.erzeugeNachricht(1, 1200, 100), 1250);
+        List<Intervall> rest = messung.abschliessen();
+
+        assertThat(rest.size(), is(1));
+        assertThat(rest.get(0).holeVon(), is(1000L));
+        assertThat(rest.get(0).holeBis(), is(1250L));
+        assertThat(messung.holeGesamt().holeBytes(), is(200L));
+    }
+}
@@ -0,0 +1,35 @@
+package filius.software.clientserver;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import filius.exception.TimeOutException;
+import filius.rahmenprogramm.I18n;
+import filius.software.transportschicht.Socket;
+
+public class ServerMitarbeiterTest implements I18n {
+
+    @Test
+    public void testRun_TimeoutClosesQuietly() throws Exception {
+        ServerAnwendung server = mock(ServerAnwendung.class);
+        Socket socket = mock(Socket.class);
+        when(socket.istVerbunden()).thenReturn(true);
+        when(socket.empfangen(anyLong())).thenThrow(new TimeOutException("timeout"));
+        ServerMitarbeiter mitarbeiter = new ServerMitarbeiter(server, socket) {
+            protected void verarbeiteNachricht(String nachricht) {}
+        };
+        mitarbeiter.running = true;
+
+        mitarbeiter.run();
+
+        verify(socket).schliessen();
+        verify(server).benachrichtigeBeobachter(startsWith(messages.getString("sw_servermitarbeiter_msg1")));
+        verify(server, never()).benachrichtigeBeobachter("timeout");
+    }
+}
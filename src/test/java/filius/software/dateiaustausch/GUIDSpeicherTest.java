@@ -0,0 +1,63 @@
+package filius.software.dateiaustausch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import filius.hardware.Verbindung;
+
+public class GUIDSpeicherTest {
+
+    @Test
+    public void testHinzufuegen_DuplicateRejected() throws Exception {
+        GUIDSpeicher speicher = new GUIDSpeicher(10, 100);
+
+        assertThat(speicher.hinzufuegen(42, 0), is(true));
+        assertThat(speicher.hinzufuegen(42, 1), is(false));
+        assertThat(speicher.enthaelt(42, 2), is(true));
+        assertThat(speicher.enthaelt(43, 2), is(false));
+    }
+
+    @Test
+    public void testEnthaelt_Expired() throws Exception {
+        GUIDSpeicher speicher = new GUIDSpeicher(10, 100);
+        long lebensdauer = 10L * Verbindung.holeRTT();
+        speicher.hinzufuegen(42, 0);
+
+        assertThat(speicher.enthaelt(42, lebensdauer - 1), is(true));
+        assertThat(speicher.enthaelt(42, lebensdauer), is(false));
+        assertThat(speicher.anzahl(), is(0));
+        assertThat(speicher.hinzufuegen(42, lebensdauer), is(true));
+    }
+
+    @Test
+    public void testHinzufuegen_OldestEvicted() throws Exception {
+        GUIDSpeicher speicher = new GUIDSpeicher(10, 2);
+        speicher.hinzufuegen(1, 0);
+        speicher.hinzufuegen(2, 0);
+        speicher.hinzufuegen(3, 0);
+
+        assertThat(speicher.anzahl(), is(2));
+        assertThat(speicher.enthaelt(1, 0), is(false));
+        assertThat(speicher.enthaelt(3, 0), is(true));
+    }
+
+    @Test
+    public void testEnthaelt_ExpiredAfterRTTChange() throws Exception {
+        int faktor = Verbindung.holeVerzoegerungsFaktor();
+        try {
+            GUIDSpeicher speicher = new GUIDSpeicher(10, 100);
+            Verbindung.setzeVerzoegerungsFaktor(100);
+            speicher.hinzufuegen(1, 0);
+            Verbindung.setzeVerzoegerungsFaktor(1);
+            long lebensdauer = 10L * Verbindung.holeRTT();
+            speicher.hinzufuegen(2, 1);
+
+            assertThat(speicher.enthaelt(2, lebensdauer + 1), is(false));
+            assertThat(speicher.enthaelt(1, lebensdauer + 1), is(false));
+        } finally {
+            Verbindung.setzeVerzoegerungsFaktor(faktor);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package filius.software.dateiaustausch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+
+import filius.exception.TimeOutException;
+import filius.software.system.Datei;
+import filius.software.www.HTTPNachricht;
+
+public class SchwarmDownloadTest {
+
+    @Test
+    public void testLeseRange() throws Exception {
+        assertThat(SchwarmDownload.leseRange("bytes=10-19", 100)[0], is(10));
+        assertThat(SchwarmDownload.leseRange("bytes=10-19", 100)[1], is(19));
+        assertThat(SchwarmDownload.leseRange("bytes=90-199", 100)[1], is(99));
+        assertThat(SchwarmDownload.leseRange("bytes=90-", 100)[1], is(99));
+        assertThat(SchwarmDownload.leseRange("bytes=100-199", 100), is(nullValue()));
+        assertThat(SchwarmDownload.leseRange("bytes=20-10", 100), is(nullValue()));
+        assertThat(SchwarmDownload.leseRange("zeilen=0-1", 100), is(nullValue()));
+    }
+
+    @Test
+    public void testLeseContentRange() throws Exception {
+        long[] bereich = SchwarmDownload.leseContentRange("bytes 10-19/100");
+
+        assertThat(bereich[0], is(10L));
+        assertThat(bereich[1], is(19L));
+        assertThat(bereich[2], is(100L));
+        assertThat(SchwarmDownload.leseContentRange("bytes */100"), is(nullValue()));
+    }
+
+    @Test
+    public void testErstelleHttpAntwort_Range() throws Exception {
+        HTTPNachricht anfrage = new HTTPNachricht(HTTPNachricht.CLIENT);
+        anfrage.setRange("bytes=2-4");
+
+        HTTPNachricht antwort = PeerToPeerServerMitarbeiter.erstelleHttpAntwort(anfrage, erzeugeDatei("abcdefg"));
+
+        assertThat(antwort.getStatusCode(), is(206));
+        assertThat(antwort.getDaten(), is("cde"));
+        assertThat(antwort.getContentRange(), is("bytes 2-4/7"));
+        assertThat(antwort.getContentMD5(), is(SchwarmDownload.pruefsumme("cde")));
+        assertThat(antwort.getETag(), is(SchwarmDownload.erzeugeETag("abcdefg")));
+    }
+
+    @Test
+    public void testErstelleHttpAntwort_RangeNichtErfuellbar() throws Exception {
+        HTTPNachricht anfrage = new HTTPNachricht(HTTPNachricht.CLIENT);
+        anfrage.setRange("bytes=7-9");
+
+        HTTPNachricht antwort = PeerToPeerServerMitarbeiter.erstelleHttpAntwort(anfrage, erzeugeDatei("abcdefg"));
+
+        assertThat(antwort.getStatusCode(), is(416));
+        assertThat(antwort.getContentRange(), is("bytes */7"));
+    }
+
+    @Test
+    public void testRun_FehlerhafterTeilnehmerWirdUmgangen() throws Exception {
+        PeerToPeerAnwendung anwendung = mock(PeerToPeerAnwendung.class);
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; inhalt.length() < 5 * SchwarmDownload.TEIL_GROESSE; i++) {
+            inhalt.append("Zeile ").append(i).append("\n");
+        }
+        final Datei datei = erzeugeDatei(inhalt.toString());
+
+        SchwarmDownload download = new SchwarmDownload(anwendung, "film.txt",
+                Arrays.asList("10.0.0.1", "10.0.0.2", "10.0.0.3")) {
+            @Override
+            HTTPNachricht senden(Quelle quelle, HTTPNachricht anfrage) throws Exception {
+                if (anfrage.getHost().equals("10.0.0.2")) {
+                    throw new TimeOutException();
+                }
+                HTTPNachricht antwort = PeerToPeerServerMitarbeiter.erstelleHttpAntwort(
+                        new HTTPNachricht(anfrage.toString()), datei);
+                return new HTTPNachricht(antwort.toString());
+            }
+        };
+        download.run();
+
+        ArgumentCaptor<Datei> gespeichert = ArgumentCaptor.forClass(Datei.class);
+        verify(anwendung).speicherDatei(gespeichert.capture());
+        assertThat(gespeichert.getValue().getName(), is("film.txt"));
+        assertThat(gespeichert.getValue().getDateiInhalt(), is(inhalt.toString()));
+    }
+
+    @Test
+    public void testRun_VerfaelschtesTeilWirdVerworfen() throws Exception {
+        PeerToPeerAnwendung anwendung = mock(PeerToPeerAnwendung.class);
+        final Datei datei = erzeugeDatei("abc\n");
+
+        SchwarmDownload download = new SchwarmDownload(anwendung, "film.txt", Arrays.asList("10.0.0.1")) {
+            @Override
+            HTTPNachricht senden(Quelle quelle, HTTPNachricht anfrage) throws Exception {
+                HTTPNachricht antwort = PeerToPeerServerMitarbeiter.erstelleHttpAntwort(anfrage, datei);
+                antwort.setDaten("abd\n");
+                return antwort;
+            }
+        };
+        download.run();
+
+        verify(anwendung, never()).speicherDatei(ArgumentMatchers.any(Datei.class));
+    }
+
+    private Datei erzeugeDatei(String inhalt) {
+        Datei datei = new Datei();
+        datei.setName("film.txt");
+        datei.setDateiTyp("text");
+        datei.setDateiInhalt(inhalt);
+        return datei;
+    }
+}
@@ -0,0 +1,49 @@
+package filius.software.dateiaustausch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import filius.hardware.Verbindung;
+
+public class TrefferCacheTest {
+
+    @Test
+    public void testHoleTreffer_ByTermUntilExpired() throws Exception {
+        TrefferCache cache = new TrefferCache(10);
+        long lebensdauer = 10L * Verbindung.holeRTT();
+        cache.merkeAnfrage(1, "Bild", 0);
+        cache.hinzufuegen(1, "10.0.0.1/bild.png: 20 B", 0);
+        cache.hinzufuegen(1, "10.0.0.2/bild.png: 20 B", 0);
+        cache.hinzufuegen(2, "10.0.0.3/text.txt: 5 B", 0);
+
+        assertThat(cache.holeTreffer("BILD", 1),
+                is(Arrays.asList("10.0.0.1/bild.png: 20 B", "10.0.0.2/bild.png: 20 B")));
+        assertThat(cache.holeTreffer("text", 1), is(nullValue()));
+        assertThat(cache.holeTreffer("bild", lebensdauer), is(nullValue()));
+    }
+
+    @Test
+    public void testHinzufuegen_UnknownQueryIgnored() throws Exception {
+        TrefferCache cache = new TrefferCache(10);
+        cache.hinzufuegen(1, "10.0.0.1/bild.png: 20 B", 0);
+
+        assertThat(cache.holeTreffer("bild", 0), is(nullValue()));
+    }
+
+    @Test
+    public void testMerkeAnfrage_RepeatedQueryDoesNotKeepLaterOnesAlive() throws Exception {
+        TrefferCache cache = new TrefferCache(10);
+        long lebensdauer = 10L * Verbindung.holeRTT();
+        cache.merkeAnfrage(1, "bild", 0);
+        cache.merkeAnfrage(2, "text", 5);
+        cache.merkeAnfrage(1, "bild", 10);
+        cache.hinzufuegen(2, "10.0.0.3/text.txt: 5 B", lebensdauer + 6);
+
+        assertThat(cache.holeTreffer("text", lebensdauer + 6), is(nullValue()));
+    }
+}
@@ -13,6 +13,7 @@ import org.mockito.MockitoAnnotations;
 
 import filius.exception.AddressRequestNotAcceptedException;
 import filius.exception.NoAvailableAddressException;
+import filius.rahmenprogramm.SimulationsUhr;
 import filius.software.transportschicht.UDPSocket;
 
 public class DHCPServerMitarbeiterTest {
@@ -81,7 +82,7 @@ public class DHCPServerMitarbeiterTest {
         when(serverMock.determineGatewayip()).thenReturn(router);
         when(serverMock.getSubnetzmaske()).thenReturn(subnetMask);
         when(serverMock.requestAddress(mac, ip))
-                .thenReturn(new DHCPAddressAssignment(mac, ip, System.currentTimeMillis() + 1000));
+                .thenReturn(new DHCPAddressAssignment(mac, ip, SimulationsUhr.jetzt() + 1000));
 
         mitarbeiter.processRequest(mac, ip, serverIdentifier);
 
@@ -9,6 +9,7 @@ import org.junit.Test;
 
 import filius.exception.AddressRequestNotAcceptedException;
 import filius.exception.NoAvailableAddressException;
+import filius.rahmenprogramm.SimulationsUhr;
 
 public class DHCPServerTest {
 
@@ -91,45 +92,45 @@ public class DHCPServerTest {
     @Test
     public void testCleanUpAssignments_doNotRemoveNeverExpiringEntries() throws Exception {
         DHCPServer server = new DHCPServer();
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("dyn-mac", "dyn-ip", 0));
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("stat-mac", "stat-ip", 0));
-        server.offeredAddresses.add(new DHCPAddressAssignment("offered-mac", "offered-ip", 0));
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("dyn-mac", "dyn-ip", 0));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("stat-mac", "stat-ip", 0));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("offered-mac", "offered-ip", 0));
 
         server.cleanUpAssignments();
 
-        assertThat(server.dynamicAssignedAddresses.size(), is(1));
-        assertThat(server.staticAssignedAddresses.size(), is(1));
-        assertThat(server.offeredAddresses.size(), is(1));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.LEASE).size(), is(1));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.STATIC).size(), is(1));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.OFFER).size(), is(1));
     }
 
     @Test
     public void testCleanUpAssignments_RemoveExpiredEntries() throws Exception {
         DHCPServer server = new DHCPServer();
-        long timestamp = System.currentTimeMillis() - 100;
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("dyn-mac", "dyn-ip", timestamp));
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("stat-mac", "stat-ip", timestamp));
-        server.offeredAddresses.add(new DHCPAddressAssignment("offered-mac", "offered-ip", timestamp));
+        long timestamp = SimulationsUhr.jetzt() - 100;
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("dyn-mac", "dyn-ip", timestamp));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("stat-mac", "stat-ip", timestamp));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("offered-mac", "offered-ip", timestamp));
 
         server.cleanUpAssignments();
 
-        assertThat(server.dynamicAssignedAddresses.size(), is(0));
-        assertThat(server.staticAssignedAddresses.size(), is(0));
-        assertThat(server.offeredAddresses.size(), is(0));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.LEASE).size(), is(0));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.STATIC).size(), is(0));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.OFFER).size(), is(0));
     }
 
     @Test
     public void testCleanUpAssignments_DoNotRemoveStillValidEntries() throws Exception {
         DHCPServer server = new DHCPServer();
-        long timestamp = System.currentTimeMillis() + 1000;
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("dyn-mac", "dyn-ip", timestamp));
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("stat-mac", "stat-ip", timestamp));
-        server.offeredAddresses.add(new DHCPAddressAssignment("offered-mac", "offered-ip", timestamp));
+        long timestamp = SimulationsUhr.jetzt() + 1000;
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("dyn-mac", "dyn-ip", timestamp));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("stat-mac", "stat-ip", timestamp));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("offered-mac", "offered-ip", timestamp));
 
         server.cleanUpAssignments();
 
-        assertThat(server.dynamicAssignedAddresses.size(), is(1));
-        assertThat(server.staticAssignedAddresses.size(), is(1));
-        assertThat(server.offeredAddresses.size(), is(1));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.LEASE).size(), is(1));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.STATIC).size(), is(1));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.OFFER).size(), is(1));
     }
 
     @Test
@@ -167,7 +168,7 @@ public class DHCPServerTest {
     public void testAddressAvailable_AlreadyDynamicallyAssigned() throws Exception {
         String ipAddress = "10.0.0.100";
         DHCPServer server = prepareDhcpServer(ipAddress, "10.0.0.101");
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("mac", ipAddress, 0));
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("mac", ipAddress, 0));
 
         boolean available = server.checkAddressAvailable(ipAddress);
 
@@ -178,7 +179,7 @@ public class DHCPServerTest {
     public void testAddressAvailable_AlreadyStaticallyAssigned() throws Exception {
         String ipAddress = "10.0.0.100";
         DHCPServer server = prepareDhcpServer(ipAddress, "10.0.0.101");
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("mac", ipAddress, 0));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("mac", ipAddress, 0));
 
         boolean available = server.checkAddressAvailable(ipAddress);
 
@@ -189,7 +190,7 @@ public class DHCPServerTest {
     public void testAddressAvailable_AlreadyOffered() throws Exception {
         String ipAddress = "10.0.0.100";
         DHCPServer server = prepareDhcpServer(ipAddress, "10.0.0.101");
-        server.offeredAddresses.add(new DHCPAddressAssignment("mac", ipAddress, 0));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("mac", ipAddress, 0));
 
         boolean available = server.checkAddressAvailable(ipAddress);
 
@@ -199,9 +200,9 @@ public class DHCPServerTest {
     @Test
     public void testAddressAvailable_NoApplicableAssignment() throws Exception {
         DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.100", 0));
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.101", 0));
-        server.offeredAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.102", 0));
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("mac", "10.0.0.100", 0));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("mac", "10.0.0.101", 0));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("mac", "10.0.0.102", 0));
 
         boolean available = server.checkAddressAvailable("10.0.0.103");
 
@@ -211,9 +212,9 @@ public class DHCPServerTest {
     @Test
     public void testOfferAddress_SkipAssigned() throws Exception {
         DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.100", 0));
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.101", 0));
-        server.offeredAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.102", 0));
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("mac", "10.0.0.100", 0));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("mac", "10.0.0.101", 0));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("mac", "10.0.0.102", 0));
 
         String offeredAddress = server.offerAddress("01:02:03:04:05:06");
 
@@ -223,9 +224,9 @@ public class DHCPServerTest {
     @Test(expected = NoAvailableAddressException.class)
     public void testOfferAddress_NoAddressAvailable() throws Exception {
         DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.102");
-        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.100", 0));
-        server.staticAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.101", 0));
-        server.offeredAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.102", 0));
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("mac", "10.0.0.100", 0));
+        server.pool.add(DHCPAddressPool.Kind.STATIC, new DHCPAddressAssignment("mac", "10.0.0.101", 0));
+        server.pool.add(DHCPAddressPool.Kind.OFFER, new DHCPAddressAssignment("mac", "10.0.0.102", 0));
 
         server.offerAddress("01:02:03:04:05:06");
     }
@@ -254,11 +255,11 @@ public class DHCPServerTest {
     private void verifyAssignment(DHCPServer server, String mac, String ip, DHCPAddressAssignment result) {
         assertThat(result.getIp(), is(ip));
         assertThat(result.getMAC(), is(mac));
-        for (DHCPAddressAssignment entry : server.offeredAddresses) {
+        for (DHCPAddressAssignment entry : server.pool.entries(DHCPAddressPool.Kind.OFFER)) {
             assertFalse(entry.getMAC().equalsIgnoreCase(mac));
         }
         boolean assigned = false;
-        for (DHCPAddressAssignment entry : server.dynamicAssignedAddresses) {
+        for (DHCPAddressAssignment entry : server.pool.entries(DHCPAddressPool.Kind.LEASE)) {
             if (entry.getMAC().equalsIgnoreCase(mac) && entry.getIp().equalsIgnoreCase(ip)) {
                 assigned = true;
                 break;
@@ -286,6 +287,64 @@ public class DHCPServerTest {
         verifyAssignment(server, mac, ip, assignment);
     }
 
+    @Test
+    public void testOfferAddress_SameAddressForSameClient() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        String mac = "01:02:03:04:05:06";
+
+        String firstOffer = server.offerAddress(mac);
+        String secondOffer = server.offerAddress(mac);
+
+        assertThat(secondOffer, is(firstOffer));
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.OFFER).size(), is(1));
+    }
+
+    @Test
+    public void testOfferAddress_WrapAroundToFreedAddress() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.102");
+        server.offerAddress("01:02:03:04:05:01");
+        server.offerAddress("01:02:03:04:05:02");
+        server.pool.remove(DHCPAddressPool.Kind.OFFER, "10.0.0.100");
+        server.pool.add(DHCPAddressPool.Kind.LEASE, new DHCPAddressAssignment("mac", "10.0.0.102", 0));
+
+        String offeredAddress = server.offerAddress("01:02:03:04:05:03");
+
+        assertThat(offeredAddress, is("10.0.0.100"));
+    }
+
+    @Test
+    public void testRequestAddress_RenewLease() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        String mac = "01:02:03:04:05:06";
+        server.requestAddress(mac, server.offerAddress(mac));
+
+        String offeredAddress = server.offerAddress(mac);
+        DHCPAddressAssignment assignment = server.requestAddress(mac, offeredAddress);
+
+        verifyAssignment(server, mac, offeredAddress, assignment);
+        assertThat(server.pool.entries(DHCPAddressPool.Kind.LEASE).size(), is(1));
+    }
+
+    @Test
+    public void testRequestAddress_ReleasePreviousLeaseOfClient() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        String mac = "01:02:03:04:05:06";
+        server.requestAddress(mac, "10.0.0.101");
+
+        server.requestAddress(mac, "10.0.0.103");
+
+        assertTrue(server.checkAddressAvailable("10.0.0.101"));
+        assertFalse(server.checkAddressAvailable("10.0.0.103"));
+    }
+
+    @Test(expected = AddressRequestNotAcceptedException.class)
+    public void testRequestAddress_LeasedToOtherClient() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        server.requestAddress("aa:bb:cc:dd:ee:ff", "10.0.0.101");
+
+        server.requestAddress("01:02:03:04:05:06", "10.0.0.101");
+    }
+
     private DHCPServer prepareDhcpServer(String lowerLimit, String upperLimit) {
         DHCPServer server = new DHCPServer();
         server.setUntergrenze(lowerLimit);
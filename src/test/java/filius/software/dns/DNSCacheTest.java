@@ -0,0 +1,125 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dns;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class DNSCacheTest {
+
+    private DNSCache cache = new DNSCache();
+
+    @Test
+    public void testHoleAntwort_TtlZero_NotCached() throws Exception {
+        final AtomicInteger aufrufe = new AtomicInteger();
+        Callable<List<ResourceRecord>> aufloesung = new Callable<List<ResourceRecord>>() {
+            @Override
+            public List<ResourceRecord> call() {
+                aufrufe.incrementAndGet();
+                ResourceRecord rr = new ResourceRecord("hello.world.", ResourceRecord.ADDRESS, "1.2.3.4");
+                rr.setTtl(0);
+                List<ResourceRecord> records = new ArrayList<>();
+                records.add(rr);
+                return records;
+            }
+        };
+
+        cache.holeAntwort(new Query("hello.world.", ResourceRecord.ADDRESS), aufloesung);
+        cache.holeAntwort(new Query("hello.world.", ResourceRecord.ADDRESS), aufloesung);
+
+        assertThat(aufrufe.get(), is(2));
+        assertThat(cache.holeAnzahlTreffer(), is(0L));
+    }
+
+    @Test
+    public void testHoleAntwort_EmptyAnswer_NotCached() throws Exception {
+        final AtomicInteger aufrufe = new AtomicInteger();
+        Callable<List<ResourceRecord>> aufloesung = new Callable<List<ResourceRecord>>() {
+            @Override
+            public List<ResourceRecord> call() {
+                aufrufe.incrementAndGet();
+                return new ArrayList<>();
+            }
+        };
+
+        cache.holeAntwort(new Query("hello.world.", ResourceRecord.ADDRESS), aufloesung);
+        cache.holeAntwort(new Query("hello.world.", ResourceRecord.ADDRESS), aufloesung);
+
+        assertThat(aufrufe.get(), is(2));
+    }
+
+    @Test
+    public void testHoleAntwort_ConcurrentQueries_ResolvedOnce() throws Exception {
+        final AtomicInteger aufrufe = new AtomicInteger();
+        final CountDownLatch freigabe = new CountDownLatch(1);
+        final Callable<List<ResourceRecord>> aufloesung = new Callable<List<ResourceRecord>>() {
+            @Override
+            public List<ResourceRecord> call() throws Exception {
+                aufrufe.incrementAndGet();
+                freigabe.await();
+                List<ResourceRecord> records = new ArrayList<>();
+                records.add(new ResourceRecord("hello.world.", ResourceRecord.ADDRESS, "1.2.3.4"));
+                return records;
+            }
+        };
+        final List<List<ResourceRecord>> antworten = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Thread client = new Thread() {
+                public void run() {
+                    List<ResourceRecord> antwort = cache
+                            .holeAntwort(new Query("hello.world.", ResourceRecord.ADDRESS), aufloesung);
+                    synchronized (antworten) {
+                        antworten.add(antwort);
+                    }
+                }
+            };
+            clients.add(client);
+            client.start();
+        }
+        Thread.sleep(100);
+        freigabe.countDown();
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        assertThat(aufrufe.get(), is(1));
+        assertThat(antworten.size(), is(5));
+        for (List<ResourceRecord> antwort : antworten) {
+            assertThat(antwort.get(0).getRdata(), is("1.2.3.4"));
+        }
+        assertThat(cache.holeAnzahlFehlschlaege(), is(1L));
+        assertThat(cache.holeAnzahlTreffer(), is(4L));
+    }
+}
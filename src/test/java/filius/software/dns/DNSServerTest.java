@@ -30,6 +30,7 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -174,4 +175,42 @@ public class DNSServerTest {
         assertThat(rrList.get(0).getType(), is(ResourceRecord.NAME_SERVER));
         assertThat(rrList.get(1).getType(), is(ResourceRecord.ADDRESS));
     }
+
+    @Test
+    public void testAnswer_AWithResolver_SecondQueryFromCache() throws Exception {
+        Query query = new Query("hello.world.", ResourceRecord.ADDRESS);
+        DNSNachricht resolverResponse = new DNSNachricht(DNSNachricht.RESPONSE);
+        resolverResponse
+                .hinzuAntwortResourceRecord(new ResourceRecord("hello.world.", ResourceRecord.ADDRESS, "1.2.3.4"));
+        when(resolverMock.resolve(anyString(), anyString(), eq(DEFAULT_NAMESERVER_ADDRESS)))
+                .thenReturn(resolverResponse);
+        dnsServer.setRecursiveResolutionEnabled(true);
+
+        dnsServer.answer(query);
+        DNSNachricht response = dnsServer.answer(new Query("HELLO.world.", ResourceRecord.ADDRESS));
+        List<ResourceRecord> rrList = response.holeAntwortResourceRecords();
+
+        verify(resolverMock, times(1)).resolve(anyString(), anyString(), eq(DEFAULT_NAMESERVER_ADDRESS));
+        assertThat(rrList.size(), is(1));
+        assertThat(rrList.get(0).getRdata(), is("1.2.3.4"));
+        assertThat(dnsServer.holeCacheTreffer(), is(1L));
+        assertThat(dnsServer.holeCacheFehlschlaege(), is(1L));
+    }
+
+    @Test
+    public void testAnswer_AWithResolver_CacheClearedOnRecordChange() throws Exception {
+        Query query = new Query("hello.world.", ResourceRecord.ADDRESS);
+        DNSNachricht resolverResponse = new DNSNachricht(DNSNachricht.RESPONSE);
+        resolverResponse
+                .hinzuAntwortResourceRecord(new ResourceRecord("hello.world.", ResourceRecord.ADDRESS, "1.2.3.4"));
+        when(resolverMock.resolve(anyString(), anyString(), eq(DEFAULT_NAMESERVER_ADDRESS)))
+                .thenReturn(resolverResponse);
+        dnsServer.setRecursiveResolutionEnabled(true);
+
+        dnsServer.answer(query);
+        dnsServer.hinzuRecord("other.world.", ResourceRecord.ADDRESS, "4.3.2.1");
+        dnsServer.answer(query);
+
+        verify(resolverMock, times(2)).resolve(anyString(), anyString(), eq(DEFAULT_NAMESERVER_ADDRESS));
+    }
 }
@@ -0,0 +1,132 @@
+package filius.software.email;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.system.Datei;
+import filius.software.system.Dateisystem;
+import filius.software.system.InternetKnotenBetriebssystem;
+
+public class EmailServerTest {
+    private static final String POSTFACH_BOB = "/mailserver/" + EmailServer.POSTFAECHER + "/bob";
+
+    private Dateisystem dateisystem = new Dateisystem();
+    private EmailServer emailServer;
+
+    @Before
+    public void init() throws Exception {
+        InternetKnotenBetriebssystem osMock = mock(InternetKnotenBetriebssystem.class);
+        when(osMock.getDateisystem()).thenReturn(dateisystem);
+        emailServer = new EmailServer();
+        emailServer.setSystemSoftware(osMock);
+        dateisystem.speicherDatei("/mailserver", new Datei("konten.txt", "txt", ""));
+        emailServer.benutzerHinzufuegen("bob", "geheim", "Mustermann", "Bob");
+    }
+
+    @Test
+    public void testSucheKonto_IgnoresCase() throws Exception {
+        assertThat(emailServer.sucheKonto("BOB"), is(notNullValue()));
+        assertThat(emailServer.sucheKonto("Bob", "geheim"), is(notNullValue()));
+        assertThat(emailServer.sucheKonto("bob", "falsch"), is(nullValue()));
+        assertThat(emailServer.sucheKonto("alice"), is(nullValue()));
+    }
+
+    @Test
+    public void testNachrichtAblegen_OneFilePerMessage() throws Exception {
+        EmailKonto konto = emailServer.sucheKonto("bob");
+
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("erste"));
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("zweite"));
+
+        List<Datei> dateien = dateisystem.holeDateien(dateisystem.verzeichnisKnoten(POSTFACH_BOB));
+        assertThat(dateien.size(), is(2));
+        assertThat(dateisystem.holeDatei("/mailserver/konten.txt").getDateiInhalt().contains("erste"), is(false));
+    }
+
+    @Test
+    public void testKontenLaden_ReadsMailbox() throws Exception {
+        EmailKonto konto = emailServer.sucheKonto("bob");
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("erste"));
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("zweite; mit $ und |"));
+
+        emailServer.kontenLaden();
+
+        List<Email> nachrichten = emailServer.sucheKonto("bob").getNachrichten();
+        assertThat(nachrichten.size(), is(2));
+        assertThat(nachrichten.get(0).getBetreff(), is("erste"));
+        assertThat(nachrichten.get(1).getBetreff(), is("zweite; mit $ und |"));
+        assertThat(nachrichten.get(1).getText(), is("Text\nzweite Zeile"));
+    }
+
+    @Test
+    public void testPostfachSpeichern_DeletesOnlyRemovedMessage() throws Exception {
+        EmailKonto konto = emailServer.sucheKonto("bob");
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("erste"));
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("zweite"));
+
+        konto.getNachrichten().remove(0);
+        emailServer.postfachSpeichern(konto);
+        emailServer.kontenLaden();
+
+        List<Email> nachrichten = emailServer.sucheKonto("bob").getNachrichten();
+        assertThat(nachrichten.size(), is(1));
+        assertThat(nachrichten.get(0).getBetreff(), is("zweite"));
+    }
+
+    @Test
+    public void testKontenLaden_OldFormat() throws Exception {
+        dateisystem.holeDatei("/mailserver/konten.txt").setDateiInhalt(
+                "alice;filius.de;pw;Muster;Alice;#bob@filius.de$alice@filius.de$$$01.01.2020$Hallo$Zeile 1|Zeile 2\n");
+
+        emailServer.kontenLaden();
+
+        EmailKonto konto = emailServer.sucheKonto("alice");
+        assertThat(konto.getNachrichten().size(), is(1));
+        assertThat(konto.getNachrichten().get(0).getText(), is("Zeile 1\nZeile 2"));
+        assertThat(dateisystem.holeDatei("/mailserver/konten.txt").getDateiInhalt(),
+                is("alice;filius.de;pw;Muster;Alice;\n"));
+        assertThat(dateisystem.holeDateien(dateisystem.verzeichnisKnoten("/mailserver/" + EmailServer.POSTFAECHER
+                + "/alice")).size(), is(1));
+    }
+
+    @Test
+    public void testKontenLaden_UIDFromFileName() throws Exception {
+        EmailKonto konto = emailServer.sucheKonto("bob");
+        Email email = erzeugeEmail("erste");
+        emailServer.nachrichtAblegen(konto, email);
+        String uid = email.holeUID();
+
+        emailServer.kontenLaden();
+
+        assertThat(uid, is(notNullValue()));
+        assertThat(emailServer.sucheKonto("bob").getNachrichten().get(0).holeUID(), is(uid));
+    }
+
+    @Test
+    public void testKontoLoeschen_RemovesMailbox() throws Exception {
+        EmailKonto konto = emailServer.sucheKonto("bob");
+        emailServer.nachrichtAblegen(konto, erzeugeEmail("erste"));
+
+        emailServer.kontoLoeschen(konto);
+
+        assertThat(emailServer.sucheKonto("bob"), is(nullValue()));
+        assertThat(dateisystem.verzeichnisKnoten(POSTFACH_BOB), is(nullValue()));
+    }
+
+    private Email erzeugeEmail(String betreff) {
+        Email email = new Email();
+        email.setAbsender("alice@filius.de");
+        email.setBetreff(betreff);
+        email.setText("Text\nzweite Zeile");
+        return email;
+    }
+}
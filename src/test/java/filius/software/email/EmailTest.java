@@ -85,4 +85,22 @@ public class EmailTest {
         mail = new Email("to: " + rcptAddress);
         assertThat(mail.getEmpfaenger().get(0).toString()).isEqualTo("<rcptAddress>");
     }
+
+    @Test
+    public void groesse_updatedAfterChange() throws Exception {
+        Email mail = new Email("subject: test");
+        int groesse = mail.holeGroesse();
+        assertThat(groesse).isEqualTo(mail.toString().length());
+
+        mail.setText("ein etwas laengerer Text");
+        assertThat(mail.holeGroesse()).isEqualTo(mail.toString().length());
+        assertThat(mail.holeGroesse()).isGreaterThan(groesse);
+    }
+
+    @Test
+    public void holeKopf_MitTextErgibtToString() throws Exception {
+        Email mail = new Email("from: sender\nsubject: betreff\n\n  text  \n");
+
+        assertThat(mail.holeKopf() + "\n" + mail.getText().trim()).isEqualTo(mail.toString());
+    }
 }
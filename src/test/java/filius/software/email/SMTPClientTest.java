@@ -0,0 +1,90 @@
+package filius.software.email;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.transportschicht.Socket;
+
+public class SMTPClientTest {
+
+    private Socket socket;
+    private SMTPClient client;
+
+    @Before
+    public void init() {
+        socket = mock(Socket.class);
+        final Socket mockSocket = socket;
+        client = new SMTPClient(mock(EmailServer.class)) {
+            {
+                socket = mockSocket;
+            }
+        };
+    }
+
+    private SMTPWarteschlange.Auftrag auftrag(String... empfaenger) {
+        return new SMTPWarteschlange.Auftrag(new Email(), "alice@filius.de", "foo.de",
+                new ArrayList<String>(Arrays.asList(empfaenger)));
+    }
+
+    @Test
+    public void testUebertrageAuftrag_RejectedRecipientDoesNotStopOthers() throws Exception {
+        when(socket.empfangen()).thenReturn("250 OK", "550 no such user", "250 OK", "354 go ahead", "250 OK");
+        SMTPWarteschlange.Auftrag auftrag = auftrag("bob@foo.de", "dave@foo.de");
+
+        boolean erfolg = client.uebertrageAuftrag(auftrag);
+
+        assertThat(erfolg, is(true));
+        assertThat(auftrag.abgelehnt, is(Arrays.asList("bob@foo.de")));
+        assertThat(auftrag.empfaenger.isEmpty(), is(true));
+        verify(socket).senden("DATA");
+    }
+
+    @Test
+    public void testUebertrageAuftrag_DeferredRecipientIsKeptForRetry() throws Exception {
+        when(socket.empfangen()).thenReturn("250 OK", "450 mailbox busy", "250 OK", "354 go ahead", "250 OK");
+        SMTPWarteschlange.Auftrag auftrag = auftrag("bob@foo.de", "dave@foo.de");
+
+        boolean erfolg = client.uebertrageAuftrag(auftrag);
+
+        assertThat(erfolg, is(false));
+        assertThat(auftrag.empfaenger, is(Arrays.asList("bob@foo.de")));
+        assertThat(auftrag.fehler, is("450 mailbox busy"));
+        assertThat(auftrag.istEndgueltigAbgelehnt(), is(false));
+    }
+
+    @Test
+    public void testUebertrageAuftrag_AllRecipientsRejectedResetsTransaction() throws Exception {
+        when(socket.empfangen()).thenReturn("250 OK", "550 no such user", "250 OK");
+        SMTPWarteschlange.Auftrag auftrag = auftrag("bob@foo.de");
+
+        boolean erfolg = client.uebertrageAuftrag(auftrag);
+
+        assertThat(erfolg, is(true));
+        assertThat(auftrag.abgelehnt, is(Arrays.asList("bob@foo.de")));
+        verify(socket).senden("RSET");
+        verify(socket, never()).senden("DATA");
+    }
+
+    @Test
+    public void testUebertrageAuftrag_RejectedSenderResetsTransaction() throws Exception {
+        when(socket.empfangen()).thenReturn("451 try again later", "250 OK");
+        SMTPWarteschlange.Auftrag auftrag = auftrag("bob@foo.de");
+
+        boolean erfolg = client.uebertrageAuftrag(auftrag);
+
+        assertThat(erfolg, is(false));
+        assertThat(auftrag.fehler, is("451 try again later"));
+        assertThat(auftrag.empfaenger, is(Arrays.asList("bob@foo.de")));
+        verify(socket).senden("RSET");
+    }
+}
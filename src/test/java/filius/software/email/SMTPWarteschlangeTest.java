@@ -0,0 +1,181 @@
+package filius.software.email;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.rahmenprogramm.SimulationsUhr;
+
+public class SMTPWarteschlangeTest {
+
+    private EmailServer emailServer;
+    private TestWarteschlange warteschlange;
+
+    @Before
+    public void init() {
+        emailServer = mock(EmailServer.class);
+        warteschlange = new TestWarteschlange(emailServer);
+    }
+
+    @Test
+    public void testEinreihen_OneOrderPerDomain() throws Exception {
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de, carol@bar.de,dave@foo.de");
+
+        Map<String, List<SMTPWarteschlange.Auftrag>> stapel = warteschlange.entnehmeFaellige(Long.MAX_VALUE);
+
+        assertThat(stapel.size(), is(2));
+        assertThat(stapel.get("foo.de").get(0).empfaenger, is(Arrays.asList("bob@foo.de", "dave@foo.de")));
+        assertThat(stapel.get("bar.de").get(0).empfaenger, is(Arrays.asList("carol@bar.de")));
+        assertThat(warteschlange.anzahlAuftraege(), is(0));
+    }
+
+    @Test
+    public void testVerarbeiteFaellige_OneConnectionPerDomain() throws Exception {
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de");
+        warteschlange.einreihen(new Email(), "alice@filius.de", "dave@foo.de");
+        warteschlange.einreihen(new Email(), "alice@filius.de", "carol@bar.de");
+
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+
+        assertThat(warteschlange.verbindungen, is(Arrays.asList("foo.de:2", "bar.de:1")));
+    }
+
+    @Test
+    public void testHoleMailServer_Cached() throws Exception {
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de");
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+        warteschlange.einreihen(new Email(), "alice@filius.de", "dave@foo.de");
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+
+        assertThat(warteschlange.verbindungen.size(), is(2));
+        assertThat(warteschlange.aufloesungen, is(1));
+    }
+
+    @Test
+    public void testVersenden_FailedIsRetriedLater() throws Exception {
+        warteschlange.fehlschlagen = true;
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de");
+
+        long jetzt = SimulationsUhr.jetzt();
+        warteschlange.verarbeiteFaellige(jetzt);
+
+        assertThat(warteschlange.anzahlAuftraege(), is(1));
+        assertThat(warteschlange.entnehmeFaellige(jetzt).isEmpty(), is(true));
+        SMTPWarteschlange.Auftrag auftrag = warteschlange.entnehmeFaellige(Long.MAX_VALUE).get("foo.de").get(0);
+        assertThat(auftrag.versuche, is(1));
+        verify(emailServer, never()).sendUnknownReceiverResponse(any(Email.class), anyString(), anyList());
+    }
+
+    @Test
+    public void testVersenden_BounceAfterMaxAttempts() throws Exception {
+        warteschlange.fehlschlagen = true;
+        Email email = new Email();
+        warteschlange.einreihen(email, "alice@filius.de", "bob@foo.de");
+
+        for (int i = 0; i < SMTPWarteschlange.MAX_VERSUCHE; i++) {
+            warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+        }
+
+        assertThat(warteschlange.anzahlAuftraege(), is(0));
+        verify(emailServer, times(1)).sendUnknownReceiverResponse(eq(email), eq("alice@filius.de"),
+                eq(Arrays.asList("bob@foo.de")));
+    }
+
+    @Test
+    public void testVersenden_PermanentRejectionIsNotRetried() throws Exception {
+        warteschlange.fehlschlagen = true;
+        warteschlange.fehler = "550 no such user";
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de");
+
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+
+        assertThat(warteschlange.anzahlAuftraege(), is(0));
+        verify(emailServer).sendUnknownReceiverResponse(any(Email.class), eq("alice@filius.de"), anyList());
+    }
+
+    @Test
+    public void testVersenden_OnlyRejectedRecipientsBounce() throws Exception {
+        warteschlange.abgelehnt = "bob@foo.de";
+        Email email = new Email();
+        warteschlange.einreihen(email, "alice@filius.de", "bob@foo.de,dave@foo.de");
+
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+
+        assertThat(warteschlange.anzahlAuftraege(), is(0));
+        verify(emailServer, times(1)).sendUnknownReceiverResponse(eq(email), eq("alice@filius.de"),
+                eq(Arrays.asList("bob@foo.de")));
+    }
+
+    @Test
+    public void testVersenden_PermanentRejectionKeepsCachedMailServer() throws Exception {
+        warteschlange.fehlschlagen = true;
+        warteschlange.fehler = "550 no such user";
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de");
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+        warteschlange.einreihen(new Email(), "alice@filius.de", "dave@foo.de");
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+
+        assertThat(warteschlange.aufloesungen, is(1));
+    }
+
+    @Test
+    public void testVersenden_TemporaryFailureResolvesMailServerAgain() throws Exception {
+        warteschlange.fehlschlagen = true;
+        warteschlange.fehler = "451 try again later";
+        warteschlange.einreihen(new Email(), "alice@filius.de", "bob@foo.de");
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+        warteschlange.verarbeiteFaellige(Long.MAX_VALUE);
+
+        assertThat(warteschlange.aufloesungen, is(2));
+    }
+
+    private static class TestWarteschlange extends SMTPWarteschlange {
+        List<String> verbindungen = new ArrayList<String>();
+        int aufloesungen = 0;
+        boolean fehlschlagen = false;
+        String fehler = null;
+        String abgelehnt = null;
+
+        TestWarteschlange(EmailServer emailServer) {
+            super(emailServer);
+        }
+
+        @Override
+        String loeseAuf(String domain) {
+            aufloesungen++;
+            return "10.0.0.1";
+        }
+
+        @Override
+        List<Auftrag> versenden(String serverAdresse, List<Auftrag> stapel) {
+            verbindungen.add(stapel.get(0).domain + ":" + stapel.size());
+            if (fehlschlagen) {
+                for (Auftrag auftrag : stapel) {
+                    auftrag.fehler = fehler;
+                }
+                return stapel;
+            }
+            for (Auftrag auftrag : stapel) {
+                if (auftrag.empfaenger.remove(abgelehnt)) {
+                    auftrag.abgelehnt.add(abgelehnt);
+                }
+            }
+            return new ArrayList<Auftrag>();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package filius.software.rip;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import filius.hardware.NetzwerkInterface;
+import filius.hardware.knoten.InternetKnoten;
+import filius.software.system.VermittlungsrechnerBetriebssystem;
+import filius.software.transportschicht.UDPSocket;
+
+public class RIPBeaconTest {
+
+    private VermittlungsrechnerBetriebssystem bs;
+    private UDPSocket sock;
+    private List<RIPRoute> routes;
+
+    @Before
+    public void setUp() throws Exception {
+        NetzwerkInterface nic1 = mock(NetzwerkInterface.class);
+        when(nic1.getIp()).thenReturn("10.0.0.1");
+        NetzwerkInterface nic2 = mock(NetzwerkInterface.class);
+        when(nic2.getIp()).thenReturn("10.0.1.1");
+        InternetKnoten knoten = mock(InternetKnoten.class);
+        when(knoten.getNetzwerkInterfaces()).thenReturn(Arrays.asList(nic1, nic2));
+        bs = mock(VermittlungsrechnerBetriebssystem.class);
+        when(bs.getKnoten()).thenReturn(knoten);
+        when(bs.primaryIPAdresse()).thenReturn("10.0.0.1");
+        sock = mock(UDPSocket.class);
+
+        routes = new ArrayList<RIPRoute>();
+        // directly connected network of the second interface
+        routes.add(new RIPRoute(0, "10.0.1.0", "255.255.255.0", "10.0.1.1", "10.0.1.1", "10.0.1.1", 0));
+        // network learned from a neighbour behind the first interface
+        routes.add(new RIPRoute(0, "10.2.0.0", "255.255.0.0", "10.0.0.2", "10.0.0.2", "10.0.0.1", 2));
+    }
+
+    @Test
+    public void testBroadcast_PoisonReverse() throws Exception {
+        when(bs.getRipSplitHorizon()).thenReturn(RIPTable.POISON_REVERSE);
+
+        List<RIPMessage> nachrichten = sendeUndLese();
+
+        assertThat(nachrichten.get(0).ip, is("10.0.0.1"));
+        assertThat(hops(nachrichten.get(0)), is(Arrays.asList("10.0.1.0=0", "10.2.0.0=" + RIPTable.INFINITY)));
+        assertThat(nachrichten.get(1).ip, is("10.0.1.1"));
+        assertThat(hops(nachrichten.get(1)), is(Arrays.asList("10.0.1.0=0", "10.2.0.0=2")));
+    }
+
+    @Test
+    public void testBroadcast_SplitHorizon() throws Exception {
+        when(bs.getRipSplitHorizon()).thenReturn(RIPTable.SPLIT_HORIZON);
+
+        List<RIPMessage> nachrichten = sendeUndLese();
+
+        assertThat(hops(nachrichten.get(0)), is(Arrays.asList("10.0.1.0=0")));
+        assertThat(hops(nachrichten.get(1)), is(Arrays.asList("10.2.0.0=2")));
+    }
+
+    @Test
+    public void testBroadcast_SplitHorizonOff() throws Exception {
+        when(bs.getRipSplitHorizon()).thenReturn(RIPTable.SPLIT_HORIZON_OFF);
+
+        List<RIPMessage> nachrichten = sendeUndLese();
+
+        assertThat(hops(nachrichten.get(0)), is(Arrays.asList("10.0.1.0=0", "10.2.0.0=2")));
+        assertThat(hops(nachrichten.get(1)), is(Arrays.asList("10.0.1.0=0", "10.2.0.0=2")));
+    }
+
+    private List<RIPMessage> sendeUndLese() throws Exception {
+        new RIPBeacon().broadcast(sock, bs, routes);
+
+        ArgumentCaptor<String> gesendet = ArgumentCaptor.forClass(String.class);
+        InOrder reihenfolge = inOrder(sock);
+        reihenfolge.verify(sock).bind("10.0.0.1");
+        reihenfolge.verify(sock).senden(gesendet.capture());
+        reihenfolge.verify(sock).bind("10.0.1.1");
+        reihenfolge.verify(sock).senden(gesendet.capture());
+
+        List<RIPMessage> nachrichten = new ArrayList<RIPMessage>();
+        for (String nachricht : gesendet.getAllValues()) {
+            nachrichten.add(new RIPMessage(nachricht));
+        }
+        return nachrichten;
+    }
+
+    private static List<String> hops(RIPMessage nachricht) {
+        List<String> hops = new ArrayList<String>();
+        for (RIPMessageRoute route : nachricht.routes) {
+            hops.add(route.ip + "=" + route.hops);
+        }
+        return hops;
+    }
+}
@@ -0,0 +1,50 @@
+package filius.software.rip;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RIPConvergenceTrackerTest {
+
+    private RIPConvergenceTracker tracker = RIPConvergenceTracker.getTracker();
+
+    @After
+    public void tearDown() {
+        tracker.reset();
+    }
+
+    @Test
+    public void testTopologyChanged_NurErsteAenderungDerEpisodeZaehlt() throws Exception {
+        tracker.reset();
+        tracker.topologyChanged(1000);
+        tracker.tableChanged(1500);
+        tracker.topologyChanged(2000);
+        tracker.tableChanged(2500);
+
+        assertThat(tracker.getConvergenceTime(2500 + RIPConvergenceTracker.QUIET_PERIOD), is(1500L));
+    }
+
+    @Test
+    public void testTopologyChanged_NachKonvergenzNeueEpisode() throws Exception {
+        tracker.reset();
+        tracker.topologyChanged(1000);
+        tracker.tableChanged(1500);
+        long neu = 1500 + RIPConvergenceTracker.QUIET_PERIOD;
+        tracker.topologyChanged(neu);
+        tracker.tableChanged(neu + 200);
+
+        assertThat(tracker.getConvergenceTime(neu + 200 + RIPConvergenceTracker.QUIET_PERIOD), is(200L));
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        tracker.topologyChanged(1000);
+
+        tracker.reset();
+
+        assertThat(tracker.getLastChange(), is(-1L));
+        assertThat(tracker.getConvergenceTime(1000 + RIPConvergenceTracker.QUIET_PERIOD), is(-1L));
+    }
+}
@@ -0,0 +1,80 @@
+package filius.software.rip;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import filius.software.vermittlungsschicht.IP;
+
+public class RIPTableTest {
+
+    @Test
+    public void testSearch_ByNetworkAndMask() throws Exception {
+        RIPTable table = new RIPTable(null);
+        RIPRoute route = new RIPRoute(0, "10.1.0.0", "255.255.0.0", "10.0.0.2", "10.0.0.2", "10.0.0.1", 1);
+        table.addRoute(route);
+
+        assertThat(table.search("10.1.0.0", "255.255.0.0"), is(sameInstance(route)));
+        assertThat(table.search("10.1.0.0", "255.255.255.0"), is(nullValue()));
+    }
+
+    @Test
+    public void testLookup_FewestHopsThenLongestMask() throws Exception {
+        RIPTable table = new RIPTable(null);
+        RIPRoute wide = new RIPRoute(0, "10.0.0.0", "255.0.0.0", "10.0.0.2", "10.0.0.2", "10.0.0.1", 1);
+        RIPRoute narrow = new RIPRoute(0, "10.1.0.0", "255.255.0.0", "10.0.0.3", "10.0.0.3", "10.0.0.1", 3);
+        RIPRoute narrowest = new RIPRoute(0, "10.1.2.0", "255.255.255.0", "10.0.0.4", "10.0.0.4", "10.0.0.1", 1);
+        table.addRoute(wide);
+        table.addRoute(narrow);
+        table.addRoute(narrowest);
+
+        assertThat(table.lookup(IP.inetAton("10.1.2.3")), is(sameInstance(narrowest)));
+        assertThat(table.lookup(IP.inetAton("10.1.3.3")), is(sameInstance(wide)));
+        assertThat(table.lookup(IP.inetAton("11.1.2.3")), is(nullValue()));
+    }
+
+    @Test
+    public void testLookup_IgnoreUnreachableRoutes() throws Exception {
+        RIPTable table = new RIPTable(null);
+        table.addRoute(new RIPRoute(0, "10.1.0.0", "255.255.0.0", "10.0.0.3", "10.0.0.3", "10.0.0.1",
+                RIPTable.INFINITY));
+
+        assertThat(table.lookup(IP.inetAton("10.1.2.3")), is(nullValue()));
+    }
+
+    @Test
+    public void testCheck_ExpiredRouteIsChanged() throws Exception {
+        RIPTable table = new RIPTable(null);
+        RIPRoute route = new RIPRoute(1, "10.1.0.0", "255.255.0.0", "10.0.0.3", "10.0.0.3", "10.0.0.1", 2);
+        table.addRoute(route);
+        Thread.sleep(10);
+
+        table.check();
+
+        assertThat(route.hops, is(RIPTable.INFINITY));
+        assertThat(table.takeChangedRoutes().size(), is(1));
+        assertThat(table.hasChangedRoutes(), is(false));
+    }
+
+    @Test
+    public void testMarkChanged_ReportedToConvergenceTracker() throws Exception {
+        RIPTable table = new RIPTable(null);
+        RIPConvergenceTracker tracker = RIPConvergenceTracker.getTracker();
+        tracker.reset();
+        long start = RIPUtil.getTime();
+        tracker.topologyChanged(start);
+        RIPRoute route = new RIPRoute(0, "10.1.0.0", "255.255.0.0", "10.0.0.3", "10.0.0.3", "10.0.0.1", 2);
+        table.addRoute(route);
+
+        table.markChanged(route);
+
+        assertThat(table.getLastChange() >= start, is(true));
+        assertThat(tracker.getLastChange(), is(table.getLastChange()));
+        assertThat(tracker.getConvergenceTime(table.getLastChange()), is(-1L));
+        assertThat(tracker.getConvergenceTime(table.getLastChange() + RIPConvergenceTracker.QUIET_PERIOD),
+                is(table.getLastChange() - start));
+    }
+}
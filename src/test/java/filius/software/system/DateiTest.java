@@ -0,0 +1,96 @@
+package filius.software.system;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import filius.rahmenprogramm.Base64;
+
+public class DateiTest {
+
+    @Test
+    public void testHoleBinaerDaten_DekodiertBase64() throws Exception {
+        byte[] daten = new byte[1000];
+        for (int i = 0; i < daten.length; i++) {
+            daten[i] = (byte) i;
+        }
+        String kodiert = Base64.encodeBytes(daten);
+
+        Datei datei = new Datei("bild.png", "image", kodiert);
+
+        assertThat(datei.holeGroesse(), is(1000L));
+        assertThat(datei.holeBinaerDaten(), is(daten));
+        assertThat(datei.holeDaten(), is(daten));
+        assertThat(datei.getDateiInhalt(), is(kodiert));
+    }
+
+    @Test
+    public void testHoleBinaerDaten_AusDatei() throws Exception {
+        File file = File.createTempFile("filius", ".bin");
+        file.deleteOnExit();
+        byte[] daten = new byte[500];
+        for (int i = 0; i < daten.length; i++) {
+            daten[i] = (byte) (i * 7);
+        }
+        Files.write(file.toPath(), daten);
+        String kodiert = Base64.encodeFromFile(file.getAbsolutePath());
+
+        Datei datei = new Datei("bild.png", "image", kodiert);
+
+        assertThat(datei.holeBinaerDaten(), is(daten));
+        assertThat(datei.getDateiInhalt(), is(kodiert));
+    }
+
+    @Test
+    public void testTextInhalt_BleibtUnveraendert() throws Exception {
+        Datei datei = new Datei("hosts", "text", "www.filius.de 192.168.0.10\n");
+
+        assertThat(datei.getDateiInhalt(), is("www.filius.de 192.168.0.10\n"));
+        assertThat(datei.holeGroesse(), is(27L));
+    }
+
+    @Test
+    public void testTextInhalt_ImBase64Alphabet() throws Exception {
+        Datei datei = new Datei("notiz", "text", "abcd");
+
+        assertThat(datei.getDateiInhalt(), is("abcd"));
+        assertThat(datei.holeGroesse(), is(4L));
+    }
+
+    @Test
+    public void testHoleDaten_TextImBase64AlphabetWirdNichtDekodiert() throws Exception {
+        for (String text : new String[] { "test", "abcd", "Hallo123" }) {
+            Datei datei = new Datei("notiz", "text", text);
+
+            assertThat(datei.holeDaten(), is(text.getBytes(StandardCharsets.UTF_8)));
+            assertThat(datei.getDateiInhalt(), is(text));
+        }
+    }
+
+    @Test
+    public void testBinaererInhalt() throws Exception {
+        Datei datei = new Datei("daten.bin", "binary", new byte[] { 1, 2, 3 });
+
+        assertThat(datei.holeGroesse(), is(3L));
+        assertThat(datei.getDateiInhalt(), is(Base64.encodeBytes(new byte[] { 1, 2, 3 })));
+    }
+
+    @Test
+    public void testGetDateiInhalt_KodierungWirdZwischengespeichert() throws Exception {
+        Datei datei = new Datei("daten.bin", "binary", new byte[] { 1, 2, 3 });
+
+        String kodiert = datei.getDateiInhalt();
+
+        assertThat(datei.getDateiInhalt(), sameInstance(kodiert));
+        datei.setzeDaten(new byte[] { 4, 5, 6 });
+        assertThat(datei.getDateiInhalt(), not(kodiert));
+        assertThat(datei.getDateiInhalt(), is(Base64.encodeBytes(new byte[] { 4, 5, 6 })));
+    }
+}
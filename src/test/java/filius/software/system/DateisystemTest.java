@@ -2,8 +2,11 @@ package filius.software.system;
 
 import static filius.software.system.Dateisystem.FILE_SEPARATOR;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.List;
+
 import javax.swing.tree.DefaultMutableTreeNode;
 
 import org.junit.Test;
@@ -49,4 +52,75 @@ public class DateisystemTest {
 
         assertThat(path, is(absPath));
     }
+
+    @Test
+    public void testHoleDatei_IgnoresCase() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        Datei datei = new Datei("Index.html", "text", "inhalt");
+        filesystem.speicherDatei(FILE_SEPARATOR + TEST_DIR, datei);
+
+        assertThat(filesystem.holeDatei(FILE_SEPARATOR + "TEST" + FILE_SEPARATOR + "index.HTML"), is(datei));
+        assertThat(filesystem.dateiVorhanden(FILE_SEPARATOR + TEST_DIR, "index.html"), is(true));
+    }
+
+    @Test
+    public void testDeleteFile_RemovesSubtree() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        filesystem.speicherDatei(FILE_SEPARATOR + TEST_DIR, new Datei("datei.txt", "text", "inhalt"));
+
+        assertThat(filesystem.deleteFile(FILE_SEPARATOR + TEST_DIR), is(true));
+
+        assertThat(filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR), is(nullValue()));
+        assertThat(filesystem.holeDatei(FILE_SEPARATOR + TEST_DIR + FILE_SEPARATOR + "datei.txt"), is(nullValue()));
+    }
+
+    @Test
+    public void testBenenneUm_Verzeichnis() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        Datei datei = new Datei("datei.txt", "text", "inhalt");
+        filesystem.speicherDatei(FILE_SEPARATOR + TEST_DIR, datei);
+
+        filesystem.benenneUm(filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR), "neu");
+
+        assertThat(filesystem.holeDatei(FILE_SEPARATOR + TEST_DIR + FILE_SEPARATOR + "datei.txt"), is(nullValue()));
+        assertThat(filesystem.holeDatei(FILE_SEPARATOR + "neu" + FILE_SEPARATOR + "datei.txt"), is(datei));
+    }
+
+    @Test
+    public void testVerzeichnisKnoten_TreeChangedDirectly() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        DefaultMutableTreeNode testDir = filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR);
+
+        testDir.setUserObject("anders");
+        filesystem.getRoot().add(new DefaultMutableTreeNode(TEST_DIR));
+
+        DefaultMutableTreeNode gefunden = filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR);
+        assertThat(gefunden == testDir, is(false));
+        assertThat(gefunden.getUserObject(), is(TEST_DIR));
+    }
+
+    @Test
+    public void testDateiSuche_Literal() throws Exception {
+        filesystem.speicherDatei(FILE_SEPARATOR, new Datei("a+b.txt", "text", ""));
+        filesystem.speicherDatei(FILE_SEPARATOR, new Datei("aab.txt", "text", ""));
+
+        List<Datei> treffer = filesystem.dateiSuche(FILE_SEPARATOR, "A+B");
+
+        assertThat(treffer.size(), is(1));
+        assertThat(treffer.get(0).getName(), is("a+b.txt"));
+    }
+
+    @Test
+    public void testHoleAenderungsstand_ChangesWithStructure() throws Exception {
+        long stand = filesystem.holeAenderungsstand();
+        filesystem.speicherDatei(FILE_SEPARATOR, new Datei("a.txt", "text", ""));
+        long nachEinfuegen = filesystem.holeAenderungsstand();
+        filesystem.speicherDatei(FILE_SEPARATOR, new Datei("a.txt", "text", "neu"));
+
+        assertThat(nachEinfuegen > stand, is(true));
+        assertThat(filesystem.holeAenderungsstand(), is(nachEinfuegen));
+
+        filesystem.deleteFile(FILE_SEPARATOR + "a.txt");
+        assertThat(filesystem.holeAenderungsstand() > nachEinfuegen, is(true));
+    }
 }
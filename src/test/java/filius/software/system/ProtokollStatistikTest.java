@@ -0,0 +1,64 @@
+package filius.software.system;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import filius.software.system.ProtokollStatistik.Zaehler;
+
+public class ProtokollStatistikTest {
+
+    @Test
+    public void testErhoehe() {
+        ProtokollStatistik statistik = new ProtokollStatistik();
+
+        statistik.erhoehe(Zaehler.IP_WEITERGELEITET);
+        statistik.erhoehe(Zaehler.IP_WEITERGELEITET);
+        statistik.erhoehe(Zaehler.UDP_KEIN_EMPFAENGER);
+
+        assertThat(statistik.holeWert(Zaehler.IP_WEITERGELEITET), is(2L));
+        assertThat(statistik.holeWert(Zaehler.UDP_KEIN_EMPFAENGER), is(1L));
+        assertThat(statistik.holeWert(Zaehler.TCP_WIEDERHOLUNGEN), is(0L));
+    }
+
+    @Test
+    public void testZuruecksetzen() {
+        ProtokollStatistik statistik = new ProtokollStatistik();
+        statistik.erhoehe(Zaehler.ARP_FEHLTREFFER);
+
+        statistik.zuruecksetzen();
+
+        assertThat(statistik.holeWert(Zaehler.ARP_FEHLTREFFER), is(0L));
+    }
+
+    @Test
+    public void testAlsJson() {
+        ProtokollStatistik statistik = new ProtokollStatistik();
+        statistik.erhoehe(Zaehler.IP_TTL_ABGELAUFEN);
+        statistik.erhoehe(Zaehler.TCP_ZEITUEBERSCHREITUNGEN);
+
+        String json = statistik.alsJson("PC \"1\"");
+
+        assertThat(json, is("{\"node\":\"PC \\\"1\\\"\","
+                + "\"ip\":{\"received\":0,\"sent\":0,\"forwarded\":0,\"no_route\":0,\"ttl_expired\":1},"
+                + "\"arp\":{\"cache_misses\":0,\"unresolved\":0},"
+                + "\"icmp\":{\"errors_sent\":0},"
+                + "\"tcp\":{\"retransmissions\":0,\"timeouts\":1,\"no_listener\":0},"
+                + "\"udp\":{\"no_listener\":0}}"));
+    }
+
+    @Test
+    public void testAlsText() {
+        ProtokollStatistik statistik = new ProtokollStatistik();
+        statistik.erhoehe(Zaehler.ICMP_FEHLER_GESENDET);
+
+        String text = statistik.alsText();
+
+        assertTrue(text.contains("IP:\n"));
+        assertTrue(text.contains("ICMP:\n"));
+        assertTrue(text.contains("UDP:\n"));
+        assertTrue(text.contains("       1 "));
+    }
+}
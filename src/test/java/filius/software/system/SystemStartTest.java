@@ -0,0 +1,101 @@
+package filius.software.system;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import filius.software.dhcp.DHCPServer;
+import filius.software.dns.DNSServer;
+
+public class SystemStartTest {
+
+    private final List<SystemSoftware> reihenfolge = Collections.synchronizedList(new LinkedList<SystemSoftware>());
+
+    private <T extends SystemSoftware> T erzeugeSystem(Class<T> klasse) {
+        final T system = mock(klasse);
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) {
+                reihenfolge.add(system);
+                return null;
+            }
+        }).when(system).starten();
+        return system;
+    }
+
+    private Betriebssystem erzeugeRechner(boolean dhcpServer, boolean dnsServer) {
+        Betriebssystem bs = erzeugeSystem(Betriebssystem.class);
+        DHCPServer server = mock(DHCPServer.class);
+        when(server.isAktiv()).thenReturn(dhcpServer);
+        when(bs.getDHCPServer()).thenReturn(server);
+        if (dnsServer) {
+            when(bs.holeSoftware(DNSServer.class.getName())).thenReturn(mock(DNSServer.class));
+        }
+        return bs;
+    }
+
+    @Test
+    public void testHoleStartStufe() {
+        assertThat(SystemStart.holeStartStufe(erzeugeSystem(SwitchFirmware.class)), is(SystemStart.STUFE_NETZ));
+        assertThat(SystemStart.holeStartStufe(erzeugeSystem(VermittlungsrechnerBetriebssystem.class)),
+                is(SystemStart.STUFE_DIENSTE));
+        assertThat(SystemStart.holeStartStufe(erzeugeRechner(true, false)), is(SystemStart.STUFE_DIENSTE));
+        assertThat(SystemStart.holeStartStufe(erzeugeRechner(false, true)), is(SystemStart.STUFE_DIENSTE));
+        assertThat(SystemStart.holeStartStufe(erzeugeRechner(false, false)), is(SystemStart.STUFE_ENDSYSTEME));
+    }
+
+    @Test
+    public void testRun_StartsInStages() throws Exception {
+        List<SystemSoftware> clients = new LinkedList<SystemSoftware>();
+        for (int i = 0; i < 20; i++) {
+            clients.add(erzeugeRechner(false, false));
+        }
+        Betriebssystem server = erzeugeRechner(true, false);
+        SwitchFirmware vermittler = erzeugeSystem(SwitchFirmware.class);
+        List<SystemSoftware> systeme = new LinkedList<SystemSoftware>(clients);
+        systeme.addAll(Arrays.asList(server, vermittler));
+        final int[] fortschritt = new int[2];
+
+        SystemStart start = new SystemStart(systeme, new SystemStart.Fortschritt() {
+            public synchronized void gestartet(SystemSoftware system, int anzahlGestartet, int anzahlGesamt) {
+                fortschritt[0] = Math.max(fortschritt[0], anzahlGestartet);
+            }
+
+            public void beendet() {
+                fortschritt[1]++;
+            }
+        });
+        start.start();
+        start.join();
+
+        assertThat(reihenfolge.size(), is(22));
+        assertThat(reihenfolge.get(0), is((SystemSoftware) vermittler));
+        assertThat(reihenfolge.get(1), is((SystemSoftware) server));
+        assertThat(fortschritt[0], is(22));
+        assertThat(fortschritt[1], is(1));
+    }
+
+    @Test
+    public void testAbbrechen_BeforeStart() throws Exception {
+        SwitchFirmware vermittler = erzeugeSystem(SwitchFirmware.class);
+        SystemStart start = new SystemStart(Arrays.<SystemSoftware> asList(vermittler), null);
+
+        start.abbrechen();
+        start.start();
+        start.join();
+
+        verify(vermittler, never()).starten();
+    }
+}
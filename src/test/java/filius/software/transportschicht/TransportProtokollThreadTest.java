@@ -0,0 +1,73 @@
+package filius.software.transportschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedList;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import filius.exception.SocketException;
+import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
+import filius.software.system.ProtokollStatistik.Zaehler;
+import filius.software.vermittlungsschicht.IP;
+import filius.software.vermittlungsschicht.IpPaket;
+
+public class TransportProtokollThreadTest {
+
+    @Mock
+    private InternetKnotenBetriebssystem bsMock;
+    @Mock
+    private IP ipMock;
+    @Mock
+    private TransportProtokoll protokollMock;
+    private ProtokollStatistik statistik = new ProtokollStatistik();
+
+    @Before
+    public void initMocks() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(bsMock.holeProtokollStatistik()).thenReturn(statistik);
+        when(bsMock.holeIP()).thenReturn(ipMock);
+        when(ipMock.holePaketListe(anyInt())).thenReturn(new LinkedList<IpPaket>());
+        when(protokollMock.holeSystemSoftware()).thenReturn(bsMock);
+        when(protokollMock.holeSocket(anyInt())).thenThrow(new SocketException());
+    }
+
+    @Test
+    public void testVerarbeiteDatenEinheit_UdpOhneEmpfaengerWirdGezaehlt() throws Exception {
+        when(protokollMock.holeTyp()).thenReturn(IpPaket.UDP);
+        TransportProtokollThread thread = new TransportProtokollThread(protokollMock);
+
+        thread.verarbeiteDatenEinheit(erzeugePaket(IpPaket.UDP, new UdpSegment()));
+
+        assertThat(statistik.holeWert(Zaehler.UDP_KEIN_EMPFAENGER), is(1L));
+        assertThat(statistik.holeWert(Zaehler.TCP_KEIN_EMPFAENGER), is(0L));
+    }
+
+    @Test
+    public void testVerarbeiteDatenEinheit_TcpOhneEmpfaengerWirdGezaehlt() throws Exception {
+        when(protokollMock.holeTyp()).thenReturn(IpPaket.TCP);
+        TransportProtokollThread thread = new TransportProtokollThread(protokollMock);
+
+        thread.verarbeiteDatenEinheit(erzeugePaket(IpPaket.TCP, new TcpSegment()));
+
+        assertThat(statistik.holeWert(Zaehler.TCP_KEIN_EMPFAENGER), is(1L));
+        assertThat(statistik.holeWert(Zaehler.UDP_KEIN_EMPFAENGER), is(0L));
+    }
+
+    private IpPaket erzeugePaket(int protokoll, Segment segment) {
+        segment.setZielPort(4711);
+        segment.setQuellPort(1024);
+        IpPaket paket = new IpPaket(protokoll);
+        paket.setSender("10.0.0.2");
+        paket.setEmpfaenger("10.0.0.1");
+        paket.setSegment(segment);
+        return paket;
+    }
+}
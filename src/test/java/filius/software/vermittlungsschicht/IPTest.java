@@ -0,0 +1,63 @@
+package filius.software.vermittlungsschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import filius.hardware.knoten.InternetKnoten;
+import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.ProtokollStatistik;
+import filius.software.system.ProtokollStatistik.Zaehler;
+
+public class IPTest {
+
+    @Mock
+    private InternetKnotenBetriebssystem bsMock;
+    @Mock
+    private ICMP icmpMock;
+    @Mock
+    private InternetKnoten knotenMock;
+    private ProtokollStatistik statistik = new ProtokollStatistik();
+    private IP ip;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.openMocks(this);
+        when(bsMock.holeProtokollStatistik()).thenReturn(statistik);
+        when(bsMock.holeICMP()).thenReturn(icmpMock);
+        when(bsMock.getKnoten()).thenReturn(knotenMock);
+        ip = new IP(bsMock);
+    }
+
+    @Test
+    public void testWeiterleitenPaket_KeineRouteWirdGezaehlt() throws Exception {
+        when(bsMock.determineRoute(anyString())).thenThrow(new RouteNotFoundException());
+        IpPaket paket = new IpPaket(IpPaket.UDP);
+        paket.setSender("10.0.0.1");
+        paket.setEmpfaenger("192.168.0.1");
+        paket.setTtl(64);
+
+        ip.weiterleitenPaket(paket);
+
+        assertThat(statistik.holeWert(Zaehler.IP_KEINE_ROUTE), is(1L));
+        assertThat(statistik.holeWert(Zaehler.IP_WEITERGELEITET), is(0L));
+    }
+
+    @Test
+    public void testWeiterleitenPaket_AbgelaufeneTtlWirdGezaehlt() throws Exception {
+        IpPaket paket = new IpPaket(IpPaket.UDP);
+        paket.setSender("10.0.0.1");
+        paket.setEmpfaenger("192.168.0.1");
+        paket.setTtl(0);
+
+        ip.weiterleitenPaket(paket);
+
+        assertThat(statistik.holeWert(Zaehler.IP_TTL_ABGELAUFEN), is(1L));
+    }
+}
@@ -43,4 +43,94 @@ public class HTTPNachrichtTest {
         assertThat(result, is("späßchen"));
     }
 
+    @Test
+    public void testIfNoneMatch_RequestRoundTrip() throws Exception {
+        HTTPNachricht request = new HTTPNachricht(HTTPNachricht.CLIENT);
+        request.setMethod(HTTPNachricht.GET);
+        request.setPfad("/index.html");
+        request.setHost("www.filius.de");
+        request.setIfNoneMatch("\"abc-12\"");
+
+        HTTPNachricht result = new HTTPNachricht(request.toString());
+
+        assertThat(result.getHost(), is("www.filius.de"));
+        assertThat(result.getIfNoneMatch(), is("\"abc-12\""));
+    }
+
+    @Test
+    public void testETag_ResponseRoundTrip() throws Exception {
+        HTTPNachricht response = new HTTPNachricht(HTTPNachricht.SERVER);
+        response.setStatusCode(200);
+        response.setContentType(HTTPNachricht.TEXT_HTML);
+        response.setETag("\"abc-12\"");
+        response.setDaten("<html></html>");
+
+        HTTPNachricht result = new HTTPNachricht(response.toString());
+
+        assertThat(result.getStatusCode(), is(200));
+        assertThat(result.getETag(), is("\"abc-12\""));
+        assertThat(result.getDaten(), is("<html></html>"));
+    }
+
+    @Test
+    public void testIsKeepAlive_Http11Default() throws Exception {
+        HTTPNachricht request = new HTTPNachricht("GET /index.html HTTP/1.1\nHost: www.filius.de\n");
+
+        assertThat(request.isKeepAlive(), is(true));
+    }
+
+    @Test
+    public void testIsKeepAlive_ConnectionClose() throws Exception {
+        HTTPNachricht request = new HTTPNachricht("GET /index.html HTTP/1.1\nHost: www.filius.de\nConnection: close\n");
+
+        assertThat(request.getConnection(), is(HTTPNachricht.CONNECTION_CLOSE));
+        assertThat(request.isKeepAlive(), is(false));
+    }
+
+    @Test
+    public void testIsKeepAlive_Http10WithKeepAlive() throws Exception {
+        HTTPNachricht request = new HTTPNachricht(
+                "GET /index.html HTTP/1.0\nHost: www.filius.de\nConnection: keep-alive\n");
+
+        assertThat(request.isKeepAlive(), is(true));
+    }
+
+    @Test
+    public void testRange_RequestRoundTrip() throws Exception {
+        HTTPNachricht request = new HTTPNachricht(HTTPNachricht.CLIENT);
+        request.setMethod(HTTPNachricht.GET);
+        request.setPfad("/film.txt");
+        request.setRange("bytes=100-199");
+
+        HTTPNachricht result = new HTTPNachricht(request.toString());
+
+        assertThat(result.getRange(), is("bytes=100-199"));
+    }
+
+    @Test
+    public void testContentRange_ResponseRoundTrip() throws Exception {
+        HTTPNachricht response = new HTTPNachricht(HTTPNachricht.SERVER);
+        response.setStatusCode(206);
+        response.setContentRange("bytes 100-199/1000");
+        response.setContentMD5("rL0Y20zC+Fzt72VPzMSk2A==");
+        response.setDaten("teil");
+
+        HTTPNachricht result = new HTTPNachricht(response.toString());
+
+        assertThat(result.getStatusCode(), is(206));
+        assertThat(result.getContentRange(), is("bytes 100-199/1000"));
+        assertThat(result.getContentMD5(), is("rL0Y20zC+Fzt72VPzMSk2A=="));
+        assertThat(result.getDaten(), is("teil"));
+    }
+
+    @Test
+    public void testDaten_TrailingLineBreaksPreserved() throws Exception {
+        HTTPNachricht response = new HTTPNachricht(HTTPNachricht.SERVER);
+        response.setStatusCode(200);
+        response.setDaten("\nzeile\n\n");
+
+        HTTPNachricht result = new HTTPNachricht(response.toString());
+
+        assertThat(result.getDaten(), is("\nzeile\n\n"));
+    }
 }
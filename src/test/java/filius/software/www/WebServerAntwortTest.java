@@ -0,0 +1,55 @@
+package filius.software.www;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import filius.software.system.Datei;
+
+public class WebServerAntwortTest {
+
+    @Test
+    public void testHoleAntwort_OhneIfNoneMatch() throws Exception {
+        Datei datei = new Datei("index.html", "text", "<html></html>");
+        WebServerAntwort antwort = new WebServerAntwort(datei);
+
+        HTTPNachricht result = new HTTPNachricht(antwort.holeAntwort(null));
+
+        assertThat(result.getStatusCode(), is(200));
+        assertThat(result.getContentType(), is(HTTPNachricht.TEXT_HTML));
+        assertThat(result.getDaten(), is("<html></html>"));
+    }
+
+    @Test
+    public void testHoleAntwort_PassendesIfNoneMatch() throws Exception {
+        Datei datei = new Datei("bild.png", "png", "aGFsbG8=");
+        WebServerAntwort antwort = new WebServerAntwort(datei);
+        String eTag = new HTTPNachricht(antwort.holeAntwort(null)).getETag();
+
+        HTTPNachricht result = new HTTPNachricht(antwort.holeAntwort(eTag));
+
+        assertThat(result.getStatusCode(), is(304));
+        assertThat(result.getETag(), is(eTag));
+        assertThat(result.getDaten() == null, is(true));
+    }
+
+    @Test
+    public void testIstGueltig_DateiGeaendert() throws Exception {
+        Datei datei = new Datei("index.html", "text", "<html></html>");
+        WebServerAntwort antwort = new WebServerAntwort(datei);
+
+        assertThat(antwort.istGueltig(datei), is(true));
+        datei.setDateiInhalt("<html><body></body></html>");
+
+        assertThat(antwort.istGueltig(datei), is(false));
+    }
+
+    @Test
+    public void testIstGueltig_AndereDatei() throws Exception {
+        Datei datei = new Datei("index.html", "text", "<html></html>");
+        WebServerAntwort antwort = new WebServerAntwort(datei);
+
+        assertThat(antwort.istGueltig(new Datei("index.html", "text", "<html></html>")), is(false));
+    }
+}